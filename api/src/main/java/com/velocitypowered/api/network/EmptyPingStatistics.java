@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * The Velocity API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the api top-level directory.
+ */
+
+package com.velocitypowered.api.network;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * The {@link PingStatistics} returned when nothing has been measured.
+ */
+final class EmptyPingStatistics implements PingStatistics {
+
+  static final EmptyPingStatistics INSTANCE = new EmptyPingStatistics();
+
+  private EmptyPingStatistics() {
+  }
+
+  @Override
+  public long getSampleCount() {
+    return 0;
+  }
+
+  @Override
+  public double getLastMillis() {
+    return -1;
+  }
+
+  @Override
+  public double getMinMillis() {
+    return -1;
+  }
+
+  @Override
+  public double getMaxMillis() {
+    return -1;
+  }
+
+  @Override
+  public double getAverageMillis() {
+    return -1;
+  }
+
+  @Override
+  public double getPercentileMillis(double percentile) {
+    Preconditions.checkArgument(percentile >= 0 && percentile <= 100,
+        "percentile must be between 0 and 100");
+    return -1;
+  }
+
+  @Override
+  public String toString() {
+    return "EmptyPingStatistics";
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * The Velocity API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the api top-level directory.
+ */
+
+package com.velocitypowered.api.network;
+
+/**
+ * The distribution of round trip times measured on one or more connections. Percentiles are
+ * estimated from a compact histogram and are accurate to within roughly 20%.
+ *
+ * @since 3.2.0
+ */
+public interface PingStatistics {
+
+  /**
+   * Returns statistics with no samples, for connections where round trip times are not measured.
+   *
+   * @return empty ping statistics
+   */
+  static PingStatistics empty() {
+    return EmptyPingStatistics.INSTANCE;
+  }
+
+  /**
+   * Returns the number of round trip times measured.
+   *
+   * @return the number of samples
+   */
+  long getSampleCount();
+
+  /**
+   * Returns the most recently measured round trip time.
+   *
+   * @return the last round trip time in milliseconds, or -1 if nothing has been measured
+   */
+  double getLastMillis();
+
+  /**
+   * Returns the shortest round trip time measured.
+   *
+   * @return the minimum round trip time in milliseconds, or -1 if nothing has been measured
+   */
+  double getMinMillis();
+
+  /**
+   * Returns the longest round trip time measured.
+   *
+   * @return the maximum round trip time in milliseconds, or -1 if nothing has been measured
+   */
+  double getMaxMillis();
+
+  /**
+   * Returns the mean of all round trip times measured.
+   *
+   * @return the mean round trip time in milliseconds, or -1 if nothing has been measured
+   */
+  double getAverageMillis();
+
+  /**
+   * Returns an estimate of the round trip time at the given percentile.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the round trip time in milliseconds, or -1 if nothing has been measured
+   * @throws IllegalArgumentException if the percentile is out of range
+   */
+  double getPercentileMillis(double percentile);
+}
@@ -9,6 +9,7 @@ package com.velocitypowered.api.proxy;
 
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.event.player.PlayerResourcePackStatusEvent;
+import com.velocitypowered.api.network.PingStatistics;
 import com.velocitypowered.api.proxy.crypto.KeyIdentifiable;
 import com.velocitypowered.api.proxy.messages.ChannelIdentifier;
 import com.velocitypowered.api.proxy.messages.ChannelMessageSink;
@@ -109,6 +110,17 @@ public interface Player extends
    */
   long getPing();
 
+  /**
+   * Returns the distribution of round trip times between the proxy and the player's client,
+   * measured from keep-alives over the lifetime of the connection.
+   *
+   * @return the player's ping statistics
+   * @since 3.2.0
+   */
+  default PingStatistics getPingStatistics() {
+    return PingStatistics.empty();
+  }
+
   /**
    * Returns the player's connection status.
    *
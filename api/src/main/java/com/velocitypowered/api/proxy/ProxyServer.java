@@ -14,6 +14,8 @@ import com.velocitypowered.api.plugin.PluginManager;
 import com.velocitypowered.api.proxy.config.ProxyConfig;
 import com.velocitypowered.api.proxy.messages.ChannelRegistrar;
 import com.velocitypowered.api.proxy.player.ResourcePackInfo;
+import com.velocitypowered.api.proxy.player.SharedTabList;
+import com.velocitypowered.api.proxy.server.LoadBalancingStrategy;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.proxy.server.ServerInfo;
 import com.velocitypowered.api.scheduler.Scheduler;
@@ -22,7 +24,9 @@ import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import net.kyori.adventure.audience.Audience;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Provides an interface to a Minecraft server proxy.
@@ -73,6 +77,31 @@ public interface ProxyServer extends Audience {
    */
   int getPlayerCount();
 
+  /**
+   * Performs the given {@code action} for every player currently connected to this proxy. Unlike
+   * {@link #getAllPlayers()}, this does not create a snapshot of the players online, and is
+   * weakly consistent: players that join or leave during the iteration may or may not be seen.
+   *
+   * @param action the action to perform for each player
+   * @since 3.2.0
+   */
+  default void forEachPlayer(Consumer<? super Player> action) {
+    getAllPlayers().forEach(action);
+  }
+
+  /**
+   * Performs the given {@code action} for every player currently connected to the given
+   * {@code server} through this proxy. This is weakly consistent, in the same manner as
+   * {@link #forEachPlayer(Consumer)}.
+   *
+   * @param server the server to iterate the players of
+   * @param action the action to perform for each player
+   * @since 3.2.0
+   */
+  default void forEachPlayerOn(RegisteredServer server, Consumer<? super Player> action) {
+    server.forEachPlayer(action);
+  }
+
   /**
    * Retrieves a registered {@link RegisteredServer} instance by its name. The search is
    * case-insensitive.
@@ -166,6 +195,56 @@ public interface ProxyServer extends Audience {
    */
   Scheduler getScheduler();
 
+  /**
+   * Gets the proxy-wide {@link SharedTabList}, which can be used to show the same set of tab list
+   * entries to many players at once.
+   *
+   * @return the shared tab list
+   * @since 3.2.0
+   */
+  SharedTabList getSharedTabList();
+
+  /**
+   * Gets the strategy used to choose the server a player is sent to on login or when they need to
+   * fall back to another server. Unless a plugin has {@link #setLoadBalancingStrategy set} one,
+   * this is the strategy configured in the proxy configuration.
+   *
+   * @return the load balancing strategy
+   * @since 3.2.0
+   */
+  LoadBalancingStrategy getLoadBalancingStrategy();
+
+  /**
+   * Replaces the strategy used to choose the server a player is sent to on login or when they
+   * need to fall back to another server.
+   *
+   * @param strategy the strategy to use, or {@code null} to use the configured strategy again
+   * @since 3.2.0
+   */
+  void setLoadBalancingStrategy(@Nullable LoadBalancingStrategy strategy);
+
+  /**
+   * Gets the resource pack sent to every player when they first join a server through this
+   * proxy, if one has been {@link #setNetworkResourcePack set}.
+   *
+   * @return the network-wide resource pack
+   * @since 3.2.0
+   */
+  Optional<ResourcePackInfo> getNetworkResourcePack();
+
+  /**
+   * Sets a resource pack to send to every player once, when they first join a server through this
+   * proxy. Players who have applied a pack are not prompted again when a server later sends them
+   * the same pack (with the same URL and hash); the proxy acknowledges the pack to the server on
+   * their behalf instead. Using the same pack on every server therefore only downloads it once.
+   *
+   * <p>Players already connected to the proxy are not sent the new pack.</p>
+   *
+   * @param pack the pack to send, or {@code null} to not send a pack at join
+   * @since 3.2.0
+   */
+  void setNetworkResourcePack(@Nullable ResourcePackInfo pack);
+
   /**
    * Gets the {@link ChannelRegistrar} instance.
    *
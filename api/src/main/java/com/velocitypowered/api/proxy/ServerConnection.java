@@ -7,6 +7,7 @@
 
 package com.velocitypowered.api.proxy;
 
+import com.velocitypowered.api.network.PingStatistics;
 import com.velocitypowered.api.proxy.messages.ChannelMessageSink;
 import com.velocitypowered.api.proxy.messages.ChannelMessageSource;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
@@ -46,4 +47,17 @@ public interface ServerConnection extends ChannelMessageSource, ChannelMessageSi
    * @return the player for this connection
    */
   Player getPlayer();
+
+  /**
+   * Returns the distribution of round trip times between the proxy and the backend server on this
+   * connection. The round trip time is sampled from the operating system's TCP statistics
+   * whenever the server sends a keep-alive, so it is only available on transports that expose
+   * them (currently epoll).
+   *
+   * @return the ping statistics for this connection
+   * @since 3.2.0
+   */
+  default PingStatistics getPingStatistics() {
+    return PingStatistics.empty();
+  }
 }
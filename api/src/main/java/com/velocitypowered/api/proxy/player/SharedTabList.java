@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * The Velocity API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the api top-level directory.
+ */
+
+package com.velocitypowered.api.proxy.player;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.util.GameProfile;
+import java.util.UUID;
+import net.kyori.adventure.text.Component;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A tab list shared by many viewers, such as a network-wide list of all online players. Entries
+ * are stored once for the whole proxy and every change is sent to all viewers, rather than each
+ * viewer keeping a copy of every entry in its own {@link TabList}.
+ *
+ * <p>Changes are coalesced and sent to viewers periodically, so they may not be visible to viewers
+ * immediately. Shared tab lists are only supported for viewers on Minecraft 1.19.3 and above.</p>
+ *
+ * @since 3.2.0
+ */
+public interface SharedTabList {
+
+  /**
+   * Adds the given player as a viewer of this tab list. The player will be sent all entries
+   * currently in the tab list.
+   *
+   * @param viewer the player to add
+   * @throws IllegalArgumentException if the player's client does not support shared tab lists
+   */
+  void addViewer(Player viewer);
+
+  /**
+   * Removes the given player as a viewer of this tab list. The player will be sent a removal for
+   * every entry currently in the tab list.
+   *
+   * @param viewer the player to remove
+   */
+  void removeViewer(Player viewer);
+
+  /**
+   * Determines if the given player is a viewer of this tab list.
+   *
+   * @param viewer the player to check
+   * @return {@code true} if the player is a viewer
+   */
+  boolean isViewer(Player viewer);
+
+  /**
+   * Adds an entry to the tab list, or replaces the entry with the same profile ID.
+   *
+   * @param profile the profile of the entry
+   * @param displayName the display name of the entry, or {@code null} to show the profile name
+   * @param latency the latency of the entry, in milliseconds
+   * @param gameMode the game mode of the entry
+   * @param listed whether the entry is shown in the tab list
+   */
+  void putEntry(GameProfile profile, @Nullable Component displayName, int latency, int gameMode,
+      boolean listed);
+
+  /**
+   * Removes the entry with the given profile ID from the tab list.
+   *
+   * @param id the profile ID of the entry
+   * @return {@code true} if the entry was removed
+   */
+  boolean removeEntry(UUID id);
+
+  /**
+   * Determines if the tab list has an entry with the given profile ID.
+   *
+   * @param id the profile ID of the entry
+   * @return {@code true} if the entry exists
+   */
+  boolean containsEntry(UUID id);
+
+  /**
+   * Returns the number of entries in the tab list.
+   *
+   * @return the number of entries
+   */
+  int getEntryCount();
+
+  /**
+   * Sets the display name of the entry with the given profile ID. This does nothing if there is
+   * no such entry.
+   *
+   * @param id the profile ID of the entry
+   * @param displayName the new display name, or {@code null} to show the profile name
+   */
+  void setDisplayName(UUID id, @Nullable Component displayName);
+
+  /**
+   * Sets the latency of the entry with the given profile ID. This does nothing if there is no
+   * such entry.
+   *
+   * @param id the profile ID of the entry
+   * @param latency the new latency, in milliseconds
+   */
+  void setLatency(UUID id, int latency);
+
+  /**
+   * Sets the game mode of the entry with the given profile ID. This does nothing if there is no
+   * such entry.
+   *
+   * @param id the profile ID of the entry
+   * @param gameMode the new game mode
+   */
+  void setGameMode(UUID id, int gameMode);
+
+  /**
+   * Sets whether the entry with the given profile ID is shown in the tab list. This does nothing
+   * if there is no such entry.
+   *
+   * @param id the profile ID of the entry
+   * @param listed whether the entry is shown
+   */
+  void setListed(UUID id, boolean listed);
+
+  /**
+   * Overrides the display name of an entry for a single viewer only.
+   *
+   * @param viewer the viewer to override the display name for
+   * @param id the profile ID of the entry
+   * @param displayName the display name to show to this viewer, or {@code null} to show the
+   *     shared display name again
+   */
+  void setDisplayNameOverride(Player viewer, UUID id, @Nullable Component displayName);
+}
@@ -13,6 +13,7 @@ import com.velocitypowered.api.util.GameProfile;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import net.kyori.adventure.text.Component;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -82,6 +83,18 @@ public interface TabList {
    */
   void clearAll();
 
+  /**
+   * Applies all changes made to this tab list by {@code updates} as a single batch. Changes to
+   * the same entry are merged, and the resulting changes are sent to the player in as few packets
+   * as the client version allows once {@code updates} returns.
+   *
+   * @param updates the changes to apply to this tab list
+   * @since 3.2.0
+   */
+  default void batch(Consumer<? super TabList> updates) {
+    updates.accept(this);
+  }
+
   /**
    * Builds a tab list entry.
    *
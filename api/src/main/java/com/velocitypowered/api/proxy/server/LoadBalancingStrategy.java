@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * The Velocity API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the api top-level directory.
+ */
+
+package com.velocitypowered.api.proxy.server;
+
+import com.velocitypowered.api.proxy.Player;
+import java.util.List;
+
+/**
+ * Chooses which server a player is sent to when they join the proxy or need to fall back to
+ * another server. The candidates are taken from the forced host or {@code try} list that applies
+ * to the player, with servers the player is already on, connecting to, or has just failed to
+ * connect to removed.
+ *
+ * @since 3.2.0
+ */
+@FunctionalInterface
+public interface LoadBalancingStrategy {
+
+  /**
+   * Chooses a server for the player to connect to.
+   *
+   * @param player the player to choose a server for
+   * @param candidates the servers the player may be sent to, in configured order; never empty
+   * @return the chosen server, which must be one of the {@code candidates}
+   */
+  RegisteredServer select(Player player, List<RegisteredServer> candidates);
+}
@@ -7,10 +7,12 @@
 
 package com.velocitypowered.api.proxy.server;
 
+import com.velocitypowered.api.network.PingStatistics;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.messages.ChannelMessageSink;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import net.kyori.adventure.audience.Audience;
 
 /**
@@ -34,6 +36,63 @@ public interface RegisteredServer extends ChannelMessageSink, Audience {
    */
   Collection<Player> getPlayersConnected();
 
+  /**
+   * Returns the number of players currently connected to this server on this proxy.
+   *
+   * @return the number of players on this server
+   * @since 3.2.0
+   */
+  default int getPlayerCount() {
+    return getPlayersConnected().size();
+  }
+
+  /**
+   * Performs the given {@code action} for every player currently connected to this server on
+   * this proxy. Unlike {@link #getPlayersConnected()}, this does not create a snapshot of the
+   * players on the server, and is weakly consistent: players that join or leave during the
+   * iteration may or may not be seen.
+   *
+   * @param action the action to perform for each player
+   * @since 3.2.0
+   */
+  default void forEachPlayer(Consumer<? super Player> action) {
+    getPlayersConnected().forEach(action);
+  }
+
+  /**
+   * Returns the combined distribution of round trip times between the proxy and this server,
+   * across the connections of all players currently connected to this server on this proxy.
+   *
+   * @return the ping statistics for this server
+   * @see ServerConnection#getPingStatistics()
+   * @since 3.2.0
+   */
+  default PingStatistics getPingStatistics() {
+    return PingStatistics.empty();
+  }
+
+  /**
+   * Returns the combined distribution of round trip times between the proxy and the clients of
+   * all players currently connected to this server on this proxy.
+   *
+   * @return the ping statistics for the players on this server
+   * @see Player#getPingStatistics()
+   * @since 3.2.0
+   */
+  default PingStatistics getPlayerPingStatistics() {
+    return PingStatistics.empty();
+  }
+
+  /**
+   * Returns the health of this server, as determined by the proxy's background health checks.
+   *
+   * @return the health of this server
+   * @since 3.2.0
+   */
+  default ServerHealth getHealth() {
+    return ServerHealth.unknown();
+  }
+
   /**
    * Attempts to ping the remote server and return the server list ping result.
    *
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * The Velocity API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the api top-level directory.
+ */
+
+package com.velocitypowered.api.proxy.server;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The health of a {@link RegisteredServer}, as last seen by the proxy's background health checks.
+ * Health checks are disabled by default, in which case every server stays in the
+ * {@link Status#UNKNOWN} state.
+ *
+ * @since 3.2.0
+ */
+public interface ServerHealth {
+
+  /**
+   * Returns the health of a server that has not been probed. Its status is
+   * {@link Status#UNKNOWN}, so the server is still considered available.
+   *
+   * @return the health of an unprobed server
+   */
+  static ServerHealth unknown() {
+    return UnknownServerHealth.INSTANCE;
+  }
+
+  /**
+   * Returns the current status of the server.
+   *
+   * @return the status of the server
+   */
+  Status getStatus();
+
+  /**
+   * Determines if players may be sent to the server. The proxy will not attempt to connect
+   * players to a server that has been marked {@link Status#DOWN down}.
+   *
+   * @return {@code true} unless the server is down
+   */
+  default boolean isAvailable() {
+    return getStatus() != Status.DOWN;
+  }
+
+  /**
+   * Returns the smoothed latency of the server's health check probes, in milliseconds, or
+   * {@code -1} if no probe has succeeded yet.
+   *
+   * @return the probe latency, in milliseconds
+   */
+  long getLatencyMillis();
+
+  /**
+   * Returns the time the server was last probed, if it has been probed at all.
+   *
+   * @return the time of the last probe
+   */
+  Optional<Instant> getLastChecked();
+
+  /**
+   * Returns the number of probes in a row that have failed. This is reset to zero by a
+   * successful probe.
+   *
+   * @return the number of consecutive failed probes
+   */
+  int getConsecutiveFailures();
+
+  /**
+   * The status of a server.
+   */
+  enum Status {
+    /**
+     * The server has not been probed enough times to determine its status, or health checks
+     * are disabled.
+     */
+    UNKNOWN,
+    /**
+     * The server is responding to probes.
+     */
+    UP,
+    /**
+     * The server has failed enough probes in a row to be considered unreachable.
+     */
+    DOWN
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * The Velocity API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the api top-level directory.
+ */
+
+package com.velocitypowered.api.proxy.server;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The {@link ServerHealth} of a server that has never been probed.
+ */
+final class UnknownServerHealth implements ServerHealth {
+
+  static final UnknownServerHealth INSTANCE = new UnknownServerHealth();
+
+  private UnknownServerHealth() {
+  }
+
+  @Override
+  public Status getStatus() {
+    return Status.UNKNOWN;
+  }
+
+  @Override
+  public long getLatencyMillis() {
+    return -1;
+  }
+
+  @Override
+  public Optional<Instant> getLastChecked() {
+    return Optional.empty();
+  }
+
+  @Override
+  public int getConsecutiveFailures() {
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return "UnknownServerHealth";
+  }
+}
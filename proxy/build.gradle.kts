@@ -4,6 +4,7 @@ plugins {
     application
     `set-manifest-impl-version`
     alias(libs.plugins.shadow)
+    alias(libs.plugins.jmh)
 }
 
 application {
@@ -86,6 +87,15 @@ tasks {
 
         relocate("org.bstats", "com.velocitypowered.proxy.bstats")
     }
+
+    register<JavaExec>("loadTest") {
+        group = "verification"
+        description = "Runs the synthetic client load generator against a running proxy."
+        classpath = sourceSets["test"].runtimeClasspath
+        mainClass.set("com.velocitypowered.proxy.loadtest.LoadTest")
+        args = (findProperty("loadTestArgs") as String?)?.split(" ")?.filter { it.isNotBlank() }
+            ?: emptyList()
+    }
 }
 
 dependencies {
@@ -118,4 +128,5 @@ dependencies {
     implementation(libs.bundles.flare)
     compileOnly(libs.spotbugs.annotations)
     testImplementation(libs.mockito)
+    testImplementation(libs.jol)
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network.netty;
+
+import io.netty.channel.DefaultEventLoop;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the cost of keeping read timeouts up to date for many connections on one event loop,
+ * either with a scheduled task per connection that is cancelled and rescheduled on every read (as
+ * Netty's read timeout handler does once its timer fires) or with a {@link ReadTimeoutWheel}.
+ */
+@State(Scope.Benchmark)
+public class ReadTimeoutBenchmark {
+
+  private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  @Param({"1000", "40000"})
+  private int connections;
+
+  private DefaultEventLoop loop;
+  private ReadTimeoutWheel wheel;
+  private ScheduledFuture<?>[] tasks;
+  private WheelTimeout[] timeouts;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    loop = new DefaultEventLoop();
+    wheel = new ReadTimeoutWheel(loop, TimeUnit.MILLISECONDS.toNanos(250), 256);
+    tasks = new ScheduledFuture<?>[connections];
+    timeouts = new WheelTimeout[connections];
+    loop.submit(() -> {
+      for (int i = 0; i < connections; i++) {
+        tasks[i] = loop.schedule(ReadTimeoutBenchmark::expired, TIMEOUT_NANOS,
+            TimeUnit.NANOSECONDS);
+        timeouts[i] = new WheelTimeout();
+        wheel.add(timeouts[i]);
+      }
+    }).sync();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    loop.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+  }
+
+  /**
+   * A read on one connection, with one scheduled task per connection.
+   */
+  @Benchmark
+  public Object scheduledTaskPerConnection() throws Exception {
+    return loop.submit(() -> {
+      int i = ThreadLocalRandom.current().nextInt(connections);
+      tasks[i].cancel(false);
+      tasks[i] = loop.schedule(ReadTimeoutBenchmark::expired, TIMEOUT_NANOS,
+          TimeUnit.NANOSECONDS);
+    }).sync();
+  }
+
+  /**
+   * A read on one connection, with the timeouts of all connections in a wheel.
+   */
+  @Benchmark
+  public Object timingWheel() throws Exception {
+    return loop.submit(() -> {
+      int i = ThreadLocalRandom.current().nextInt(connections);
+      timeouts[i].lastReadTime = System.nanoTime();
+    }).sync();
+  }
+
+  /**
+   * One sweep of the wheel, which runs once per tick on each event loop whatever the number of
+   * connections.
+   */
+  @Benchmark
+  public Object timingWheelSweep() throws Exception {
+    return loop.submit(() -> wheel.sweep(System.nanoTime())).sync();
+  }
+
+  private static void expired() {
+    throw new AssertionError("timeout should not expire during the benchmark");
+  }
+
+  private static final class WheelTimeout extends ReadTimeoutWheel.Timeout {
+
+    private long lastReadTime = System.nanoTime();
+
+    @Override
+    protected long deadline(long now) {
+      return lastReadTime + TIMEOUT_NANOS;
+    }
+
+    @Override
+    protected void expired() {
+      ReadTimeoutBenchmark.expired();
+    }
+  }
+}
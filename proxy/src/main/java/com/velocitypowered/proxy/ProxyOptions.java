@@ -18,6 +18,7 @@
 package com.velocitypowered.proxy;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -34,6 +35,7 @@ public final class ProxyOptions {
   private static final Logger logger = LogManager.getLogger(ProxyOptions.class);
   private final boolean help;
   private final @Nullable Integer port;
+  private final @Nullable Path cdsArchive;
 
   ProxyOptions(final String[] args) {
     final OptionParser parser = new OptionParser();
@@ -43,10 +45,14 @@ public final class ProxyOptions {
     final OptionSpec<Integer> port = parser.acceptsAll(Arrays.asList("p", "port"),
             "Specify the bind port to be used. The configuration bind port will be ignored.")
         .withRequiredArg().ofType(Integer.class);
+    final OptionSpec<String> cdsArchive = parser.accepts("cds-archive",
+            "Specify a class data sharing archive to keep up to date, for faster startup.")
+        .withRequiredArg();
     final OptionSet set = parser.parse(args);
 
     this.help = set.has(help);
     this.port = port.value(set);
+    this.cdsArchive = set.has(cdsArchive) ? Path.of(cdsArchive.value(set)) : null;
 
     if (this.help) {
       try {
@@ -64,4 +70,8 @@ public final class ProxyOptions {
   public @Nullable Integer getPort() {
     return this.port;
   }
+
+  public @Nullable Path getCdsArchive() {
+    return this.cdsArchive;
+  }
 }
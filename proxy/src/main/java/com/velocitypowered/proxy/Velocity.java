@@ -17,6 +17,7 @@
 
 package com.velocitypowered.proxy;
 
+import com.velocitypowered.proxy.util.ClassDataSharing;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakDetector.Level;
 import java.text.DecimalFormat;
@@ -72,6 +73,10 @@ public class Velocity {
 
     double bootTime = (System.currentTimeMillis() - startTime) / 1000d;
     logger.info("Done ({}s)!", new DecimalFormat("#.##").format(bootTime));
+    logger.info("Startup time: {}", server.getStartupTimer());
+    if (options.getCdsArchive() != null) {
+      ClassDataSharing.updateArchive(options.getCdsArchive());
+    }
     server.getConsoleCommandSource().start();
 
     // If we don't have a console available (because SimpleTerminalConsole returned), then we still
@@ -31,11 +31,13 @@ import com.velocitypowered.api.plugin.PluginManager;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.player.ResourcePackInfo;
+import com.velocitypowered.api.proxy.server.LoadBalancingStrategy;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.proxy.server.ServerInfo;
 import com.velocitypowered.api.util.Favicon;
 import com.velocitypowered.api.util.GameProfile;
 import com.velocitypowered.api.util.ProxyVersion;
+import com.velocitypowered.natives.util.Natives;
 import com.velocitypowered.proxy.command.VelocityCommandManager;
 import com.velocitypowered.proxy.command.builtin.GlistCommand;
 import com.velocitypowered.proxy.command.builtin.ServerCommand;
@@ -48,18 +50,28 @@ import com.velocitypowered.proxy.connection.util.ServerListPingHandler;
 import com.velocitypowered.proxy.console.VelocityConsole;
 import com.velocitypowered.proxy.crypto.EncryptionUtils;
 import com.velocitypowered.proxy.event.VelocityEventManager;
+import com.velocitypowered.proxy.network.ConnectionGate;
 import com.velocitypowered.proxy.network.ConnectionManager;
+import com.velocitypowered.proxy.network.EventLoopWatchdog;
+import com.velocitypowered.proxy.network.OutboundBufferBudget;
+import com.velocitypowered.proxy.network.VelocityByteBufAllocator;
 import com.velocitypowered.proxy.plugin.VelocityPluginManager;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.util.FaviconSerializer;
 import com.velocitypowered.proxy.protocol.util.GameProfileSerializer;
 import com.velocitypowered.proxy.scheduler.VelocityScheduler;
+import com.velocitypowered.proxy.server.ServerHealthChecker;
 import com.velocitypowered.proxy.server.ServerMap;
+import com.velocitypowered.proxy.tablist.VelocitySharedTabList;
 import com.velocitypowered.proxy.util.AddressUtil;
+import com.velocitypowered.proxy.util.ChannelIdTable;
 import com.velocitypowered.proxy.util.ClosestLocaleMatcher;
 import com.velocitypowered.proxy.util.ResourceUtils;
+import com.velocitypowered.proxy.util.StartupTimer;
+import com.velocitypowered.proxy.util.TranslationCache;
 import com.velocitypowered.proxy.util.VelocityChannelRegistrar;
 import com.velocitypowered.proxy.util.bossbar.AdventureBossBarManager;
+import com.velocitypowered.proxy.util.collect.PlayerListSnapshot;
 import com.velocitypowered.proxy.util.ratelimit.Ratelimiter;
 import com.velocitypowered.proxy.util.ratelimit.Ratelimiters;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -77,6 +89,7 @@ import java.security.KeyPair;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -89,6 +102,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import net.kyori.adventure.audience.Audience;
@@ -128,6 +142,7 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
       .registerTypeHierarchyAdapter(Favicon.class, FaviconSerializer.INSTANCE)
       .create();
 
+  private final StartupTimer startupTimer = new StartupTimer();
   private final ConnectionManager cm;
   private final ProxyOptions options;
   private @MonotonicNonNull VelocityConfiguration configuration;
@@ -138,27 +153,44 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
   private boolean shutdown = false;
   private final VelocityPluginManager pluginManager;
   private final AdventureBossBarManager bossBarManager;
+  private final VelocitySharedTabList sharedTabList;
+  private final ServerHealthChecker healthChecker;
+  private volatile @Nullable LoadBalancingStrategy loadBalancingStrategy;
+  private volatile @Nullable ResourcePackInfo networkResourcePack;
 
   private final Map<UUID, ConnectedPlayer> connectionsByUuid = new ConcurrentHashMap<>();
   private final Map<String, ConnectedPlayer> connectionsByName = new ConcurrentHashMap<>();
+  private final PlayerListSnapshot playerSnapshot =
+      new PlayerListSnapshot(connectionsByUuid.values());
   private final VelocityConsole console;
   private @MonotonicNonNull Ratelimiter ipAttemptLimiter;
+  private @MonotonicNonNull Ratelimiter statusLimiter;
+  private @MonotonicNonNull Ratelimiter commandLimiter;
+  private @MonotonicNonNull Ratelimiter pluginMessageLimiter;
   private final VelocityEventManager eventManager;
   private final VelocityScheduler scheduler;
-  private final VelocityChannelRegistrar channelRegistrar = new VelocityChannelRegistrar();
+  private final ChannelIdTable channelIdTable = new ChannelIdTable();
+  private final TranslationCache translationCache = new TranslationCache();
+  private final VelocityChannelRegistrar channelRegistrar =
+      new VelocityChannelRegistrar(channelIdTable);
   private ServerListPingHandler serverListPingHandler;
 
   VelocityServer(final ProxyOptions options) {
+    startupTimer.phase("setup");
     pluginManager = new VelocityPluginManager(this);
     eventManager = new VelocityEventManager(pluginManager);
     commandManager = new VelocityCommandManager(eventManager);
     scheduler = new VelocityScheduler(pluginManager);
     console = new VelocityConsole(this);
+    startupTimer.phase("event loops");
     cm = new ConnectionManager(this);
+    startupTimer.phase("setup");
     servers = new ServerMap(this);
     serverListPingHandler = new ServerListPingHandler(this);
     this.options = options;
-    this.bossBarManager = new AdventureBossBarManager();
+    this.bossBarManager = new AdventureBossBarManager(cm.getWorkerGroup());
+    this.sharedTabList = new VelocitySharedTabList(cm.getWorkerGroup());
+    this.healthChecker = new ServerHealthChecker(this, cm.getWorkerGroup());
   }
 
   public KeyPair getServerKeyPair() {
@@ -204,35 +236,54 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     logger.info("Booting up {} {}...", getVersion().getName(), getVersion().getVersion());
     console.setupStreams();
 
+    startupTimer.phase("translations");
     registerTranslations();
 
+    startupTimer.phase("key pair");
     serverKeyPair = EncryptionUtils.createRsaKeyPair(1024);
 
+    // The compression and cipher natives are loaded the first time they are used, so load them
+    // here to time them. The native transport is loaded along with the event loops.
+    startupTimer.phase("natives");
+    Natives.compress.get();
+    Natives.cipher.get();
     cm.logChannelInformation();
 
     // Initialize commands first
+    startupTimer.phase("commands");
     commandManager.register("velocity", new VelocityCommand(this));
     commandManager.register("server", new ServerCommand(this));
     commandManager.register("shutdown", ShutdownCommand.command(this),
         "end", "stop");
     new GlistCommand(this).register();
 
+    startupTimer.phase("config");
     this.doStartupConfigLoad();
+    cm.createAllocator(configuration);
 
+    startupTimer.phase("servers");
     for (Map.Entry<String, String> entry : configuration.getServers().entrySet()) {
       servers.register(new ServerInfo(entry.getKey(), AddressUtil.parseAddress(entry.getValue())));
     }
 
-    ipAttemptLimiter = Ratelimiters.createWithMilliseconds(configuration.getLoginRatelimit());
+    createRatelimiters(configuration);
+    healthChecker.start(configuration.getHealthCheck());
+    cm.getWatchdog().start();
+    cm.getOutboundBufferBudget().start();
+    startupTimer.phase("plugins");
     loadPlugins();
 
     // Go ahead and fire the proxy initialization event. We block since plugins should have a chance
     // to fully initialize before we accept any connections to the server.
+    startupTimer.phase("plugin initialization");
     eventManager.fire(new ProxyInitializeEvent()).join();
+    // plugins commonly register their translations while initializing
+    translationCache.invalidateAll();
 
     // init console permissions after plugins are loaded
     console.setupPermissions();
 
+    startupTimer.phase("bind");
     final Integer port = this.options.getPort();
     if (port != null) {
       logger.debug("Overriding bind port to {} from command line option", port);
@@ -245,7 +296,13 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
       this.cm.queryBind(configuration.getBind().getHostString(), configuration.getQueryPort());
     }
 
+    startupTimer.phase("metrics");
     Metrics.VelocityMetrics.startMetrics(this, configuration.getMetrics());
+    startupTimer.finish();
+  }
+
+  public StartupTimer getStartupTimer() {
+    return startupTimer;
   }
 
   private void registerTranslations() {
@@ -304,6 +361,7 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
       return;
     }
     GlobalTranslator.translator().addSource(translationRegistry);
+    translationCache.invalidateAll();
   }
 
   @SuppressFBWarnings("DM_EXIT")
@@ -463,9 +521,12 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     }
 
     commandManager.setAnnounceProxyCommands(newConfiguration.isAnnounceProxyCommands());
-    ipAttemptLimiter = Ratelimiters.createWithMilliseconds(newConfiguration.getLoginRatelimit());
+    createRatelimiters(newConfiguration);
     this.configuration = newConfiguration;
-    eventManager.fireAndForget(new ProxyReloadEvent());
+    healthChecker.start(newConfiguration.getHealthCheck());
+    translationCache.invalidateAll();
+    // plugins may reload their translations as well
+    eventManager.fire(new ProxyReloadEvent()).thenRun(translationCache::invalidateAll);
     return true;
   }
 
@@ -490,6 +551,7 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
       // Shutdown the connection manager, this should be
       // done first to refuse new connections
       cm.shutdown();
+      healthChecker.stop();
 
       ImmutableList<ConnectedPlayer> players = ImmutableList.copyOf(connectionsByUuid.values());
       for (ConnectedPlayer player : players) {
@@ -528,6 +590,9 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
         Thread.currentThread().interrupt();
       }
 
+      cm.getWatchdog().stop();
+      cm.getOutboundBufferBudget().stop();
+
       // Since we manually removed the shutdown hook, we need to handle the shutdown ourselves.
       LogManager.shutdown();
 
@@ -576,10 +641,50 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     return cm.getHttpClient();
   }
 
+  public ConnectionGate getConnectionGate() {
+    return cm.getConnectionGate();
+  }
+
+  public EventLoopWatchdog getEventLoopWatchdog() {
+    return cm.getWatchdog();
+  }
+
+  public VelocityByteBufAllocator getByteBufAllocator() {
+    return cm.getAllocator();
+  }
+
+  public OutboundBufferBudget getOutboundBufferBudget() {
+    return cm.getOutboundBufferBudget();
+  }
+
   public Ratelimiter getIpAttemptLimiter() {
     return ipAttemptLimiter;
   }
 
+  public Ratelimiter getStatusLimiter() {
+    return statusLimiter;
+  }
+
+  public Ratelimiter getCommandLimiter() {
+    return commandLimiter;
+  }
+
+  public Ratelimiter getPluginMessageLimiter() {
+    return pluginMessageLimiter;
+  }
+
+  private void createRatelimiters(VelocityConfiguration configuration) {
+    VelocityConfiguration.RateLimits limits = configuration.getRateLimits();
+    ipAttemptLimiter = Ratelimiters.createWithMilliseconds(configuration.getLoginRatelimit(),
+        limits.getLoginBurst(), limits.getKey());
+    statusLimiter = Ratelimiters.createPerSecond(limits.getStatusRate(), limits.getStatusBurst(),
+        limits.getKey());
+    commandLimiter = Ratelimiters.createPerSecond(limits.getCommandRate(),
+        limits.getCommandBurst(), limits.getKey());
+    pluginMessageLimiter = Ratelimiters.createPerSecond(limits.getPluginMessageRate(),
+        limits.getPluginMessageBurst(), limits.getKey());
+  }
+
   /**
    * Checks if the {@code connection} can be registered with the proxy.
    *
@@ -612,6 +717,7 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
         connectionsByName.remove(lowerName, connection);
         return false;
       }
+      playerSnapshot.invalidate();
     } else {
       ConnectedPlayer existing = connectionsByUuid.get(connection.getUniqueId());
       if (existing != null) {
@@ -621,6 +727,7 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
       // We can now replace the entries as needed.
       connectionsByName.put(lowerName, connection);
       connectionsByUuid.put(connection.getUniqueId(), connection);
+      playerSnapshot.invalidate();
     }
     return true;
   }
@@ -632,8 +739,11 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
    */
   public void unregisterConnection(ConnectedPlayer connection) {
     connectionsByName.remove(connection.getUsername().toLowerCase(Locale.US), connection);
-    connectionsByUuid.remove(connection.getUniqueId(), connection);
+    if (connectionsByUuid.remove(connection.getUniqueId(), connection)) {
+      playerSnapshot.invalidate();
+    }
     bossBarManager.onDisconnect(connection);
+    sharedTabList.onDisconnect(connection);
   }
 
   @Override
@@ -668,7 +778,27 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
 
   @Override
   public Collection<Player> getAllPlayers() {
-    return ImmutableList.copyOf(connectionsByUuid.values());
+    return playerSnapshot.players();
+  }
+
+  /**
+   * Returns a snapshot of the usernames of all players connected to this proxy. The snapshot is
+   * cached and only rebuilt when a player joins or leaves the proxy.
+   *
+   * @return the usernames of the players online
+   */
+  public List<String> getPlayerNames() {
+    return playerSnapshot.names();
+  }
+
+  @Override
+  public void forEachPlayer(Consumer<? super Player> action) {
+    connectionsByUuid.values().forEach(action);
+  }
+
+  @Override
+  public void forEachPlayerOn(RegisteredServer server, Consumer<? super Player> action) {
+    server.forEachPlayer(action);
   }
 
   @Override
@@ -726,6 +856,14 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     return channelRegistrar;
   }
 
+  public ChannelIdTable getChannelIdTable() {
+    return channelIdTable;
+  }
+
+  public TranslationCache getTranslationCache() {
+    return translationCache;
+  }
+
   @Override
   public InetSocketAddress getBoundAddress() {
     if (configuration == null) {
@@ -737,9 +875,10 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
 
   @Override
   public @NonNull Iterable<? extends Audience> audiences() {
-    Collection<Audience> audiences = new ArrayList<>(this.getPlayerCount() + 1);
+    Collection<Player> players = this.getAllPlayers();
+    Collection<Audience> audiences = new ArrayList<>(players.size() + 1);
     audiences.add(this.console);
-    audiences.addAll(this.getAllPlayers());
+    audiences.addAll(players);
     return audiences;
   }
 
@@ -747,6 +886,32 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     return bossBarManager;
   }
 
+  @Override
+  public VelocitySharedTabList getSharedTabList() {
+    return sharedTabList;
+  }
+
+  @Override
+  public LoadBalancingStrategy getLoadBalancingStrategy() {
+    LoadBalancingStrategy strategy = this.loadBalancingStrategy;
+    return strategy != null ? strategy : configuration.getLoadBalancingStrategy();
+  }
+
+  @Override
+  public void setLoadBalancingStrategy(@Nullable LoadBalancingStrategy strategy) {
+    this.loadBalancingStrategy = strategy;
+  }
+
+  @Override
+  public Optional<ResourcePackInfo> getNetworkResourcePack() {
+    return Optional.ofNullable(networkResourcePack);
+  }
+
+  @Override
+  public void setNetworkResourcePack(@Nullable ResourcePackInfo pack) {
+    this.networkResourcePack = pack;
+  }
+
   /**
    * Returns a Gson instance for use in serializing server ping instances.
    *
@@ -111,7 +111,7 @@ public class ServerCommand implements SimpleCommand {
     ServerInfo serverInfo = server.getServerInfo();
     TextComponent serverTextComponent = Component.text(serverInfo.getName());
 
-    int connectedPlayers = server.getPlayersConnected().size();
+    int connectedPlayers = server.getPlayerCount();
     TranslatableComponent playersTextComponent;
     if (connectedPlayers == 1) {
       playersTextComponent = Component.translatable(
@@ -31,6 +31,7 @@ import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.util.ProxyVersion;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.util.InformationUtils;
 import java.io.BufferedWriter;
 import java.io.IOException;
@@ -343,9 +344,9 @@ public class VelocityCommand implements SimpleCommand {
   private static class Dump implements SubCommand {
 
     private static final Logger logger = LogManager.getLogger(Dump.class);
-    private final ProxyServer server;
+    private final VelocityServer server;
 
-    private Dump(ProxyServer server) {
+    private Dump(VelocityServer server) {
       this.server = server;
     }
 
@@ -380,6 +381,19 @@ public class VelocityCommand implements SimpleCommand {
       dump.add("platform", InformationUtils.collectEnvironmentInfo());
       dump.add("config", proxyConfig);
       dump.add("plugins", InformationUtils.collectPluginInfo(server));
+      dump.add("connectionGate",
+          InformationUtils.collectConnectionGateInfo(server.getConnectionGate()));
+      dump.add("playerMemory", InformationUtils.collectPlayerMemoryInfo(server));
+      dump.add("startup", InformationUtils.collectStartupInfo(server.getStartupTimer()));
+      dump.add("outboundBuffers",
+          InformationUtils.collectOutboundBufferInfo(server.getOutboundBufferBudget()));
+      dump.add("allocator", InformationUtils.collectAllocatorInfo(server.getByteBufAllocator()));
+      dump.add("eventLoops",
+          InformationUtils.collectEventLoopInfo(server.getEventLoopWatchdog()));
+      dump.add("componentCache",
+          InformationUtils.collectCacheStats(ProtocolUtils.getComponentCacheStats()));
+      dump.add("translationCache",
+          InformationUtils.collectCacheStats(server.getTranslationCache().stats()));
 
       Path dumpPath = Path.of("velocity-dump-"
           + new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss").format(new Date())
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.config;
+
+import java.util.Locale;
+
+/**
+ * What to do when a player sends chat messages and commands faster than they can be processed.
+ */
+public enum ChatQueueOverflowMode {
+  /**
+   * Stop reading from the player until the queue has drained.
+   */
+  THROTTLE,
+  /**
+   * Do not forward the message or command to the server.
+   */
+  DROP,
+  /**
+   * Disconnect the player.
+   */
+  KICK;
+
+  /**
+   * Parses a mode as written in the configuration, such as {@code throttle}.
+   *
+   * @param name the name of the mode
+   * @return the mode
+   * @throws IllegalArgumentException if there is no such mode
+   */
+  public static ChatQueueOverflowMode fromConfig(String name) {
+    return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+  }
+}
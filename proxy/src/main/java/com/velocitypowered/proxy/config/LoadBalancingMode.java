@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.config;
+
+import java.util.Locale;
+
+/**
+ * Supported strategies for choosing the server a player is sent to on login or fallback.
+ */
+public enum LoadBalancingMode {
+  ORDERED,
+  LEAST_CONNECTIONS,
+  WEIGHTED,
+  LOWEST_PING,
+  POWER_OF_TWO;
+
+  /**
+   * Parses a mode as written in the configuration, such as {@code least-connections}.
+   *
+   * @param name the name of the mode
+   * @return the mode
+   * @throws IllegalArgumentException if there is no such mode
+   */
+  public static LoadBalancingMode fromConfig(String name) {
+    return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+  }
+}
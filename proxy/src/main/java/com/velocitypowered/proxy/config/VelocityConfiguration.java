@@ -25,8 +25,11 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.annotations.Expose;
 import com.velocitypowered.api.proxy.config.ProxyConfig;
+import com.velocitypowered.api.proxy.server.LoadBalancingStrategy;
 import com.velocitypowered.api.util.Favicon;
+import com.velocitypowered.proxy.server.LoadBalancingStrategies;
 import com.velocitypowered.proxy.util.AddressUtil;
+import com.velocitypowered.proxy.util.ratelimit.RatelimitKey;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -83,6 +86,14 @@ public class VelocityConfiguration implements ProxyConfig {
   private final Query query;
   private final Metrics metrics;
   @Expose
+  private final LoadBalancing loadBalancing;
+  @Expose
+  private final HealthCheck healthCheck;
+  @Expose
+  private final RateLimits rateLimits;
+  @Expose
+  private final ConnectionLimits connectionLimits;
+  @Expose
   private boolean enablePlayerAddressLogging = true;
   private net.kyori.adventure.text.@MonotonicNonNull Component motdAsComponent;
   private @Nullable Favicon favicon;
@@ -96,6 +107,10 @@ public class VelocityConfiguration implements ProxyConfig {
     this.advanced = advanced;
     this.query = query;
     this.metrics = metrics;
+    this.loadBalancing = new LoadBalancing();
+    this.healthCheck = new HealthCheck();
+    this.rateLimits = new RateLimits();
+    this.connectionLimits = new ConnectionLimits();
   }
 
   private VelocityConfiguration(String bind, String motd, int showMaxPlayers, boolean onlineMode,
@@ -103,7 +118,9 @@ public class VelocityConfiguration implements ProxyConfig {
       PlayerInfoForwarding playerInfoForwardingMode, byte[] forwardingSecret,
       boolean onlineModeKickExistingPlayers, PingPassthroughMode pingPassthrough,
       boolean enablePlayerAddressLogging, Servers servers, ForcedHosts forcedHosts,
-      Advanced advanced, Query query, Metrics metrics, boolean forceKeyAuthentication) {
+      Advanced advanced, Query query, Metrics metrics, LoadBalancing loadBalancing,
+      HealthCheck healthCheck, RateLimits rateLimits, ConnectionLimits connectionLimits,
+      boolean forceKeyAuthentication) {
     this.bind = bind;
     this.motd = motd;
     this.showMaxPlayers = showMaxPlayers;
@@ -120,6 +137,10 @@ public class VelocityConfiguration implements ProxyConfig {
     this.advanced = advanced;
     this.query = query;
     this.metrics = metrics;
+    this.loadBalancing = loadBalancing;
+    this.healthCheck = healthCheck;
+    this.rateLimits = rateLimits;
+    this.connectionLimits = connectionLimits;
     this.forceKeyAuthentication = forceKeyAuthentication;
   }
 
@@ -199,6 +220,12 @@ public class VelocityConfiguration implements ProxyConfig {
       }
     }
 
+    for (String server : loadBalancing.weights.keySet()) {
+      if (servers.getServers().keySet().stream().noneMatch(server::equalsIgnoreCase)) {
+        logger.warn("Load balancing weight is set for server '{}', which does not exist", server);
+      }
+    }
+
     try {
       getMotd();
     } catch (Exception e) {
@@ -222,6 +249,12 @@ public class VelocityConfiguration implements ProxyConfig {
           + "throughput and increase CPU usage!");
     }
 
+    if (advanced.backendConnectionPoolSize < 0) {
+      logger.error("Invalid backend connection pool size {}",
+          advanced.backendConnectionPoolSize);
+      valid = false;
+    }
+
     if (advanced.loginRatelimit < 0) {
       logger.error("Invalid login ratelimit {}ms", advanced.loginRatelimit);
       valid = false;
@@ -360,6 +393,22 @@ public class VelocityConfiguration implements ProxyConfig {
     return metrics;
   }
 
+  public LoadBalancingStrategy getLoadBalancingStrategy() {
+    return loadBalancing.getStrategy();
+  }
+
+  public HealthCheck getHealthCheck() {
+    return healthCheck;
+  }
+
+  public RateLimits getRateLimits() {
+    return rateLimits;
+  }
+
+  public ConnectionLimits getConnectionLimits() {
+    return connectionLimits;
+  }
+
   public PingPassthroughMode getPingPassthrough() {
     return pingPassthrough;
   }
@@ -392,6 +441,46 @@ public class VelocityConfiguration implements ProxyConfig {
     return advanced.isLogPlayerConnections();
   }
 
+  public int getBackendConnectionPoolSize() {
+    return advanced.getBackendConnectionPoolSize();
+  }
+
+  public int getBackendConnectionPoolIdleTimeout() {
+    return advanced.getBackendConnectionPoolIdleTimeout();
+  }
+
+  public int getEventLoopStallThreshold() {
+    return advanced.getEventLoopStallThreshold();
+  }
+
+  public boolean isPipelinedBackendLogin() {
+    return advanced.isPipelinedBackendLogin();
+  }
+
+  public int getChatQueueLimit() {
+    return advanced.getChatQueueLimit();
+  }
+
+  public ChatQueueOverflowMode getChatQueueOverflow() {
+    return advanced.getChatQueueOverflow();
+  }
+
+  public int getAllocatorArenas() {
+    return advanced.getAllocatorArenas();
+  }
+
+  public int getAllocatorChunkSize() {
+    return advanced.getAllocatorChunkSize();
+  }
+
+  public int getMaxOutboundBufferPerConnection() {
+    return advanced.getMaxOutboundBufferPerConnection();
+  }
+
+  public int getMaxOutboundBuffer() {
+    return advanced.getMaxOutboundBuffer();
+  }
+
   public boolean isForceKeyAuthentication() {
     return forceKeyAuthentication;
   }
@@ -409,6 +498,10 @@ public class VelocityConfiguration implements ProxyConfig {
         .add("servers", servers)
         .add("forcedHosts", forcedHosts)
         .add("advanced", advanced)
+        .add("loadBalancing", loadBalancing)
+        .add("healthCheck", healthCheck)
+        .add("rateLimits", rateLimits)
+        .add("connectionLimits", connectionLimits)
         .add("query", query)
         .add("favicon", favicon)
         .add("enablePlayerAddressLogging", enablePlayerAddressLogging)
@@ -550,6 +643,10 @@ public class VelocityConfiguration implements ProxyConfig {
     CommentedConfig advancedConfig = config.get("advanced");
     CommentedConfig queryConfig = config.get("query");
     CommentedConfig metricsConfig = config.get("metrics");
+    CommentedConfig loadBalancingConfig = config.get("load-balancing");
+    CommentedConfig healthCheckConfig = config.get("health-check");
+    CommentedConfig rateLimitsConfig = config.get("rate-limits");
+    CommentedConfig connectionLimitsConfig = config.get("connection-limits");
     PlayerInfoForwarding forwardingMode = config.getEnumOrElse("player-info-forwarding-mode",
         PlayerInfoForwarding.NONE);
     PingPassthroughMode pingPassthroughMode = config.getEnumOrElse("ping-passthrough",
@@ -590,6 +687,10 @@ public class VelocityConfiguration implements ProxyConfig {
         new Advanced(advancedConfig),
         new Query(queryConfig),
         new Metrics(metricsConfig),
+        new LoadBalancing(loadBalancingConfig),
+        new HealthCheck(healthCheckConfig),
+        new RateLimits(rateLimitsConfig),
+        new ConnectionLimits(connectionLimitsConfig),
         forceKeyAuthentication
     );
   }
@@ -758,6 +859,26 @@ public class VelocityConfiguration implements ProxyConfig {
     private boolean logCommandExecutions = false;
     @Expose
     private boolean logPlayerConnections = true;
+    @Expose
+    private int backendConnectionPoolSize = 0;
+    @Expose
+    private int backendConnectionPoolIdleTimeout = 15000;
+    @Expose
+    private int eventLoopStallThreshold = 5000;
+    @Expose
+    private boolean pipelinedBackendLogin = false;
+    @Expose
+    private int chatQueueLimit = 64;
+    @Expose
+    private ChatQueueOverflowMode chatQueueOverflow = ChatQueueOverflowMode.THROTTLE;
+    @Expose
+    private int allocatorArenas = 0;
+    @Expose
+    private int allocatorChunkSize = 4096;
+    @Expose
+    private int maxOutboundBufferPerConnection = 0;
+    @Expose
+    private int maxOutboundBuffer = -1;
 
     private Advanced() {
     }
@@ -782,6 +903,19 @@ public class VelocityConfiguration implements ProxyConfig {
         this.announceProxyCommands = config.getOrElse("announce-proxy-commands", true);
         this.logCommandExecutions = config.getOrElse("log-command-executions", false);
         this.logPlayerConnections = config.getOrElse("log-player-connections", true);
+        this.backendConnectionPoolSize = config.getIntOrElse("backend-connection-pool-size", 0);
+        this.backendConnectionPoolIdleTimeout = config.getIntOrElse(
+            "backend-connection-pool-idle-timeout", 15000);
+        this.eventLoopStallThreshold = config.getIntOrElse("event-loop-stall-threshold", 5000);
+        this.pipelinedBackendLogin = config.getOrElse("pipelined-backend-login", false);
+        this.chatQueueLimit = config.getIntOrElse("chat-queue-limit", 64);
+        this.chatQueueOverflow = ChatQueueOverflowMode.fromConfig(
+            config.getOrElse("chat-queue-overflow", "throttle"));
+        this.allocatorArenas = config.getIntOrElse("allocator-arenas", 0);
+        this.allocatorChunkSize = config.getIntOrElse("allocator-chunk-size", 4096);
+        this.maxOutboundBufferPerConnection =
+            config.getIntOrElse("max-outbound-buffer-per-connection", 0);
+        this.maxOutboundBuffer = config.getIntOrElse("max-outbound-buffer", -1);
       }
     }
 
@@ -837,6 +971,46 @@ public class VelocityConfiguration implements ProxyConfig {
       return logPlayerConnections;
     }
 
+    public int getBackendConnectionPoolSize() {
+      return backendConnectionPoolSize;
+    }
+
+    public int getBackendConnectionPoolIdleTimeout() {
+      return backendConnectionPoolIdleTimeout;
+    }
+
+    public int getEventLoopStallThreshold() {
+      return eventLoopStallThreshold;
+    }
+
+    public boolean isPipelinedBackendLogin() {
+      return pipelinedBackendLogin;
+    }
+
+    public int getChatQueueLimit() {
+      return chatQueueLimit;
+    }
+
+    public ChatQueueOverflowMode getChatQueueOverflow() {
+      return chatQueueOverflow;
+    }
+
+    public int getAllocatorArenas() {
+      return allocatorArenas;
+    }
+
+    public int getAllocatorChunkSize() {
+      return allocatorChunkSize;
+    }
+
+    public int getMaxOutboundBufferPerConnection() {
+      return maxOutboundBufferPerConnection;
+    }
+
+    public int getMaxOutboundBuffer() {
+      return maxOutboundBuffer;
+    }
+
     @Override
     public String toString() {
       return "Advanced{"
@@ -853,6 +1027,16 @@ public class VelocityConfiguration implements ProxyConfig {
           + ", announceProxyCommands=" + announceProxyCommands
           + ", logCommandExecutions=" + logCommandExecutions
           + ", logPlayerConnections=" + logPlayerConnections
+          + ", backendConnectionPoolSize=" + backendConnectionPoolSize
+          + ", backendConnectionPoolIdleTimeout=" + backendConnectionPoolIdleTimeout
+          + ", eventLoopStallThreshold=" + eventLoopStallThreshold
+          + ", pipelinedBackendLogin=" + pipelinedBackendLogin
+          + ", chatQueueLimit=" + chatQueueLimit
+          + ", chatQueueOverflow=" + chatQueueOverflow
+          + ", allocatorArenas=" + allocatorArenas
+          + ", allocatorChunkSize=" + allocatorChunkSize
+          + ", maxOutboundBufferPerConnection=" + maxOutboundBufferPerConnection
+          + ", maxOutboundBuffer=" + maxOutboundBuffer
           + '}';
     }
   }
@@ -914,6 +1098,258 @@ public class VelocityConfiguration implements ProxyConfig {
     }
   }
 
+  private static class LoadBalancing {
+
+    @Expose
+    private LoadBalancingMode strategy = LoadBalancingMode.ORDERED;
+    @Expose
+    private Map<String, Integer> weights = ImmutableMap.of();
+    private LoadBalancingStrategy builtStrategy = LoadBalancingStrategies.ORDERED;
+
+    private LoadBalancing() {
+    }
+
+    private LoadBalancing(CommentedConfig config) {
+      if (config != null) {
+        this.strategy = LoadBalancingMode.fromConfig(config.getOrElse("strategy", "ordered"));
+        CommentedConfig weightsConfig = config.get("weights");
+        if (weightsConfig != null) {
+          Map<String, Integer> weights = new HashMap<>();
+          for (UnmodifiableConfig.Entry entry : weightsConfig.entrySet()) {
+            if (!(entry.getValue() instanceof Number)) {
+              throw new IllegalArgumentException(
+                  "Weight for server " + entry.getKey() + " is not a number!");
+            }
+            weights.put(entry.getKey().replace("\"", "").toLowerCase(Locale.ROOT),
+                ((Number) entry.getValue()).intValue());
+          }
+          this.weights = ImmutableMap.copyOf(weights);
+        }
+        this.builtStrategy = LoadBalancingStrategies.create(strategy, weights);
+      }
+    }
+
+    public LoadBalancingStrategy getStrategy() {
+      return builtStrategy;
+    }
+
+    @Override
+    public String toString() {
+      return "LoadBalancing{"
+          + "strategy=" + strategy
+          + ", weights=" + weights
+          + '}';
+    }
+  }
+
+  /**
+   * Configuration for active backend server health checks.
+   */
+  public static class HealthCheck {
+
+    @Expose
+    private boolean enabled = false;
+    @Expose
+    private HealthCheckProbe probe = HealthCheckProbe.STATUS;
+    @Expose
+    private int interval = 5000;
+    @Expose
+    private int timeout = 2000;
+    @Expose
+    private int unhealthyThreshold = 3;
+    @Expose
+    private int healthyThreshold = 2;
+
+    private HealthCheck() {
+    }
+
+    private HealthCheck(CommentedConfig config) {
+      if (config != null) {
+        this.enabled = config.getOrElse("enabled", false);
+        this.probe = config.getEnumOrElse("probe", HealthCheckProbe.STATUS);
+        this.interval = Math.max(100, config.getIntOrElse("interval", 5000));
+        this.timeout = Math.max(1, config.getIntOrElse("timeout", 2000));
+        this.unhealthyThreshold = Math.max(1, config.getIntOrElse("unhealthy-threshold", 3));
+        this.healthyThreshold = Math.max(1, config.getIntOrElse("healthy-threshold", 2));
+      }
+    }
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public HealthCheckProbe getProbe() {
+      return probe;
+    }
+
+    public int getInterval() {
+      return interval;
+    }
+
+    public int getTimeout() {
+      return timeout;
+    }
+
+    public int getUnhealthyThreshold() {
+      return unhealthyThreshold;
+    }
+
+    public int getHealthyThreshold() {
+      return healthyThreshold;
+    }
+
+    @Override
+    public String toString() {
+      return "HealthCheck{"
+          + "enabled=" + enabled
+          + ", probe=" + probe
+          + ", interval=" + interval
+          + ", timeout=" + timeout
+          + ", unhealthyThreshold=" + unhealthyThreshold
+          + ", healthyThreshold=" + healthyThreshold
+          + '}';
+    }
+  }
+
+  /**
+   * Configuration for the per-client rate limits. Login attempts are limited by the
+   * {@code login-ratelimit} setting in the {@code [advanced]} section.
+   */
+  public static class RateLimits {
+
+    @Expose
+    private RatelimitKey key = RatelimitKey.ADDRESS;
+    @Expose
+    private int loginBurst = 1;
+    @Expose
+    private int statusRate = 10;
+    @Expose
+    private int statusBurst = 20;
+    @Expose
+    private int commandRate = 0;
+    @Expose
+    private int commandBurst = 20;
+    @Expose
+    private int pluginMessageRate = 0;
+    @Expose
+    private int pluginMessageBurst = 200;
+
+    private RateLimits() {
+    }
+
+    private RateLimits(CommentedConfig config) {
+      if (config != null) {
+        this.key = config.getEnumOrElse("key", RatelimitKey.ADDRESS);
+        this.loginBurst = Math.max(1, config.getIntOrElse("login-burst", 1));
+        this.statusRate = config.getIntOrElse("status-rate", 10);
+        this.statusBurst = Math.max(1, config.getIntOrElse("status-burst", 20));
+        this.commandRate = config.getIntOrElse("command-rate", 0);
+        this.commandBurst = Math.max(1, config.getIntOrElse("command-burst", 20));
+        this.pluginMessageRate = config.getIntOrElse("plugin-message-rate", 0);
+        this.pluginMessageBurst = Math.max(1, config.getIntOrElse("plugin-message-burst", 200));
+      }
+    }
+
+    public RatelimitKey getKey() {
+      return key;
+    }
+
+    public int getLoginBurst() {
+      return loginBurst;
+    }
+
+    public int getStatusRate() {
+      return statusRate;
+    }
+
+    public int getStatusBurst() {
+      return statusBurst;
+    }
+
+    public int getCommandRate() {
+      return commandRate;
+    }
+
+    public int getCommandBurst() {
+      return commandBurst;
+    }
+
+    public int getPluginMessageRate() {
+      return pluginMessageRate;
+    }
+
+    public int getPluginMessageBurst() {
+      return pluginMessageBurst;
+    }
+
+    @Override
+    public String toString() {
+      return "RateLimits{"
+          + "key=" + key
+          + ", loginBurst=" + loginBurst
+          + ", statusRate=" + statusRate
+          + ", statusBurst=" + statusBurst
+          + ", commandRate=" + commandRate
+          + ", commandBurst=" + commandBurst
+          + ", pluginMessageRate=" + pluginMessageRate
+          + ", pluginMessageBurst=" + pluginMessageBurst
+          + '}';
+    }
+  }
+
+  /**
+   * Configuration for the limits applied to connections as soon as they are accepted.
+   */
+  public static class ConnectionLimits {
+
+    @Expose
+    private int maxConnections = 0;
+    @Expose
+    private int maxConnectionsPerSubnet = 0;
+    @Expose
+    private int maxPendingHandshakes = 1024;
+    @Expose
+    private int overloadThreshold = 0;
+
+    private ConnectionLimits() {
+    }
+
+    private ConnectionLimits(CommentedConfig config) {
+      if (config != null) {
+        this.maxConnections = config.getIntOrElse("max-connections", 0);
+        this.maxConnectionsPerSubnet = config.getIntOrElse("max-connections-per-subnet", 0);
+        this.maxPendingHandshakes = config.getIntOrElse("max-pending-handshakes", 1024);
+        this.overloadThreshold = config.getIntOrElse("overload-threshold", 0);
+      }
+    }
+
+    public int getMaxConnections() {
+      return maxConnections;
+    }
+
+    public int getMaxConnectionsPerSubnet() {
+      return maxConnectionsPerSubnet;
+    }
+
+    public int getMaxPendingHandshakes() {
+      return maxPendingHandshakes;
+    }
+
+    public int getOverloadThreshold() {
+      return overloadThreshold;
+    }
+
+    @Override
+    public String toString() {
+      return "ConnectionLimits{"
+          + "maxConnections=" + maxConnections
+          + ", maxConnectionsPerSubnet=" + maxConnectionsPerSubnet
+          + ", maxPendingHandshakes=" + maxPendingHandshakes
+          + ", overloadThreshold=" + overloadThreshold
+          + '}';
+    }
+  }
+
   /**
    * Configuration for metrics.
    */
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.backend;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Keeps a small number of idle TCP connections open to a backend server, so that a player
+ * switching to the server does not have to wait for a new connection to be established before
+ * the Minecraft handshake can begin.
+ *
+ * <p>Connections are pooled per event loop, and a pooled connection is only ever handed out on the
+ * event loop it belongs to, so no channel has to be moved between threads. The pool is only
+ * refilled when a connection is taken from it, so a server that nobody switches to does not keep
+ * idle connections open for longer than the configured idle timeout.</p>
+ */
+public final class BackendConnectionPool {
+
+  private final VelocityServer server;
+  private final VelocityRegisteredServer target;
+  private final Map<EventLoop, LoopPool> pools = new ConcurrentHashMap<>();
+  private volatile boolean closed;
+
+  public BackendConnectionPool(VelocityServer server, VelocityRegisteredServer target) {
+    this.server = Preconditions.checkNotNull(server, "server");
+    this.target = Preconditions.checkNotNull(target, "target");
+  }
+
+  /**
+   * Obtains a connection to the backend server on the given event loop, either from the pool or
+   * by opening a new connection. The returned channel has the backend pipeline set up and has not
+   * sent or received any data.
+   *
+   * @param loop the event loop the connection will be used on
+   * @return a future completed with the connected channel
+   */
+  public Future<Channel> acquire(EventLoop loop) {
+    Promise<Channel> promise = loop.newPromise();
+    if (loop.inEventLoop()) {
+      acquire0(loop, promise);
+    } else {
+      loop.execute(() -> acquire0(loop, promise));
+    }
+    return promise;
+  }
+
+  private void acquire0(EventLoop loop, Promise<Channel> promise) {
+    int size = server.getConfiguration().getBackendConnectionPoolSize();
+    if (size > 0 && !closed) {
+      LoopPool pool = pools.computeIfAbsent(loop, LoopPool::new);
+      Channel pooled = pool.poll();
+      pool.refill(size);
+      if (pooled != null) {
+        pooled.pipeline().addLast(server.getBackendChannelInitializer());
+        promise.setSuccess(pooled);
+        return;
+      }
+    }
+
+    server.createBootstrap(loop)
+        .handler(server.getBackendChannelInitializer())
+        .connect(target.getServerInfo().getAddress())
+        .addListener((ChannelFutureListener) future -> {
+          if (future.isSuccess()) {
+            promise.setSuccess(future.channel());
+          } else {
+            promise.setFailure(future.cause());
+          }
+        });
+  }
+
+  /**
+   * Closes all idle connections in the pool and stops it from opening new ones.
+   */
+  public void close() {
+    closed = true;
+    for (LoopPool pool : pools.values()) {
+      pool.loop.execute(pool::clear);
+    }
+  }
+
+  /**
+   * The idle connections belonging to a single event loop. Only accessed from that event loop.
+   */
+  private final class LoopPool {
+
+    private final EventLoop loop;
+    private final ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+    private int connecting;
+
+    private LoopPool(EventLoop loop) {
+      this.loop = loop;
+    }
+
+    private @Nullable Channel poll() {
+      IdleConnection connection;
+      while ((connection = idle.pollFirst()) != null) {
+        if (connection.take()) {
+          return connection.channel;
+        }
+      }
+      return null;
+    }
+
+    private void refill(int size) {
+      if (!target.getHealth().isAvailable()) {
+        return;
+      }
+      while (!closed && idle.size() + connecting < size) {
+        connecting++;
+        IdleConnection connection = new IdleConnection(this);
+        server.createBootstrap(loop)
+            .handler(connection)
+            .connect(target.getServerInfo().getAddress())
+            .addListener((ChannelFutureListener) future -> {
+              connecting--;
+              if (!future.isSuccess()) {
+                return;
+              }
+              if (closed || idle.size() >= server.getConfiguration()
+                  .getBackendConnectionPoolSize()) {
+                future.channel().close();
+                return;
+              }
+              connection.park(future.channel());
+            });
+      }
+    }
+
+    private void clear() {
+      IdleConnection connection;
+      while ((connection = idle.pollFirst()) != null) {
+        connection.channel.close();
+      }
+    }
+  }
+
+  /**
+   * The only handler of a pooled connection until it is taken from the pool. Closes the connection
+   * if it goes unused for too long, and removes it from the pool if it is closed by the backend.
+   */
+  private final class IdleConnection extends ChannelInboundHandlerAdapter {
+
+    private final LoopPool pool;
+    private @Nullable Channel channel;
+    private @Nullable ScheduledFuture<?> expiry;
+
+    private IdleConnection(LoopPool pool) {
+      this.pool = pool;
+    }
+
+    private void park(Channel channel) {
+      this.channel = channel;
+      this.expiry = channel.eventLoop().schedule(() -> {
+        pool.idle.remove(this);
+        channel.close();
+      }, server.getConfiguration().getBackendConnectionPoolIdleTimeout(), TimeUnit.MILLISECONDS);
+      pool.idle.addLast(this);
+    }
+
+    private boolean take() {
+      if (expiry != null) {
+        expiry.cancel(false);
+      }
+      if (channel == null || !channel.isActive()) {
+        return false;
+      }
+      channel.pipeline().remove(this);
+      return true;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      // The backend should not send anything before we send the handshake.
+      ReferenceCountUtil.release(msg);
+      ctx.close();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+      if (expiry != null) {
+        expiry.cancel(false);
+      }
+      pool.idle.remove(this);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      ctx.close();
+    }
+  }
+}
@@ -121,7 +121,8 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
 
   @Override
   public boolean handle(KeepAlive packet) {
-    serverConn.getPendingPings().put(packet.getRandomId(), System.currentTimeMillis());
+    serverConn.getPendingPings().put(packet.getRandomId(), System.nanoTime());
+    serverConn.samplePing();
     return false; // forwards on
   }
 
@@ -158,7 +159,7 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
               .setOriginalOrigin(ResourcePackInfo.Origin.DOWNSTREAM_SERVER);
         }
 
-        serverConn.getPlayer().queueResourcePack(toSend);
+        serverConn.getPlayer().queueResourcePack(toSend, serverConn);
       } else if (serverConn.getConnection() != null) {
         serverConn.getConnection().write(new ResourcePackResponse(
             packet.getHash(),
@@ -188,7 +189,7 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
     // We need to specially handle REGISTER and UNREGISTER packets. Later on, we'll write them to
     // the client.
     if (PluginMessageUtil.isRegister(packet)) {
-      serverConn.getPlayer().getKnownChannels().addAll(PluginMessageUtil.getChannels(packet));
+      serverConn.getPlayer().getKnownChannels().internAll(PluginMessageUtil.getChannels(packet));
       return false;
     } else if (PluginMessageUtil.isUnregister(packet)) {
       serverConn.getPlayer().getKnownChannels().removeAll(PluginMessageUtil.getChannels(packet));
@@ -355,6 +356,8 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
       }
     }
 
-    playerConnection.setAutoReading(writable);
+    // The chat queue may also have paused reading from the player, and resumes it itself once
+    // it has drained, so only resume reading if neither wants it paused.
+    playerConnection.setAutoReading(writable && !serverConn.getPlayer().isChatThrottled());
   }
 }
@@ -110,7 +110,7 @@ public class BungeeCordMessageResponder {
       out.writeInt(proxy.getPlayerCount());
     } else {
       proxy.getServer(target).ifPresent(rs -> {
-        int playersOnServer = rs.getPlayersConnected().size();
+        int playersOnServer = rs.getPlayerCount();
         out.writeUTF("PlayerCount");
         out.writeUTF(rs.getServerInfo().getName());
         out.writeInt(playersOnServer);
@@ -133,20 +133,14 @@ public class BungeeCordMessageResponder {
       out.writeUTF("PlayerList");
       out.writeUTF("ALL");
 
-      StringJoiner joiner = new StringJoiner(", ");
-      for (Player online : proxy.getAllPlayers()) {
-        joiner.add(online.getUsername());
-      }
-      out.writeUTF(joiner.toString());
+      out.writeUTF(String.join(", ", proxy.getPlayerNames()));
     } else {
       proxy.getServer(target).ifPresent(info -> {
         out.writeUTF("PlayerList");
         out.writeUTF(info.getServerInfo().getName());
 
         StringJoiner joiner = new StringJoiner(", ");
-        for (Player online : info.getPlayersConnected()) {
-          joiner.add(online.getUsername());
-        }
+        info.forEachPlayer(online -> joiner.add(online.getUsername()));
         out.writeUTF(joiner.toString());
       });
     }
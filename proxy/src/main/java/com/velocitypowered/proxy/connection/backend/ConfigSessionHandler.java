@@ -118,7 +118,7 @@ public class ConfigSessionHandler implements MinecraftSessionHandler {
                   .setOriginalOrigin(ResourcePackInfo.Origin.DOWNSTREAM_SERVER);
         }
 
-        serverConn.getPlayer().queueResourcePack(toSend);
+        serverConn.getPlayer().queueResourcePack(toSend, serverConn);
       } else if (serverConn.getConnection() != null) {
         serverConn.getConnection().write(new ResourcePackResponse(
                 packet.getHash(),
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.backend;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.server.LoadBalancingStrategies;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.PromiseNotifier;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A connection to the server a player is expected to join first, opened while the player is still
+ * logging in to the proxy so that connecting to the server overlaps with authentication and the
+ * login events.
+ *
+ * <p>Only the TCP connection is opened early. The Minecraft handshake with the server carries the
+ * player's forwarded profile, which is not known until the player has been authenticated and
+ * plugins have had a chance to change it. If the player ends up connecting to a different server,
+ * or disconnects, the connection is closed without anything having been sent on it.</p>
+ */
+public final class SpeculativeBackendConnection {
+
+  private final VelocityRegisteredServer target;
+  private final EventLoop loop;
+  private final Future<Channel> channel;
+  private final AtomicBoolean done = new AtomicBoolean();
+
+  private SpeculativeBackendConnection(VelocityRegisteredServer target, EventLoop loop) {
+    this.target = target;
+    this.loop = loop;
+    this.channel = target.getConnectionPool().acquire(loop);
+  }
+
+  /**
+   * Starts connecting to the server the player is expected to join first, if pipelined backend
+   * logins are enabled and the server can be predicted.
+   *
+   * @param server the proxy
+   * @param loop the event loop of the player's connection
+   * @param virtualHost the host the player connected to the proxy with, if known
+   * @return the speculative connection, or {@code null} if none was started
+   */
+  public static @Nullable SpeculativeBackendConnection start(VelocityServer server,
+      EventLoop loop, @Nullable InetSocketAddress virtualHost) {
+    if (!server.getConfiguration().isPipelinedBackendLogin()) {
+      return null;
+    }
+    VelocityRegisteredServer target = predictInitialServer(server, virtualHost);
+    return target == null ? null : new SpeculativeBackendConnection(target, loop);
+  }
+
+  // Mirrors ConnectedPlayer#getNextServerToTry, but only predicts a server when the choice does not
+  // depend on the player.
+  private static @Nullable VelocityRegisteredServer predictInitialServer(VelocityServer server,
+      @Nullable InetSocketAddress virtualHost) {
+    String host = virtualHost == null ? "" : virtualHost.getHostString().toLowerCase(Locale.ROOT);
+    List<String> serversToTry = server.getConfiguration().getForcedHosts()
+        .getOrDefault(host, Collections.emptyList());
+    if (serversToTry.isEmpty()) {
+      serversToTry = server.getConfiguration().getAttemptConnectionOrder();
+    }
+
+    List<RegisteredServer> candidates = new ArrayList<>(serversToTry.size());
+    for (String name : serversToTry) {
+      server.getServer(name)
+          .filter(candidate -> candidate.getHealth().isAvailable())
+          .ifPresent(candidates::add);
+    }
+    if (candidates.isEmpty() || (candidates.size() > 1
+        && server.getLoadBalancingStrategy() != LoadBalancingStrategies.ORDERED)) {
+      return null;
+    }
+    RegisteredServer predicted = candidates.get(0);
+    return predicted instanceof VelocityRegisteredServer
+        ? (VelocityRegisteredServer) predicted : null;
+  }
+
+  /**
+   * Takes over the connection if it was opened to the given server, or closes it otherwise. If
+   * the early connection attempt failed or the connection has since been closed, a new connection
+   * is opened instead.
+   *
+   * @param server the server the player is connecting to
+   * @return a future completed with the connected channel, or {@code null} if the connection was
+   *         not opened to the given server
+   */
+  public @Nullable Future<Channel> claim(RegisteredServer server) {
+    if (server != target) {
+      abandon();
+      return null;
+    }
+    if (!done.compareAndSet(false, true)) {
+      return null;
+    }
+
+    Promise<Channel> promise = loop.newPromise();
+    channel.addListener((FutureListener<Channel>) future -> {
+      if (future.isSuccess() && future.getNow().isActive()) {
+        promise.setSuccess(future.getNow());
+        return;
+      }
+      if (future.isSuccess()) {
+        future.getNow().close();
+      }
+      target.getConnectionPool().acquire(loop).addListener(new PromiseNotifier<>(promise));
+    });
+    return promise;
+  }
+
+  /**
+   * Closes the connection, unless it has already been claimed.
+   */
+  public void abandon() {
+    if (done.compareAndSet(false, true)) {
+      channel.addListener((FutureListener<Channel>) future -> {
+        if (future.isSuccess()) {
+          future.getNow().close();
+        }
+      });
+    }
+  }
+
+  public RegisteredServer getTarget() {
+    return target;
+  }
+}
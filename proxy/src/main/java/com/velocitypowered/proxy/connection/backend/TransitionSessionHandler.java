@@ -183,7 +183,7 @@ public class TransitionSessionHandler implements MinecraftSessionHandler {
     }
 
     if (PluginMessageUtil.isRegister(packet)) {
-      serverConn.getPlayer().getKnownChannels().addAll(PluginMessageUtil.getChannels(packet));
+      serverConn.getPlayer().getKnownChannels().internAll(PluginMessageUtil.getChannels(packet));
     } else if (PluginMessageUtil.isUnregister(packet)) {
       serverConn.getPlayer().getKnownChannels().removeAll(PluginMessageUtil.getChannels(packet));
     }
@@ -37,14 +37,21 @@ import com.velocitypowered.proxy.connection.MinecraftConnectionAssociation;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.connection.util.ConnectionRequestResults.Impl;
+import com.velocitypowered.proxy.network.RttHistogram;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.packet.Handshake;
 import com.velocitypowered.proxy.protocol.packet.PluginMessage;
 import com.velocitypowered.proxy.protocol.packet.ServerLogin;
+import com.velocitypowered.proxy.protocol.util.LazyCompoundTag;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
-import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.Channel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.epoll.EpollTcpInfo;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import java.net.ConnectException;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
@@ -70,7 +77,9 @@ public class VelocityServerConnection implements MinecraftConnectionAssociation,
   private boolean gracefulDisconnect = false;
   private BackendConnectionPhase connectionPhase = BackendConnectionPhases.UNKNOWN;
   private final Map<Long, Long> pendingPings = new HashMap<>();
-  private @MonotonicNonNull CompoundBinaryTag activeDimensionRegistry;
+  private final RttHistogram pingStatistics = new RttHistogram();
+  private @MonotonicNonNull EpollTcpInfo tcpInfo;
+  private @MonotonicNonNull LazyCompoundTag activeDimensionRegistry;
 
   /**
    * Initializes a new server connection.
@@ -97,33 +106,44 @@ public class VelocityServerConnection implements MinecraftConnectionAssociation,
    */
   public CompletableFuture<Impl> connect() {
     CompletableFuture<Impl> result = new CompletableFuture<>();
+    if (!registeredServer.getHealth().isAvailable()) {
+      // Don't wait for the connection to time out if we already know the server is unreachable.
+      result.completeExceptionally(new ConnectException("Server "
+          + registeredServer.getServerInfo().getName() + " is down according to health checks"));
+      return result;
+    }
+    registeredServer.beginPendingConnection();
+    result.whenComplete((status, cause) -> registeredServer.endPendingConnection());
     // Note: we use the event loop for the connection the player is on. This reduces context
     // switches.
-    server.createBootstrap(proxyPlayer.getConnection().eventLoop())
-        .handler(server.getBackendChannelInitializer())
-        .connect(registeredServer.getServerInfo().getAddress())
-        .addListener((ChannelFutureListener) future -> {
-          if (future.isSuccess()) {
-            connection = new MinecraftConnection(future.channel(), server);
-            connection.setAssociation(VelocityServerConnection.this);
-            future.channel().pipeline().addLast(HANDLER, connection);
-
-            // Kick off the connection process
-            if (!connection.setActiveSessionHandler(StateRegistry.HANDSHAKE)) {
-              MinecraftSessionHandler handler = new LoginSessionHandler(server, VelocityServerConnection.this, result);
-              connection.setActiveSessionHandler(StateRegistry.HANDSHAKE, handler);
-              connection.addSessionHandler(StateRegistry.LOGIN, handler);
-            }
-
-            // Set the connection phase, which may, for future forge (or whatever), be determined
-            // at this point already
-            connectionPhase = connection.getType().getInitialBackendPhase();
-            startHandshake();
-          } else {
-            // Complete the result immediately. ConnectedPlayer will reset the in-flight connection.
-            result.completeExceptionally(future.cause());
-          }
-        });
+    Future<Channel> channelFuture = proxyPlayer.claimSpeculativeBackend(registeredServer);
+    if (channelFuture == null) {
+      channelFuture = registeredServer.getConnectionPool()
+          .acquire(proxyPlayer.getConnection().eventLoop());
+    }
+    channelFuture.addListener((FutureListener<Channel>) future -> {
+      if (future.isSuccess()) {
+        Channel channel = future.getNow();
+        connection = new MinecraftConnection(channel, server);
+        connection.setAssociation(VelocityServerConnection.this);
+        channel.pipeline().addLast(HANDLER, connection);
+
+        // Kick off the connection process
+        if (!connection.setActiveSessionHandler(StateRegistry.HANDSHAKE)) {
+          MinecraftSessionHandler handler = new LoginSessionHandler(server, VelocityServerConnection.this, result);
+          connection.setActiveSessionHandler(StateRegistry.HANDSHAKE, handler);
+          connection.addSessionHandler(StateRegistry.LOGIN, handler);
+        }
+
+        // Set the connection phase, which may, for future forge (or whatever), be determined
+        // at this point already
+        connectionPhase = connection.getType().getInitialBackendPhase();
+        startHandshake();
+      } else {
+        // Complete the result immediately. ConnectedPlayer will reset the in-flight connection.
+        result.completeExceptionally(future.cause());
+      }
+    });
     return result;
   }
 
@@ -308,6 +328,33 @@ public class VelocityServerConnection implements MinecraftConnectionAssociation,
     return pendingPings;
   }
 
+  @Override
+  public RttHistogram getPingStatistics() {
+    return pingStatistics;
+  }
+
+  /**
+   * Samples the round trip time to the backend server. Backend servers never answer keep-alives
+   * sent by the proxy, so the round trip time is taken from the kernel's smoothed TCP RTT, which
+   * is only exposed by the epoll transport.
+   */
+  public void samplePing() {
+    if (connection == null) {
+      return;
+    }
+    Channel channel = connection.getChannel();
+    if (channel instanceof EpollSocketChannel) {
+      if (tcpInfo == null) {
+        tcpInfo = new EpollTcpInfo();
+      }
+      int rttMicros = ((EpollSocketChannel) channel).tcpInfo(tcpInfo).rtt();
+      if (rttMicros > 0) {
+        pingStatistics.recordMicros(rttMicros);
+        registeredServer.recordRtt(rttMicros);
+      }
+    }
+  }
+
   /**
    * Ensures that this server connection remains "active": the connection is established and not
    * closed, the player is still connected to the server, and the player still remains online.
@@ -348,11 +395,16 @@ public class VelocityServerConnection implements MinecraftConnectionAssociation,
     return hasCompletedJoin;
   }
 
-  public CompoundBinaryTag getActiveDimensionRegistry() {
-    return activeDimensionRegistry;
+  /**
+   * Returns the dimension registry sent by this server, parsing it if necessary.
+   *
+   * @return the dimension registry, or {@code null} if the server hasn't sent one
+   */
+  public @Nullable CompoundBinaryTag getActiveDimensionRegistry() {
+    return activeDimensionRegistry == null ? null : activeDimensionRegistry.tag();
   }
 
-  public void setActiveDimensionRegistry(CompoundBinaryTag activeDimensionRegistry) {
+  public void setActiveDimensionRegistry(LazyCompoundTag activeDimensionRegistry) {
     this.activeDimensionRegistry = activeDimensionRegistry;
   }
 }
@@ -97,6 +97,7 @@ public class AuthSessionHandler implements MinecraftSessionHandler {
       ConnectedPlayer player = new ConnectedPlayer(server, profileEvent.getGameProfile(),
           mcConnection, inbound.getVirtualHost().orElse(null), onlineMode,
           inbound.getIdentifiedKey());
+      player.setSpeculativeBackend(inbound.getSpeculativeBackend());
       this.connectedPlayer = player;
       if (!server.canRegisterConnection(player)) {
         player.disconnect0(Component.translatable("velocity.error.already-connected-proxy",
@@ -74,7 +74,7 @@ public class ClientConfigSessionHandler implements MinecraftSessionHandler {
       if (sentTime != null) {
         MinecraftConnection smc = serverConnection.getConnection();
         if (smc != null) {
-          player.setPing(System.currentTimeMillis() - sentTime);
+          player.recordPing(System.nanoTime() - sentTime);
           smc.write(packet);
         }
       }
@@ -70,6 +70,7 @@ import com.velocitypowered.proxy.protocol.packet.config.StartUpdate;
 import com.velocitypowered.proxy.protocol.packet.title.GenericTitlePacket;
 import com.velocitypowered.proxy.protocol.util.PluginMessageUtil;
 import com.velocitypowered.proxy.util.CharacterUtil;
+import com.velocitypowered.proxy.util.ratelimit.Ratelimiter;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
@@ -152,6 +153,14 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
     return true;
   }
 
+  private boolean attemptRatelimit(Ratelimiter limiter) {
+    if (!limiter.attempt(player.getRemoteAddress().getAddress())) {
+      player.disconnect(Component.translatable("disconnect.spam"));
+      return false;
+    }
+    return true;
+  }
+
   @Override
   public void activated() {
     configSwitchFuture = new CompletableFuture<>();
@@ -160,7 +169,7 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
     if (!channels.isEmpty()) {
       PluginMessage register = constructChannelsPacket(player.getProtocolVersion(), channels);
       player.getConnection().write(register);
-      player.getKnownChannels().addAll(channels);
+      player.getKnownChannels().internAll(channels);
     }
   }
 
@@ -179,7 +188,7 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
       if (sentTime != null) {
         MinecraftConnection smc = serverConnection.getConnection();
         if (smc != null) {
-          player.setPing(System.currentTimeMillis() - sentTime);
+          player.recordPing(System.nanoTime() - sentTime);
           smc.write(packet);
         }
       }
@@ -205,6 +214,10 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
       return true;
     }
 
+    if (!attemptRatelimit(server.getCommandLimiter())) {
+      return true;
+    }
+
     return this.commandHandler.handlePlayerCommand(packet);
   }
 
@@ -235,6 +248,10 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
       return true;
     }
 
+    if (!attemptRatelimit(server.getCommandLimiter())) {
+      return true;
+    }
+
     return this.commandHandler.handlePlayerCommand(packet);
   }
 
@@ -262,7 +279,9 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
     }
 
     if (msg.startsWith("/")) {
-      this.commandHandler.handlePlayerCommand(packet);
+      if (attemptRatelimit(server.getCommandLimiter())) {
+        this.commandHandler.handlePlayerCommand(packet);
+      }
     } else {
       this.chatHandler.handlePlayerChat(packet);
     }
@@ -282,6 +301,10 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
 
   @Override
   public boolean handle(PluginMessage packet) {
+    if (!attemptRatelimit(server.getPluginMessageLimiter())) {
+      return true;
+    }
+
     // Handling edge case when packet with FML client handshake (state COMPLETE)
     // arrives after JoinGame packet from destination server
     VelocityServerConnection serverConn =
@@ -492,6 +515,10 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
       player.getConnection().delayedWrite(joinGame);
       // Required for Legacy Forge
       player.getPhase().onFirstJoin(player);
+      // Send the network-wide pack ahead of any pack the server sends in play, so that servers
+      // using the same pack do not prompt the player again. On 1.20.2 and newer, the server may
+      // have sent the same pack during its configuration phase already.
+      server.getNetworkResourcePack().ifPresent(player::sendNetworkResourcePack);
     } else {
       // Clear tab list to avoid duplicate entries
       player.getTabList().clearAll();
@@ -507,6 +534,9 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
 
     destination.setActiveDimensionRegistry(joinGame.getRegistry()); // 1.16
 
+    // The client may have discarded the shared tab list entries while joining, so resend them.
+    server.getSharedTabList().invalidateViewer(player);
+
     // Remove previous boss bars. These don't get cleared when sending JoinGame, thus the need to
     // track them.
     for (UUID serverBossBar : serverBossBars) {
@@ -52,11 +52,13 @@ import com.velocitypowered.api.util.ModInfo;
 import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.connection.MinecraftConnectionAssociation;
+import com.velocitypowered.proxy.connection.backend.SpeculativeBackendConnection;
 import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
 import com.velocitypowered.proxy.connection.player.VelocityResourcePackInfo;
 import com.velocitypowered.proxy.connection.util.ConnectionMessages;
 import com.velocitypowered.proxy.connection.util.ConnectionRequestResults.Impl;
 import com.velocitypowered.proxy.connection.util.VelocityInboundConnection;
+import com.velocitypowered.proxy.network.RttHistogram;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.packet.ClientSettings;
@@ -65,11 +67,13 @@ import com.velocitypowered.proxy.protocol.packet.HeaderAndFooter;
 import com.velocitypowered.proxy.protocol.packet.KeepAlive;
 import com.velocitypowered.proxy.protocol.packet.PluginMessage;
 import com.velocitypowered.proxy.protocol.packet.ResourcePackRequest;
+import com.velocitypowered.proxy.protocol.packet.ResourcePackResponse;
 import com.velocitypowered.proxy.protocol.packet.chat.ChatQueue;
 import com.velocitypowered.proxy.protocol.packet.chat.ChatType;
 import com.velocitypowered.proxy.protocol.packet.chat.builder.ChatBuilderFactory;
 import com.velocitypowered.proxy.protocol.packet.chat.legacy.LegacyChat;
 import com.velocitypowered.proxy.protocol.packet.title.GenericTitlePacket;
+import com.velocitypowered.proxy.server.LoadBalancingStrategies;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
 import com.velocitypowered.proxy.tablist.InternalTabList;
 import com.velocitypowered.proxy.tablist.KeyedVelocityTabList;
@@ -77,21 +81,27 @@ import com.velocitypowered.proxy.tablist.VelocityTabList;
 import com.velocitypowered.proxy.tablist.VelocityTabListLegacy;
 import com.velocitypowered.proxy.util.ClosestLocaleMatcher;
 import com.velocitypowered.proxy.util.DurationUtils;
-import com.velocitypowered.proxy.util.collect.CappedSet;
+import com.velocitypowered.proxy.util.collect.ChannelSet;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.util.concurrent.Future;
 import java.net.InetSocketAddress;
 import java.util.ArrayDeque;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import net.kyori.adventure.audience.MessageType;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.identity.Identity;
@@ -109,7 +119,6 @@ import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import net.kyori.adventure.title.Title.Times;
 import net.kyori.adventure.title.TitlePart;
-import net.kyori.adventure.translation.GlobalTranslator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
@@ -143,11 +152,13 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
   private final @Nullable InetSocketAddress virtualHost;
   private GameProfile profile;
   private PermissionFunction permissionFunction;
-  private int tryIndex = 0;
+  private @Nullable Set<String> failedServers;
   private long ping = -1;
+  private final RttHistogram pingStatistics = new RttHistogram();
   private final boolean onlineMode;
   private @Nullable VelocityServerConnection connectedServer;
   private @Nullable VelocityServerConnection connectionInFlight;
+  private volatile @Nullable SpeculativeBackendConnection speculativeBackend;
   private @Nullable PlayerSettings settings;
   private @Nullable ModInfo modInfo;
   private Component playerListHeader = Component.empty();
@@ -155,25 +166,19 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
   private final InternalTabList tabList;
   private final VelocityServer server;
   private ClientConnectionPhase connectionPhase;
-  private final Collection<String> knownChannels;
+  private final ChannelSet knownChannels;
   private final CompletableFuture<Void> teardownFuture = new CompletableFuture<>();
   private @MonotonicNonNull List<String> serversToTry = null;
   private @MonotonicNonNull Boolean previousResourceResponse;
-  private final Queue<ResourcePackInfo> outstandingResourcePacks = new ArrayDeque<>();
+  // The structures below are only needed by some players, so they are created on first use.
+  private @Nullable Queue<QueuedResourcePack> outstandingResourcePacks;
   private @Nullable ResourcePackInfo pendingResourcePack;
   private @Nullable ResourcePackInfo appliedResourcePack;
-  private final @NotNull Pointers pointers = Player.super.pointers().toBuilder()
-      .withDynamic(Identity.UUID, this::getUniqueId)
-      .withDynamic(Identity.NAME, this::getUsername)
-      .withDynamic(Identity.DISPLAY_NAME, () -> Component.text(this.getUsername()))
-      .withDynamic(Identity.LOCALE, this::getEffectiveLocale)
-      .withStatic(PermissionChecker.POINTER, getPermissionChecker())
-      .withStatic(FacetPointers.TYPE, Type.PLAYER)
-      .build();
+  private volatile @Nullable Pointers pointers;
   private @Nullable String clientBrand;
   private @Nullable Locale effectiveLocale;
   private @Nullable IdentifiedKey playerKey;
-  private final ChatQueue chatQueue;
+  private volatile @Nullable ChatQueue chatQueue;
   private final ChatBuilderFactory chatBuilderFactory;
 
   ConnectedPlayer(VelocityServer server, GameProfile profile, MinecraftConnection connection,
@@ -185,7 +190,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
     this.virtualHost = virtualHost;
     this.permissionFunction = PermissionFunction.ALWAYS_UNDEFINED;
     this.connectionPhase = connection.getType().getInitialClientPhase();
-    this.knownChannels = CappedSet.create(MAX_PLUGIN_CHANNELS);
+    this.knownChannels = new ChannelSet(server.getChannelIdTable(), MAX_PLUGIN_CHANNELS);
     this.onlineMode = onlineMode;
 
     if (connection.getProtocolVersion().compareTo(ProtocolVersion.MINECRAFT_1_19_3) >= 0) {
@@ -196,18 +201,44 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
       this.tabList = new VelocityTabListLegacy(this, server);
     }
     this.playerKey = playerKey;
-    this.chatQueue = new ChatQueue(this);
-    this.chatBuilderFactory = new ChatBuilderFactory(this.getProtocolVersion());
+    this.chatBuilderFactory = ChatBuilderFactory.forVersion(this.getProtocolVersion());
   }
 
   public ChatBuilderFactory getChatBuilderFactory() {
     return chatBuilderFactory;
   }
 
+  /**
+   * Returns the queue that keeps chat messages and commands sent by this player in order.
+   *
+   * @return the chat queue
+   */
   public ChatQueue getChatQueue() {
+    ChatQueue chatQueue = this.chatQueue;
+    if (chatQueue == null) {
+      synchronized (this) {
+        chatQueue = this.chatQueue;
+        if (chatQueue == null) {
+          this.chatQueue = chatQueue = new ChatQueue(this,
+              server.getConfiguration().getChatQueueLimit(),
+              server.getConfiguration().getChatQueueOverflow());
+        }
+      }
+    }
     return chatQueue;
   }
 
+  /**
+   * Determines whether reading from this player is paused by the chat queue, without creating
+   * the queue if the player has not chatted yet.
+   *
+   * @return {@code true} if the chat queue has paused reading from this player
+   */
+  public boolean isChatThrottled() {
+    ChatQueue chatQueue = this.chatQueue;
+    return chatQueue != null && chatQueue.isThrottled();
+  }
+
   @Override
   public @NonNull Identity identity() {
     return this.identity;
@@ -268,8 +299,19 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
     return this.ping;
   }
 
-  void setPing(long ping) {
-    this.ping = ping;
+  @Override
+  public RttHistogram getPingStatistics() {
+    return pingStatistics;
+  }
+
+  /**
+   * Records a keep-alive round trip between the proxy and the client.
+   *
+   * @param rttNanos the round trip time in nanoseconds
+   */
+  void recordPing(long rttNanos) {
+    this.ping = TimeUnit.NANOSECONDS.toMillis(rttNanos);
+    this.pingStatistics.recordNanos(rttNanos);
   }
 
   @Override
@@ -305,7 +347,19 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
 
   @Override
   public @NotNull Pointers pointers() {
-    return this.pointers;
+    Pointers pointers = this.pointers;
+    if (pointers == null) {
+      // Building the pointers twice in a race is harmless.
+      this.pointers = pointers = Player.super.pointers().toBuilder()
+          .withDynamic(Identity.UUID, this::getUniqueId)
+          .withDynamic(Identity.NAME, this::getUsername)
+          .withDynamic(Identity.DISPLAY_NAME, () -> Component.text(this.getUsername()))
+          .withDynamic(Identity.LOCALE, this::getEffectiveLocale)
+          .withStatic(PermissionChecker.POINTER, getPermissionChecker())
+          .withStatic(FacetPointers.TYPE, Type.PLAYER)
+          .build();
+    }
+    return pointers;
   }
 
   @Override
@@ -341,7 +395,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
   public Component translateMessage(Component message) {
     Locale locale = ClosestLocaleMatcher.INSTANCE
         .lookupClosest(getEffectiveLocale() == null ? Locale.getDefault() : getEffectiveLocale());
-    return GlobalTranslator.render(message, locale);
+    return server.getTranslationCache().render(message, locale);
   }
 
   @Override
@@ -375,8 +429,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
       // Use the title packet instead.
       GenericTitlePacket pkt = GenericTitlePacket.constructTitlePacket(
           GenericTitlePacket.ActionType.SET_ACTION_BAR, playerVersion);
-      pkt.setComponent(ProtocolUtils.getJsonChatSerializer(playerVersion)
-          .serialize(translated));
+      pkt.setComponent(ProtocolUtils.serializeComponent(playerVersion, translated));
       connection.write(pkt);
     } else {
       // Due to issues with action bar packets, we'll need to convert the text message into a
@@ -425,8 +478,6 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
   @Override
   public void showTitle(net.kyori.adventure.title.@NonNull Title title) {
     if (this.getProtocolVersion().compareTo(ProtocolVersion.MINECRAFT_1_8) >= 0) {
-      GsonComponentSerializer serializer = ProtocolUtils.getJsonChatSerializer(this
-          .getProtocolVersion());
       GenericTitlePacket timesPkt = GenericTitlePacket.constructTitlePacket(
           GenericTitlePacket.ActionType.SET_TIMES, this.getProtocolVersion());
       net.kyori.adventure.title.Title.Times times = title.times();
@@ -439,12 +490,14 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
 
       GenericTitlePacket subtitlePkt = GenericTitlePacket.constructTitlePacket(
           GenericTitlePacket.ActionType.SET_SUBTITLE, this.getProtocolVersion());
-      subtitlePkt.setComponent(serializer.serialize(translateMessage(title.subtitle())));
+      subtitlePkt.setComponent(ProtocolUtils.serializeComponent(this.getProtocolVersion(),
+          translateMessage(title.subtitle())));
       connection.delayedWrite(subtitlePkt);
 
       GenericTitlePacket titlePkt = GenericTitlePacket.constructTitlePacket(
           GenericTitlePacket.ActionType.SET_TITLE, this.getProtocolVersion());
-      titlePkt.setComponent(serializer.serialize(translateMessage(title.title())));
+      titlePkt.setComponent(ProtocolUtils.serializeComponent(this.getProtocolVersion(),
+          translateMessage(title.title())));
       connection.delayedWrite(titlePkt);
 
       connection.flush();
@@ -464,18 +517,17 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
       return;
     }
 
-    GsonComponentSerializer serializer = ProtocolUtils.getJsonChatSerializer(this
-        .getProtocolVersion());
-
     if (part == TitlePart.TITLE) {
       GenericTitlePacket titlePkt = GenericTitlePacket.constructTitlePacket(
           GenericTitlePacket.ActionType.SET_TITLE, this.getProtocolVersion());
-      titlePkt.setComponent(serializer.serialize(translateMessage((Component) value)));
+      titlePkt.setComponent(ProtocolUtils.serializeComponent(this.getProtocolVersion(),
+          translateMessage((Component) value)));
       connection.write(titlePkt);
     } else if (part == TitlePart.SUBTITLE) {
       GenericTitlePacket titlePkt = GenericTitlePacket.constructTitlePacket(
           GenericTitlePacket.ActionType.SET_SUBTITLE, this.getProtocolVersion());
-      titlePkt.setComponent(serializer.serialize(translateMessage((Component) value)));
+      titlePkt.setComponent(ProtocolUtils.serializeComponent(this.getProtocolVersion(),
+          translateMessage((Component) value)));
       connection.write(titlePkt);
     } else if (part == TitlePart.TIMES) {
       Times times = (Times) value;
@@ -587,6 +639,27 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
     connectionInFlight = null;
   }
 
+  void setSpeculativeBackend(@Nullable SpeculativeBackendConnection speculativeBackend) {
+    this.speculativeBackend = speculativeBackend;
+  }
+
+  /**
+   * Takes over the connection opened to the player's first server while they were logging in, if
+   * it was opened to the given server. Only the first connection attempt can use it.
+   *
+   * @param target the server the player is connecting to
+   * @return a future completed with the connected channel, or {@code null} if there is no
+   *         connection to the given server to take over
+   */
+  public @Nullable Future<Channel> claimSpeculativeBackend(RegisteredServer target) {
+    SpeculativeBackendConnection speculativeBackend = this.speculativeBackend;
+    if (speculativeBackend == null) {
+      return null;
+    }
+    this.speculativeBackend = null;
+    return speculativeBackend.claim(target);
+  }
+
   /**
    * Handles unexpected disconnects.
    *
@@ -810,18 +883,33 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
       }
     }
 
-    for (int i = tryIndex; i < serversToTry.size(); i++) {
-      String toTryName = serversToTry.get(i);
+    if (current != null) {
+      // We are falling back from this server, so don't send the player back to it until they have
+      // successfully connected somewhere else.
+      if (failedServers == null) {
+        failedServers = new HashSet<>();
+      }
+      failedServers.add(current.getServerInfo().getName().toLowerCase(Locale.ROOT));
+    }
+
+    List<RegisteredServer> candidates = new ArrayList<>(serversToTry.size());
+    for (String toTryName : serversToTry) {
       if ((connectedServer != null && hasSameName(connectedServer.getServer(), toTryName))
           || (connectionInFlight != null && hasSameName(connectionInFlight.getServer(), toTryName))
-          || (current != null && hasSameName(current, toTryName))) {
+          || (failedServers != null
+              && failedServers.contains(toTryName.toLowerCase(Locale.ROOT)))) {
         continue;
       }
+      server.getServer(toTryName)
+          .filter(candidate -> candidate.getHealth().isAvailable())
+          .ifPresent(candidates::add);
+    }
 
-      tryIndex = i;
-      return server.getServer(toTryName);
+    if (candidates.isEmpty()) {
+      return Optional.empty();
     }
-    return Optional.empty();
+    return Optional.of(LoadBalancingStrategies.select(server.getLoadBalancingStrategy(), this,
+        candidates));
   }
 
   private static boolean hasSameName(RegisteredServer server, String name) {
@@ -835,7 +923,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
    */
   public void setConnectedServer(@Nullable VelocityServerConnection serverConnection) {
     this.connectedServer = serverConnection;
-    this.tryIndex = 0; // reset since we got connected to a server
+    this.failedServers = null; // reset since we got connected to a server
 
     if (serverConnection == connectionInFlight) {
       connectionInFlight = null;
@@ -861,6 +949,10 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
   }
 
   void teardown() {
+    SpeculativeBackendConnection speculativeBackend = this.speculativeBackend;
+    if (speculativeBackend != null) {
+      speculativeBackend.abandon();
+    }
     if (connectionInFlight != null) {
       connectionInFlight.disconnect();
     }
@@ -936,7 +1028,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
         "input cannot be greater than " + LegacyChat.MAX_SERVERBOUND_MESSAGE_LENGTH
             + " characters in length");
     if (getProtocolVersion().compareTo(ProtocolVersion.MINECRAFT_1_19) >= 0) {
-      this.chatQueue.hijack(getChatBuilderFactory().builder().asPlayer(this).message(input),
+      this.getChatQueue().hijack(getChatBuilderFactory().builder().asPlayer(this).message(input),
           (instant, item) -> {
             item.setTimestamp(instant);
             return item.toServer();
@@ -972,22 +1064,55 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
    * empty.
    */
   public void queueResourcePack(ResourcePackInfo info) {
-    outstandingResourcePacks.add(info);
+    queueResourcePack(info, null);
+  }
+
+  /**
+   * Queues a resource-pack a server asked the player to apply, and sends it immediately if the
+   * queue is empty.
+   *
+   * @param info the pack to send
+   * @param requester the server connection that asked for the pack, which is told if the player
+   *                  already has the pack applied
+   */
+  public void queueResourcePack(ResourcePackInfo info,
+      @Nullable VelocityServerConnection requester) {
+    if (outstandingResourcePacks == null) {
+      outstandingResourcePacks = new ArrayDeque<>(2);
+    }
+    outstandingResourcePacks.add(new QueuedResourcePack(info, requester));
     if (outstandingResourcePacks.size() == 1) {
       tickResourcePackQueue();
     }
   }
 
   private void tickResourcePackQueue() {
-    ResourcePackInfo queued = outstandingResourcePacks.peek();
+    if (outstandingResourcePacks == null) {
+      return;
+    }
+    QueuedResourcePack next = outstandingResourcePacks.peek();
+
+    // Servers often send the same pack as the server the player came from, or as the network-wide
+    // pack. The client would prompt for and reload a pack it already has, so acknowledge those to
+    // the server straight away instead. Players who declined a pack since go through the usual
+    // path below, which declines the pack for them.
+    while (next != null
+        && next.info.getOriginalOrigin() == ResourcePackInfo.Origin.DOWNSTREAM_SERVER
+        && !Boolean.FALSE.equals(previousResourceResponse)
+        && isResourcePackApplied(next.info)) {
+      outstandingResourcePacks.poll();
+      acknowledgeAppliedResourcePack(next);
+      next = outstandingResourcePacks.peek();
+    }
 
-    if (queued != null) {
+    if (next != null) {
+      ResourcePackInfo queued = next.info;
       // Check if the player declined a resource pack once already
       if (previousResourceResponse != null && !previousResourceResponse) {
         // If that happened we can flush the queue right away.
         // Unless its 1.17+ and forced it will come back denied anyway
         while (!outstandingResourcePacks.isEmpty()) {
-          queued = outstandingResourcePacks.peek();
+          queued = outstandingResourcePacks.peek().info;
           if (queued.getShouldForce() && getProtocolVersion()
               .compareTo(ProtocolVersion.MINECRAFT_1_17) >= 0) {
             break;
@@ -1015,6 +1140,71 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
     }
   }
 
+  /**
+   * Returns whether the player has already applied a resource pack with the same URL and hash as
+   * the given pack during this session. Packs without a hash are never considered applied, as
+   * their contents may have changed.
+   *
+   * @param info the pack to check
+   * @return whether the pack has already been applied
+   */
+  public boolean isResourcePackApplied(ResourcePackInfo info) {
+    // The client only holds a single server resource pack at a time, so a pack applied earlier has
+    // been replaced by any pack applied since.
+    return isSameResourcePack(appliedResourcePack, info);
+  }
+
+  private static boolean isSameResourcePack(@Nullable ResourcePackInfo first,
+      ResourcePackInfo second) {
+    return first != null && second.getHash() != null
+        && Arrays.equals(first.getHash(), second.getHash())
+        && first.getUrl().equals(second.getUrl());
+  }
+
+  /**
+   * Sends the network-wide resource pack to the player, unless the player has already applied
+   * the same pack or is already being sent it. On 1.20.2 and newer, the first server a player
+   * joins may send its pack during the configuration phase, before the network pack is sent, and
+   * the player would otherwise be prompted for the same pack twice.
+   *
+   * @param pack the network-wide resource pack
+   */
+  public void sendNetworkResourcePack(ResourcePackInfo pack) {
+    if (isResourcePackApplied(pack)) {
+      return;
+    }
+    if (outstandingResourcePacks != null) {
+      for (QueuedResourcePack queued : outstandingResourcePacks) {
+        if (isSameResourcePack(queued.info, pack)) {
+          return;
+        }
+      }
+    }
+    sendResourcePackOffer(pack);
+  }
+
+  private void acknowledgeAppliedResourcePack(QueuedResourcePack queued) {
+    // Plugins waiting for the player to load the pack are told it was, just like the server.
+    server.getEventManager().fireAndForget(new PlayerResourcePackStatusEvent(this,
+        PlayerResourcePackStatusEvent.Status.ACCEPTED, queued.info));
+    server.getEventManager().fireAndForget(new PlayerResourcePackStatusEvent(this,
+        PlayerResourcePackStatusEvent.Status.SUCCESSFUL, queued.info));
+
+    // Reply to the server that asked for the pack, which is not yet the connected server while
+    // the player is joining or switching to it.
+    VelocityServerConnection requester = queued.requester != null
+        ? queued.requester : connectedServer;
+    MinecraftConnection backend = requester == null ? null : requester.getConnection();
+    if (backend == null) {
+      return;
+    }
+    String hash = ByteBufUtil.hexDump(queued.info.getHash());
+    backend.delayedWrite(
+        new ResourcePackResponse(hash, PlayerResourcePackStatusEvent.Status.ACCEPTED));
+    backend.write(
+        new ResourcePackResponse(hash, PlayerResourcePackStatusEvent.Status.SUCCESSFUL));
+  }
+
   @Override
   public @Nullable ResourcePackInfo getAppliedResourcePack() {
     return appliedResourcePack;
@@ -1030,8 +1220,9 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
    */
   public boolean onResourcePackResponse(PlayerResourcePackStatusEvent.Status status) {
     final boolean peek = status == PlayerResourcePackStatusEvent.Status.ACCEPTED;
-    final ResourcePackInfo queued = peek
-        ? outstandingResourcePacks.peek() : outstandingResourcePacks.poll();
+    final QueuedResourcePack next = outstandingResourcePacks == null ? null
+        : peek ? outstandingResourcePacks.peek() : outstandingResourcePacks.poll();
+    final ResourcePackInfo queued = next == null ? null : next.info;
 
     server.getEventManager().fire(new PlayerResourcePackStatusEvent(this, status, queued))
         .thenAcceptAsync(event -> {
@@ -1072,6 +1263,10 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
         && queued.getOriginalOrigin() != ResourcePackInfo.Origin.DOWNSTREAM_SERVER;
   }
 
+  public int getOutstandingResourcePackCount() {
+    return outstandingResourcePacks == null ? 0 : outstandingResourcePacks.size();
+  }
+
   /**
    * Gives an indication about the previous resource pack responses.
    */
@@ -1115,7 +1310,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
    *
    * @return the channels
    */
-  public Collection<String> getKnownChannels() {
+  public ChannelSet getKnownChannels() {
     return knownChannels;
   }
 
@@ -1259,4 +1454,16 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
       connectWithIndication();
     }
   }
+
+  private static final class QueuedResourcePack {
+
+    private final ResourcePackInfo info;
+    private final @Nullable VelocityServerConnection requester;
+
+    private QueuedResourcePack(ResourcePackInfo info,
+        @Nullable VelocityServerConnection requester) {
+      this.info = info;
+      this.requester = requester;
+    }
+  }
 }
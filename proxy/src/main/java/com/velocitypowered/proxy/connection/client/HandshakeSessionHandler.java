@@ -62,8 +62,16 @@ public class HandshakeSessionHandler implements MinecraftSessionHandler {
     this.server = Preconditions.checkNotNull(server, "server");
   }
 
+  @Override
+  public void deactivated() {
+    server.getConnectionGate().handshakeReceived(connection.getChannel());
+  }
+
   @Override
   public boolean handle(LegacyPing packet) {
+    if (!attemptStatus()) {
+      return true;
+    }
     connection.setProtocolVersion(ProtocolVersion.LEGACY);
     StatusSessionHandler handler = new StatusSessionHandler(server,
         new LegacyInboundConnection(connection, packet));
@@ -95,6 +103,9 @@ public class HandshakeSessionHandler implements MinecraftSessionHandler {
 
       switch (nextState) {
         case STATUS:
+          if (!attemptStatus()) {
+            break;
+          }
           connection.setActiveSessionHandler(StateRegistry.STATUS, new StatusSessionHandler(server, ic));
           break;
         case LOGIN:
@@ -109,6 +120,16 @@ public class HandshakeSessionHandler implements MinecraftSessionHandler {
     return true;
   }
 
+  private boolean attemptStatus() {
+    InetAddress address = ((InetSocketAddress) connection.getRemoteAddress()).getAddress();
+    if (!server.getStatusLimiter().attempt(address)) {
+      // There's nothing useful to tell a client that is pinging us too often.
+      connection.close(true);
+      return false;
+    }
+    return true;
+  }
+
   private static @Nullable StateRegistry getStateForProtocol(int status) {
     switch (status) {
       case StateRegistry.STATUS_ID:
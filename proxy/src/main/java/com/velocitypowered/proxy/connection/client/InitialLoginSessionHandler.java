@@ -33,6 +33,7 @@ import com.velocitypowered.api.util.GameProfile;
 import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
+import com.velocitypowered.proxy.connection.backend.SpeculativeBackendConnection;
 import com.velocitypowered.proxy.crypto.IdentifiedKeyImpl;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
@@ -136,6 +137,10 @@ public class InitialLoginSessionHandler implements MinecraftSessionHandler {
             return;
           }
 
+          // Start connecting to the player's first server while they are being authenticated.
+          inbound.setSpeculativeBackend(SpeculativeBackendConnection.start(server,
+              mcConnection.eventLoop(), inbound.getVirtualHost().orElse(null)));
+
           inbound.loginEventFired(() -> {
             if (mcConnection.isClosed()) {
               // The player was disconnected
@@ -23,6 +23,7 @@ import com.velocitypowered.api.proxy.crypto.IdentifiedKey;
 import com.velocitypowered.api.proxy.crypto.KeyIdentifiable;
 import com.velocitypowered.api.proxy.messages.ChannelIdentifier;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.backend.SpeculativeBackendConnection;
 import com.velocitypowered.proxy.protocol.packet.LoginPluginMessage;
 import com.velocitypowered.proxy.protocol.packet.LoginPluginResponse;
 import io.netty.buffer.ByteBufUtil;
@@ -35,6 +36,7 @@ import java.util.Queue;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import net.kyori.adventure.text.Component;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import space.vectrix.flare.fastutil.Int2ObjectSyncMap;
 
 /**
@@ -52,6 +54,7 @@ public class LoginInboundConnection implements LoginPhaseConnection, KeyIdentifi
   private volatile Runnable onAllMessagesHandled;
   private volatile boolean loginEventFired;
   private @MonotonicNonNull IdentifiedKey playerKey;
+  private volatile @Nullable SpeculativeBackendConnection speculativeBackend;
 
   LoginInboundConnection(
       InitialInboundConnection delegate) {
@@ -120,6 +123,10 @@ public class LoginInboundConnection implements LoginPhaseConnection, KeyIdentifi
   }
 
   void cleanup() {
+    final SpeculativeBackendConnection speculativeBackend = this.speculativeBackend;
+    if (speculativeBackend != null) {
+      speculativeBackend.abandon();
+    }
     this.loginMessagesToSend.clear();
     this.outstandingResponses.clear();
     this.onAllMessagesHandled = null;
@@ -166,4 +173,12 @@ public class LoginInboundConnection implements LoginPhaseConnection, KeyIdentifi
   public IdentifiedKey getIdentifiedKey() {
     return playerKey;
   }
+
+  void setSpeculativeBackend(@Nullable SpeculativeBackendConnection speculativeBackend) {
+    this.speculativeBackend = speculativeBackend;
+  }
+
+  @Nullable SpeculativeBackendConnection getSpeculativeBackend() {
+    return speculativeBackend;
+  }
 }
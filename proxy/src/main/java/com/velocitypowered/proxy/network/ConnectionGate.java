@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.util.ratelimit.RatelimitKey;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.AttributeKey;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The first check made on every accepted connection, before the connection is registered with an
+ * event loop or has any of its pipeline set up. Connections over the configured limits, or made
+ * while the event loops are overloaded, are closed straight away.
+ */
+@ChannelHandler.Sharable
+public final class ConnectionGate extends ChannelInboundHandlerAdapter {
+
+  private static final Logger logger = LogManager.getLogger(ConnectionGate.class);
+  private static final AttributeKey<Ticket> TICKET =
+      AttributeKey.valueOf("velocity-connection-gate-ticket");
+
+  /**
+   * The reasons a connection may be rejected for.
+   */
+  public enum Reason {
+    MAX_CONNECTIONS,
+    MAX_CONNECTIONS_PER_SUBNET,
+    MAX_PENDING_HANDSHAKES,
+    OVERLOADED
+  }
+
+  private final VelocityServer server;
+  private final EventLoopLatencyMonitor latencyMonitor;
+  private final AtomicInteger openConnections = new AtomicInteger();
+  private final AtomicInteger pendingHandshakes = new AtomicInteger();
+  private final Map<Long, Integer> connectionsPerSubnet = new ConcurrentHashMap<>();
+  private final LongAdder[] rejected = new LongAdder[Reason.values().length];
+  private final AtomicBoolean shedding = new AtomicBoolean();
+
+  ConnectionGate(VelocityServer server, EventLoopLatencyMonitor latencyMonitor) {
+    this.server = server;
+    this.latencyMonitor = latencyMonitor;
+    for (int i = 0; i < rejected.length; i++) {
+      rejected[i] = new LongAdder();
+    }
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    // The server channel reads newly accepted connections, which are not yet registered.
+    Channel child = (Channel) msg;
+    Reason reason = admit(child);
+    if (reason == null) {
+      ctx.fireChannelRead(child);
+      // The acceptor after this handler assigns the connection to an event loop before it
+      // returns, unless registering it failed early, in which case it closes the connection
+      // without completing its close future. Its ticket must then be released here instead.
+      if (!hasEventLoop(child)) {
+        release(child.attr(TICKET).get());
+      }
+    } else {
+      rejected[reason.ordinal()].increment();
+      child.unsafe().closeForcibly();
+    }
+  }
+
+  private @Nullable Reason admit(Channel child) {
+    VelocityConfiguration.ConnectionLimits limits =
+        server.getConfiguration().getConnectionLimits();
+
+    if (isOverloaded(limits.getOverloadThreshold())) {
+      return Reason.OVERLOADED;
+    }
+
+    if (openConnections.incrementAndGet() > limits.getMaxConnections()
+        && limits.getMaxConnections() > 0) {
+      openConnections.decrementAndGet();
+      return Reason.MAX_CONNECTIONS;
+    }
+
+    if (pendingHandshakes.incrementAndGet() > limits.getMaxPendingHandshakes()
+        && limits.getMaxPendingHandshakes() > 0) {
+      pendingHandshakes.decrementAndGet();
+      openConnections.decrementAndGet();
+      return Reason.MAX_PENDING_HANDSHAKES;
+    }
+
+    // Behind a proxy protocol load balancer, every connection comes from the load balancer.
+    long subnet = 0;
+    SocketAddress remoteAddress = child.remoteAddress();
+    if (limits.getMaxConnectionsPerSubnet() > 0 && !server.getConfiguration().isProxyProtocol()
+        && remoteAddress instanceof InetSocketAddress
+        && !((InetSocketAddress) remoteAddress).isUnresolved()) {
+      subnet = RatelimitKey.SUBNET.of(((InetSocketAddress) remoteAddress).getAddress());
+      if (connectionsPerSubnet.merge(subnet, 1, Integer::sum)
+          > limits.getMaxConnectionsPerSubnet()) {
+        releaseSubnet(subnet);
+        pendingHandshakes.decrementAndGet();
+        openConnections.decrementAndGet();
+        return Reason.MAX_CONNECTIONS_PER_SUBNET;
+      }
+    }
+
+    Ticket ticket = new Ticket(subnet);
+    child.attr(TICKET).set(ticket);
+    child.closeFuture().addListener((ChannelFutureListener) future -> release(ticket));
+    return null;
+  }
+
+  private static boolean hasEventLoop(Channel channel) {
+    try {
+      channel.eventLoop();
+      return true;
+    } catch (IllegalStateException e) {
+      return false;
+    }
+  }
+
+  private boolean isOverloaded(int thresholdMillis) {
+    if (thresholdMillis <= 0) {
+      shedding.set(false);
+      return false;
+    }
+
+    long lagMillis = TimeUnit.NANOSECONDS.toMillis(latencyMonitor.getMaxLagNanos());
+    boolean overloaded = lagMillis > thresholdMillis;
+    if (shedding.compareAndSet(!overloaded, overloaded)) {
+      if (overloaded) {
+        logger.warn("Event loops are {}ms behind, rejecting new connections", lagMillis);
+      } else {
+        logger.info("Event loops have caught up, accepting new connections again");
+      }
+    }
+    return overloaded;
+  }
+
+  /**
+   * Notes that the given connection has sent its handshake, so it no longer counts towards the
+   * pending handshake limit.
+   *
+   * @param channel the connection
+   */
+  public void handshakeReceived(Channel channel) {
+    Ticket ticket = channel.attr(TICKET).get();
+    if (ticket != null && ticket.pendingHandshake.compareAndSet(true, false)) {
+      pendingHandshakes.decrementAndGet();
+    }
+  }
+
+  private void release(Ticket ticket) {
+    if (!ticket.released.compareAndSet(false, true)) {
+      return;
+    }
+    if (ticket.pendingHandshake.compareAndSet(true, false)) {
+      pendingHandshakes.decrementAndGet();
+    }
+    if (ticket.subnet != 0) {
+      releaseSubnet(ticket.subnet);
+    }
+    openConnections.decrementAndGet();
+  }
+
+  private void releaseSubnet(long subnet) {
+    connectionsPerSubnet.computeIfPresent(subnet, (key, count) -> count == 1 ? null : count - 1);
+  }
+
+  public int getOpenConnections() {
+    return openConnections.get();
+  }
+
+  public int getPendingHandshakes() {
+    return pendingHandshakes.get();
+  }
+
+  public long getRejected(Reason reason) {
+    return rejected[reason.ordinal()].sum();
+  }
+
+  public long getEventLoopLagMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(latencyMonitor.getMaxLagNanos());
+  }
+
+  private static final class Ticket {
+
+    private final long subnet;
+    private final AtomicBoolean pendingHandshake = new AtomicBoolean(true);
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Ticket(long subnet) {
+      this.subnet = subnet;
+    }
+  }
+}
@@ -26,6 +26,7 @@ import com.velocitypowered.api.event.proxy.ListenerCloseEvent;
 import com.velocitypowered.api.network.ListenerType;
 import com.velocitypowered.natives.util.Natives;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.network.netty.SeparatePoolInetNameResolver;
 import com.velocitypowered.proxy.protocol.netty.GameSpyQueryHandler;
 import io.netty.bootstrap.Bootstrap;
@@ -36,9 +37,11 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import java.net.InetSocketAddress;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -47,6 +50,7 @@ import org.asynchttpclient.RequestBuilder;
 import org.asynchttpclient.filter.FilterContext;
 import org.asynchttpclient.filter.FilterContext.FilterContextBuilder;
 import org.asynchttpclient.filter.RequestFilter;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -69,6 +73,12 @@ public final class ConnectionManager {
   @SuppressWarnings("WeakerAccess")
   public final BackendChannelInitializerHolder backendChannelInitializer;
 
+  private final EventLoopLatencyMonitor bossLatencyMonitor;
+  private final EventLoopLatencyMonitor latencyMonitor;
+  private final EventLoopWatchdog watchdog;
+  private final OutboundBufferBudget outboundBufferBudget;
+  private @MonotonicNonNull VelocityByteBufAllocator allocator;
+  private final ConnectionGate connectionGate;
   private final SeparatePoolInetNameResolver resolver;
   private final AsyncHttpClient httpClient;
 
@@ -86,6 +96,14 @@ public final class ConnectionManager {
         new ServerChannelInitializer(this.server));
     this.backendChannelInitializer = new BackendChannelInitializerHolder(
         new BackendChannelInitializer(this.server));
+    this.bossLatencyMonitor = new EventLoopLatencyMonitor("boss", this.bossGroup);
+    this.bossLatencyMonitor.start();
+    this.latencyMonitor = new EventLoopLatencyMonitor("worker", this.workerGroup);
+    this.latencyMonitor.start();
+    this.watchdog = new EventLoopWatchdog(this.server,
+        List.of(this.bossLatencyMonitor, this.latencyMonitor));
+    this.connectionGate = new ConnectionGate(this.server, this.latencyMonitor);
+    this.outboundBufferBudget = new OutboundBufferBudget(this.server);
     this.resolver = new SeparatePoolInetNameResolver(GlobalEventExecutor.INSTANCE);
     this.httpClient = asyncHttpClient(config()
         .setEventLoopGroup(this.workerGroup)
@@ -103,6 +121,22 @@ public final class ConnectionManager {
         .build());
   }
 
+  /**
+   * Creates the buffer allocator used by all connections. Must be called once, after the
+   * configuration is loaded and before any connection is made.
+   *
+   * @param configuration the proxy configuration
+   */
+  public void createAllocator(VelocityConfiguration configuration) {
+    Preconditions.checkState(this.allocator == null, "allocator already created");
+    int workerThreads = 0;
+    for (EventExecutor ignored : this.workerGroup) {
+      workerThreads++;
+    }
+    this.allocator = VelocityByteBufAllocator.create(configuration.getAllocatorArenas(),
+        configuration.getAllocatorChunkSize(), workerThreads);
+  }
+
   public void logChannelInformation() {
     LOGGER.info("Connections will use {} channels, {} compression, {} ciphers", this.transportType,
         Natives.compress.getLoadedVariant(), Natives.cipher.getLoadedVariant());
@@ -117,6 +151,9 @@ public final class ConnectionManager {
     final ServerBootstrap bootstrap = new ServerBootstrap()
         .channelFactory(this.transportType.serverSocketChannelFactory)
         .group(this.bossGroup, this.workerGroup)
+        .handler(this.connectionGate)
+        .option(ChannelOption.ALLOCATOR, this.allocator)
+        .childOption(ChannelOption.ALLOCATOR, this.allocator)
         .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, SERVER_WRITE_MARK)
         .childHandler(this.serverChannelInitializer.get())
         .childOption(ChannelOption.TCP_NODELAY, true)
@@ -155,6 +192,7 @@ public final class ConnectionManager {
         .channelFactory(this.transportType.datagramChannelFactory)
         .group(this.workerGroup)
         .handler(new GameSpyQueryHandler(this.server))
+        .option(ChannelOption.ALLOCATOR, this.allocator)
         .localAddress(address);
     bootstrap.bind()
         .addListener((ChannelFutureListener) future -> {
@@ -182,6 +220,7 @@ public final class ConnectionManager {
     Bootstrap bootstrap = new Bootstrap()
         .channelFactory(this.transportType.socketChannelFactory)
         .option(ChannelOption.TCP_NODELAY, true)
+        .option(ChannelOption.ALLOCATOR, this.allocator)
         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
             this.server.getConfiguration().getConnectTimeout())
         .group(group == null ? this.workerGroup : group)
@@ -239,6 +278,30 @@ public final class ConnectionManager {
     return bossGroup;
   }
 
+  public EventLoopGroup getWorkerGroup() {
+    return workerGroup;
+  }
+
+  public EventLoopLatencyMonitor getLatencyMonitor() {
+    return latencyMonitor;
+  }
+
+  public EventLoopWatchdog getWatchdog() {
+    return watchdog;
+  }
+
+  public ConnectionGate getConnectionGate() {
+    return connectionGate;
+  }
+
+  public VelocityByteBufAllocator getAllocator() {
+    return allocator;
+  }
+
+  public OutboundBufferBudget getOutboundBufferBudget() {
+    return outboundBufferBudget;
+  }
+
   public ServerChannelInitializerHolder getServerChannelInitializer() {
     return this.serverChannelInitializer;
   }
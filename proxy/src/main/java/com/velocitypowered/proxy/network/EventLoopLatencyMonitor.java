@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import com.google.common.collect.ImmutableList;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Measures how far behind the event loops of a group are, by scheduling a task on each loop at a
+ * fixed interval and noting how late it runs. A loop that is busy with I/O or has a long task
+ * queue runs its scheduled tasks late.
+ */
+public final class EventLoopLatencyMonitor {
+
+  private static final long PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final String name;
+  private final ImmutableList<Probe> probes;
+
+  /**
+   * Creates a monitor for every event loop in the given group. The monitor does nothing until it
+   * is {@link #start() started}.
+   *
+   * @param name the name of the group, used when reporting on it
+   * @param group the group to monitor
+   */
+  public EventLoopLatencyMonitor(String name, EventLoopGroup group) {
+    this.name = name;
+    ImmutableList.Builder<Probe> probes = ImmutableList.builder();
+    for (EventExecutor executor : group) {
+      probes.add(new Probe(executor));
+    }
+    this.probes = probes.build();
+  }
+
+  public void start() {
+    for (Probe probe : probes) {
+      probe.schedule();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public ImmutableList<Probe> getProbes() {
+    return probes;
+  }
+
+  /**
+   * Returns how far behind the slowest event loop currently is.
+   *
+   * @return the largest delay of any event loop, in nanoseconds
+   */
+  public long getMaxLagNanos() {
+    long now = System.nanoTime();
+    long max = 0;
+    for (Probe probe : probes) {
+      max = Math.max(max, probe.lag(now));
+    }
+    return max;
+  }
+
+  /**
+   * The probe task of a single event loop.
+   */
+  public static final class Probe implements Runnable {
+
+    private final EventExecutor executor;
+    private final RttHistogram lag = new RttHistogram();
+    private volatile @Nullable Thread thread;
+    private volatile long expectedAt;
+    private volatile long lastLagNanos;
+    private volatile boolean started;
+
+    private Probe(EventExecutor executor) {
+      this.executor = executor;
+    }
+
+    private void schedule() {
+      expectedAt = System.nanoTime() + PERIOD_NANOS;
+      started = true;
+      executor.schedule(this, PERIOD_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    private long lag(long now) {
+      if (!started) {
+        return 0;
+      }
+      // If the probe itself is overdue, the loop is at least that far behind, even if the probe
+      // has not had a chance to run and record it yet.
+      return Math.max(lastLagNanos, now - expectedAt);
+    }
+
+    /**
+     * Returns how long ago this probe should have run, or a negative value if it is not due yet
+     * or the event loop is shutting down. Each time the probe runs, the time it is next due at
+     * changes.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return how overdue the probe is, in nanoseconds
+     */
+    public long getOverdueNanos(long now) {
+      return started && !executor.isShuttingDown() ? now - expectedAt : Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns the time this probe is next due to run at, which identifies the current run of the
+     * probe.
+     *
+     * @return the {@link System#nanoTime()} the probe is due at
+     */
+    public long getExpectedAt() {
+      return expectedAt;
+    }
+
+    /**
+     * Returns the thread of the event loop, once the probe has run on it at least once.
+     *
+     * @return the event loop thread, if known
+     */
+    public @Nullable Thread getThread() {
+      return thread;
+    }
+
+    public RttHistogram getLagStatistics() {
+      return lag;
+    }
+
+    @Override
+    public void run() {
+      if (thread == null) {
+        thread = Thread.currentThread();
+      }
+      long lagNanos = Math.max(0, System.nanoTime() - expectedAt);
+      lastLagNanos = lagNanos;
+      lag.recordNanos(lagNanos);
+      if (!executor.isShuttingDown()) {
+        schedule();
+      }
+    }
+  }
+}
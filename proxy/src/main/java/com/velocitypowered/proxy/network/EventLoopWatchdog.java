@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.velocitypowered.api.plugin.PluginContainer;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.network.EventLoopLatencyMonitor.Probe;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Watches the event loops for stalls. An event loop whose probe task has not run for longer than
+ * the configured threshold is stuck, usually on blocking work done by a plugin, so the watchdog
+ * captures and logs the stack trace of its thread and blames the plugin the stack trace points at,
+ * if any.
+ *
+ * <p>The watchdog runs on its own thread, since a stuck event loop cannot report on itself.</p>
+ */
+public final class EventLoopWatchdog {
+
+  private static final Logger logger = LogManager.getLogger(EventLoopWatchdog.class);
+  private static final long CHECK_INTERVAL_MILLIS = 100;
+  private static final int MAX_REPORTS = 16;
+
+  private final VelocityServer server;
+  private final List<EventLoopLatencyMonitor> monitors;
+  // Only accessed from the watchdog thread. Maps a stuck probe to the run it got stuck on.
+  private final Map<Probe, Long> stalled = new HashMap<>();
+  private final Deque<StallReport> reports = new ArrayDeque<>();
+  private final AtomicLong stalls = new AtomicLong();
+  private @Nullable ScheduledExecutorService executor;
+
+  EventLoopWatchdog(VelocityServer server, List<EventLoopLatencyMonitor> monitors) {
+    this.server = server;
+    this.monitors = ImmutableList.copyOf(monitors);
+  }
+
+  /**
+   * Starts watching the event loops.
+   */
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("Velocity Event Loop Watchdog")
+        .setDaemon(true)
+        .build());
+    executor.scheduleWithFixedDelay(this::check, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops watching the event loops.
+   */
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  @VisibleForTesting
+  void check() {
+    int thresholdMillis = server.getConfiguration().getEventLoopStallThreshold();
+    if (thresholdMillis <= 0) {
+      stalled.clear();
+      return;
+    }
+
+    long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    long now = System.nanoTime();
+    for (EventLoopLatencyMonitor monitor : monitors) {
+      for (Probe probe : monitor.getProbes()) {
+        Thread thread = probe.getThread();
+        if (thread == null) {
+          continue;
+        }
+
+        Long stalledAt = stalled.get(probe);
+        if (stalledAt != null) {
+          // Only report each stall once, and note when the loop gets going again.
+          if (stalledAt != probe.getExpectedAt()) {
+            stalled.remove(probe);
+            logger.info("Event loop thread {} is no longer stuck, after about {}ms",
+                thread.getName(), TimeUnit.NANOSECONDS.toMillis(now - stalledAt));
+          }
+          continue;
+        }
+
+        long overdueNanos = probe.getOverdueNanos(now);
+        if (overdueNanos > thresholdNanos) {
+          stalled.put(probe, probe.getExpectedAt());
+          report(monitor, thread, TimeUnit.NANOSECONDS.toMillis(overdueNanos));
+        }
+      }
+    }
+  }
+
+  private void report(EventLoopLatencyMonitor monitor, Thread thread, long stuckMillis) {
+    StackTraceElement[] stackTrace = thread.getStackTrace();
+    String plugin = findPlugin(stackTrace);
+    StallReport report = new StallReport(monitor.getName(), thread.getName(), Instant.now(),
+        stuckMillis, plugin, ImmutableList.copyOf(stackTrace));
+    stalls.incrementAndGet();
+    synchronized (reports) {
+      if (reports.size() == MAX_REPORTS) {
+        reports.removeFirst();
+      }
+      reports.addLast(report);
+    }
+
+    StringBuilder message = new StringBuilder("Event loop thread ")
+        .append(thread.getName())
+        .append(" has been stuck for ")
+        .append(stuckMillis)
+        .append("ms");
+    if (plugin != null) {
+      message.append(", most likely because of the plugin ").append(plugin);
+    }
+    message.append(". Every connection handled by this thread is frozen until it is free again.");
+    for (StackTraceElement element : stackTrace) {
+      message.append("\n\tat ").append(element);
+    }
+    logger.warn(message.toString());
+  }
+
+  /**
+   * Finds the plugin the given stack trace is most likely stuck in, by looking for the innermost
+   * frame that belongs to the package of a plugin's main class.
+   *
+   * @param stackTrace the stack trace to look through
+   * @return the ID of the plugin, or {@code null} if no plugin is involved
+   */
+  private @Nullable String findPlugin(StackTraceElement[] stackTrace) {
+    Map<String, String> packages = new HashMap<>();
+    for (PluginContainer container : server.getPluginManager().getPlugins()) {
+      container.getInstance().ifPresent(instance -> packages.put(
+          instance.getClass().getPackageName() + ".", container.getDescription().getId()));
+    }
+    if (packages.isEmpty()) {
+      return null;
+    }
+
+    for (StackTraceElement element : stackTrace) {
+      String className = element.getClassName();
+      String bestMatch = null;
+      for (Map.Entry<String, String> entry : packages.entrySet()) {
+        if (className.startsWith(entry.getKey())
+            && (bestMatch == null || entry.getKey().length() > bestMatch.length())) {
+          bestMatch = entry.getKey();
+        }
+      }
+      if (bestMatch != null) {
+        return packages.get(bestMatch);
+      }
+    }
+    return null;
+  }
+
+  public long getStallCount() {
+    return stalls.get();
+  }
+
+  /**
+   * Returns the most recent stalls, oldest first.
+   *
+   * @return the most recent stalls
+   */
+  public ImmutableList<StallReport> getRecentStalls() {
+    synchronized (reports) {
+      return ImmutableList.copyOf(reports);
+    }
+  }
+
+  public List<EventLoopLatencyMonitor> getMonitors() {
+    return monitors;
+  }
+
+  /**
+   * A record of an event loop that got stuck.
+   */
+  public static final class StallReport {
+
+    private final String group;
+    private final String thread;
+    private final Instant detectedAt;
+    private final long stuckMillis;
+    private final @Nullable String plugin;
+    private final ImmutableList<StackTraceElement> stackTrace;
+
+    private StallReport(String group, String thread, Instant detectedAt, long stuckMillis,
+        @Nullable String plugin, ImmutableList<StackTraceElement> stackTrace) {
+      this.group = group;
+      this.thread = thread;
+      this.detectedAt = detectedAt;
+      this.stuckMillis = stuckMillis;
+      this.plugin = plugin;
+      this.stackTrace = stackTrace;
+    }
+
+    public String getGroup() {
+      return group;
+    }
+
+    public String getThread() {
+      return thread;
+    }
+
+    public Instant getDetectedAt() {
+      return detectedAt;
+    }
+
+    public long getStuckMillis() {
+      return stuckMillis;
+    }
+
+    public @Nullable String getPlugin() {
+      return plugin;
+    }
+
+    public ImmutableList<StackTraceElement> getStackTrace() {
+      return stackTrace;
+    }
+  }
+}
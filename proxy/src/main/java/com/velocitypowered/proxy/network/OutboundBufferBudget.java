@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.util.internal.PlatformDependent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Accounts for the data queued to be sent to players across the whole proxy, and disconnects
+ * players who cannot keep up with what is sent to them.
+ *
+ * <p>The write buffer water marks of each connection only pause reading from the player's
+ * backend server, which bounds what a single slow player can queue under normal circumstances.
+ * Nothing stops thousands of slow players from each holding a few megabytes of direct memory,
+ * though, so the budget periodically adds up the outbound buffers of all players. A player over
+ * the per-connection budget, if one is configured, is disconnected, and while the total is over
+ * the global budget, the players with the most data queued are disconnected until the total is
+ * back under it.</p>
+ */
+public final class OutboundBufferBudget {
+
+  private static final Logger logger = LogManager.getLogger(OutboundBufferBudget.class);
+  private static final long CHECK_INTERVAL_MILLIS = 1000;
+  // Players with less than this queued are never disconnected because of the global budget, since
+  // they are still within the write buffer water marks.
+  private static final long EVICTION_FLOOR_BYTES = 1 << 20;
+  private static final double PRESSURE_RATIO = 0.75;
+
+  private final VelocityServer server;
+  private final AtomicLong evictions = new AtomicLong();
+  private volatile long pendingBytes;
+  private volatile long peakPendingBytes;
+  private volatile long globalBudgetBytes;
+  private volatile boolean underPressure;
+  private @Nullable ScheduledExecutorService executor;
+
+  OutboundBufferBudget(VelocityServer server) {
+    this.server = server;
+  }
+
+  /**
+   * Starts accounting for queued outbound data.
+   */
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("Velocity Outbound Buffer Budget")
+        .setDaemon(true)
+        .build());
+    executor.scheduleWithFixedDelay(this::check, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops accounting for queued outbound data.
+   */
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  void check() {
+    VelocityConfiguration configuration = server.getConfiguration();
+    long connectionBudget = configuration.getMaxOutboundBufferPerConnection() * (1L << 20);
+    long globalBudget = resolveGlobalBudget(configuration.getMaxOutboundBuffer());
+    globalBudgetBytes = globalBudget;
+
+    long total = 0;
+    List<Queued> candidates = new ArrayList<>();
+    for (Player player : server.getAllPlayers()) {
+      MinecraftConnection connection = ((ConnectedPlayer) player).getConnection();
+      long queued = getPendingBytes(connection);
+      if (connectionBudget > 0 && queued > connectionBudget) {
+        evict(player, connection, queued, "its own");
+        continue;
+      }
+      total += queued;
+      if (queued >= EVICTION_FLOOR_BYTES) {
+        candidates.add(new Queued(player, connection, queued));
+      }
+    }
+
+    if (globalBudget > 0 && total > globalBudget) {
+      candidates.sort(Comparator.comparingLong((Queued queued) -> queued.bytes).reversed());
+      for (Queued queued : candidates) {
+        if (total <= globalBudget) {
+          break;
+        }
+        evict(queued.player, queued.connection, queued.bytes, "the global");
+        total -= queued.bytes;
+      }
+    }
+
+    pendingBytes = total;
+    peakPendingBytes = Math.max(peakPendingBytes, total);
+    checkPressure(total, globalBudget);
+  }
+
+  private void checkPressure(long total, long globalBudget) {
+    long maxDirect = PlatformDependent.maxDirectMemory();
+    long usedDirect = server.getByteBufAllocator().getUsedDirectMemory();
+    boolean pressure = (globalBudget > 0 && total > globalBudget * PRESSURE_RATIO)
+        || (maxDirect > 0 && usedDirect > maxDirect * PRESSURE_RATIO);
+    if (pressure != underPressure) {
+      underPressure = pressure;
+      if (pressure) {
+        logger.warn("Direct memory is running low: {} MiB of {} MiB used, {} MiB queued to be "
+                + "sent to players", usedDirect >> 20, maxDirect >> 20, total >> 20);
+      } else {
+        logger.info("Direct memory use is back to normal: {} MiB of {} MiB used",
+            usedDirect >> 20, maxDirect >> 20);
+      }
+    }
+  }
+
+  private void evict(Player player, MinecraftConnection connection, long queued, String budget) {
+    // The connection is too far behind to receive a disconnect message in a timely manner.
+    logger.info("Disconnecting {}, who has {} KiB of data queued and is over {} outbound buffer "
+        + "budget", player, queued >> 10, budget);
+    evictions.incrementAndGet();
+    connection.close(true);
+  }
+
+  private static long getPendingBytes(MinecraftConnection connection) {
+    ChannelOutboundBuffer buffer = connection.getChannel().unsafe().outboundBuffer();
+    return buffer == null ? 0 : buffer.totalPendingWriteBytes();
+  }
+
+  private static long resolveGlobalBudget(int configuredMebibytes) {
+    if (configuredMebibytes < 0) {
+      // Leave the other half for compression, encryption and reading from connections.
+      return PlatformDependent.maxDirectMemory() / 2;
+    }
+    return configuredMebibytes * (1L << 20);
+  }
+
+  public long getPendingBytes() {
+    return pendingBytes;
+  }
+
+  public long getPeakPendingBytes() {
+    return peakPendingBytes;
+  }
+
+  public long getGlobalBudgetBytes() {
+    return globalBudgetBytes;
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  public boolean isUnderPressure() {
+    return underPressure;
+  }
+
+  private static final class Queued {
+
+    private final Player player;
+    private final MinecraftConnection connection;
+    private final long bytes;
+
+    private Queued(Player player, MinecraftConnection connection, long bytes) {
+      this.player = player;
+      this.connection = connection;
+      this.bytes = bytes;
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.network.PingStatistics;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A compact log-linear histogram of round trip times. Values are bucketed in microseconds with
+ * four buckets per power of two, so a histogram needs only a few hundred bytes and percentiles are
+ * accurate to within a bucket width (25%), which is estimated down to about 12% by reporting the
+ * bucket midpoint.
+ *
+ * <p>A histogram must only be recorded to by one thread at a time, usually the event loop of the
+ * connection it belongs to, but it may be read from any thread.</p>
+ */
+public final class RttHistogram implements PingStatistics {
+
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final long MAX_MICROS = (1L << 24) - 1; // ~16.7 seconds
+  private static final int BUCKETS = indexOf(MAX_MICROS) + 1;
+
+  private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKETS);
+  private volatile long count;
+  private volatile long sumMicros;
+  private volatile long minMicros = Long.MAX_VALUE;
+  private volatile long maxMicros;
+  private volatile long lastMicros = -1;
+  private volatile long lastRecorded;
+
+  static int indexOf(long micros) {
+    if (micros < SUB_BUCKETS) {
+      return (int) Math.max(0, micros);
+    }
+    int shift = (63 - Long.numberOfLeadingZeros(micros)) - SUB_BUCKET_BITS;
+    int sub = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + sub;
+  }
+
+  static long lowerBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    int sub = index % SUB_BUCKETS;
+    return ((long) (SUB_BUCKETS + sub)) << shift;
+  }
+
+  public void recordNanos(long nanos) {
+    recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+  }
+
+  /**
+   * Records a round trip time.
+   *
+   * @param micros the round trip time in microseconds
+   */
+  public void recordMicros(long micros) {
+    long value = Math.min(Math.max(0, micros), MAX_MICROS);
+    int index = indexOf(value);
+    counts.lazySet(index, counts.get(index) + 1);
+    sumMicros += value;
+    if (value < minMicros) {
+      minMicros = value;
+    }
+    if (value > maxMicros) {
+      maxMicros = value;
+    }
+    lastMicros = value;
+    lastRecorded = System.nanoTime();
+    count++;
+  }
+
+  /**
+   * Adds every value recorded in {@code other} to this histogram. The most recent value of the
+   * two histograms becomes the last value of this histogram.
+   *
+   * @param other the histogram to merge into this one
+   */
+  public void merge(RttHistogram other) {
+    long otherCount = other.count;
+    if (otherCount == 0) {
+      return;
+    }
+    for (int i = 0; i < BUCKETS; i++) {
+      int bucket = other.counts.get(i);
+      if (bucket != 0) {
+        counts.lazySet(i, counts.get(i) + bucket);
+      }
+    }
+    sumMicros += other.sumMicros;
+    minMicros = Math.min(minMicros, other.minMicros);
+    maxMicros = Math.max(maxMicros, other.maxMicros);
+    if (count == 0 || other.lastRecorded - lastRecorded >= 0) {
+      lastMicros = other.lastMicros;
+      lastRecorded = other.lastRecorded;
+    }
+    count += otherCount;
+  }
+
+  @Override
+  public long getSampleCount() {
+    return count;
+  }
+
+  @Override
+  public double getLastMillis() {
+    return count == 0 ? -1 : toMillis(lastMicros);
+  }
+
+  @Override
+  public double getMinMillis() {
+    return count == 0 ? -1 : toMillis(minMicros);
+  }
+
+  @Override
+  public double getMaxMillis() {
+    return count == 0 ? -1 : toMillis(maxMicros);
+  }
+
+  @Override
+  public double getAverageMillis() {
+    long samples = count;
+    return samples == 0 ? -1 : toMillis(sumMicros) / samples;
+  }
+
+  @Override
+  public double getPercentileMillis(double percentile) {
+    Preconditions.checkArgument(percentile >= 0 && percentile <= 100,
+        "percentile must be between 0 and 100");
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += counts.get(i);
+    }
+    if (total == 0) {
+      return -1;
+    }
+    long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        long lower = lowerBound(i);
+        long midpoint = lower + (lowerBound(i + 1) - lower) / 2;
+        return toMillis(Math.min(Math.max(midpoint, minMicros), maxMicros));
+      }
+    }
+    return toMillis(maxMicros);
+  }
+
+  private static double toMillis(long micros) {
+    return micros / 1000.0;
+  }
+
+  @Override
+  public String toString() {
+    return "RttHistogram{"
+        + "count=" + count
+        + ", p50=" + getPercentileMillis(50)
+        + ", p99=" + getPercentileMillis(99)
+        + ", max=" + getMaxMillis()
+        + '}';
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.internal.PlatformDependent;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The pooled buffer allocator used for all of the proxy's connections, sized from the proxy
+ * configuration rather than from Netty's defaults.
+ *
+ * <p>There is one direct arena per worker event loop by default, so event loops never contend for
+ * an arena. Chunks are as large as Netty's by default, and buffers larger than a chunk, such as
+ * those holding the largest decompressed packets, are allocated outside the pool. The allocator
+ * also counts the direct buffers requested from it, so that how often the thread-local caches
+ * serve a request can be worked out from the arena metrics, which only count the requests that
+ * reach an arena.</p>
+ */
+public final class VelocityByteBufAllocator extends PooledByteBufAllocator {
+
+  private final int chunkSize;
+  private final LongAdder directRequests = new LongAdder();
+  private final LongAdder hugeDirectRequests = new LongAdder();
+
+  private VelocityByteBufAllocator(int arenas, int maxOrder) {
+    super(PlatformDependent.directBufferPreferred(),
+        Math.min(PooledByteBufAllocator.defaultNumHeapArena(), arenas), arenas,
+        PooledByteBufAllocator.defaultPageSize(), maxOrder,
+        PooledByteBufAllocator.defaultSmallCacheSize(),
+        PooledByteBufAllocator.defaultNormalCacheSize(),
+        PooledByteBufAllocator.defaultUseCacheForAllThreads());
+    this.chunkSize = PooledByteBufAllocator.defaultPageSize() << maxOrder;
+  }
+
+  /**
+   * Creates an allocator.
+   *
+   * @param arenas the number of direct arenas, or {@code 0} for one per worker thread
+   * @param chunkSizeKib the size of the chunks arenas allocate memory in, in kibibytes, which is
+   *                     rounded up to a power of two
+   * @param workerThreads the number of worker event loop threads
+   * @return the new allocator
+   */
+  public static VelocityByteBufAllocator create(int arenas, int chunkSizeKib, int workerThreads) {
+    int pageSize = PooledByteBufAllocator.defaultPageSize();
+    int maxOrder = 0;
+    // Netty does not allow chunks larger than 1 GiB.
+    while ((long) pageSize << maxOrder < chunkSizeKib * 1024L && maxOrder < 14) {
+      maxOrder++;
+    }
+    return new VelocityByteBufAllocator(arenas > 0 ? arenas : Math.max(1, workerThreads),
+        maxOrder);
+  }
+
+  @Override
+  protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+    directRequests.increment();
+    if (initialCapacity > chunkSize) {
+      hugeDirectRequests.increment();
+    }
+    return super.newDirectBuffer(initialCapacity, maxCapacity);
+  }
+
+  /**
+   * Returns how much direct memory is in use by Netty. This includes direct memory allocated
+   * outside of this allocator, if Netty tracks it.
+   *
+   * @return the direct memory in use, in bytes
+   */
+  public long getUsedDirectMemory() {
+    long used = PlatformDependent.usedDirectMemory();
+    return used >= 0 ? used : metric().usedDirectMemory();
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Returns the number of direct buffers requested from the allocator.
+   *
+   * @return the number of direct buffers requested
+   */
+  public long getDirectRequests() {
+    return directRequests.sum();
+  }
+
+  /**
+   * Returns the fraction of pooled direct buffer requests served by a thread-local cache without
+   * going to an arena.
+   *
+   * @return the thread cache hit rate, between 0 and 1, or -1 if nothing has been requested yet
+   */
+  public double getThreadCacheHitRate() {
+    long pooledRequests = directRequests.sum() - hugeDirectRequests.sum();
+    if (pooledRequests <= 0) {
+      return -1;
+    }
+    long arenaAllocations = 0;
+    for (PoolArenaMetric arena : metric().directArenas()) {
+      arenaAllocations += arena.numSmallAllocations() + arena.numNormalAllocations();
+    }
+    return Math.max(0, 1 - (double) arenaAllocations / pooledRequests);
+  }
+
+  /**
+   * Returns the largest number of threads sharing a direct arena. Threads that share an arena
+   * contend for it whenever their thread-local caches miss.
+   *
+   * @return the most threads using a single direct arena
+   */
+  public int getMaxThreadsPerArena() {
+    int max = 0;
+    for (PoolArenaMetric arena : metric().directArenas()) {
+      max = Math.max(max, arena.numThreadCaches());
+    }
+    return max;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network.netty;
+
+import com.google.common.base.Preconditions;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.timeout.ReadTimeoutException;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Closes the connection with a {@link ReadTimeoutException} if nothing is read from it for the
+ * given amount of time, like Netty's {@link io.netty.handler.timeout.ReadTimeoutHandler}.
+ *
+ * <p>Rather than scheduling a task of its own that has to be cancelled and rescheduled over and
+ * over, the timeout is tracked by the {@link ReadTimeoutWheel} of the event loop, and a read only
+ * has to note the time. The timeout may fire up to one tick of the wheel late.</p>
+ */
+public final class CoarseReadTimeoutHandler extends ChannelInboundHandlerAdapter {
+
+  private final long timeoutNanos;
+  private final Timeout timeout = new Timeout();
+  private @Nullable ChannelHandlerContext ctx;
+  private @Nullable ReadTimeoutWheel wheel;
+  private long lastReadTime;
+  private boolean reading;
+  private boolean closed;
+
+  /**
+   * Creates a new handler.
+   *
+   * @param timeout the read timeout, or {@code 0} to never time out
+   * @param unit the unit of the timeout
+   */
+  public CoarseReadTimeoutHandler(long timeout, TimeUnit unit) {
+    Preconditions.checkArgument(timeout >= 0, "timeout must not be negative");
+    this.timeoutNanos = unit.toNanos(timeout);
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) {
+    if (ctx.channel().isActive() && ctx.channel().isRegistered()) {
+      start(ctx);
+    }
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) {
+    stop();
+  }
+
+  @Override
+  public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
+    if (ctx.channel().isActive()) {
+      start(ctx);
+    }
+    super.channelRegistered(ctx);
+  }
+
+  @Override
+  public void channelActive(ChannelHandlerContext ctx) throws Exception {
+    start(ctx);
+    super.channelActive(ctx);
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    stop();
+    super.channelInactive(ctx);
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    reading = true;
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+    if (reading) {
+      lastReadTime = System.nanoTime();
+      reading = false;
+    }
+    ctx.fireChannelReadComplete();
+  }
+
+  private void start(ChannelHandlerContext ctx) {
+    if (wheel != null || closed || timeoutNanos == 0) {
+      return;
+    }
+    this.ctx = ctx;
+    this.lastReadTime = System.nanoTime();
+    this.wheel = ReadTimeoutWheel.of(ctx.executor());
+    this.wheel.add(timeout);
+  }
+
+  private void stop() {
+    if (wheel != null) {
+      wheel.remove(timeout);
+      wheel = null;
+    }
+    closed = true;
+  }
+
+  private final class Timeout extends ReadTimeoutWheel.Timeout {
+
+    @Override
+    protected long deadline(long now) {
+      // A read in progress counts as activity until it completes.
+      return (reading ? now : lastReadTime) + timeoutNanos;
+    }
+
+    @Override
+    protected void expired() {
+      wheel = null;
+      if (!closed && ctx != null) {
+        closed = true;
+        ctx.fireExceptionCaught(ReadTimeoutException.INSTANCE);
+        ctx.close();
+      }
+    }
+  }
+}
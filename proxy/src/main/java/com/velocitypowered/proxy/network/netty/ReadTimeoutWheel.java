@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network.netty;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A coarse-grained timing wheel that tracks the timeouts of all the channels of one event loop,
+ * so that the event loop does not need a scheduled task for every channel.
+ *
+ * <p>Timeouts are bucketed by the tick their deadline falls in, and a single task sweeps the due
+ * bucket every tick. A timeout whose deadline has moved back since it was bucketed is simply put
+ * into a later bucket when it is swept, so pushing a deadline back is free. Timeouts fire up to
+ * one tick late.</p>
+ *
+ * <p>A wheel must only be used from its event loop.</p>
+ */
+public final class ReadTimeoutWheel {
+
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+  private static final int SLOTS = 256;
+  private static final Map<EventExecutor, ReadTimeoutWheel> WHEELS = new ConcurrentHashMap<>();
+
+  private final EventExecutor executor;
+  private final long tickNanos;
+  private final long origin;
+  private final Timeout[] slots;
+  private final int mask;
+  private long nextTick;
+  private int size;
+  private @Nullable ScheduledFuture<?> sweeper;
+
+  @VisibleForTesting
+  ReadTimeoutWheel(EventExecutor executor, long tickNanos, int slots) {
+    this.executor = executor;
+    this.tickNanos = tickNanos;
+    this.origin = System.nanoTime();
+    this.slots = new Timeout[slots];
+    this.mask = slots - 1;
+  }
+
+  /**
+   * Returns the wheel of the given event loop.
+   *
+   * @param executor the event loop
+   * @return the wheel of the event loop
+   */
+  public static ReadTimeoutWheel of(EventExecutor executor) {
+    return WHEELS.computeIfAbsent(executor, loop -> {
+      loop.terminationFuture().addListener(future -> WHEELS.remove(loop));
+      return new ReadTimeoutWheel(loop, TICK_NANOS, SLOTS);
+    });
+  }
+
+  /**
+   * Starts tracking the given timeout.
+   *
+   * @param timeout the timeout to track
+   */
+  public void add(Timeout timeout) {
+    if (timeout.slot != -1) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (size == 0 && sweeper == null && !executor.isShuttingDown()) {
+      nextTick = tickOf(now);
+      sweeper = executor.scheduleAtFixedRate(this::sweep, tickNanos, tickNanos,
+          TimeUnit.NANOSECONDS);
+    }
+    link(timeout, timeout.deadline(now));
+    size++;
+  }
+
+  /**
+   * Stops tracking the given timeout.
+   *
+   * @param timeout the timeout to stop tracking
+   */
+  public void remove(Timeout timeout) {
+    if (timeout.slot == -1) {
+      return;
+    }
+    unlink(timeout);
+    if (--size == 0 && sweeper != null) {
+      sweeper.cancel(false);
+      sweeper = null;
+    }
+  }
+
+  @VisibleForTesting
+  int size() {
+    return size;
+  }
+
+  private long tickOf(long nanos) {
+    return (nanos - origin) / tickNanos;
+  }
+
+  @VisibleForTesting
+  void sweep() {
+    sweep(System.nanoTime());
+  }
+
+  @VisibleForTesting
+  void sweep(long now) {
+    long nowTick = tickOf(now);
+    // After a long stall, sweeping every bucket once is enough.
+    nextTick = Math.max(nextTick, nowTick - slots.length + 1);
+    while (nextTick <= nowTick && size > 0) {
+      int slot = (int) (nextTick & mask);
+      nextTick++;
+
+      // Detach the bucket first, since timeouts that are not due yet may go back into it.
+      Timeout timeout = slots[slot];
+      slots[slot] = null;
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        timeout.slot = -1;
+        timeout.prev = null;
+        timeout.next = null;
+
+        long deadline = timeout.deadline(now);
+        if (deadline - now <= 0) {
+          if (--size == 0 && sweeper != null) {
+            sweeper.cancel(false);
+            sweeper = null;
+          }
+          timeout.expired();
+        } else {
+          link(timeout, deadline);
+        }
+        timeout = next;
+      }
+    }
+  }
+
+  private void link(Timeout timeout, long deadline) {
+    // Round up, so that a timeout is never swept before its deadline.
+    long tick = Math.max((deadline - origin + tickNanos - 1) / tickNanos, nextTick);
+    int slot = (int) (tick & mask);
+    Timeout head = slots[slot];
+    timeout.slot = slot;
+    timeout.next = head;
+    if (head != null) {
+      head.prev = timeout;
+    }
+    slots[slot] = timeout;
+  }
+
+  private void unlink(Timeout timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      slots[timeout.slot] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.slot = -1;
+    timeout.prev = null;
+    timeout.next = null;
+  }
+
+  /**
+   * A timeout tracked by a {@link ReadTimeoutWheel}.
+   */
+  public abstract static class Timeout {
+
+    private @Nullable Timeout prev;
+    private @Nullable Timeout next;
+    private int slot = -1;
+
+    /**
+     * Returns when this timeout expires. The deadline may move back over time, but must not move
+     * forward without removing and re-adding the timeout.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return the {@link System#nanoTime()} this timeout expires at
+     */
+    protected abstract long deadline(long now);
+
+    /**
+     * Called once the deadline has passed. The timeout is no longer tracked at this point.
+     */
+    protected abstract void expired();
+  }
+}
@@ -21,6 +21,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
 import com.google.inject.Module;
 import com.google.inject.name.Names;
@@ -43,6 +45,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
@@ -50,6 +53,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -59,6 +66,8 @@ import org.apache.logging.log4j.Logger;
 public class VelocityPluginManager implements PluginManager {
 
   private static final Logger logger = LogManager.getLogger(VelocityPluginManager.class);
+  private static final boolean PARALLEL_LOADING =
+      !Boolean.getBoolean("velocity.disable-parallel-plugin-loading");
 
   private final Map<String, PluginContainer> pluginsById = new LinkedHashMap<>();
   private final Map<Object, PluginContainer> pluginInstances = new IdentityHashMap<>();
@@ -86,17 +95,59 @@ public class VelocityPluginManager implements PluginManager {
     checkNotNull(directory, "directory");
     checkArgument(directory.toFile().isDirectory(), "provided path isn't a directory");
 
-    List<PluginDescription> found = new ArrayList<>();
-    JavaPluginLoader loader = new JavaPluginLoader(server, directory);
-
+    List<Path> jars = new ArrayList<>();
     try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
         p -> p.toFile().isFile() && p.toString().endsWith(".jar"))) {
       for (Path path : stream) {
+        jars.add(path);
+      }
+    }
+
+    if (jars.isEmpty()) {
+      // No plugins found
+      return;
+    }
+
+    ExecutorService executor = PARALLEL_LOADING
+        ? Executors.newFixedThreadPool(Math.min(jars.size(),
+            Runtime.getRuntime().availableProcessors()), new ThreadFactoryBuilder()
+            .setNameFormat("Velocity Plugin Loader #%d")
+            .setDaemon(true)
+            .build())
+        : MoreExecutors.newDirectExecutorService();
+    try {
+      loadPlugins(new JavaPluginLoader(server, directory), jars, executor);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Loads the given plugin JARs. Reading the plugin descriptions is done for all JARs at once, and
+   * loading the plugin classes is done for each level of the dependency graph at once, so that a
+   * plugin's classes are only loaded after those of everything it depends on. The plugins are
+   * then constructed and registered one at a time on the calling thread, in dependency order.
+   */
+  private void loadPlugins(JavaPluginLoader loader, List<Path> jars, ExecutorService executor) {
+    long startedAt = System.nanoTime();
+
+    List<CompletableFuture<PluginDescription>> candidates = new ArrayList<>();
+    for (Path path : jars) {
+      candidates.add(CompletableFuture.supplyAsync(() -> {
         try {
-          found.add(loader.loadCandidate(path));
+          return loader.loadCandidate(path);
         } catch (Exception e) {
           logger.error("Unable to load plugin {}", path, e);
+          return null;
         }
+      }, executor));
+    }
+
+    List<PluginDescription> found = new ArrayList<>();
+    for (CompletableFuture<PluginDescription> candidate : candidates) {
+      PluginDescription description = candidate.join();
+      if (description != null) {
+        found.add(description);
       }
     }
 
@@ -106,28 +157,55 @@ public class VelocityPluginManager implements PluginManager {
     }
 
     List<PluginDescription> sortedPlugins = PluginDependencyUtils.sortCandidates(found);
+    List<List<PluginDescription>> layers = PluginDependencyUtils.layerCandidates(sortedPlugins);
 
     Set<String> loadedPluginsById = new HashSet<>();
-    Map<PluginContainer, Module> pluginContainers = new LinkedHashMap<>();
+    Map<String, LoadingPlugin> loadingPlugins = new HashMap<>();
     // Now load the plugins
-    pluginLoad:
-    for (PluginDescription candidate : sortedPlugins) {
-      // Verify dependencies
-      for (PluginDependency dependency : candidate.getDependencies()) {
-        if (!dependency.isOptional() && !loadedPluginsById.contains(dependency.getId())) {
-          logger.error("Can't load plugin {} due to missing dependency {}", candidate.getId(),
-              dependency.getId());
-          continue pluginLoad;
+    for (List<PluginDescription> layer : layers) {
+      List<CompletableFuture<LoadingPlugin>> loading = new ArrayList<>();
+      pluginLoad:
+      for (PluginDescription candidate : layer) {
+        // Verify dependencies
+        for (PluginDependency dependency : candidate.getDependencies()) {
+          if (!dependency.isOptional() && !loadedPluginsById.contains(dependency.getId())) {
+            logger.error("Can't load plugin {} due to missing dependency {}", candidate.getId(),
+                dependency.getId());
+            continue pluginLoad;
+          }
         }
+
+        loading.add(CompletableFuture.supplyAsync(() -> {
+          long loadStartedAt = System.nanoTime();
+          try {
+            PluginDescription realPlugin = loader.createPluginFromCandidate(candidate);
+            VelocityPluginContainer container = new VelocityPluginContainer(realPlugin);
+            Module module = loader.createModule(container);
+            return new LoadingPlugin(container, module, System.nanoTime() - loadStartedAt);
+          } catch (Exception e) {
+            logger.error("Can't create module for plugin {}", candidate.getId(), e);
+            return null;
+          }
+        }, executor));
       }
 
-      try {
-        PluginDescription realPlugin = loader.createPluginFromCandidate(candidate);
-        VelocityPluginContainer container = new VelocityPluginContainer(realPlugin);
-        pluginContainers.put(container, loader.createModule(container));
-        loadedPluginsById.add(realPlugin.getId());
-      } catch (Exception e) {
-        logger.error("Can't create module for plugin {}", candidate.getId(), e);
+      for (CompletableFuture<LoadingPlugin> future : loading) {
+        LoadingPlugin plugin = future.join();
+        if (plugin != null) {
+          String id = plugin.container.getDescription().getId();
+          loadingPlugins.put(id, plugin);
+          loadedPluginsById.add(id);
+        }
+      }
+    }
+
+    // Constructing and registering the plugins happens in the same order as the plugins were
+    // sorted in, on this thread, so plugins see the same order and threading as they always have.
+    List<LoadingPlugin> pluginsToCreate = new ArrayList<>(loadingPlugins.size());
+    for (PluginDescription candidate : sortedPlugins) {
+      LoadingPlugin plugin = loadingPlugins.get(candidate.getId());
+      if (plugin != null) {
+        pluginsToCreate.add(plugin);
       }
     }
 
@@ -139,29 +217,35 @@ public class VelocityPluginManager implements PluginManager {
         bind(PluginManager.class).toInstance(server.getPluginManager());
         bind(EventManager.class).toInstance(server.getEventManager());
         bind(CommandManager.class).toInstance(server.getCommandManager());
-        for (PluginContainer container : pluginContainers.keySet()) {
+        for (LoadingPlugin plugin : pluginsToCreate) {
           bind(PluginContainer.class)
-              .annotatedWith(Names.named(container.getDescription().getId()))
-              .toInstance(container);
+              .annotatedWith(Names.named(plugin.container.getDescription().getId()))
+              .toInstance(plugin.container);
         }
       }
     };
 
-    for (Map.Entry<PluginContainer, Module> plugin : pluginContainers.entrySet()) {
-      PluginContainer container = plugin.getKey();
-      PluginDescription description = container.getDescription();
-
+    int loaded = 0;
+    for (LoadingPlugin plugin : pluginsToCreate) {
+      PluginDescription description = plugin.container.getDescription();
+      long createStartedAt = System.nanoTime();
       try {
-        loader.createPlugin(container, plugin.getValue(), commonModule);
+        loader.createPlugin(plugin.container, plugin.module, commonModule);
       } catch (Exception e) {
         logger.error("Can't create plugin {}", description.getId(), e);
         continue;
       }
 
-      logger.info("Loaded plugin {} {} by {}", description.getId(), description.getVersion()
-          .orElse("<UNKNOWN>"), Joiner.on(", ").join(description.getAuthors()));
-      registerPlugin(container);
+      logger.info("Loaded plugin {} {} by {} in {}ms", description.getId(),
+          description.getVersion().orElse("<UNKNOWN>"),
+          Joiner.on(", ").join(description.getAuthors()),
+          TimeUnit.NANOSECONDS.toMillis(plugin.loadNanos + System.nanoTime() - createStartedAt));
+      registerPlugin(plugin.container);
+      loaded++;
     }
+
+    logger.info("Loaded {} plugins in {}ms", loaded,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
   }
 
   @Override
@@ -208,4 +292,20 @@ public class VelocityPluginManager implements PluginManager {
           "Operation is not supported on non-Java Velocity plugins.");
     }
   }
+
+  /**
+   * A plugin whose classes have been loaded, but which has not been constructed yet.
+   */
+  private static final class LoadingPlugin {
+
+    private final VelocityPluginContainer container;
+    private final Module module;
+    private final long loadNanos;
+
+    private LoadingPlugin(VelocityPluginContainer container, Module module, long loadNanos) {
+      this.container = container;
+      this.module = module;
+      this.loadNanos = loadNanos;
+    }
+  }
 }
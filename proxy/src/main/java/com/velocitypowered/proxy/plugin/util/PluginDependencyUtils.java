@@ -89,6 +89,35 @@ public class PluginDependencyUtils {
     return sorted;
   }
 
+  /**
+   * Splits plugins sorted by {@link #sortCandidates(List)} into levels, such that every plugin
+   * only depends on plugins in earlier levels. The plugins within a level do not depend on each
+   * other, so they can be loaded at the same time.
+   *
+   * @param sorted the plugins, in dependency order
+   * @return the levels of plugins, in dependency order
+   */
+  public static List<List<PluginDescription>> layerCandidates(List<PluginDescription> sorted) {
+    Map<String, Integer> levels = new HashMap<>();
+    List<List<PluginDescription>> layers = new ArrayList<>();
+    for (PluginDescription description : sorted) {
+      int level = 0;
+      for (PluginDependency dependency : description.getDependencies()) {
+        Integer dependencyLevel = levels.get(dependency.getId());
+        if (dependencyLevel != null) {
+          level = Math.max(level, dependencyLevel + 1);
+        }
+      }
+      levels.put(description.getId(), level);
+
+      if (level == layers.size()) {
+        layers.add(new ArrayList<>());
+      }
+      layers.get(level).add(description);
+    }
+    return layers;
+  }
+
   private static void visitNode(Graph<PluginDescription> dependencyGraph, PluginDescription current,
       Map<PluginDescription, Mark> visited, List<PluginDescription> sorted,
       Deque<PluginDescription> currentDependencyScanStack) {
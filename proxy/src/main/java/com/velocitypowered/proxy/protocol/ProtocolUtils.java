@@ -20,11 +20,13 @@ package com.velocitypowered.proxy.protocol;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.velocitypowered.proxy.protocol.util.NettyPreconditions.checkFrame;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.api.proxy.crypto.IdentifiedKey;
 import com.velocitypowered.api.util.GameProfile;
 import com.velocitypowered.proxy.crypto.IdentifiedKeyImpl;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
+import com.velocitypowered.proxy.protocol.util.ComponentSerializationCache;
 import com.velocitypowered.proxy.protocol.util.VelocityLegacyHoverEventSerializer;
 import com.velocitypowered.proxy.util.except.QuietDecoderException;
 import io.netty.buffer.ByteBuf;
@@ -45,6 +47,7 @@ import java.util.UUID;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.nbt.BinaryTagIO;
 import net.kyori.adventure.nbt.CompoundBinaryTag;
+import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 
 /**
@@ -63,6 +66,12 @@ public enum ProtocolUtils {
       GsonComponentSerializer.builder()
           .legacyHoverEventSerializer(VelocityLegacyHoverEventSerializer.INSTANCE)
           .build();
+  // Bounds the total length of the JSON cached per serializer, roughly 2 MiB each.
+  private static final long COMPONENT_CACHE_MAX_CHARS = 1 << 20;
+  private static final ComponentSerializationCache PRE_1_16_CACHE =
+      new ComponentSerializationCache(PRE_1_16_SERIALIZER, COMPONENT_CACHE_MAX_CHARS);
+  private static final ComponentSerializationCache MODERN_CACHE =
+      new ComponentSerializationCache(MODERN_SERIALIZER, COMPONENT_CACHE_MAX_CHARS);
 
   public static final int DEFAULT_MAX_STRING_SIZE = 65536; // 64KiB
   private static final QuietDecoderException BAD_VARINT_CACHED =
@@ -634,6 +643,42 @@ public enum ProtocolUtils {
     return PRE_1_16_SERIALIZER;
   }
 
+  /**
+   * Serializes the given component to JSON using the serializer appropriate for the given protocol
+   * version. The result is cached, so repeatedly serializing the same component instance is cheap.
+   *
+   * @param version the protocol version used by the client
+   * @param component the component to serialize
+   * @return the JSON form of the component
+   */
+  public static String serializeComponent(ProtocolVersion version, Component component) {
+    if (version.compareTo(ProtocolVersion.MINECRAFT_1_16) >= 0) {
+      return MODERN_CACHE.serialize(component);
+    }
+    return PRE_1_16_CACHE.serialize(component);
+  }
+
+  /**
+   * Marks the given component instance as one that will be sent to many players, so that
+   * {@link #serializeComponent(ProtocolVersion, Component)} caches its JSON form.
+   *
+   * @param component the shared component
+   */
+  public static void shareComponent(Component component) {
+    MODERN_CACHE.share(component);
+    PRE_1_16_CACHE.share(component);
+  }
+
+  /**
+   * Returns the combined hit and miss statistics of the component serialization caches used by
+   * {@link #serializeComponent(ProtocolVersion, Component)}.
+   *
+   * @return the component serialization cache statistics
+   */
+  public static CacheStats getComponentCacheStats() {
+    return MODERN_CACHE.stats().plus(PRE_1_16_CACHE.stats());
+  }
+
   /**
    * Writes a players {@link IdentifiedKey} to the buffer.
    *
@@ -75,6 +75,6 @@ public class Disconnect implements MinecraftPacket {
   public static Disconnect create(net.kyori.adventure.text.Component component,
       ProtocolVersion version) {
     Preconditions.checkNotNull(component, "component");
-    return new Disconnect(ProtocolUtils.getJsonChatSerializer(version).serialize(component));
+    return new Disconnect(ProtocolUtils.serializeComponent(version, component));
   }
 }
@@ -39,6 +39,14 @@ public class EncryptionResponse implements MinecraftPacket {
   private byte[] verifyToken = EMPTY_BYTE_ARRAY;
   private @Nullable Long salt;
 
+  public EncryptionResponse() {
+  }
+
+  public EncryptionResponse(byte[] sharedSecret, byte[] verifyToken) {
+    this.sharedSecret = sharedSecret.clone();
+    this.verifyToken = verifyToken.clone();
+  }
+
   public byte[] getSharedSecret() {
     return sharedSecret.clone();
   }
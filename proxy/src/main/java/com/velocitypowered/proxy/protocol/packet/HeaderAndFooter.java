@@ -26,7 +26,6 @@ import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import io.netty.buffer.ByteBuf;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 
 public class HeaderAndFooter implements MinecraftPacket {
 
@@ -71,8 +70,8 @@ public class HeaderAndFooter implements MinecraftPacket {
 
   public static HeaderAndFooter create(Component header,
       Component footer, ProtocolVersion protocolVersion) {
-    GsonComponentSerializer serializer = ProtocolUtils.getJsonChatSerializer(protocolVersion);
-    return new HeaderAndFooter(serializer.serialize(header), serializer.serialize(footer));
+    return new HeaderAndFooter(ProtocolUtils.serializeComponent(protocolVersion, header),
+        ProtocolUtils.serializeComponent(protocolVersion, footer));
   }
 
   public static HeaderAndFooter reset() {
@@ -22,15 +22,14 @@ import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
 import com.velocitypowered.proxy.connection.registry.DimensionInfo;
 import com.velocitypowered.proxy.protocol.*;
+import com.velocitypowered.proxy.protocol.util.LazyCompoundTag;
 import io.netty.buffer.ByteBuf;
 import it.unimi.dsi.fastutil.Pair;
-import net.kyori.adventure.nbt.BinaryTagIO;
-import net.kyori.adventure.nbt.CompoundBinaryTag;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class JoinGame implements MinecraftPacket {
 
-  private static final BinaryTagIO.Reader JOINGAME_READER = BinaryTagIO.reader(4 * 1024 * 1024);
+  private static final int MAX_REGISTRY_SIZE = 4 * 1024 * 1024;
   private int entityId;
   private short gamemode;
   private int dimension;
@@ -43,9 +42,9 @@ public class JoinGame implements MinecraftPacket {
   private boolean reducedDebugInfo;
   private boolean showRespawnScreen;
   private ImmutableSet<String> levelNames; // 1.16+
-  private CompoundBinaryTag registry; // 1.16+
+  private LazyCompoundTag registry; // 1.16+
   private DimensionInfo dimensionInfo; // 1.16+
-  private CompoundBinaryTag currentDimensionData; // 1.16.2+
+  private LazyCompoundTag currentDimensionData; // 1.16.2+
   private short previousGamemode; // 1.16+
   private int simulationDistance; // 1.18+
   private @Nullable Pair<String, Long> lastDeathPosition; // 1.19+
@@ -143,7 +142,7 @@ public class JoinGame implements MinecraftPacket {
     this.isHardcore = isHardcore;
   }
 
-  public CompoundBinaryTag getCurrentDimensionData() {
+  public LazyCompoundTag getCurrentDimensionData() {
     return currentDimensionData;
   }
 
@@ -171,7 +170,7 @@ public class JoinGame implements MinecraftPacket {
     this.portalCooldown = portalCooldown;
   }
 
-  public CompoundBinaryTag getRegistry() {
+  public LazyCompoundTag getRegistry() {
     return registry;
   }
 
@@ -256,12 +255,12 @@ public class JoinGame implements MinecraftPacket {
     this.previousGamemode = buf.readByte();
 
     this.levelNames = ImmutableSet.copyOf(ProtocolUtils.readStringArray(buf));
-    this.registry = ProtocolUtils.readCompoundTag(buf, JOINGAME_READER);
+    this.registry = LazyCompoundTag.read(buf, MAX_REGISTRY_SIZE);
     String dimensionIdentifier;
     String levelName = null;
     if (version.compareTo(ProtocolVersion.MINECRAFT_1_16_2) >= 0
         && version.compareTo(ProtocolVersion.MINECRAFT_1_19) < 0) {
-      this.currentDimensionData = ProtocolUtils.readCompoundTag(buf, JOINGAME_READER);
+      this.currentDimensionData = LazyCompoundTag.read(buf, MAX_REGISTRY_SIZE);
       dimensionIdentifier = ProtocolUtils.readString(buf);
     } else {
       dimensionIdentifier = ProtocolUtils.readString(buf);
@@ -388,10 +387,10 @@ public class JoinGame implements MinecraftPacket {
     buf.writeByte(previousGamemode);
 
     ProtocolUtils.writeStringArray(buf, levelNames.toArray(String[]::new));
-    ProtocolUtils.writeCompoundTag(buf, this.registry);
+    this.registry.write(buf);
     if (version.compareTo(ProtocolVersion.MINECRAFT_1_16_2) >= 0
         && version.compareTo(ProtocolVersion.MINECRAFT_1_19) < 0) {
-      ProtocolUtils.writeCompoundTag(buf, currentDimensionData);
+      currentDimensionData.write(buf);
       ProtocolUtils.writeString(buf, dimensionInfo.getRegistryIdentifier());
     } else {
       ProtocolUtils.writeString(buf, dimensionInfo.getRegistryIdentifier());
@@ -182,8 +182,7 @@ public class LegacyPlayerListItem implements MinecraftPacket {
       ProtocolVersion version) {
     buf.writeBoolean(displayName != null);
     if (displayName != null) {
-      ProtocolUtils.writeString(buf, ProtocolUtils.getJsonChatSerializer(version)
-          .serialize(displayName));
+      ProtocolUtils.writeString(buf, ProtocolUtils.serializeComponent(version, displayName));
     }
   }
 
@@ -22,14 +22,14 @@ import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
 import com.velocitypowered.proxy.connection.registry.DimensionInfo;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.util.LazyCompoundTag;
 import io.netty.buffer.ByteBuf;
 import it.unimi.dsi.fastutil.Pair;
-import net.kyori.adventure.nbt.BinaryTagIO;
-import net.kyori.adventure.nbt.CompoundBinaryTag;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class Respawn implements MinecraftPacket {
 
+  private static final int MAX_DIMENSION_DATA_SIZE = 2 * 1024 * 1024;
   private int dimension;
   private long partialHashedSeed;
   private short difficulty;
@@ -38,7 +38,7 @@ public class Respawn implements MinecraftPacket {
   private byte dataToKeep; // 1.16+
   private DimensionInfo dimensionInfo; // 1.16-1.16.1
   private short previousGamemode; // 1.16+
-  private CompoundBinaryTag currentDimensionData; // 1.16.2+
+  private LazyCompoundTag currentDimensionData; // 1.16.2+
   private @Nullable Pair<String, Long> lastDeathPosition; // 1.19+
   private int portalCooldown; // 1.20+
 
@@ -47,7 +47,7 @@ public class Respawn implements MinecraftPacket {
 
   public Respawn(int dimension, long partialHashedSeed, short difficulty, short gamemode,
       String levelType, byte dataToKeep, DimensionInfo dimensionInfo,
-      short previousGamemode, CompoundBinaryTag currentDimensionData,
+      short previousGamemode, LazyCompoundTag currentDimensionData,
       @Nullable Pair<String, Long> lastDeathPosition, int portalCooldown) {
     this.dimension = dimension;
     this.partialHashedSeed = partialHashedSeed;
@@ -165,7 +165,7 @@ public class Respawn implements MinecraftPacket {
     if (version.compareTo(ProtocolVersion.MINECRAFT_1_16) >= 0) {
       if (version.compareTo(ProtocolVersion.MINECRAFT_1_16_2) >= 0
           && version.compareTo(ProtocolVersion.MINECRAFT_1_19) < 0) {
-        this.currentDimensionData = ProtocolUtils.readCompoundTag(buf, BinaryTagIO.reader());
+        this.currentDimensionData = LazyCompoundTag.read(buf, MAX_DIMENSION_DATA_SIZE);
         dimensionIdentifier = ProtocolUtils.readString(buf);
       } else {
         dimensionIdentifier = ProtocolUtils.readString(buf);
@@ -209,7 +209,7 @@ public class Respawn implements MinecraftPacket {
     if (version.compareTo(ProtocolVersion.MINECRAFT_1_16) >= 0) {
       if (version.compareTo(ProtocolVersion.MINECRAFT_1_16_2) >= 0
           && version.compareTo(ProtocolVersion.MINECRAFT_1_19) < 0) {
-        ProtocolUtils.writeCompoundTag(buf, currentDimensionData);
+        currentDimensionData.write(buf);
         ProtocolUtils.writeString(buf, dimensionInfo.getRegistryIdentifier());
       } else {
         ProtocolUtils.writeString(buf, dimensionInfo.getRegistryIdentifier());
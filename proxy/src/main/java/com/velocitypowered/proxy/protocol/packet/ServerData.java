@@ -79,7 +79,7 @@ public class ServerData implements MinecraftPacket {
     if (protocolVersion.compareTo(ProtocolVersion.MINECRAFT_1_19_4) >= 0 || hasDescription) {
       ProtocolUtils.writeString(
           buf,
-          ProtocolUtils.getJsonChatSerializer(protocolVersion).serialize(this.description)
+          ProtocolUtils.serializeComponent(protocolVersion, this.description)
       );
     }
 
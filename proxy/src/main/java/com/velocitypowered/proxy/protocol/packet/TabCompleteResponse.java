@@ -107,8 +107,8 @@ public class TabCompleteResponse implements MinecraftPacket {
         ProtocolUtils.writeString(buf, offer.text);
         buf.writeBoolean(offer.tooltip != null);
         if (offer.tooltip != null) {
-          ProtocolUtils.writeString(buf, ProtocolUtils.getJsonChatSerializer(version)
-              .serialize(offer.tooltip));
+          ProtocolUtils.writeString(buf,
+              ProtocolUtils.serializeComponent(version, offer.tooltip));
         }
       }
     } else {
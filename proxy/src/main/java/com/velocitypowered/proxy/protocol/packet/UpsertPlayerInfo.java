@@ -187,8 +187,8 @@ public class UpsertPlayerInfo implements MinecraftPacket {
     }, (version, buf, info) -> { // write
       buf.writeBoolean(info.displayName != null);
       if (info.displayName != null) {
-        ProtocolUtils.writeString(buf, ProtocolUtils.getJsonChatSerializer(version)
-            .serialize(info.displayName));
+        ProtocolUtils.writeString(buf,
+            ProtocolUtils.serializeComponent(version, info.displayName));
       }
     });
 
@@ -281,6 +281,39 @@ public class UpsertPlayerInfo implements MinecraftPacket {
       this.chatSession = chatSession;
     }
 
+    /**
+     * Copies the fields covered by {@code actions} from {@code other} into this entry.
+     *
+     * @param actions the actions whose fields should be copied
+     * @param other the entry to copy from
+     */
+    public void merge(Collection<Action> actions, Entry other) {
+      for (Action action : actions) {
+        switch (action) {
+          case ADD_PLAYER:
+            this.profile = other.profile;
+            break;
+          case INITIALIZE_CHAT:
+            this.chatSession = other.chatSession;
+            break;
+          case UPDATE_GAME_MODE:
+            this.gameMode = other.gameMode;
+            break;
+          case UPDATE_LISTED:
+            this.listed = other.listed;
+            break;
+          case UPDATE_LATENCY:
+            this.latency = other.latency;
+            break;
+          case UPDATE_DISPLAY_NAME:
+            this.displayName = other.displayName;
+            break;
+          default:
+            throw new AssertionError("Unknown action " + action);
+        }
+      }
+    }
+
     @Override
     public String toString() {
       return "Entry{" +
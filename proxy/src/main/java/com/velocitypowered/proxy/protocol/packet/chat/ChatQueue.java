@@ -17,51 +17,91 @@
 
 package com.velocitypowered.proxy.protocol.packet.chat;
 
+import com.velocitypowered.proxy.config.ChatQueueOverflowMode;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import io.netty.channel.EventLoop;
 import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.BiConsumer;
+import net.kyori.adventure.text.Component;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * A precisely ordered queue which allows for outside entries into the ordered queue through
  * piggybacking timestamps.
+ *
+ * <p>Packets are held in a ring buffer in the order they were queued, and each is written as soon
+ * as it and every packet before it have been processed. The queue is confined to the event loop of
+ * the player's connection, so it needs no locking, and each queued packet costs a single callback
+ * on its future. The number of packets waiting to be processed is bounded, and what happens when a
+ * player goes over the bound is configurable.</p>
  */
 public class ChatQueue {
 
-  private final Object internalLock;
+  private static final Logger logger = LogManager.getLogger(ChatQueue.class);
+  private static final int INITIAL_CAPACITY = 8;
+  // When throttling, the player may still have packets in flight. Past this multiple of the limit,
+  // the player is disconnected anyway.
+  private static final int THROTTLE_HARD_LIMIT_FACTOR = 4;
+
   private final ConnectedPlayer player;
-  private CompletableFuture<WrappedPacket> packetFuture;
+  private final int limit;
+  private final ChatQueueOverflowMode overflowMode;
+  private MinecraftConnection[] targets = new MinecraftConnection[INITIAL_CAPACITY];
+  private MinecraftPacket[] packets = new MinecraftPacket[INITIAL_CAPACITY];
+  private boolean[] completed = new boolean[INITIAL_CAPACITY];
+  // Sequence numbers of the oldest queued packet and of the next packet to be queued.
+  private long head;
+  private long tail;
+  private Instant lastTimestamp = Instant.EPOCH;
+  private boolean throttled;
 
   /**
    * Instantiates a {@link ChatQueue} for a specific {@link ConnectedPlayer}.
    *
    * @param player the {@link ConnectedPlayer} to maintain the queue for.
+   * @param limit the number of packets that may be waiting to be processed, or {@code 0} for no
+   *              limit
+   * @param overflowMode what to do when the player goes over the limit
    */
-  public ChatQueue(ConnectedPlayer player) {
+  public ChatQueue(ConnectedPlayer player, int limit, ChatQueueOverflowMode overflowMode) {
     this.player = player;
-    this.packetFuture = CompletableFuture.completedFuture(new WrappedPacket(Instant.EPOCH, null));
-    this.internalLock = new Object();
+    this.limit = limit;
+    this.overflowMode = overflowMode;
   }
 
   /**
    * Queues a packet sent from the player - all packets must wait until this processes to send their
    * packets. This maintains order on the server-level for the client insertions of commands
-   * and messages. All entries are locked through an internal object lock.
+   * and messages.
    *
    * @param nextPacket the {@link CompletableFuture} which will provide the next-processed packet.
    * @param timestamp  the {@link Instant} timestamp of this packet so we can allow piggybacking.
    */
   public void queuePacket(CompletableFuture<MinecraftPacket> nextPacket, Instant timestamp) {
-    synchronized (internalLock) { // wait for the lock to resolve - we don't want to drop packets
-      MinecraftConnection smc = player.ensureAndGetCurrentServer().ensureConnected();
+    EventLoop loop = player.getConnection().eventLoop();
+    if (!loop.inEventLoop()) {
+      loop.execute(() -> queuePacket(nextPacket, timestamp));
+      return;
+    }
 
-      CompletableFuture<WrappedPacket> nextInLine = WrappedPacket.wrap(timestamp, nextPacket);
-      awaitChat(smc, this.packetFuture,
-          nextInLine); // we await chat, binding `this.packetFuture` -> `nextInLine`
-      this.packetFuture = nextInLine;
+    MinecraftConnection smc = player.ensureAndGetCurrentServer().ensureConnected();
+    if (!admit()) {
+      return;
     }
+    long sequence = enqueue(smc);
+    lastTimestamp = timestamp;
+    nextPacket.whenComplete((packet, throwable) -> {
+      MinecraftPacket result = throwable == null ? packet : null;
+      if (loop.inEventLoop()) {
+        complete(sequence, result);
+      } else {
+        loop.execute(() -> complete(sequence, result));
+      }
+    });
   }
 
   /**
@@ -76,48 +116,130 @@ public class ChatQueue {
    */
   public <K, V extends MinecraftPacket> void hijack(K packet,
       InstantPacketMapper<K, V> instantMapper) {
-    synchronized (internalLock) {
-      CompletableFuture<K> trueFuture = CompletableFuture.completedFuture(packet);
-      MinecraftConnection smc = player.ensureAndGetCurrentServer().ensureConnected();
+    EventLoop loop = player.getConnection().eventLoop();
+    if (!loop.inEventLoop()) {
+      loop.execute(() -> hijack(packet, instantMapper));
+      return;
+    }
+
+    MinecraftConnection smc = player.ensureAndGetCurrentServer().ensureConnected();
+    MinecraftPacket mapped;
+    try {
+      mapped = instantMapper.map(lastTimestamp, packet);
+    } catch (RuntimeException e) {
+      logger.error("Exception while hijacking chat for {}", player, e);
+      mapped = null;
+    }
+    complete(enqueue(smc), mapped);
+  }
+
+  /**
+   * Returns the number of packets waiting to be processed or written.
+   *
+   * @return the number of queued packets
+   */
+  public int size() {
+    return (int) (tail - head);
+  }
 
-      this.packetFuture = hijackCurrentPacket(smc, this.packetFuture, trueFuture, instantMapper);
+  /**
+   * Determines whether reading from the player is paused because too many packets are queued.
+   * The queue resumes reading itself once it has drained.
+   *
+   * @return {@code true} if the queue has paused reading from the player
+   */
+  public boolean isThrottled() {
+    return throttled;
+  }
+
+  private boolean admit() {
+    int size = size();
+    if (limit <= 0 || size < limit) {
+      return true;
+    }
+
+    switch (overflowMode) {
+      case DROP:
+        return false;
+      case KICK:
+        overflow();
+        return false;
+      case THROTTLE:
+      default:
+        if (size >= limit * THROTTLE_HARD_LIMIT_FACTOR) {
+          overflow();
+          return false;
+        }
+        if (!throttled) {
+          throttled = true;
+          player.getConnection().setAutoReading(false);
+        }
+        return true;
     }
   }
 
-  private static BiConsumer<WrappedPacket, Throwable> writePacket(MinecraftConnection connection) {
-    return (wrappedPacket, throwable) -> {
-      if (wrappedPacket != null && !connection.isClosed()) {
-        wrappedPacket.write(connection);
+  private void overflow() {
+    logger.info("{} has too many chat messages and commands waiting to be processed", player);
+    player.disconnect(Component.translatable("velocity.kick.chat-queue-full"));
+  }
+
+  private long enqueue(MinecraftConnection target) {
+    if (size() == targets.length) {
+      grow();
+    }
+    long sequence = tail++;
+    targets[slot(sequence)] = target;
+    return sequence;
+  }
+
+  private void complete(long sequence, MinecraftPacket packet) {
+    int slot = slot(sequence);
+    packets[slot] = packet;
+    completed[slot] = true;
+
+    while (head < tail && completed[slot(head)]) {
+      int first = slot(head);
+      MinecraftConnection target = targets[first];
+      MinecraftPacket toWrite = packets[first];
+      targets[first] = null;
+      packets[first] = null;
+      completed[first] = false;
+      head++;
+      if (toWrite != null && !target.isClosed()) {
+        target.write(toWrite);
       }
-    };
+    }
+
+    if (throttled && size() <= limit / 2) {
+      throttled = false;
+      // Leave reading paused if the server the player is on is not keeping up.
+      VelocityServerConnection server = player.getConnectedServer();
+      MinecraftConnection smc = server == null ? null : server.getConnection();
+      if (smc == null || smc.getChannel().isWritable()) {
+        player.getConnection().setAutoReading(true);
+      }
+    }
   }
 
-  private static <T extends MinecraftPacket> void awaitChat(
-      MinecraftConnection connection,
-      CompletableFuture<WrappedPacket> binder,
-      CompletableFuture<WrappedPacket> future
-  ) {
-    // the binder will run -> then the future will get the `write packet` caller
-    binder.whenComplete((ignored1, ignored2) -> future.whenComplete(writePacket(connection)));
+  private int slot(long sequence) {
+    return (int) sequence & (targets.length - 1);
   }
 
-  private static <K, V extends MinecraftPacket> CompletableFuture<WrappedPacket> hijackCurrentPacket(
-      MinecraftConnection connection,
-      CompletableFuture<WrappedPacket> binder,
-      CompletableFuture<K> future,
-      InstantPacketMapper<K, V> packetMapper
-  ) {
-    CompletableFuture<WrappedPacket> awaitedFuture = new CompletableFuture<>();
-    // the binder will complete -> then the future will get the `write packet` caller
-    binder.whenComplete((previous, ignored) -> {
-      // map the new packet into a better "designed" packet with the hijacked packet's timestamp
-      WrappedPacket.wrap(previous.timestamp,
-              future.thenApply(item -> packetMapper.map(previous.timestamp, item)))
-          .whenCompleteAsync(writePacket(connection), connection.eventLoop())
-          .whenComplete(
-              (packet, throwable) -> awaitedFuture.complete(throwable != null ? null : packet));
-    });
-    return awaitedFuture;
+  private void grow() {
+    int capacity = targets.length << 1;
+    MinecraftConnection[] newTargets = new MinecraftConnection[capacity];
+    MinecraftPacket[] newPackets = new MinecraftPacket[capacity];
+    boolean[] newCompleted = new boolean[capacity];
+    for (long sequence = head; sequence < tail; sequence++) {
+      int from = slot(sequence);
+      int to = (int) sequence & (capacity - 1);
+      newTargets[to] = targets[from];
+      newPackets[to] = packets[from];
+      newCompleted[to] = completed[from];
+    }
+    targets = newTargets;
+    packets = newPackets;
+    completed = newCompleted;
   }
 
   /**
@@ -137,28 +259,4 @@ public class ChatQueue {
      */
     V map(Instant nextInstant, K currentObject);
   }
-
-  private static class WrappedPacket {
-
-    private final Instant timestamp;
-    private final MinecraftPacket packet;
-
-    private WrappedPacket(Instant timestamp, MinecraftPacket packet) {
-      this.timestamp = timestamp;
-      this.packet = packet;
-    }
-
-    public void write(MinecraftConnection connection) {
-      if (packet != null) {
-        connection.write(packet);
-      }
-    }
-
-    private static CompletableFuture<WrappedPacket> wrap(Instant timestamp,
-        CompletableFuture<MinecraftPacket> nextPacket) {
-      return nextPacket
-          .thenApply(pkt -> new WrappedPacket(timestamp, pkt))
-          .exceptionally(ignored -> new WrappedPacket(timestamp, null));
-    }
-  }
 }
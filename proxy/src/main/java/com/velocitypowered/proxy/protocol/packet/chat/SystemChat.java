@@ -58,7 +58,7 @@ public class SystemChat implements MinecraftPacket {
   public void encode(ByteBuf buf, ProtocolUtils.Direction direction,
       ProtocolVersion protocolVersion) {
     ProtocolUtils.writeString(buf,
-        ProtocolUtils.getJsonChatSerializer(protocolVersion).serialize(component));
+        ProtocolUtils.serializeComponent(protocolVersion, component));
     if (protocolVersion.compareTo(ProtocolVersion.MINECRAFT_1_19_1) >= 0) {
       switch (type) {
         case SYSTEM:
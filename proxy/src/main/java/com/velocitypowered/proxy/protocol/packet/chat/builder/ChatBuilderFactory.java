@@ -21,10 +21,22 @@ import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.protocol.packet.chat.keyed.KeyedChatBuilder;
 import com.velocitypowered.proxy.protocol.packet.chat.legacy.LegacyChatBuilder;
 import com.velocitypowered.proxy.protocol.packet.chat.session.SessionChatBuilder;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.function.Function;
 
 public class ChatBuilderFactory {
 
+  private static final Map<ProtocolVersion, ChatBuilderFactory> FACTORIES;
+
+  static {
+    Map<ProtocolVersion, ChatBuilderFactory> factories = new EnumMap<>(ProtocolVersion.class);
+    for (ProtocolVersion version : ProtocolVersion.values()) {
+      factories.put(version, new ChatBuilderFactory(version));
+    }
+    FACTORIES = factories;
+  }
+
   private final ProtocolVersion version;
   private final Function<ProtocolVersion, ChatBuilderV2> builderFunction;
 
@@ -39,6 +51,17 @@ public class ChatBuilderFactory {
     }
   }
 
+  /**
+   * Returns the shared factory for the given protocol version. Factories hold no state, so one
+   * factory per protocol version is enough.
+   *
+   * @param version the protocol version
+   * @return the factory
+   */
+  public static ChatBuilderFactory forVersion(ProtocolVersion version) {
+    return FACTORIES.get(version);
+  }
+
   public ChatBuilderV2 builder() {
     return this.builderFunction.apply(this.version);
   }
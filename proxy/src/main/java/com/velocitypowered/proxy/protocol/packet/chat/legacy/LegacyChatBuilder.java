@@ -38,7 +38,7 @@ public class LegacyChatBuilder extends ChatBuilderV2 {
         : senderIdentity.uuid()) : sender.getUniqueId();
     Component msg = component == null ? Component.text(message) : component;
 
-    return new LegacyChat(ProtocolUtils.getJsonChatSerializer(version).serialize(msg), type.getId(),
+    return new LegacyChat(ProtocolUtils.serializeComponent(version, msg), type.getId(),
         identity);
   }
 
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.util;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A clientbound packet that is sent to many connections at once. The packet is encoded at most
+ * once per protocol version, and every connection is sent a duplicate of the encoded buffer
+ * instead of encoding the packet again in its own pipeline.
+ *
+ * <p>Instances must be {@link #release() released} once the packet has been written to every
+ * connection.</p>
+ */
+public final class BroadcastPacket {
+
+  private final MinecraftPacket packet;
+  private final StateRegistry state;
+  private final Map<ProtocolVersion, ByteBuf> encoded = new EnumMap<>(ProtocolVersion.class);
+
+  public BroadcastPacket(MinecraftPacket packet, StateRegistry state) {
+    this.packet = Preconditions.checkNotNull(packet, "packet");
+    this.state = Preconditions.checkNotNull(state, "state");
+  }
+
+  public MinecraftPacket getPacket() {
+    return packet;
+  }
+
+  /**
+   * Writes, but does not flush, the packet to the given connection. The packet is only written if
+   * the connection is open and in the state this packet was created for.
+   *
+   * @param connection the connection to write to
+   * @return {@code true} if the packet was written
+   */
+  public boolean delayedWrite(MinecraftConnection connection) {
+    if (connection.isClosed() || connection.getState() != state) {
+      return false;
+    }
+    ByteBuf buf;
+    synchronized (encoded) {
+      buf = encoded.computeIfAbsent(connection.getProtocolVersion(),
+          version -> encode(version, connection.getChannel().alloc()));
+    }
+    connection.delayedWrite(buf.retainedDuplicate());
+    return true;
+  }
+
+  private ByteBuf encode(ProtocolVersion version, ByteBufAllocator allocator) {
+    StateRegistry.PacketRegistry.ProtocolRegistry registry =
+        state.getProtocolRegistry(ProtocolUtils.Direction.CLIENTBOUND, version);
+    ByteBuf buf = allocator.directBuffer();
+    try {
+      ProtocolUtils.writeVarInt(buf, registry.getPacketId(packet));
+      packet.encode(buf, ProtocolUtils.Direction.CLIENTBOUND, version);
+    } catch (RuntimeException e) {
+      buf.release();
+      throw e;
+    }
+    return buf;
+  }
+
+  /**
+   * Releases all buffers encoded for this packet.
+   */
+  public void release() {
+    synchronized (encoded) {
+      for (ByteBuf buf : encoded.values()) {
+        buf.release();
+      }
+      encoded.clear();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
+import java.util.Collections;
+import java.util.Set;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+
+/**
+ * Caches the JSON form of {@link Component}s that are known to be sent to many players, such as the
+ * output of the translation cache, so that they are only serialized once. Only components that
+ * have been registered with {@link #share(Component)} are cached; every other component is
+ * serialized directly, since most components (chat messages, for instance) are only sent once.
+ *
+ * <p>Components are matched by identity and held weakly, so the cache never keeps a component
+ * alive and never pays for a deep {@link Component#equals(Object)}. The total length of the cached
+ * JSON is bounded.</p>
+ */
+public final class ComponentSerializationCache {
+
+  private final GsonComponentSerializer serializer;
+  private final Cache<Component, String> cache;
+  private final Set<Component> shared = Collections.newSetFromMap(
+      new MapMaker().weakKeys().makeMap());
+
+  /**
+   * Creates a new cache.
+   *
+   * @param serializer the serializer to cache the output of
+   * @param maximumChars the maximum total length of the cached JSON, in characters
+   */
+  public ComponentSerializationCache(GsonComponentSerializer serializer, long maximumChars) {
+    this.serializer = Preconditions.checkNotNull(serializer, "serializer");
+    this.cache = Caffeine.newBuilder()
+        .weakKeys()
+        .maximumWeight(maximumChars)
+        .<Component, String>weigher((component, json) -> json.length())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Marks the given component instance as one that will be sent to many players, so that its JSON
+   * form is cached from now on.
+   *
+   * @param component the shared component
+   */
+  public void share(Component component) {
+    shared.add(component);
+  }
+
+  /**
+   * Serializes the given component to JSON. If the component has been {@link #share(Component)
+   * shared}, the previous result is reused if the same instance was serialized recently.
+   *
+   * @param component the component to serialize
+   * @return the JSON form of the component
+   */
+  public String serialize(Component component) {
+    if (!shared.contains(component)) {
+      return serializer.serialize(component);
+    }
+    return cache.get(component, serializer::serialize);
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+}
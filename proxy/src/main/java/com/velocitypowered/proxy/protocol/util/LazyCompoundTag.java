@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.util;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import net.kyori.adventure.nbt.BinaryTagIO;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+
+/**
+ * A named compound tag that is kept in its serialized form and only parsed when it is actually
+ * needed. Large tags that the proxy merely passes on, such as the registry sent in
+ * {@link com.velocitypowered.proxy.protocol.packet.JoinGame}, are copied straight from the
+ * incoming packet and written back out unchanged, without ever being parsed.
+ *
+ * <p>Tags read from the network are interned by content, so every player connected to the same
+ * backend server shares a single copy of its registry.</p>
+ */
+public final class LazyCompoundTag {
+
+  private static final Interner<LazyCompoundTag> INTERNER = Interners.newWeakInterner();
+  private static final int MAX_DEPTH = 512;
+
+  private final byte[] bytes;
+  private final int hash;
+  private final int maxParsedBytes;
+  private volatile @MonotonicNonNull CompoundBinaryTag tag;
+
+  private LazyCompoundTag(byte[] bytes, int maxParsedBytes) {
+    this.bytes = bytes;
+    this.hash = Arrays.hashCode(bytes);
+    this.maxParsedBytes = maxParsedBytes;
+  }
+
+  /**
+   * Reads a named compound tag from the {@code buf} without parsing it. The tag is only walked to
+   * find where it ends.
+   *
+   * @param buf the buffer to read from
+   * @param maxBytes the maximum size of the serialized tag
+   * @return the (interned) tag
+   * @throws DecoderException if the tag is malformed or larger than {@code maxBytes}
+   */
+  public static LazyCompoundTag read(ByteBuf buf, int maxBytes) {
+    int start = buf.readerIndex();
+    try {
+      byte type = buf.readByte();
+      if (type != BinaryTagTypes.COMPOUND) {
+        throw new DecoderException("Expected a root compound tag, got type " + type);
+      }
+      skipString(buf);
+      skipPayload(buf, BinaryTagTypes.COMPOUND, 0);
+    } catch (IndexOutOfBoundsException e) {
+      throw new DecoderException("Truncated NBT compound tag");
+    }
+    int length = buf.readerIndex() - start;
+    if (length > maxBytes) {
+      throw new DecoderException("NBT compound tag is too large (" + length + " > " + maxBytes
+          + ")");
+    }
+    byte[] bytes = new byte[length];
+    buf.getBytes(start, bytes);
+    return INTERNER.intern(new LazyCompoundTag(bytes, maxBytes));
+  }
+
+  /**
+   * Creates a lazy tag from an already parsed tag.
+   *
+   * @param tag the tag
+   * @return the lazy tag
+   */
+  public static LazyCompoundTag of(CompoundBinaryTag tag) {
+    ByteBuf buf = Unpooled.buffer();
+    try {
+      BinaryTagIO.writer().write(tag, (DataOutput) new ByteBufOutputStream(buf));
+      byte[] bytes = new byte[buf.readableBytes()];
+      buf.readBytes(bytes);
+      LazyCompoundTag lazy = new LazyCompoundTag(bytes, Math.max(bytes.length, 0x200000));
+      lazy.tag = tag;
+      return lazy;
+    } catch (IOException e) {
+      throw new EncoderException("Unable to encode NBT CompoundTag", e);
+    } finally {
+      buf.release();
+    }
+  }
+
+  /**
+   * Returns the parsed tag, parsing it on first use.
+   *
+   * @return the parsed tag
+   */
+  public CompoundBinaryTag tag() {
+    CompoundBinaryTag parsed = this.tag;
+    if (parsed == null) {
+      try {
+        parsed = BinaryTagIO.reader(maxParsedBytes)
+            .read((DataInput) new DataInputStream(new ByteArrayInputStream(bytes)));
+      } catch (IOException e) {
+        throw new DecoderException("Unable to parse NBT CompoundTag", e);
+      }
+      this.tag = parsed;
+    }
+    return parsed;
+  }
+
+  /**
+   * Writes the serialized tag to the {@code buf}.
+   *
+   * @param buf the buffer to write to
+   */
+  public void write(ByteBuf buf) {
+    buf.writeBytes(bytes);
+  }
+
+  /**
+   * Returns the size of the serialized tag.
+   *
+   * @return the size in bytes
+   */
+  public int size() {
+    return bytes.length;
+  }
+
+  private static void skipPayload(ByteBuf buf, byte type, int depth) {
+    if (depth > MAX_DEPTH) {
+      throw new DecoderException("NBT compound tag is nested too deeply");
+    }
+    switch (type) {
+      case BinaryTagTypes.BYTE:
+        buf.skipBytes(Byte.BYTES);
+        break;
+      case BinaryTagTypes.SHORT:
+        buf.skipBytes(Short.BYTES);
+        break;
+      case BinaryTagTypes.INT:
+      case BinaryTagTypes.FLOAT:
+        buf.skipBytes(Integer.BYTES);
+        break;
+      case BinaryTagTypes.LONG:
+      case BinaryTagTypes.DOUBLE:
+        buf.skipBytes(Long.BYTES);
+        break;
+      case BinaryTagTypes.BYTE_ARRAY:
+        buf.skipBytes(readLength(buf));
+        break;
+      case BinaryTagTypes.STRING:
+        skipString(buf);
+        break;
+      case BinaryTagTypes.LIST: {
+        byte elementType = buf.readByte();
+        int length = readLength(buf);
+        for (int i = 0; i < length; i++) {
+          skipPayload(buf, elementType, depth + 1);
+        }
+        break;
+      }
+      case BinaryTagTypes.COMPOUND: {
+        byte entryType;
+        while ((entryType = buf.readByte()) != BinaryTagTypes.END) {
+          skipString(buf);
+          skipPayload(buf, entryType, depth + 1);
+        }
+        break;
+      }
+      case BinaryTagTypes.INT_ARRAY:
+        buf.skipBytes(Math.multiplyExact(readLength(buf), Integer.BYTES));
+        break;
+      case BinaryTagTypes.LONG_ARRAY:
+        buf.skipBytes(Math.multiplyExact(readLength(buf), Long.BYTES));
+        break;
+      default:
+        throw new DecoderException("Unknown NBT tag type " + type);
+    }
+  }
+
+  private static void skipString(ByteBuf buf) {
+    buf.skipBytes(buf.readUnsignedShort());
+  }
+
+  private static int readLength(ByteBuf buf) {
+    int length = buf.readInt();
+    if (length < 0) {
+      throw new DecoderException("Negative NBT length " + length);
+    }
+    return length;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    LazyCompoundTag that = (LazyCompoundTag) o;
+    return hash == that.hash && Arrays.equals(bytes, that.bytes);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return "LazyCompoundTag{size=" + bytes.length + '}';
+  }
+
+  /**
+   * The NBT tag type IDs.
+   */
+  private static final class BinaryTagTypes {
+
+    static final byte END = 0;
+    static final byte BYTE = 1;
+    static final byte SHORT = 2;
+    static final byte INT = 3;
+    static final byte LONG = 4;
+    static final byte FLOAT = 5;
+    static final byte DOUBLE = 6;
+    static final byte BYTE_ARRAY = 7;
+    static final byte STRING = 8;
+    static final byte LIST = 9;
+    static final byte COMPOUND = 10;
+    static final byte INT_ARRAY = 11;
+    static final byte LONG_ARRAY = 12;
+
+    private BinaryTagTypes() {
+      throw new AssertionError();
+    }
+  }
+}
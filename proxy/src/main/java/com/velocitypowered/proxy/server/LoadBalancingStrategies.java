@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server;
+
+import com.google.common.collect.ImmutableMap;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.LoadBalancingStrategy;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.proxy.config.LoadBalancingMode;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The load balancing strategies built into the proxy.
+ */
+public final class LoadBalancingStrategies {
+
+  private static final Logger logger = LogManager.getLogger(LoadBalancingStrategies.class);
+
+  /**
+   * Sends players to the first candidate, which is the behaviour of a plain {@code try} list.
+   */
+  public static final LoadBalancingStrategy ORDERED = (player, candidates) -> candidates.get(0);
+
+  /**
+   * Sends players to the candidate with the fewest players on it.
+   */
+  public static final LoadBalancingStrategy LEAST_CONNECTIONS = (player, candidates) -> {
+    RegisteredServer best = candidates.get(0);
+    int bestLoad = load(best);
+    for (int i = 1; i < candidates.size(); i++) {
+      RegisteredServer candidate = candidates.get(i);
+      int candidateLoad = load(candidate);
+      if (candidateLoad < bestLoad) {
+        best = candidate;
+        bestLoad = candidateLoad;
+      }
+    }
+    return best;
+  };
+
+  /**
+   * Sends players to the candidate with the lowest smoothed round trip time between the proxy and
+   * the server. Servers that have never been measured are tried first, so that new servers receive
+   * players and get measured; ties are broken by the number of players on each server.
+   */
+  public static final LoadBalancingStrategy LOWEST_PING = (player, candidates) -> {
+    RegisteredServer best = candidates.get(0);
+    double bestPing = ping(best);
+    int bestLoad = load(best);
+    for (int i = 1; i < candidates.size(); i++) {
+      RegisteredServer candidate = candidates.get(i);
+      double candidatePing = ping(candidate);
+      int candidateLoad = load(candidate);
+      if (candidatePing < bestPing || (candidatePing == bestPing && candidateLoad < bestLoad)) {
+        best = candidate;
+        bestPing = candidatePing;
+        bestLoad = candidateLoad;
+      }
+    }
+    return best;
+  };
+
+  /**
+   * Picks two candidates at random and sends players to the one with fewer players. This spreads
+   * bursts of logins more evenly than {@link #LEAST_CONNECTIONS}, which sends every player that
+   * logs in at the same moment to the same server.
+   */
+  public static final LoadBalancingStrategy POWER_OF_TWO = (player, candidates) -> {
+    int size = candidates.size();
+    if (size == 1) {
+      return candidates.get(0);
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(size);
+    int second = random.nextInt(size - 1);
+    if (second >= first) {
+      second++;
+    }
+    RegisteredServer a = candidates.get(first);
+    RegisteredServer b = candidates.get(second);
+    return load(b) < load(a) ? b : a;
+  };
+
+  private LoadBalancingStrategies() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Sends players to the candidate with the fewest players relative to its weight. Servers without
+   * a weight have a weight of 1.
+   *
+   * @param weights the weight of each server, keyed by lower-case server name
+   * @return the strategy
+   */
+  public static LoadBalancingStrategy weighted(Map<String, Integer> weights) {
+    Map<String, Integer> copy = ImmutableMap.copyOf(weights);
+    return (player, candidates) -> {
+      RegisteredServer best = null;
+      double bestScore = Double.MAX_VALUE;
+      for (RegisteredServer candidate : candidates) {
+        int weight = copy.getOrDefault(
+            candidate.getServerInfo().getName().toLowerCase(Locale.ROOT), 1);
+        if (weight <= 0) {
+          continue;
+        }
+        // Count the player being placed, so that empty servers are still ordered by weight.
+        double score = (load(candidate) + 1) / (double) weight;
+        if (score < bestScore) {
+          best = candidate;
+          bestScore = score;
+        }
+      }
+      // If every candidate has been weighted out, fall back to the first one.
+      return best == null ? candidates.get(0) : best;
+    };
+  }
+
+  /**
+   * Creates the strategy for the given configured mode.
+   *
+   * @param mode the configured mode
+   * @param weights the configured server weights, used by {@link LoadBalancingMode#WEIGHTED}
+   * @return the strategy
+   */
+  public static LoadBalancingStrategy create(LoadBalancingMode mode, Map<String, Integer> weights) {
+    switch (mode) {
+      case LEAST_CONNECTIONS:
+        return LEAST_CONNECTIONS;
+      case WEIGHTED:
+        return weighted(weights);
+      case LOWEST_PING:
+        return LOWEST_PING;
+      case POWER_OF_TWO:
+        return POWER_OF_TWO;
+      case ORDERED:
+      default:
+        return ORDERED;
+    }
+  }
+
+  // The number of players on a server, including players that are currently connecting to it.
+  private static int load(RegisteredServer server) {
+    if (server instanceof VelocityRegisteredServer) {
+      return ((VelocityRegisteredServer) server).getLoad();
+    }
+    return server.getPlayerCount();
+  }
+
+  // The smoothed round trip time to a server in milliseconds, or -1 if it has never been measured.
+  private static double ping(RegisteredServer server) {
+    if (server instanceof VelocityRegisteredServer) {
+      long rttMicros = ((VelocityRegisteredServer) server).getSmoothedRttMicros();
+      return rttMicros < 0 ? -1 : rttMicros / 1000.0;
+    }
+    return server.getPingStatistics().getPercentileMillis(50);
+  }
+
+  /**
+   * Chooses a server with the given strategy. If the strategy fails or does not return one of the
+   * candidates, the first candidate is used instead.
+   *
+   * @param strategy the strategy to use
+   * @param player the player to choose a server for
+   * @param candidates the candidate servers
+   * @return the chosen server
+   */
+  public static RegisteredServer select(LoadBalancingStrategy strategy, Player player,
+      List<RegisteredServer> candidates) {
+    RegisteredServer chosen;
+    try {
+      chosen = strategy.select(player, candidates);
+    } catch (Exception e) {
+      logger.error("Load balancing strategy {} failed to choose a server for {}", strategy,
+          player, e);
+      return candidates.get(0);
+    }
+    if (chosen == null || !candidates.contains(chosen)) {
+      logger.error("Load balancing strategy {} chose {} for {}, which is not one of {}", strategy,
+          chosen, player, candidates);
+      return candidates.get(0);
+    }
+    return chosen;
+  }
+}
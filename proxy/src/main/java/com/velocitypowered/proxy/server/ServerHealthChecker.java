@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server;
+
+import com.velocitypowered.api.proxy.server.PingOptions;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerHealth;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.HealthCheckProbe;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Periodically probes every registered server and records the result in its
+ * {@link VelocityServerHealth}, so that players are not sent to servers that are known to be down.
+ */
+public final class ServerHealthChecker {
+
+  private static final Logger logger = LogManager.getLogger(ServerHealthChecker.class);
+
+  private final VelocityServer server;
+  private final ScheduledExecutorService executor;
+  private @Nullable ScheduledFuture<?> task;
+
+  public ServerHealthChecker(VelocityServer server, ScheduledExecutorService executor) {
+    this.server = server;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts (or restarts) health checks with the given configuration. If health checks are
+   * disabled, any existing results are discarded so that no server remains marked down.
+   *
+   * @param config the health check configuration
+   */
+  public synchronized void start(VelocityConfiguration.HealthCheck config) {
+    stop();
+    if (!config.isEnabled()) {
+      for (RegisteredServer registered : server.getAllServers()) {
+        ((VelocityRegisteredServer) registered).getHealth().reset();
+      }
+      return;
+    }
+    task = executor.scheduleWithFixedDelay(() -> probeAll(config), 0, config.getInterval(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops any further health checks. Probes that are already in flight are allowed to finish.
+   */
+  public synchronized void stop() {
+    if (task != null) {
+      task.cancel(false);
+      task = null;
+    }
+  }
+
+  private void probeAll(VelocityConfiguration.HealthCheck config) {
+    for (RegisteredServer registered : server.getAllServers()) {
+      VelocityRegisteredServer target = (VelocityRegisteredServer) registered;
+      VelocityServerHealth health = target.getHealth();
+      if (!health.tryBeginProbe()) {
+        // The previous probe for this server has not finished yet.
+        continue;
+      }
+
+      long start = System.nanoTime();
+      CompletableFuture<?> probe;
+      try {
+        probe = probe(target, config);
+      } catch (RuntimeException e) {
+        probe = CompletableFuture.failedFuture(e);
+      }
+      probe.whenComplete((ignored, cause) -> {
+        String name = target.getServerInfo().getName();
+        if (cause == null) {
+          ServerHealth.Status previous = health.recordSuccess(System.nanoTime() - start,
+              config.getHealthyThreshold());
+          if (previous == ServerHealth.Status.DOWN
+              && health.getStatus() == ServerHealth.Status.UP) {
+            logger.info("Server {} is up again", name);
+          }
+        } else {
+          ServerHealth.Status previous = health.recordFailure(config.getUnhealthyThreshold());
+          if (previous != ServerHealth.Status.DOWN
+              && health.getStatus() == ServerHealth.Status.DOWN) {
+            logger.warn("Server {} is down after {} failed health checks: {}", name,
+                health.getConsecutiveFailures(), cause.toString());
+          }
+        }
+      });
+    }
+  }
+
+  private CompletableFuture<?> probe(VelocityRegisteredServer target,
+      VelocityConfiguration.HealthCheck config) {
+    if (config.getProbe() == HealthCheckProbe.TCP) {
+      CompletableFuture<Void> result = new CompletableFuture<>();
+      server.createBootstrap(null)
+          .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getTimeout())
+          .handler(new ChannelInboundHandlerAdapter())
+          .connect(target.getServerInfo().getAddress())
+          .addListener((ChannelFutureListener) future -> {
+            if (future.isSuccess()) {
+              future.channel().close();
+              result.complete(null);
+            } else {
+              result.completeExceptionally(future.cause());
+            }
+          });
+      return result;
+    }
+
+    // The ping timeout only covers reads, so bound the whole probe, including the connection.
+    return target.ping(null, PingOptions.builder()
+            .timeout(config.getTimeout(), TimeUnit.MILLISECONDS)
+            .build())
+        .orTimeout(config.getTimeout(), TimeUnit.MILLISECONDS);
+  }
+}
@@ -107,5 +107,8 @@ public class ServerMap {
         "Trying to remove server %s with differing information", serverInfo.getName());
     Preconditions.checkState(servers.remove(lowerName, rs),
         "Server with name %s replaced whilst unregistering", serverInfo.getName());
+    if (rs instanceof VelocityRegisteredServer) {
+      ((VelocityRegisteredServer) rs).closeConnectionPool();
+    }
   }
 }
@@ -25,7 +25,6 @@ import static com.velocitypowered.proxy.network.Connections.MINECRAFT_ENCODER;
 import static com.velocitypowered.proxy.network.Connections.READ_TIMEOUT;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.messages.ChannelIdentifier;
 import com.velocitypowered.api.proxy.server.PingOptions;
@@ -34,8 +33,11 @@ import com.velocitypowered.api.proxy.server.ServerInfo;
 import com.velocitypowered.api.proxy.server.ServerPing;
 import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.backend.BackendConnectionPool;
 import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.network.RttHistogram;
+import com.velocitypowered.proxy.network.netty.CoarseReadTimeoutHandler;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
@@ -43,19 +45,22 @@ import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
 import com.velocitypowered.proxy.protocol.packet.Handshake;
+import com.velocitypowered.proxy.util.collect.PlayerListSnapshot;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoop;
-import io.netty.handler.timeout.ReadTimeoutHandler;
 import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.audience.ForwardingAudience;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -66,13 +71,22 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 public class VelocityRegisteredServer implements RegisteredServer, ForwardingAudience {
 
+  // Same smoothing factor as the TCP smoothed round trip time (RFC 6298).
+  private static final int RTT_SMOOTHING_SHIFT = 3;
+
   private final @Nullable VelocityServer server;
   private final ServerInfo serverInfo;
   private final Map<UUID, ConnectedPlayer> players = new ConcurrentHashMap<>();
+  private final PlayerListSnapshot playerSnapshot = new PlayerListSnapshot(players.values());
+  private final AtomicInteger pendingConnections = new AtomicInteger();
+  private final AtomicLong smoothedRttMicros = new AtomicLong(-1);
+  private final VelocityServerHealth health = new VelocityServerHealth();
+  private final @Nullable BackendConnectionPool connectionPool;
 
   public VelocityRegisteredServer(@Nullable VelocityServer server, ServerInfo serverInfo) {
     this.server = server;
     this.serverInfo = Preconditions.checkNotNull(serverInfo, "serverInfo");
+    this.connectionPool = server == null ? null : new BackendConnectionPool(server, this);
   }
 
   @Override
@@ -82,7 +96,113 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
 
   @Override
   public Collection<Player> getPlayersConnected() {
-    return ImmutableList.copyOf(players.values());
+    return playerSnapshot.players();
+  }
+
+  @Override
+  public int getPlayerCount() {
+    return players.size();
+  }
+
+  @Override
+  public void forEachPlayer(Consumer<? super Player> action) {
+    players.values().forEach(action);
+  }
+
+  /**
+   * Returns the number of players on this server, including players that are currently being
+   * connected to it. Load balancing uses this rather than {@link #getPlayerCount()} so that a
+   * burst of logins is not all sent to the same server.
+   *
+   * @return the number of players on or connecting to this server
+   */
+  public int getLoad() {
+    return players.size() + pendingConnections.get();
+  }
+
+  /**
+   * Notes that a player has started connecting to this server.
+   */
+  public void beginPendingConnection() {
+    pendingConnections.incrementAndGet();
+  }
+
+  /**
+   * Notes that a connection attempt started with {@link #beginPendingConnection()} has finished,
+   * whether or not it succeeded.
+   */
+  public void endPendingConnection() {
+    pendingConnections.decrementAndGet();
+  }
+
+  /**
+   * Records a round trip time measured on one of the connections to this server, folding it into
+   * the smoothed round trip time used by load balancing.
+   *
+   * @param rttMicros the round trip time in microseconds
+   */
+  public void recordRtt(long rttMicros) {
+    smoothedRttMicros.accumulateAndGet(rttMicros, (previous, sample) -> previous < 0 ? sample
+        : previous + ((sample - previous) >> RTT_SMOOTHING_SHIFT));
+  }
+
+  /**
+   * Returns the exponentially weighted moving average of the round trip times recorded with
+   * {@link #recordRtt(long)}. Unlike {@link #getPingStatistics()}, this does not need to visit
+   * every player on the server, and it is kept after the last player leaves.
+   *
+   * @return the smoothed round trip time in microseconds, or -1 if nothing has been measured
+   */
+  public long getSmoothedRttMicros() {
+    return smoothedRttMicros.get();
+  }
+
+  @Override
+  public RttHistogram getPingStatistics() {
+    RttHistogram combined = new RttHistogram();
+    for (ConnectedPlayer player : players.values()) {
+      VelocityServerConnection connection = player.getConnectedServer();
+      if (connection != null && connection.getServer() == this) {
+        combined.merge(connection.getPingStatistics());
+      }
+    }
+    return combined;
+  }
+
+  @Override
+  public RttHistogram getPlayerPingStatistics() {
+    RttHistogram combined = new RttHistogram();
+    for (ConnectedPlayer player : players.values()) {
+      combined.merge(player.getPingStatistics());
+    }
+    return combined;
+  }
+
+  /**
+   * Returns the pool of idle connections to this server.
+   *
+   * @return the connection pool for this server
+   * @throws IllegalStateException if this server is not associated with a proxy
+   */
+  public BackendConnectionPool getConnectionPool() {
+    if (connectionPool == null) {
+      throw new IllegalStateException("No Velocity proxy instance available");
+    }
+    return connectionPool;
+  }
+
+  /**
+   * Closes all idle pooled connections to this server, such as when it is unregistered.
+   */
+  public void closeConnectionPool() {
+    if (connectionPool != null) {
+      connectionPool.close();
+    }
+  }
+
+  @Override
+  public VelocityServerHealth getHealth() {
+    return health;
   }
 
   @Override
@@ -115,7 +235,7 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
             ch.pipeline()
                 .addLast(FRAME_DECODER, new MinecraftVarintFrameDecoder())
                 .addLast(READ_TIMEOUT,
-                    new ReadTimeoutHandler(pingOptions.getTimeout() == 0
+                    new CoarseReadTimeoutHandler(pingOptions.getTimeout() == 0
                             ? server.getConfiguration().getReadTimeout() : pingOptions.getTimeout(),
                         TimeUnit.MILLISECONDS))
                 .addLast(FRAME_ENCODER, MinecraftVarintLengthEncoder.INSTANCE)
@@ -140,12 +260,25 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
     return pingFuture;
   }
 
+  /**
+   * Adds the specified player to this server's list of connected players.
+   *
+   * @param player the player to add
+   */
   public void addPlayer(ConnectedPlayer player) {
     players.put(player.getUniqueId(), player);
+    playerSnapshot.invalidate();
   }
 
+  /**
+   * Removes the specified player from this server's list of connected players.
+   *
+   * @param player the player to remove
+   */
   public void removePlayer(ConnectedPlayer player) {
-    players.remove(player.getUniqueId(), player);
+    if (players.remove(player.getUniqueId(), player)) {
+      playerSnapshot.invalidate();
+    }
   }
 
   @Override
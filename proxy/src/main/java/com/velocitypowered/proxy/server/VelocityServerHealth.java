@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server;
+
+import com.google.common.base.MoreObjects;
+import com.velocitypowered.api.proxy.server.ServerHealth;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the health of a single {@link VelocityRegisteredServer}. Probe results are recorded by
+ * the {@link ServerHealthChecker}, which runs at most one probe per server at a time.
+ */
+public final class VelocityServerHealth implements ServerHealth {
+
+  // Same smoothing factor as the TCP smoothed round trip time (RFC 6298).
+  private static final int LATENCY_SMOOTHING_SHIFT = 3;
+
+  private final AtomicBoolean probing = new AtomicBoolean();
+  private volatile Status status = Status.UNKNOWN;
+  private volatile long latencyNanos = -1;
+  private volatile long lastCheckedMillis;
+  private volatile int consecutiveFailures;
+  private int consecutiveSuccesses;
+
+  @Override
+  public Status getStatus() {
+    return status;
+  }
+
+  @Override
+  public long getLatencyMillis() {
+    long latency = this.latencyNanos;
+    return latency < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(latency);
+  }
+
+  @Override
+  public Optional<Instant> getLastChecked() {
+    long lastChecked = this.lastCheckedMillis;
+    return lastChecked == 0 ? Optional.empty() : Optional.of(Instant.ofEpochMilli(lastChecked));
+  }
+
+  @Override
+  public int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+
+  /**
+   * Claims the right to probe this server. Every successful call must be followed by a call to
+   * {@link #recordSuccess(long, int)} or {@link #recordFailure(int)}.
+   *
+   * @return {@code true} if no other probe is in flight
+   */
+  boolean tryBeginProbe() {
+    return probing.compareAndSet(false, true);
+  }
+
+  /**
+   * Records a successful probe. A server that is down is only marked up again after
+   * {@code healthyThreshold} successful probes in a row.
+   *
+   * @param latencyNanos the time the probe took, in nanoseconds
+   * @param healthyThreshold the number of successful probes needed to mark the server up
+   * @return the previous status of the server
+   */
+  synchronized Status recordSuccess(long latencyNanos, int healthyThreshold) {
+    long previousLatency = this.latencyNanos;
+    this.latencyNanos = previousLatency < 0 ? latencyNanos
+        : previousLatency + ((latencyNanos - previousLatency) >> LATENCY_SMOOTHING_SHIFT);
+    this.lastCheckedMillis = System.currentTimeMillis();
+    this.consecutiveFailures = 0;
+    this.consecutiveSuccesses++;
+
+    Status previous = this.status;
+    if (previous != Status.DOWN || consecutiveSuccesses >= healthyThreshold) {
+      this.status = Status.UP;
+    }
+    probing.set(false);
+    return previous;
+  }
+
+  /**
+   * Records a failed probe. A server is only marked down after {@code unhealthyThreshold} failed
+   * probes in a row.
+   *
+   * @param unhealthyThreshold the number of failed probes needed to mark the server down
+   * @return the previous status of the server
+   */
+  synchronized Status recordFailure(int unhealthyThreshold) {
+    this.lastCheckedMillis = System.currentTimeMillis();
+    this.consecutiveSuccesses = 0;
+    this.consecutiveFailures++;
+
+    Status previous = this.status;
+    if (consecutiveFailures >= unhealthyThreshold) {
+      this.status = Status.DOWN;
+    }
+    probing.set(false);
+    return previous;
+  }
+
+  /**
+   * Forgets all probe results, such as when health checks are disabled.
+   */
+  synchronized void reset() {
+    this.status = Status.UNKNOWN;
+    this.latencyNanos = -1;
+    this.lastCheckedMillis = 0;
+    this.consecutiveFailures = 0;
+    this.consecutiveSuccesses = 0;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("status", status)
+        .add("latencyMillis", getLatencyMillis())
+        .add("consecutiveFailures", consecutiveFailures)
+        .toString();
+  }
+}
@@ -0,0 +1,596 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.tablist;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.player.SharedTabList;
+import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.packet.RemovePlayerInfo;
+import com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfo;
+import com.velocitypowered.proxy.protocol.util.BroadcastPacket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Implementation of {@link SharedTabList}. Entries are stored once for the whole proxy. Each
+ * viewer only holds a version cursor (the last version of the tab list it was sent) and, if a
+ * plugin overrides display names for it, a small map of overrides.
+ *
+ * <p>Changes are collected and flushed once per tick. Every flush bumps the version of the tab
+ * list and encodes the resulting packets once per protocol version, which are then sent to every
+ * viewer that is up to date. Viewers that fell behind (because they were added recently, were
+ * switching servers or were not in the play state) are instead sent the removals they missed and
+ * a full copy of the tab list.</p>
+ */
+public class VelocitySharedTabList implements SharedTabList {
+
+  private static final long NEEDS_SYNC = Long.MIN_VALUE;
+  private static final long FLUSH_INTERVAL_MILLIS = 50;
+  private static final EnumSet<UpsertPlayerInfo.Action> ADD_ACTIONS = EnumSet.of(
+      UpsertPlayerInfo.Action.ADD_PLAYER,
+      UpsertPlayerInfo.Action.UPDATE_GAME_MODE,
+      UpsertPlayerInfo.Action.UPDATE_LISTED,
+      UpsertPlayerInfo.Action.UPDATE_LATENCY,
+      UpsertPlayerInfo.Action.UPDATE_DISPLAY_NAME);
+
+  private final ScheduledExecutorService executor;
+  private final Object lock = new Object();
+  private final Object sendLock = new Object();
+  private final Map<UUID, SharedEntry> entries = new LinkedHashMap<>();
+  private final Map<ConnectedPlayer, Viewer> viewers = new HashMap<>();
+  private final Map<UUID, EnumSet<UpsertPlayerInfo.Action>> pendingChanges =
+      new LinkedHashMap<>();
+  private final Set<UUID> pendingRemovals = new LinkedHashSet<>();
+  // Packets for a single viewer, which are sent by the next flush so that they are written in
+  // order with the changes sent to that viewer.
+  private final List<PendingSend> queuedSends = new ArrayList<>();
+  private final ArrayDeque<Removal> removalLog = new ArrayDeque<>();
+  private long version;
+  private boolean flushScheduled;
+
+  public VelocitySharedTabList(ScheduledExecutorService executor) {
+    this.executor = Preconditions.checkNotNull(executor, "executor");
+  }
+
+  private static ConnectedPlayer checkViewer(Player viewer) {
+    Preconditions.checkNotNull(viewer, "viewer");
+    Preconditions.checkArgument(viewer instanceof ConnectedPlayer,
+        "Viewer %s is not a player connected to this proxy", viewer);
+    Preconditions.checkArgument(
+        viewer.getProtocolVersion().compareTo(ProtocolVersion.MINECRAFT_1_19_3) >= 0,
+        "Shared tab lists require Minecraft 1.19.3 or above");
+    return (ConnectedPlayer) viewer;
+  }
+
+  @Override
+  public void addViewer(Player viewer) {
+    ConnectedPlayer player = checkViewer(viewer);
+    synchronized (lock) {
+      if (viewers.putIfAbsent(player, new Viewer(player)) == null) {
+        scheduleFlush();
+      }
+    }
+  }
+
+  @Override
+  public void removeViewer(Player viewer) {
+    Preconditions.checkNotNull(viewer, "viewer");
+    synchronized (lock) {
+      Viewer removed = viewers.remove(viewer);
+      if (removed == null) {
+        return;
+      }
+      trimRemovalLog();
+      if (removed.cursor == NEEDS_SYNC || entries.isEmpty()) {
+        return;
+      }
+      PendingSend send = new PendingSend(removed.player.getConnection());
+      send.add(new RemovePlayerInfo(new ArrayList<>(entries.keySet())));
+      queuedSends.add(send);
+      scheduleFlush();
+    }
+  }
+
+  @Override
+  public boolean isViewer(Player viewer) {
+    synchronized (lock) {
+      return viewers.containsKey(viewer);
+    }
+  }
+
+  /**
+   * Removes the player as a viewer without sending them anything, as they are disconnecting.
+   *
+   * @param player the player who disconnected
+   */
+  public void onDisconnect(ConnectedPlayer player) {
+    synchronized (lock) {
+      if (viewers.remove(player) != null) {
+        trimRemovalLog();
+      }
+    }
+  }
+
+  /**
+   * Forces the next flush to send the whole tab list to the given player again, because the
+   * client has discarded its tab list (for instance, when switching servers).
+   *
+   * @param player the player to resynchronize
+   */
+  public void invalidateViewer(ConnectedPlayer player) {
+    synchronized (lock) {
+      Viewer viewer = viewers.get(player);
+      if (viewer != null) {
+        viewer.cursor = NEEDS_SYNC;
+        scheduleFlush();
+      }
+    }
+  }
+
+  @Override
+  public void putEntry(GameProfile profile, @Nullable Component displayName, int latency,
+      int gameMode, boolean listed) {
+    Preconditions.checkNotNull(profile, "profile");
+    Preconditions.checkNotNull(profile.getId(), "Profile ID cannot be null");
+    UUID id = profile.getId();
+    synchronized (lock) {
+      SharedEntry existing = entries.get(id);
+      if (existing == null || !sameProfile(existing.profile, profile)) {
+        if (existing != null) {
+          // The client can't change the profile of an existing entry, so re-add it.
+          pendingRemovals.add(id);
+          pendingChanges.remove(id);
+        }
+        entries.put(id, new SharedEntry(profile, displayName, latency, gameMode, listed));
+        queueChange(id, ADD_ACTIONS);
+        return;
+      }
+
+      EnumSet<UpsertPlayerInfo.Action> changed = EnumSet.noneOf(UpsertPlayerInfo.Action.class);
+      if (!Objects.equals(existing.displayName, displayName)) {
+        existing.displayName = displayName;
+        changed.add(UpsertPlayerInfo.Action.UPDATE_DISPLAY_NAME);
+      }
+      if (existing.latency != latency) {
+        existing.latency = latency;
+        changed.add(UpsertPlayerInfo.Action.UPDATE_LATENCY);
+      }
+      if (existing.gameMode != gameMode) {
+        existing.gameMode = gameMode;
+        changed.add(UpsertPlayerInfo.Action.UPDATE_GAME_MODE);
+      }
+      if (existing.listed != listed) {
+        existing.listed = listed;
+        changed.add(UpsertPlayerInfo.Action.UPDATE_LISTED);
+      }
+      if (!changed.isEmpty()) {
+        queueChange(id, changed);
+      }
+    }
+  }
+
+  @Override
+  public boolean removeEntry(UUID id) {
+    Preconditions.checkNotNull(id, "id");
+    synchronized (lock) {
+      if (entries.remove(id) == null) {
+        return false;
+      }
+      pendingChanges.remove(id);
+      pendingRemovals.add(id);
+      scheduleFlush();
+      return true;
+    }
+  }
+
+  @Override
+  public boolean containsEntry(UUID id) {
+    synchronized (lock) {
+      return entries.containsKey(id);
+    }
+  }
+
+  @Override
+  public int getEntryCount() {
+    synchronized (lock) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public void setDisplayName(UUID id, @Nullable Component displayName) {
+    synchronized (lock) {
+      SharedEntry entry = entries.get(id);
+      if (entry != null && !Objects.equals(entry.displayName, displayName)) {
+        entry.displayName = displayName;
+        queueChange(id, EnumSet.of(UpsertPlayerInfo.Action.UPDATE_DISPLAY_NAME));
+      }
+    }
+  }
+
+  @Override
+  public void setLatency(UUID id, int latency) {
+    synchronized (lock) {
+      SharedEntry entry = entries.get(id);
+      if (entry != null && entry.latency != latency) {
+        entry.latency = latency;
+        queueChange(id, EnumSet.of(UpsertPlayerInfo.Action.UPDATE_LATENCY));
+      }
+    }
+  }
+
+  @Override
+  public void setGameMode(UUID id, int gameMode) {
+    synchronized (lock) {
+      SharedEntry entry = entries.get(id);
+      if (entry != null && entry.gameMode != gameMode) {
+        entry.gameMode = gameMode;
+        queueChange(id, EnumSet.of(UpsertPlayerInfo.Action.UPDATE_GAME_MODE));
+      }
+    }
+  }
+
+  @Override
+  public void setListed(UUID id, boolean listed) {
+    synchronized (lock) {
+      SharedEntry entry = entries.get(id);
+      if (entry != null && entry.listed != listed) {
+        entry.listed = listed;
+        queueChange(id, EnumSet.of(UpsertPlayerInfo.Action.UPDATE_LISTED));
+      }
+    }
+  }
+
+  @Override
+  public void setDisplayNameOverride(Player player, UUID id, @Nullable Component displayName) {
+    Preconditions.checkNotNull(player, "player");
+    Preconditions.checkNotNull(id, "id");
+    synchronized (lock) {
+      Viewer viewer = viewers.get(player);
+      Preconditions.checkArgument(viewer != null, "%s is not a viewer of this tab list", player);
+      viewer.setOverride(id, displayName);
+
+      // If the viewer already has the entry, update it on the next flush. Otherwise, the override
+      // will be sent along with the entry itself.
+      SharedEntry entry = entries.get(id);
+      if (entry == null || viewer.cursor != version || pendingChanges.containsKey(id)) {
+        return;
+      }
+      UpsertPlayerInfo.Entry packetEntry = new UpsertPlayerInfo.Entry(id);
+      packetEntry.setDisplayName(displayName == null ? entry.displayName : displayName);
+      PendingSend send = new PendingSend(viewer.player.getConnection());
+      send.add(new UpsertPlayerInfo(EnumSet.of(UpsertPlayerInfo.Action.UPDATE_DISPLAY_NAME),
+          List.of(packetEntry)));
+      queuedSends.add(send);
+      scheduleFlush();
+    }
+  }
+
+  private void queueChange(UUID id, EnumSet<UpsertPlayerInfo.Action> actions) {
+    pendingChanges.computeIfAbsent(id, k -> EnumSet.noneOf(UpsertPlayerInfo.Action.class))
+        .addAll(actions);
+    scheduleFlush();
+  }
+
+  private void scheduleFlush() {
+    if (!flushScheduled) {
+      flushScheduled = true;
+      executor.schedule(this::flush, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void flush() {
+    // Flushes are serialized, so viewers receive them in order, but the tab list itself is only
+    // locked while the changes are collected. Sending them to every viewer happens once the lock
+    // has been released, so changes made to the tab list in the meantime are not held up.
+    synchronized (sendLock) {
+      List<BroadcastPacket> broadcasts = new ArrayList<>();
+      List<PendingSend> sends = new ArrayList<>();
+      synchronized (lock) {
+        flushScheduled = false;
+        collectChanges(broadcasts, sends);
+      }
+      try {
+        for (PendingSend send : sends) {
+          send.write();
+        }
+      } finally {
+        for (BroadcastPacket broadcast : broadcasts) {
+          broadcast.release();
+        }
+      }
+    }
+  }
+
+  private void collectChanges(List<BroadcastPacket> broadcasts, List<PendingSend> sends) {
+    sends.addAll(queuedSends);
+    queuedSends.clear();
+
+    List<BroadcastPacket> deltas = new ArrayList<>();
+    Set<UUID> displayNamesChanged = new HashSet<>();
+    if (!pendingRemovals.isEmpty() || !pendingChanges.isEmpty()) {
+      version++;
+      if (!pendingRemovals.isEmpty()) {
+        List<UUID> removed = new ArrayList<>(pendingRemovals);
+        for (UUID id : removed) {
+          removalLog.add(new Removal(version, id));
+          for (Viewer viewer : viewers.values()) {
+            viewer.setOverride(id, null);
+          }
+        }
+        deltas.add(new BroadcastPacket(new RemovePlayerInfo(removed), StateRegistry.PLAY));
+        pendingRemovals.clear();
+      }
+
+      Map<EnumSet<UpsertPlayerInfo.Action>, UpsertPlayerInfo> grouped = new LinkedHashMap<>();
+      for (Map.Entry<UUID, EnumSet<UpsertPlayerInfo.Action>> change : pendingChanges.entrySet()) {
+        UUID id = change.getKey();
+        grouped.computeIfAbsent(change.getValue(),
+                actions -> new UpsertPlayerInfo(actions, new ArrayList<>()))
+            .addEntry(entries.get(id).toPacketEntry(id));
+        if (change.getValue().contains(UpsertPlayerInfo.Action.UPDATE_DISPLAY_NAME)) {
+          displayNamesChanged.add(id);
+        }
+      }
+      pendingChanges.clear();
+      for (UpsertPlayerInfo packet : grouped.values()) {
+        deltas.add(new BroadcastPacket(packet, StateRegistry.PLAY));
+      }
+    }
+    broadcasts.addAll(deltas);
+
+    BroadcastPacket snapshot = null;
+    boolean lagging = false;
+    for (Viewer viewer : viewers.values()) {
+      if (viewer.cursor == version) {
+        continue;
+      }
+      MinecraftConnection connection = viewer.player.getConnection();
+      if (connection.isClosed() || connection.getState() != StateRegistry.PLAY) {
+        lagging = true;
+        continue;
+      }
+
+      PendingSend send = new PendingSend(connection);
+      if (viewer.cursor == version - 1) {
+        send.packets.addAll(deltas);
+        send.add(viewer.createOverrides(displayNamesChanged, entries));
+      } else {
+        if (viewer.cursor != NEEDS_SYNC) {
+          List<UUID> missedRemovals = new ArrayList<>();
+          for (Removal removal : removalLog) {
+            if (removal.version > viewer.cursor) {
+              missedRemovals.add(removal.id);
+            }
+          }
+          if (!missedRemovals.isEmpty()) {
+            send.add(new RemovePlayerInfo(missedRemovals));
+          }
+        }
+        if (!entries.isEmpty()) {
+          if (snapshot == null) {
+            snapshot = createSnapshot();
+            broadcasts.add(snapshot);
+          }
+          send.add(snapshot);
+        }
+        send.add(viewer.createOverrides(null, entries));
+      }
+      viewer.cursor = version;
+      sends.add(send);
+    }
+    trimRemovalLog();
+
+    if (lagging) {
+      scheduleFlush();
+    }
+  }
+
+  private BroadcastPacket createSnapshot() {
+    List<UpsertPlayerInfo.Entry> packetEntries = new ArrayList<>(entries.size());
+    for (Map.Entry<UUID, SharedEntry> entry : entries.entrySet()) {
+      packetEntries.add(entry.getValue().toPacketEntry(entry.getKey()));
+    }
+    return new BroadcastPacket(new UpsertPlayerInfo(EnumSet.copyOf(ADD_ACTIONS), packetEntries),
+        StateRegistry.PLAY);
+  }
+
+  /**
+   * Discards removals that every viewer has already been sent.
+   */
+  private void trimRemovalLog() {
+    long oldestCursor = Long.MAX_VALUE;
+    for (Viewer viewer : viewers.values()) {
+      if (viewer.cursor != NEEDS_SYNC) {
+        oldestCursor = Math.min(oldestCursor, viewer.cursor);
+      }
+    }
+    Iterator<Removal> it = removalLog.iterator();
+    while (it.hasNext() && it.next().version <= oldestCursor) {
+      it.remove();
+    }
+  }
+
+  private static boolean sameProfile(GameProfile a, GameProfile b) {
+    if (a == b) {
+      return true;
+    }
+    if (!a.getName().equals(b.getName())
+        || a.getProperties().size() != b.getProperties().size()) {
+      return false;
+    }
+    for (int i = 0; i < a.getProperties().size(); i++) {
+      GameProfile.Property pa = a.getProperties().get(i);
+      GameProfile.Property pb = b.getProperties().get(i);
+      if (!pa.getName().equals(pb.getName()) || !pa.getValue().equals(pb.getValue())
+          || !Objects.equals(pa.getSignature(), pb.getSignature())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final class SharedEntry {
+
+    private final GameProfile profile;
+    private @Nullable Component displayName;
+    private int latency;
+    private int gameMode;
+    private boolean listed;
+
+    private SharedEntry(GameProfile profile, @Nullable Component displayName, int latency,
+        int gameMode, boolean listed) {
+      this.profile = profile;
+      this.displayName = displayName;
+      this.latency = latency;
+      this.gameMode = gameMode;
+      this.listed = listed;
+    }
+
+    private UpsertPlayerInfo.Entry toPacketEntry(UUID id) {
+      UpsertPlayerInfo.Entry entry = new UpsertPlayerInfo.Entry(id);
+      entry.setProfile(profile);
+      entry.setDisplayName(displayName);
+      entry.setLatency(latency);
+      entry.setGameMode(gameMode);
+      entry.setListed(listed);
+      return entry;
+    }
+  }
+
+  private static final class Viewer {
+
+    private final ConnectedPlayer player;
+    private long cursor = NEEDS_SYNC;
+    private @Nullable Map<UUID, Component> overrides;
+
+    private Viewer(ConnectedPlayer player) {
+      this.player = player;
+    }
+
+    private void setOverride(UUID id, @Nullable Component displayName) {
+      if (displayName != null) {
+        if (overrides == null) {
+          overrides = new HashMap<>(4);
+        }
+        overrides.put(id, displayName);
+      } else if (overrides != null) {
+        overrides.remove(id);
+        if (overrides.isEmpty()) {
+          overrides = null;
+        }
+      }
+    }
+
+    /**
+     * Creates the packet re-applying this viewer's display name overrides after the shared display
+     * names have been sent.
+     *
+     * @param changed the entries whose shared display name was just sent, or {@code null} if the
+     *     whole tab list was sent
+     * @param entries the entries in the tab list
+     * @return the packet to send, or {@code null} if no overrides need to be sent
+     */
+    private @Nullable UpsertPlayerInfo createOverrides(@Nullable Collection<UUID> changed,
+        Map<UUID, SharedEntry> entries) {
+      if (overrides == null) {
+        return null;
+      }
+      List<UpsertPlayerInfo.Entry> packetEntries = new ArrayList<>();
+      for (Map.Entry<UUID, Component> override : overrides.entrySet()) {
+        UUID id = override.getKey();
+        if ((changed == null || changed.contains(id)) && entries.containsKey(id)) {
+          UpsertPlayerInfo.Entry entry = new UpsertPlayerInfo.Entry(id);
+          entry.setDisplayName(override.getValue());
+          packetEntries.add(entry);
+        }
+      }
+      if (packetEntries.isEmpty()) {
+        return null;
+      }
+      return new UpsertPlayerInfo(EnumSet.of(UpsertPlayerInfo.Action.UPDATE_DISPLAY_NAME),
+          packetEntries);
+    }
+  }
+
+  /**
+   * The packets collected for a single viewer during a flush, to be sent once the tab list has
+   * been unlocked. Packets are either {@link BroadcastPacket}s or regular packets.
+   */
+  private static final class PendingSend {
+
+    private final MinecraftConnection connection;
+    private final List<Object> packets = new ArrayList<>(4);
+
+    private PendingSend(MinecraftConnection connection) {
+      this.connection = connection;
+    }
+
+    private void add(@Nullable Object packet) {
+      if (packet != null) {
+        packets.add(packet);
+      }
+    }
+
+    private void write() {
+      if (packets.isEmpty() || connection.getState() != StateRegistry.PLAY) {
+        return;
+      }
+      for (Object packet : packets) {
+        if (packet instanceof BroadcastPacket) {
+          ((BroadcastPacket) packet).delayedWrite(connection);
+        } else {
+          connection.delayedWrite(packet);
+        }
+      }
+      connection.flush();
+    }
+  }
+
+  private static final class Removal {
+
+    private final long version;
+    private final UUID id;
+
+    private Removal(long version, UUID id) {
+      this.version = version;
+      this.id = id;
+    }
+  }
+}
@@ -20,6 +20,7 @@ package com.velocitypowered.proxy.tablist;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import com.velocitypowered.api.proxy.player.ChatSession;
+import com.velocitypowered.api.proxy.player.TabList;
 import com.velocitypowered.api.proxy.player.TabListEntry;
 import com.velocitypowered.api.util.GameProfile;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
@@ -31,13 +32,14 @@ import com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfo;
 import com.velocitypowered.proxy.protocol.packet.chat.RemoteChatSession;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import net.kyori.adventure.text.Component;
 import org.apache.logging.log4j.LogManager;
@@ -53,6 +55,10 @@ public class VelocityTabList implements InternalTabList {
   private final ConnectedPlayer player;
   private final MinecraftConnection connection;
   private final Map<UUID, VelocityTabListEntry> entries;
+  private final Object pendingLock = new Object();
+  private final Map<UUID, PendingUpsert> pendingUpserts = new LinkedHashMap<>();
+  private int batchDepth;
+  private boolean flushScheduled;
 
   /**
    * Constructs the instance.
@@ -148,11 +154,16 @@ public class VelocityTabList implements InternalTabList {
       playerInfoEntry.setLatency(entry.getLatency());
       playerInfoEntry.setListed(entry.isListed());
     }
-    this.connection.write(new UpsertPlayerInfo(actions, List.of(playerInfoEntry)));
+    if (!actions.isEmpty()) {
+      this.queueUpsert(actions, playerInfoEntry);
+    }
   }
 
   @Override
   public Optional<TabListEntry> removeEntry(UUID uuid) {
+    synchronized (pendingLock) {
+      this.pendingUpserts.remove(uuid);
+    }
     this.connection.write(new RemovePlayerInfo(List.of(uuid)));
     return Optional.ofNullable(this.entries.remove(uuid));
   }
@@ -174,10 +185,28 @@ public class VelocityTabList implements InternalTabList {
 
   @Override
   public void clearAll() {
+    synchronized (pendingLock) {
+      this.pendingUpserts.clear();
+    }
     this.connection.delayedWrite(new RemovePlayerInfo(new ArrayList<>(this.entries.keySet())));
     this.entries.clear();
   }
 
+  @Override
+  public void batch(Consumer<? super TabList> updates) {
+    synchronized (pendingLock) {
+      this.batchDepth++;
+    }
+    try {
+      updates.accept(this);
+    } finally {
+      synchronized (pendingLock) {
+        this.batchDepth--;
+      }
+      this.flushPendingUpdates();
+    }
+  }
+
   @Override
   public TabListEntry buildEntry(GameProfile profile, @Nullable Component displayName, int latency,
       int gameMode,
@@ -188,6 +217,8 @@ public class VelocityTabList implements InternalTabList {
 
   @Override
   public void processUpdate(UpsertPlayerInfo infoPacket) {
+    // Make sure any changes queued by plugins reach the client before the backend's update does.
+    this.flushPendingUpdates();
     for (UpsertPlayerInfo.Entry entry : infoPacket.getEntries()) {
       processUpsert(infoPacket.getActions(), entry);
     }
@@ -201,8 +232,61 @@ public class VelocityTabList implements InternalTabList {
   }
 
   protected void emitActionRaw(UpsertPlayerInfo.Action action, UpsertPlayerInfo.Entry entry) {
-    this.connection.write(
-        new UpsertPlayerInfo(EnumSet.of(action), Collections.singletonList(entry)));
+    this.queueUpsert(EnumSet.of(action), entry);
+  }
+
+  /**
+   * Queues an update for the client. Updates queued within the same event loop tick (or the same
+   * {@link #batch(Consumer)} call) are merged per entry and sent together, so that the client
+   * receives one packet per distinct set of actions rather than one packet per change.
+   *
+   * @param actions the actions to apply
+   * @param entry the entry holding the data for {@code actions}
+   */
+  private void queueUpsert(EnumSet<UpsertPlayerInfo.Action> actions,
+      UpsertPlayerInfo.Entry entry) {
+    boolean schedule = false;
+    synchronized (pendingLock) {
+      PendingUpsert pending = this.pendingUpserts.get(entry.getProfileId());
+      if (pending == null) {
+        this.pendingUpserts.put(entry.getProfileId(), new PendingUpsert(actions, entry));
+      } else {
+        pending.merge(actions, entry);
+      }
+      if (this.batchDepth == 0 && !this.flushScheduled) {
+        this.flushScheduled = true;
+        schedule = true;
+      }
+    }
+    if (schedule) {
+      this.connection.eventLoop().execute(this::flushPendingUpdates);
+    }
+  }
+
+  /**
+   * Sends all queued updates to the client, grouping entries that share the same set of actions
+   * into a single packet. This does nothing while a batch is in progress.
+   */
+  void flushPendingUpdates() {
+    Collection<UpsertPlayerInfo> packets;
+    synchronized (pendingLock) {
+      this.flushScheduled = false;
+      if (this.batchDepth > 0 || this.pendingUpserts.isEmpty()) {
+        return;
+      }
+      Map<EnumSet<UpsertPlayerInfo.Action>, UpsertPlayerInfo> grouped = new LinkedHashMap<>();
+      for (PendingUpsert pending : this.pendingUpserts.values()) {
+        grouped.computeIfAbsent(pending.actions,
+                actions -> new UpsertPlayerInfo(actions, new ArrayList<>()))
+            .addEntry(pending.entry);
+      }
+      this.pendingUpserts.clear();
+      packets = grouped.values();
+    }
+    for (UpsertPlayerInfo packet : packets) {
+      this.connection.delayedWrite(packet);
+    }
+    this.connection.flush();
   }
 
   private void processUpsert(EnumSet<UpsertPlayerInfo.Action> actions,
@@ -251,8 +335,29 @@ public class VelocityTabList implements InternalTabList {
 
   @Override
   public void processRemove(RemovePlayerInfo infoPacket) {
+    this.flushPendingUpdates();
     for (UUID uuid : infoPacket.getProfilesToRemove()) {
       this.entries.remove(uuid);
     }
   }
+
+  /**
+   * An update queued for a single entry that has not been sent to the client yet.
+   */
+  private static final class PendingUpsert {
+
+    private final EnumSet<UpsertPlayerInfo.Action> actions;
+    private final UpsertPlayerInfo.Entry entry;
+
+    private PendingUpsert(EnumSet<UpsertPlayerInfo.Action> actions,
+        UpsertPlayerInfo.Entry entry) {
+      this.actions = EnumSet.copyOf(actions);
+      this.entry = entry;
+    }
+
+    private void merge(EnumSet<UpsertPlayerInfo.Action> actions, UpsertPlayerInfo.Entry from) {
+      this.entry.merge(actions, from);
+      this.actions.addAll(actions);
+    }
+  }
 }
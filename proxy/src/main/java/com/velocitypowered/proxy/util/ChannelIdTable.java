@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A proxy-wide table of plugin message channel names, which gives every channel name a small
+ * integer ID. Players tend to register the same channels, so storing the IDs of the channels a
+ * player knows about instead of the names avoids keeping a copy of every name for every player.
+ *
+ * <p>Channel names are never removed from the table, so only channels registered on the proxy or
+ * by backend servers are added to it, never channels made up by clients. The table also has a
+ * maximum size and a maximum name length, past which channels are not given an ID.</p>
+ */
+public final class ChannelIdTable {
+
+  /**
+   * The ID returned for channels that are not in the table.
+   */
+  public static final int NO_ID = -1;
+
+  private static final int DEFAULT_MAX_SIZE = 1 << 16;
+  private static final int MAX_NAME_LENGTH = 256;
+
+  private final int maxSize;
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private volatile String[] names = new String[64];
+  private int size;
+
+  public ChannelIdTable() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Creates a table.
+   *
+   * @param maxSize the maximum number of channels in the table
+   */
+  public ChannelIdTable(int maxSize) {
+    Preconditions.checkArgument(maxSize > 0, "maxSize must be positive");
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the ID of the given channel, adding the channel to the table if it is not in it yet.
+   *
+   * @param channel the channel name
+   * @return the ID of the channel, or {@link #NO_ID} if the table is full or the name is too long
+   */
+  public int intern(String channel) {
+    if (channel.length() > MAX_NAME_LENGTH) {
+      return NO_ID;
+    }
+    Integer id = ids.get(channel);
+    return id != null ? id : add(channel);
+  }
+
+  private synchronized int add(String channel) {
+    Integer existing = ids.get(channel);
+    if (existing != null) {
+      return existing;
+    }
+    if (size == maxSize) {
+      return NO_ID;
+    }
+
+    String[] names = this.names;
+    if (size == names.length) {
+      names = Arrays.copyOf(names, Math.min(names.length * 2, maxSize));
+    }
+    names[size] = channel;
+    // Publish the name before the ID, so that anyone who sees the ID can look up the name.
+    this.names = names;
+    ids.put(channel, size);
+    return size++;
+  }
+
+  /**
+   * Returns the ID of the given channel, without adding it to the table.
+   *
+   * @param channel the channel name
+   * @return the ID of the channel, or {@link #NO_ID} if it is not in the table
+   */
+  public int find(String channel) {
+    Integer id = ids.get(channel);
+    return id != null ? id : NO_ID;
+  }
+
+  /**
+   * Returns the name of the channel with the given ID.
+   *
+   * @param id an ID returned by this table
+   * @return the channel name
+   */
+  public String getName(int id) {
+    return names[id];
+  }
+
+  public int size() {
+    return ids.size();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.RuntimeMBeanException;
+import javax.management.openmbean.CompositeData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Helps the proxy start up faster by keeping an application class data sharing (AppCDS) archive
+ * of the classes of the proxy and its plugins, which the JVM can map into memory instead of
+ * loading, verifying and parsing every class again on each start.
+ *
+ * <p>The archive can only be used through JVM flags, so this class works with whatever flags the
+ * proxy was started with, and explains which flags to add if there are none. Only HotSpot
+ * supports these archives; everything is done through JMX so that nothing breaks on other
+ * JVMs.</p>
+ */
+public final class ClassDataSharing {
+
+  private static final Logger logger = LogManager.getLogger(ClassDataSharing.class);
+
+  private ClassDataSharing() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Makes sure the given archive will be used on the next start of the proxy. Should be called
+   * once the proxy has finished starting, so that the classes loaded by plugins are included.
+   *
+   * @param archive the archive to use
+   */
+  public static void updateArchive(Path archive) {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    String path = archive.toAbsolutePath().toString();
+    try {
+      ObjectName diagnostics = new ObjectName("com.sun.management:type=HotSpotDiagnostic");
+      boolean usingArchive = isArchive(archive, getVmOption(server, diagnostics,
+          "SharedArchiveFile"));
+
+      if (usingArchive && "true".equals(getVmOption(server, diagnostics,
+          "AutoCreateSharedArchive"))) {
+        logger.info("The class data sharing archive {} is kept up to date by the JVM", path);
+      } else if (isArchive(archive, getVmOption(server, diagnostics, "ArchiveClassesAtExit"))) {
+        logger.info("The class data sharing archive {} will be written when the proxy stops. "
+            + "Add -XX:SharedArchiveFile={} to your startup flags to use it.", path, path);
+      } else if ("true".equals(getVmOption(server, diagnostics, "RecordDynamicDumpInfo"))) {
+        server.invoke(new ObjectName("com.sun.management:type=DiagnosticCommand"), "vmCds",
+            new Object[]{new String[]{"dynamic_dump", path}},
+            new String[]{String[].class.getName()});
+        logger.info("Wrote the class data sharing archive {}. Replace "
+            + "-XX:+RecordDynamicDumpInfo with -XX:SharedArchiveFile={} in your startup flags "
+            + "to use it.", path, path);
+      } else if (usingArchive) {
+        if (Files.exists(archive)) {
+          logger.info("Started using the class data sharing archive {}", path);
+        } else {
+          logger.warn("The class data sharing archive {} does not exist", path);
+        }
+      } else if (Runtime.version().feature() >= 19) {
+        logger.warn("To start using a class data sharing archive, add "
+            + "-XX:+AutoCreateSharedArchive -XX:SharedArchiveFile={} to your startup flags", path);
+      } else if (Runtime.version().feature() >= 13) {
+        logger.warn("To create a class data sharing archive, add -XX:ArchiveClassesAtExit={} "
+            + "to your startup flags", path);
+      } else {
+        logger.warn("Class data sharing archives of the proxy need Java 13 or newer");
+      }
+    } catch (InstanceNotFoundException e) {
+      logger.warn("Class data sharing archives are only supported on HotSpot JVMs");
+    } catch (JMException | RuntimeException e) {
+      logger.error("Unable to set up the class data sharing archive {}", path, e);
+    }
+  }
+
+  private static boolean isArchive(Path archive, @Nullable String value) {
+    return value != null && !value.isEmpty()
+        && Path.of(value).toAbsolutePath().equals(archive.toAbsolutePath());
+  }
+
+  private static @Nullable String getVmOption(MBeanServer server, ObjectName diagnostics,
+      String name) throws JMException {
+    try {
+      CompositeData option = (CompositeData) server.invoke(diagnostics, "getVMOption",
+          new Object[]{name}, new String[]{String.class.getName()});
+      return (String) option.get("value");
+    } catch (RuntimeMBeanException e) {
+      if (e.getCause() instanceof IllegalArgumentException) {
+        // Options that do not exist in this version of Java.
+        return null;
+      }
+      throw e;
+    }
+  }
+}
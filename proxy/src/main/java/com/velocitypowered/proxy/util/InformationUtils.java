@@ -17,6 +17,7 @@
 
 package com.velocitypowered.proxy.util;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.Gson;
@@ -25,21 +26,38 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.velocitypowered.api.network.PingStatistics;
 import com.velocitypowered.api.plugin.PluginContainer;
 import com.velocitypowered.api.plugin.PluginDescription;
 import com.velocitypowered.api.plugin.meta.PluginDependency;
+import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.config.ProxyConfig;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.util.ProxyVersion;
 import com.velocitypowered.natives.util.Natives;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.network.ConnectionGate;
+import com.velocitypowered.proxy.network.EventLoopLatencyMonitor;
+import com.velocitypowered.proxy.network.EventLoopWatchdog;
+import com.velocitypowered.proxy.network.OutboundBufferBudget;
 import com.velocitypowered.proxy.network.TransportType;
+import com.velocitypowered.proxy.network.VelocityByteBufAllocator;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.channel.EventLoop;
+import io.netty.util.internal.PlatformDependent;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Helper class for {@code /velocity dump}.
@@ -195,7 +213,7 @@ public enum InformationUtils {
    */
   public static JsonObject collectServerInfo(RegisteredServer server) {
     JsonObject info = new JsonObject();
-    info.addProperty("currentPlayers", server.getPlayersConnected().size());
+    info.addProperty("currentPlayers", server.getPlayerCount());
     InetSocketAddress iaddr = server.getServerInfo().getAddress();
     if (iaddr.isUnresolved()) {
       // Greetings form Netty 4aa10db9
@@ -204,6 +222,231 @@ public enum InformationUtils {
       info.addProperty("host", anonymizeInetAddress(iaddr.getAddress()));
     }
     info.addProperty("port", iaddr.getPort());
+    info.add("ping", collectPingStatistics(server.getPingStatistics()));
+    info.add("playerPing", collectPingStatistics(server.getPlayerPingStatistics()));
+    return info;
+  }
+
+  /**
+   * Creates a {@link JsonObject} summarizing the given round trip time distribution.
+   *
+   * @param statistics the statistics to summarize
+   * @return {@link JsonObject} containing the sample count and common percentiles
+   */
+  public static JsonObject collectPingStatistics(PingStatistics statistics) {
+    JsonObject info = new JsonObject();
+    info.addProperty("samples", statistics.getSampleCount());
+    if (statistics.getSampleCount() > 0) {
+      info.addProperty("p50", statistics.getPercentileMillis(50));
+      info.addProperty("p90", statistics.getPercentileMillis(90));
+      info.addProperty("p99", statistics.getPercentileMillis(99));
+      info.addProperty("max", statistics.getMaxMillis());
+    }
+    return info;
+  }
+
+  /**
+   * Creates a {@link JsonObject} containing the state of the {@link ConnectionGate}.
+   *
+   * @param gate the connection gate
+   * @return {@link JsonObject} containing the connection counts and rejections
+   */
+  public static JsonObject collectConnectionGateInfo(ConnectionGate gate) {
+    JsonObject info = new JsonObject();
+    info.addProperty("openConnections", gate.getOpenConnections());
+    info.addProperty("pendingHandshakes", gate.getPendingHandshakes());
+    info.addProperty("eventLoopLagMillis", gate.getEventLoopLagMillis());
+    JsonObject rejected = new JsonObject();
+    for (ConnectionGate.Reason reason : ConnectionGate.Reason.values()) {
+      rejected.addProperty(reason.name().toLowerCase(Locale.ROOT), gate.getRejected(reason));
+    }
+    info.add("rejected", rejected);
+    return info;
+  }
+
+  /**
+   * Creates a {@link JsonObject} containing how much data is queued to be sent to players and how
+   * much direct memory is in use.
+   *
+   * @param budget the outbound buffer budget
+   * @return {@link JsonObject} containing outbound buffer and direct memory usage
+   */
+  public static JsonObject collectOutboundBufferInfo(OutboundBufferBudget budget) {
+    JsonObject info = new JsonObject();
+    info.addProperty("pendingBytes", budget.getPendingBytes());
+    info.addProperty("peakPendingBytes", budget.getPeakPendingBytes());
+    info.addProperty("budgetBytes", budget.getGlobalBudgetBytes());
+    info.addProperty("evictions", budget.getEvictions());
+    info.addProperty("underPressure", budget.isUnderPressure());
+    return info;
+  }
+
+  /**
+   * Creates a {@link JsonObject} containing the memory use and cache efficiency of the proxy's
+   * buffer allocator.
+   *
+   * @param allocator the buffer allocator
+   * @return {@link JsonObject} containing allocator metrics
+   */
+  public static JsonObject collectAllocatorInfo(VelocityByteBufAllocator allocator) {
+    JsonObject info = new JsonObject();
+    info.addProperty("directArenas", allocator.metric().numDirectArenas());
+    info.addProperty("heapArenas", allocator.metric().numHeapArenas());
+    info.addProperty("chunkSize", allocator.getChunkSize());
+    info.addProperty("usedDirectMemory", allocator.getUsedDirectMemory());
+    info.addProperty("pinnedDirectMemory", allocator.pinnedDirectMemory());
+    info.addProperty("maxDirectMemory", PlatformDependent.maxDirectMemory());
+    info.addProperty("usedHeapMemory", allocator.metric().usedHeapMemory());
+    info.addProperty("directRequests", allocator.getDirectRequests());
+    info.addProperty("threadCacheHitRate", allocator.getThreadCacheHitRate());
+    info.addProperty("maxThreadsPerArena", allocator.getMaxThreadsPerArena());
+    JsonArray arenas = new JsonArray();
+    for (PoolArenaMetric metric : allocator.metric().directArenas()) {
+      JsonObject arena = new JsonObject();
+      arena.addProperty("threads", metric.numThreadCaches());
+      arena.addProperty("activeAllocations", metric.numActiveAllocations());
+      arena.addProperty("activeBytes", metric.numActiveBytes());
+      arena.addProperty("chunkLists", metric.chunkLists().size());
+      arenas.add(arena);
+    }
+    info.add("arenas", arenas);
+    return info;
+  }
+
+  /**
+   * Creates a {@link JsonObject} containing the scheduling lag of every event loop and the most
+   * recent event loop stalls.
+   *
+   * @param watchdog the event loop watchdog
+   * @return {@link JsonObject} containing the lag of each event loop and recent stalls
+   */
+  public static JsonObject collectEventLoopInfo(EventLoopWatchdog watchdog) {
+    JsonObject info = new JsonObject();
+    for (EventLoopLatencyMonitor monitor : watchdog.getMonitors()) {
+      JsonArray loops = new JsonArray();
+      for (EventLoopLatencyMonitor.Probe probe : monitor.getProbes()) {
+        JsonObject loop = collectPingStatistics(probe.getLagStatistics());
+        Thread thread = probe.getThread();
+        if (thread != null) {
+          loop.addProperty("thread", thread.getName());
+        }
+        loops.add(loop);
+      }
+      info.add(monitor.getName(), loops);
+    }
+
+    info.addProperty("stalls", watchdog.getStallCount());
+    JsonArray stalls = new JsonArray();
+    for (EventLoopWatchdog.StallReport report : watchdog.getRecentStalls()) {
+      JsonObject stall = new JsonObject();
+      stall.addProperty("group", report.getGroup());
+      stall.addProperty("thread", report.getThread());
+      stall.addProperty("detectedAt", report.getDetectedAt().toString());
+      stall.addProperty("stuckMillis", report.getStuckMillis());
+      if (report.getPlugin() != null) {
+        stall.addProperty("plugin", report.getPlugin());
+      }
+      JsonArray stackTrace = new JsonArray();
+      for (StackTraceElement element : report.getStackTrace()) {
+        stackTrace.add(element.toString());
+      }
+      stall.add("stackTrace", stackTrace);
+      stalls.add(stall);
+    }
+    info.add("recentStalls", stalls);
+    return info;
+  }
+
+  /**
+   * Creates a {@link JsonObject} containing the heap usage of the proxy, along with the number of
+   * per-player structures that grow with what plugins and servers send to players. The structures
+   * are only safe to read on each player's event loop, so they are counted there.
+   *
+   * @param proxy the proxy
+   * @return {@link JsonObject} containing the heap usage and structure counts
+   */
+  public static JsonObject collectPlayerMemoryInfo(ProxyServer proxy) {
+    List<CompletableFuture<long[]>> counts = new ArrayList<>();
+    for (Player player : proxy.getAllPlayers()) {
+      ConnectedPlayer connectedPlayer = (ConnectedPlayer) player;
+      EventLoop eventLoop = connectedPlayer.getConnection().eventLoop();
+      if (eventLoop.inEventLoop()) {
+        counts.add(CompletableFuture.completedFuture(countPlayerStructures(connectedPlayer)));
+      } else {
+        counts.add(CompletableFuture.supplyAsync(() -> countPlayerStructures(connectedPlayer),
+            eventLoop));
+      }
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    int counted = 0;
+    long knownChannels = 0;
+    long tabListEntries = 0;
+    long queuedResourcePacks = 0;
+    for (CompletableFuture<long[]> future : counts) {
+      long[] count;
+      try {
+        count = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (ExecutionException | TimeoutException e) {
+        continue;
+      }
+      counted++;
+      knownChannels += count[0];
+      tabListEntries += count[1];
+      queuedResourcePacks += count[2];
+    }
+
+    JsonObject info = new JsonObject();
+    Runtime runtime = Runtime.getRuntime();
+    info.addProperty("players", counts.size());
+    info.addProperty("playersCounted", counted);
+    info.addProperty("heapUsedBytes", runtime.totalMemory() - runtime.freeMemory());
+    info.addProperty("knownChannels", knownChannels);
+    info.addProperty("tabListEntries", tabListEntries);
+    info.addProperty("queuedResourcePacks", queuedResourcePacks);
+    return info;
+  }
+
+  private static long[] countPlayerStructures(ConnectedPlayer player) {
+    return new long[] {
+        player.getKnownChannels().size(),
+        player.getTabList().getEntries().size(),
+        player.getOutstandingResourcePackCount()
+    };
+  }
+
+  /**
+   * Creates a {@link JsonObject} containing the time taken by each phase of startup.
+   *
+   * @param timer the startup timer
+   * @return {@link JsonObject} containing the time taken by each phase, in milliseconds
+   */
+  public static JsonObject collectStartupInfo(StartupTimer timer) {
+    JsonObject info = new JsonObject();
+    JsonObject phases = new JsonObject();
+    for (Map.Entry<String, Long> phase : timer.getPhaseMillis().entrySet()) {
+      phases.addProperty(phase.getKey(), phase.getValue());
+    }
+    info.add("phases", phases);
+    info.addProperty("totalMillis", timer.getTotalMillis());
+    return info;
+  }
+
+  /**
+   * Creates a {@link JsonObject} summarizing the hit rate of a cache.
+   *
+   * @param stats the statistics of the cache
+   * @return {@link JsonObject} containing the hit, miss and eviction counts
+   */
+  public static JsonObject collectCacheStats(CacheStats stats) {
+    JsonObject info = new JsonObject();
+    info.addProperty("hits", stats.hitCount());
+    info.addProperty("misses", stats.missCount());
+    info.addProperty("hitRate", stats.hitRate());
+    info.addProperty("evictions", stats.evictionCount());
     return info;
   }
 
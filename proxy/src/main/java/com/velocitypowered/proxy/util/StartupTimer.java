@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util;
+
+import com.google.common.collect.ImmutableMap;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Breaks down the time taken to start the proxy into named phases. Starting a phase ends the
+ * previous one, and time spent in a phase more than once is added up.
+ */
+public final class StartupTimer {
+
+  private final long jvmStartupMillis;
+  private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+  private @Nullable String currentPhase;
+  private long currentPhaseStartedAt;
+
+  /**
+   * Creates a timer. The time the JVM took to get to this point is recorded as the first phase.
+   */
+  public StartupTimer() {
+    this.jvmStartupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+    this.phaseNanos.put("jvm", TimeUnit.MILLISECONDS.toNanos(jvmStartupMillis));
+  }
+
+  /**
+   * Ends the current phase, if any, and starts the given one.
+   *
+   * @param name the name of the phase
+   */
+  public synchronized void phase(String name) {
+    long now = System.nanoTime();
+    endPhase(now);
+    currentPhase = name;
+    currentPhaseStartedAt = now;
+  }
+
+  /**
+   * Ends the current phase, if any.
+   */
+  public synchronized void finish() {
+    endPhase(System.nanoTime());
+    currentPhase = null;
+  }
+
+  private void endPhase(long now) {
+    if (currentPhase != null) {
+      phaseNanos.merge(currentPhase, now - currentPhaseStartedAt, Long::sum);
+    }
+  }
+
+  /**
+   * Returns the time spent in each phase that has ended so far, in the order the phases were
+   * first started.
+   *
+   * @return the time spent in each phase, in milliseconds
+   */
+  public synchronized ImmutableMap<String, Long> getPhaseMillis() {
+    ImmutableMap.Builder<String, Long> phases = ImmutableMap.builder();
+    for (Map.Entry<String, Long> entry : phaseNanos.entrySet()) {
+      phases.put(entry.getKey(), TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+    }
+    return phases.build();
+  }
+
+  /**
+   * Returns the total time spent in all phases that have ended so far, including JVM startup.
+   *
+   * @return the total time, in milliseconds
+   */
+  public synchronized long getTotalMillis() {
+    long total = 0;
+    for (long nanos : phaseNanos.values()) {
+      total += nanos;
+    }
+    return TimeUnit.NANOSECONDS.toMillis(total);
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner joiner = new StringJoiner(", ");
+    for (Map.Entry<String, Long> entry : getPhaseMillis().entrySet()) {
+      joiner.add(entry.getKey() + " " + entry.getValue() + "ms");
+    }
+    return joiner.toString();
+  }
+}
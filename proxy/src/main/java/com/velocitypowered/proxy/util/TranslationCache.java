@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.translation.GlobalTranslator;
+
+/**
+ * Caches components rendered by the {@link GlobalTranslator}, per locale, so that a component sent
+ * to many players who share a locale is only rendered once. Since the cache returns the same
+ * rendered instance each time, rendered components are shared with the component serialization
+ * cache, which then only serializes them once as well. Components without anything to translate,
+ * such as most chat messages, are returned as they are and never enter the cache.
+ *
+ * <p>The cache is cleared explicitly through {@link #invalidateAll()} when the proxy registers its
+ * own translations, after plugins have been initialized and after the proxy has been reloaded.
+ * Since plugins may also change the global translator at any other time, entries expire after a
+ * few minutes as well.</p>
+ */
+public final class TranslationCache {
+
+  private static final int MAXIMUM_SIZE_PER_LOCALE = 1024;
+  private static final Duration EXPIRY = Duration.ofMinutes(5);
+
+  private final Map<Locale, Cache<Component, Component>> caches = new ConcurrentHashMap<>();
+
+  /**
+   * Renders the given component in the given locale, reusing the previous result if the same
+   * component was rendered in the same locale recently. A component that contains nothing to
+   * translate is returned as it is.
+   *
+   * @param component the component to render
+   * @param locale the locale to render the component in
+   * @return the rendered component
+   */
+  public Component render(Component component, Locale locale) {
+    if (!containsTranslatable(component)) {
+      return component;
+    }
+    return caches.computeIfAbsent(locale, key -> Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE_PER_LOCALE)
+            .expireAfterWrite(EXPIRY)
+            .recordStats()
+            .build())
+        .get(component, message -> {
+          Component rendered = GlobalTranslator.render(message, locale);
+          ProtocolUtils.shareComponent(rendered);
+          return rendered;
+        });
+  }
+
+  /**
+   * Determines whether the global translator could change the given component, which is only the
+   * case if it or its hover text contains a translatable component somewhere.
+   *
+   * @param component the component to check
+   * @return {@code true} if the component contains a translatable component
+   */
+  static boolean containsTranslatable(Component component) {
+    if (component instanceof TranslatableComponent) {
+      return true;
+    }
+    HoverEvent<?> hoverEvent = component.hoverEvent();
+    if (hoverEvent != null) {
+      Object value = hoverEvent.value();
+      if (value instanceof Component && containsTranslatable((Component) value)) {
+        return true;
+      }
+      if (value instanceof HoverEvent.ShowEntity) {
+        Component name = ((HoverEvent.ShowEntity) value).name();
+        if (name != null && containsTranslatable(name)) {
+          return true;
+        }
+      }
+    }
+    for (Component child : component.children()) {
+      if (containsTranslatable(child)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Drops all rendered components, for instance after translations have been changed.
+   */
+  public void invalidateAll() {
+    for (Cache<Component, Component> cache : caches.values()) {
+      cache.invalidateAll();
+    }
+  }
+
+  /**
+   * Returns the combined hit and miss statistics of the caches of all locales.
+   *
+   * @return the cache statistics
+   */
+  public CacheStats stats() {
+    CacheStats stats = CacheStats.empty();
+    for (Cache<Component, Component> cache : caches.values()) {
+      stats = stats.plus(cache.stats());
+    }
+    return stats;
+  }
+}
@@ -24,6 +24,8 @@ import com.velocitypowered.api.proxy.messages.ChannelRegistrar;
 import com.velocitypowered.api.proxy.messages.LegacyChannelIdentifier;
 import com.velocitypowered.api.proxy.messages.MinecraftChannelIdentifier;
 import com.velocitypowered.proxy.protocol.util.PluginMessageUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
@@ -31,14 +33,27 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
- * Registry for channels recognized by the proxy.
+ * Registry for channels recognized by the proxy. Channels are looked up by their ID in the
+ * proxy's {@link ChannelIdTable}.
  */
 public class VelocityChannelRegistrar implements ChannelRegistrar {
 
-  private final Map<String, ChannelIdentifier> identifierMap = new ConcurrentHashMap<>();
+  private final ChannelIdTable channelIds;
+  // Indexed by channel ID, copied on write.
+  private volatile ChannelIdentifier[] identifiers = new ChannelIdentifier[0];
+  // Channels registered while the channel ID table was full.
+  private final Map<String, ChannelIdentifier> uninterned = new ConcurrentHashMap<>();
+
+  public VelocityChannelRegistrar() {
+    this(new ChannelIdTable());
+  }
+
+  public VelocityChannelRegistrar(ChannelIdTable channelIds) {
+    this.channelIds = Preconditions.checkNotNull(channelIds, "channelIds");
+  }
 
   @Override
-  public void register(ChannelIdentifier... identifiers) {
+  public synchronized void register(ChannelIdentifier... identifiers) {
     for (ChannelIdentifier identifier : identifiers) {
       Preconditions.checkArgument(identifier instanceof LegacyChannelIdentifier
           || identifier instanceof MinecraftChannelIdentifier, "identifier is unknown");
@@ -46,17 +61,17 @@ public class VelocityChannelRegistrar implements ChannelRegistrar {
 
     for (ChannelIdentifier identifier : identifiers) {
       if (identifier instanceof MinecraftChannelIdentifier) {
-        identifierMap.put(identifier.getId(), identifier);
+        put(identifier.getId(), identifier);
       } else {
         String rewritten = PluginMessageUtil.transformLegacyToModernChannel(identifier.getId());
-        identifierMap.put(identifier.getId(), identifier);
-        identifierMap.put(rewritten, identifier);
+        put(identifier.getId(), identifier);
+        put(rewritten, identifier);
       }
     }
   }
 
   @Override
-  public void unregister(ChannelIdentifier... identifiers) {
+  public synchronized void unregister(ChannelIdentifier... identifiers) {
     for (ChannelIdentifier identifier : identifiers) {
       Preconditions.checkArgument(identifier instanceof LegacyChannelIdentifier
               || identifier instanceof MinecraftChannelIdentifier,
@@ -65,13 +80,47 @@ public class VelocityChannelRegistrar implements ChannelRegistrar {
 
     for (ChannelIdentifier identifier : identifiers) {
       if (identifier instanceof MinecraftChannelIdentifier) {
-        identifierMap.remove(identifier.getId());
+        put(identifier.getId(), null);
       } else {
         String rewritten = PluginMessageUtil.transformLegacyToModernChannel(identifier.getId());
-        identifierMap.remove(identifier.getId());
-        identifierMap.remove(rewritten);
+        put(identifier.getId(), null);
+        put(rewritten, null);
+      }
+    }
+  }
+
+  private void put(String channel, @Nullable ChannelIdentifier identifier) {
+    int id = identifier == null ? channelIds.find(channel) : channelIds.intern(channel);
+    if (id == ChannelIdTable.NO_ID) {
+      if (identifier == null) {
+        uninterned.remove(channel);
+      } else {
+        uninterned.put(channel, identifier);
+      }
+      return;
+    }
+
+    ChannelIdentifier[] identifiers = this.identifiers;
+    if (id >= identifiers.length) {
+      if (identifier == null) {
+        return;
+      }
+      identifiers = Arrays.copyOf(identifiers, id + 1);
+    } else {
+      identifiers = identifiers.clone();
+    }
+    identifiers[id] = identifier;
+    this.identifiers = identifiers;
+  }
+
+  private Collection<ChannelIdentifier> registered() {
+    Collection<ChannelIdentifier> registered = new ArrayList<>(uninterned.values());
+    for (ChannelIdentifier identifier : identifiers) {
+      if (identifier != null) {
+        registered.add(identifier);
       }
     }
+    return registered;
   }
 
   /**
@@ -81,7 +130,7 @@ public class VelocityChannelRegistrar implements ChannelRegistrar {
    */
   public Collection<String> getLegacyChannelIds() {
     Collection<String> ids = new HashSet<>();
-    for (ChannelIdentifier value : identifierMap.values()) {
+    for (ChannelIdentifier value : registered()) {
       ids.add(value.getId());
     }
     return ids;
@@ -94,7 +143,7 @@ public class VelocityChannelRegistrar implements ChannelRegistrar {
    */
   public Collection<String> getModernChannelIds() {
     Collection<String> ids = new HashSet<>();
-    for (ChannelIdentifier value : identifierMap.values()) {
+    for (ChannelIdentifier value : registered()) {
       if (value instanceof MinecraftChannelIdentifier) {
         ids.add(value.getId());
       } else {
@@ -104,8 +153,21 @@ public class VelocityChannelRegistrar implements ChannelRegistrar {
     return ids;
   }
 
+  /**
+   * Returns the registered channel with the given name.
+   *
+   * @param id the name of the channel
+   * @return the channel, or {@code null} if it is not registered
+   */
   public @Nullable ChannelIdentifier getFromId(String id) {
-    return identifierMap.get(id);
+    int channelId = channelIds.find(id);
+    if (channelId != ChannelIdTable.NO_ID) {
+      ChannelIdentifier[] identifiers = this.identifiers;
+      if (channelId < identifiers.length && identifiers[channelId] != null) {
+        return identifiers[channelId];
+      }
+    }
+    return uninterned.isEmpty() ? null : uninterned.get(id);
   }
 
   /**
@@ -17,16 +17,29 @@
 
 package com.velocitypowered.proxy.util.bossbar;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.MapMaker;
-import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.util.BroadcastPacket;
 import com.velocitypowered.proxy.util.collect.Enum2IntMap;
 import com.velocitypowered.proxy.util.concurrent.Once;
+import io.netty.channel.EventLoop;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.bossbar.BossBar.Color;
 import net.kyori.adventure.bossbar.BossBar.Flag;
@@ -37,6 +50,18 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Manages all boss bars known to the proxy.
+ *
+ * <p>Changes to a boss bar are not sent straight away. Instead, the bar is marked as changed and
+ * all changed bars are sent once per tick, so a bar updated many times within a tick is only sent
+ * once with its latest state. Each update is encoded once per protocol version, and every event
+ * loop writes and flushes the updates for all of its viewers in a single task. Names are
+ * translated for each viewer within that task, so the flush itself does no per-viewer work beyond
+ * grouping viewers by event loop, and a name is encoded once per translation on each loop.</p>
+ *
+ * <p>Adding and removing viewers takes effect immediately, but the bar is shown to or hidden from
+ * the player on the player's event loop. Updates are only written there to players the bar is
+ * currently shown to, so the client is never sent an update for a bar it has not been sent yet or
+ * has already been told to remove, which it does not handle.</p>
  */
 public class AdventureBossBarManager implements BossBar.Listener {
 
@@ -64,10 +89,20 @@ public class AdventureBossBarManager implements BossBar.Listener {
           .put(Flag.PLAY_BOSS_MUSIC, 0x2)
           .put(Flag.CREATE_WORLD_FOG, 0x4)
           .build();
+  private static final long FLUSH_INTERVAL_MILLIS = 50;
+  private static final int DIRTY_NAME = 0x1;
+  private static final int DIRTY_PROGRESS = 0x2;
+  private static final int DIRTY_STYLE = 0x4;
+  private static final int DIRTY_FLAGS = 0x8;
   private final Map<BossBar, BossBarHolder> bars;
+  private final ScheduledExecutorService executor;
+  private final Object lock = new Object();
+  private final Set<BossBarHolder> dirty = new LinkedHashSet<>();
+  private boolean flushScheduled;
 
-  public AdventureBossBarManager() {
+  public AdventureBossBarManager(ScheduledExecutorService executor) {
     this.bars = new MapMaker().weakKeys().makeMap();
+    this.executor = Preconditions.checkNotNull(executor, "executor");
   }
 
   private @Nullable BossBarHolder getHandler(BossBar bar) {
@@ -89,6 +124,7 @@ public class AdventureBossBarManager implements BossBar.Listener {
   public void onDisconnect(ConnectedPlayer player) {
     for (BossBarHolder holder : bars.values()) {
       holder.subscribers.remove(player);
+      holder.viewers.remove(player);
     }
   }
 
@@ -102,7 +138,7 @@ public class AdventureBossBarManager implements BossBar.Listener {
   public void addBossBar(ConnectedPlayer player, BossBar bar) {
     BossBarHolder holder = this.getOrCreateHandler(bar);
     if (holder.subscribers.add(player)) {
-      player.getConnection().write(holder.createAddPacket(player));
+      holder.updateVisibility(player);
     }
   }
 
@@ -115,75 +151,180 @@ public class AdventureBossBarManager implements BossBar.Listener {
   public void removeBossBar(ConnectedPlayer player, BossBar bar) {
     BossBarHolder holder = this.getHandler(bar);
     if (holder != null && holder.subscribers.remove(player)) {
-      player.getConnection().write(holder.createRemovePacket());
+      holder.updateVisibility(player);
     }
   }
 
   @Override
   public void bossBarNameChanged(@NonNull BossBar bar, @NonNull Component oldName,
       @NonNull Component newName) {
-    BossBarHolder holder = this.getHandler(bar);
-    if (holder == null) {
-      return;
-    }
-    for (ConnectedPlayer player : holder.subscribers) {
-      Component translated = player.translateMessage(newName);
-      com.velocitypowered.proxy.protocol.packet.BossBar packet = holder.createTitleUpdate(
-          translated, player.getProtocolVersion());
-      player.getConnection().write(packet);
-    }
+    markDirty(bar, DIRTY_NAME);
   }
 
   @Override
   public void bossBarProgressChanged(@NonNull BossBar bar, float oldPercent, float newPercent) {
-    BossBarHolder holder = this.getHandler(bar);
-    if (holder == null) {
-      return;
-    }
-    com.velocitypowered.proxy.protocol.packet.BossBar packet = holder
-        .createPercentUpdate(newPercent);
-    for (ConnectedPlayer player : holder.subscribers) {
-      player.getConnection().write(packet);
-    }
+    markDirty(bar, DIRTY_PROGRESS);
   }
 
   @Override
   public void bossBarColorChanged(@NonNull BossBar bar, @NonNull Color oldColor,
       @NonNull Color newColor) {
-    BossBarHolder holder = this.getHandler(bar);
-    if (holder == null) {
-      return;
-    }
-    com.velocitypowered.proxy.protocol.packet.BossBar packet = holder.createColorUpdate(newColor);
-    for (ConnectedPlayer player : holder.subscribers) {
-      player.getConnection().write(packet);
-    }
+    markDirty(bar, DIRTY_STYLE);
   }
 
   @Override
   public void bossBarOverlayChanged(@NonNull BossBar bar, @NonNull Overlay oldOverlay,
       @NonNull Overlay newOverlay) {
-    BossBarHolder holder = this.getHandler(bar);
-    if (holder == null) {
-      return;
-    }
-    com.velocitypowered.proxy.protocol.packet.BossBar packet = holder
-        .createOverlayUpdate(newOverlay);
-    for (ConnectedPlayer player : holder.subscribers) {
-      player.getConnection().write(packet);
-    }
+    markDirty(bar, DIRTY_STYLE);
   }
 
   @Override
   public void bossBarFlagsChanged(@NonNull BossBar bar, @NonNull Set<Flag> added,
       @NonNull Set<Flag> removed) {
+    markDirty(bar, DIRTY_FLAGS);
+  }
+
+  private void markDirty(BossBar bar, int changes) {
     BossBarHolder holder = this.getHandler(bar);
     if (holder == null) {
       return;
     }
-    com.velocitypowered.proxy.protocol.packet.BossBar packet = holder.createFlagsUpdate();
-    for (ConnectedPlayer player : holder.subscribers) {
-      player.getConnection().write(packet);
+    synchronized (lock) {
+      if (holder.dirty == 0) {
+        dirty.add(holder);
+      }
+      holder.dirty |= changes;
+      if (!flushScheduled) {
+        flushScheduled = true;
+        executor.schedule(this::flush, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  private void flush() {
+    List<BossBarHolder> holders;
+    synchronized (lock) {
+      flushScheduled = false;
+      holders = new ArrayList<>(dirty);
+      dirty.clear();
+    }
+
+    List<BroadcastPacket> packets = new ArrayList<>();
+    Map<EventLoop, List<PendingUpdate>> writes = new HashMap<>();
+    for (BossBarHolder holder : holders) {
+      int changes;
+      synchronized (lock) {
+        changes = holder.dirty;
+        holder.dirty = 0;
+      }
+      if (holder.subscribers.isEmpty()) {
+        continue;
+      }
+
+      // The bar is read once per flush, so any number of changes made to it within a tick are
+      // sent as a single update with its latest state.
+      List<BroadcastPacket> shared = new ArrayList<>(3);
+      if ((changes & DIRTY_PROGRESS) != 0) {
+        shared.add(new BroadcastPacket(holder.createPercentUpdate(holder.bar.progress()),
+            StateRegistry.PLAY));
+      }
+      if ((changes & DIRTY_STYLE) != 0) {
+        shared.add(new BroadcastPacket(holder.createStyleUpdate(), StateRegistry.PLAY));
+      }
+      if ((changes & DIRTY_FLAGS) != 0) {
+        shared.add(new BroadcastPacket(holder.createFlagsUpdate(), StateRegistry.PLAY));
+      }
+      packets.addAll(shared);
+
+      Component name = (changes & DIRTY_NAME) != 0 ? holder.bar.name() : null;
+      for (ConnectedPlayer player : holder.subscribers) {
+        PendingUpdate pending = new PendingUpdate(holder, player, name);
+        writes.computeIfAbsent(player.getConnection().eventLoop(), loop -> new ArrayList<>())
+            .add(pending);
+        pending.packets.addAll(shared);
+      }
+    }
+
+    if (writes.isEmpty()) {
+      releaseAll(packets);
+      return;
+    }
+
+    // Every connection on an event loop is written to and flushed by a single task, and the
+    // encoded packets are released once the last of these tasks has run.
+    AtomicInteger remaining = new AtomicInteger(writes.size());
+    for (Map.Entry<EventLoop, List<PendingUpdate>> entry : writes.entrySet()) {
+      Runnable task = () -> {
+        // Names are translated for each viewer, but viewers of a bar sharing a locale and a
+        // serialization format end up with the same name, which is only encoded once per version.
+        Map<BossBarHolder, Map<String, BroadcastPacket>> names = new HashMap<>();
+        try {
+          Set<MinecraftConnection> written = new LinkedHashSet<>();
+          for (PendingUpdate pending : entry.getValue()) {
+            // The bar may have been hidden from the player since the update was prepared.
+            if (!pending.holder.viewers.contains(pending.player)) {
+              continue;
+            }
+            MinecraftConnection connection = pending.player.getConnection();
+            if (pending.name != null) {
+              String serialized = ProtocolUtils.serializeComponent(
+                  pending.player.getProtocolVersion(),
+                  pending.player.translateMessage(pending.name));
+              BroadcastPacket packet = names.computeIfAbsent(pending.holder, k -> new HashMap<>())
+                  .computeIfAbsent(serialized, key -> new BroadcastPacket(
+                      pending.holder.createTitleUpdate(key), StateRegistry.PLAY));
+              if (packet.delayedWrite(connection)) {
+                written.add(connection);
+              }
+            }
+            for (BroadcastPacket packet : pending.packets) {
+              if (packet.delayedWrite(connection)) {
+                written.add(connection);
+              }
+            }
+          }
+          for (MinecraftConnection connection : written) {
+            connection.flush();
+          }
+        } finally {
+          for (Map<String, BroadcastPacket> byName : names.values()) {
+            releaseAll(byName.values());
+          }
+          if (remaining.decrementAndGet() == 0) {
+            releaseAll(packets);
+          }
+        }
+      };
+      try {
+        entry.getKey().execute(task);
+      } catch (RejectedExecutionException e) {
+        // The event loop is shutting down, so its connections are going away anyway.
+        if (remaining.decrementAndGet() == 0) {
+          releaseAll(packets);
+        }
+      }
+    }
+  }
+
+  private static void releaseAll(Collection<BroadcastPacket> packets) {
+    for (BroadcastPacket packet : packets) {
+      packet.release();
+    }
+  }
+
+  private static final class PendingUpdate {
+
+    private final BossBarHolder holder;
+    private final ConnectedPlayer player;
+    // The new name of the bar, which is translated on the player's event loop, if it changed.
+    private final @Nullable Component name;
+    private final List<BroadcastPacket> packets = new ArrayList<>(3);
+
+    private PendingUpdate(BossBarHolder holder, ConnectedPlayer player,
+        @Nullable Component name) {
+      this.holder = holder;
+      this.player = player;
+      this.name = name;
     }
   }
 
@@ -193,7 +334,11 @@ public class AdventureBossBarManager implements BossBar.Listener {
     private final BossBar bar;
     private final Set<ConnectedPlayer> subscribers = Collections.newSetFromMap(
         new MapMaker().weakKeys().makeMap());
+    // The players the bar has been shown to, which is only changed on each player's event loop.
+    private final Set<ConnectedPlayer> viewers = Collections.newSetFromMap(
+        new MapMaker().weakKeys().makeMap());
     private final Once registrationOnce = new Once();
+    private int dirty;
 
     BossBarHolder(BossBar bar) {
       this.bar = bar;
@@ -203,6 +348,31 @@ public class AdventureBossBarManager implements BossBar.Listener {
       registrationOnce.run(() -> this.bar.addListener(AdventureBossBarManager.this));
     }
 
+    // Shows the bar to or hides it from the player, depending on whether the player is subscribed
+    // to it by the time this runs on the player's event loop.
+    void updateVisibility(ConnectedPlayer player) {
+      MinecraftConnection connection = player.getConnection();
+      Runnable task = () -> {
+        if (subscribers.contains(player)) {
+          if (viewers.add(player)) {
+            connection.write(createAddPacket(player));
+          }
+        } else if (viewers.remove(player)) {
+          connection.write(createRemovePacket());
+        }
+      };
+      EventLoop loop = connection.eventLoop();
+      if (loop.inEventLoop()) {
+        task.run();
+      } else {
+        try {
+          loop.execute(task);
+        } catch (RejectedExecutionException e) {
+          // The event loop is shutting down, so the player is being disconnected anyway.
+        }
+      }
+    }
+
     com.velocitypowered.proxy.protocol.packet.BossBar createRemovePacket() {
       return com.velocitypowered.proxy.protocol.packet.BossBar.createRemovePacket(this.id);
     }
@@ -212,8 +382,8 @@ public class AdventureBossBarManager implements BossBar.Listener {
           .proxy.protocol.packet.BossBar();
       packet.setUuid(this.id);
       packet.setAction(com.velocitypowered.proxy.protocol.packet.BossBar.ADD);
-      packet.setName(ProtocolUtils.getJsonChatSerializer(player.getProtocolVersion())
-          .serialize(player.translateMessage(bar.name())));
+      packet.setName(ProtocolUtils.serializeComponent(player.getProtocolVersion(),
+          player.translateMessage(bar.name())));
       packet.setColor(COLORS_TO_PROTOCOL.get(bar.color()));
       packet.setOverlay(OVERLAY_TO_PROTOCOL.get(bar.overlay()));
       packet.setPercent(bar.progress());
@@ -230,24 +400,22 @@ public class AdventureBossBarManager implements BossBar.Listener {
       return packet;
     }
 
-    com.velocitypowered.proxy.protocol.packet.BossBar createColorUpdate(Color color) {
+    com.velocitypowered.proxy.protocol.packet.BossBar createStyleUpdate() {
       com.velocitypowered.proxy.protocol.packet.BossBar packet = new com.velocitypowered
           .proxy.protocol.packet.BossBar();
       packet.setUuid(this.id);
       packet.setAction(com.velocitypowered.proxy.protocol.packet.BossBar.UPDATE_STYLE);
-      packet.setColor(COLORS_TO_PROTOCOL.get(color));
+      packet.setColor(COLORS_TO_PROTOCOL.get(bar.color()));
       packet.setOverlay(OVERLAY_TO_PROTOCOL.get(bar.overlay()));
-      packet.setFlags(serializeFlags(bar.flags()));
       return packet;
     }
 
-    com.velocitypowered.proxy.protocol.packet.BossBar createTitleUpdate(Component name,
-        ProtocolVersion version) {
+    com.velocitypowered.proxy.protocol.packet.BossBar createTitleUpdate(String name) {
       com.velocitypowered.proxy.protocol.packet.BossBar packet = new com.velocitypowered
           .proxy.protocol.packet.BossBar();
       packet.setUuid(this.id);
       packet.setAction(com.velocitypowered.proxy.protocol.packet.BossBar.UPDATE_NAME);
-      packet.setName(ProtocolUtils.getJsonChatSerializer(version).serialize(name));
+      packet.setName(name);
       return packet;
     }
 
@@ -265,16 +433,6 @@ public class AdventureBossBarManager implements BossBar.Listener {
       return packet;
     }
 
-    com.velocitypowered.proxy.protocol.packet.BossBar createOverlayUpdate(Overlay overlay) {
-      com.velocitypowered.proxy.protocol.packet.BossBar packet = new com.velocitypowered
-          .proxy.protocol.packet.BossBar();
-      packet.setUuid(this.id);
-      packet.setAction(com.velocitypowered.proxy.protocol.packet.BossBar.UPDATE_STYLE);
-      packet.setColor(COLORS_TO_PROTOCOL.get(bar.color()));
-      packet.setOverlay(OVERLAY_TO_PROTOCOL.get(overlay));
-      return packet;
-    }
-
     private byte serializeFlags(Set<Flag> flags) {
       byte val = 0x0;
       for (Flag flag : flags) {
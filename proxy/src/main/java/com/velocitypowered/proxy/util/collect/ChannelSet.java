@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.collect;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.proxy.util.ChannelIdTable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An unsynchronized set of plugin message channels with an upper bound on its size, stored as a
+ * bitset of IDs from a shared {@link ChannelIdTable}. Channels that are not in the table are
+ * stored by name in this set only, and are dropped along with it.
+ *
+ * <p>Channels are only added to the shared table through {@link #internAll(Collection)}, which
+ * must only be used for channels from trusted sources such as backend servers. Channels sent by
+ * clients are added with {@link #add(String)}, so a client cannot fill the shared table.</p>
+ */
+public final class ChannelSet extends AbstractSet<String> {
+
+  private static final long[] EMPTY = new long[0];
+
+  private final ChannelIdTable table;
+  private final int upperSize;
+  private long[] ids = EMPTY;
+  private int idCount;
+  private @Nullable Set<String> local;
+
+  /**
+   * Creates an empty set.
+   *
+   * @param table the table to look up channel IDs in
+   * @param upperSize the maximum size of the set
+   */
+  public ChannelSet(ChannelIdTable table, int upperSize) {
+    this.table = Preconditions.checkNotNull(table, "table");
+    this.upperSize = upperSize;
+  }
+
+  /**
+   * Adds the given channel to this set. The channel is only stored by ID if it is already in the
+   * shared table.
+   *
+   * @param channel the channel to add
+   * @return whether the set changed
+   */
+  @Override
+  public boolean add(String channel) {
+    return add(channel, table.find(channel));
+  }
+
+  /**
+   * Adds the given channels to this set, adding them to the shared table first. This must only be
+   * used for channels from trusted sources, such as backend servers.
+   *
+   * @param channels the channels to add
+   * @return whether the set changed
+   */
+  public boolean internAll(Collection<String> channels) {
+    boolean modified = false;
+    for (String channel : channels) {
+      modified |= add(channel, table.intern(channel));
+    }
+    return modified;
+  }
+
+  private boolean add(String channel, int id) {
+    if (contains(channel)) {
+      return false;
+    }
+    checkCapacity();
+    if (id == ChannelIdTable.NO_ID) {
+      if (local == null) {
+        local = new HashSet<>();
+      }
+      return local.add(channel);
+    }
+
+    int word = id >>> 6;
+    if (word >= ids.length) {
+      ids = Arrays.copyOf(ids, Math.max(word + 1, ids.length * 2));
+    }
+    ids[word] |= 1L << id;
+    idCount++;
+    return true;
+  }
+
+  private void checkCapacity() {
+    Preconditions.checkState(size() < upperSize, "collection is too large (%s >= %s)", size(),
+        upperSize);
+  }
+
+  private boolean hasId(int id) {
+    int word = id >>> 6;
+    return word < ids.length && (ids[word] & (1L << id)) != 0;
+  }
+
+  private boolean removeId(int id) {
+    if (!hasId(id)) {
+      return false;
+    }
+    ids[id >>> 6] &= ~(1L << id);
+    idCount--;
+    return true;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof String)) {
+      return false;
+    }
+    // A channel may have been added by name before it was added to the table.
+    int id = table.find((String) o);
+    return (id != ChannelIdTable.NO_ID && hasId(id)) || (local != null && local.contains(o));
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    if (!(o instanceof String)) {
+      return false;
+    }
+    int id = table.find((String) o);
+    return (id != ChannelIdTable.NO_ID && removeId(id)) || (local != null && local.remove(o));
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    boolean modified = false;
+    for (Object o : c) {
+      modified |= remove(o);
+    }
+    return modified;
+  }
+
+  @Override
+  public void clear() {
+    ids = EMPTY;
+    idCount = 0;
+    local = null;
+  }
+
+  @Override
+  public int size() {
+    return idCount + (local == null ? 0 : local.size());
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new ChannelIterator();
+  }
+
+  private final class ChannelIterator implements Iterator<String> {
+
+    private int next = nextId(0);
+    private int last = ChannelIdTable.NO_ID;
+    private @Nullable Iterator<String> localIterator;
+
+    private int nextId(int from) {
+      int word = from >>> 6;
+      if (word >= ids.length) {
+        return ChannelIdTable.NO_ID;
+      }
+      long bits = ids[word] & (-1L << from);
+      while (bits == 0) {
+        if (++word == ids.length) {
+          return ChannelIdTable.NO_ID;
+        }
+        bits = ids[word];
+      }
+      return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next != ChannelIdTable.NO_ID) {
+        return true;
+      }
+      if (localIterator == null) {
+        if (local == null) {
+          return false;
+        }
+        localIterator = local.iterator();
+      }
+      return localIterator.hasNext();
+    }
+
+    @Override
+    public String next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (next != ChannelIdTable.NO_ID) {
+        last = next;
+        next = nextId(next + 1);
+        return table.getName(last);
+      }
+      last = ChannelIdTable.NO_ID;
+      return localIterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (last != ChannelIdTable.NO_ID) {
+        Preconditions.checkState(removeId(last), "already removed");
+        last = ChannelIdTable.NO_ID;
+      } else {
+        Preconditions.checkState(localIterator != null, "next() has not been called");
+        localIterator.remove();
+      }
+    }
+  }
+}
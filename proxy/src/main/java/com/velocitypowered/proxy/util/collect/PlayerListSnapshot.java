@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.collect;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.proxy.Player;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A lazily rebuilt, versioned snapshot over a live (usually concurrent) collection of players.
+ * The owner of the collection must call {@link #invalidate()} whenever the membership of the
+ * collection changes; the snapshot is only rebuilt the next time it is requested after such a
+ * change, so repeated calls between membership changes do not allocate.
+ */
+public final class PlayerListSnapshot {
+
+  private final Collection<? extends Player> source;
+  private final AtomicLong version = new AtomicLong();
+  private volatile @Nullable Snapshot snapshot;
+
+  public PlayerListSnapshot(Collection<? extends Player> source) {
+    this.source = Preconditions.checkNotNull(source, "source");
+  }
+
+  /**
+   * Marks the current snapshot as stale. This must be called after the backing collection has
+   * been modified.
+   */
+  public void invalidate() {
+    version.incrementAndGet();
+  }
+
+  /**
+   * Returns the current membership version. The version is bumped on every call to
+   * {@link #invalidate()}.
+   *
+   * @return the current version
+   */
+  public long version() {
+    return version.get();
+  }
+
+  /**
+   * Returns an immutable snapshot of the players in the backing collection.
+   *
+   * @return the players in the collection
+   */
+  public ImmutableList<Player> players() {
+    return current().players;
+  }
+
+  /**
+   * Returns an immutable snapshot of the usernames of the players in the backing collection, in
+   * the same order as {@link #players()}.
+   *
+   * @return the usernames of the players in the collection
+   */
+  public ImmutableList<String> names() {
+    return current().names;
+  }
+
+  private Snapshot current() {
+    // Read the version before copying, so a concurrent modification will at worst cause the
+    // snapshot to be rebuilt once more on the next call.
+    long expected = version.get();
+    Snapshot existing = this.snapshot;
+    if (existing != null && existing.version == expected) {
+      return existing;
+    }
+
+    ImmutableList<Player> players = ImmutableList.copyOf(source);
+    ImmutableList.Builder<String> names = ImmutableList.builderWithExpectedSize(players.size());
+    for (Player player : players) {
+      names.add(player.getUsername());
+    }
+    Snapshot rebuilt = new Snapshot(expected, players, names.build());
+    this.snapshot = rebuilt;
+    return rebuilt;
+  }
+
+  private static final class Snapshot {
+
+    private final long version;
+    private final ImmutableList<Player> players;
+    private final ImmutableList<String> names;
+
+    private Snapshot(long version, ImmutableList<Player> players, ImmutableList<String> names) {
+      this.version = version;
+      this.players = players;
+      this.names = names;
+    }
+  }
+}
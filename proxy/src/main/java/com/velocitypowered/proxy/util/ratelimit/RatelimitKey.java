@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.ratelimit;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+
+/**
+ * Determines which clients share a rate limit.
+ */
+public enum RatelimitKey {
+  /**
+   * Every IP address is limited separately.
+   */
+  ADDRESS(32, 128),
+  /**
+   * Every IPv4 /24 and IPv6 /64 subnet is limited separately, so that a client cannot avoid the
+   * limit by spreading requests over the many addresses it usually controls.
+   */
+  SUBNET(24, 64);
+
+  // IPv6 keys have the top bit set, so they can never collide with an IPv4 key.
+  private static final long IPV4_TAG = 1L << 32;
+  private static final long IPV6_TAG = Long.MIN_VALUE;
+
+  private final int ipv4PrefixLength;
+  private final int ipv6PrefixLength;
+
+  RatelimitKey(int ipv4PrefixLength, int ipv6PrefixLength) {
+    this.ipv4PrefixLength = ipv4PrefixLength;
+    this.ipv6PrefixLength = ipv6PrefixLength;
+  }
+
+  /**
+   * Reduces the given address to a key that is never zero. IPv4 keys are exact, whereas IPv6 keys
+   * longer than 64 bits are hashed down to 63 bits.
+   *
+   * @param address the address to create a key for
+   * @return the key for the address
+   */
+  public long of(InetAddress address) {
+    if (address instanceof Inet4Address) {
+      // Inet4Address#hashCode() is the address itself, and does not copy it like getAddress().
+      int ipv4 = address.hashCode() & (int) (-1L << (32 - ipv4PrefixLength));
+      return IPV4_TAG | (ipv4 & 0xFFFFFFFFL);
+    }
+
+    byte[] bytes = address.getAddress();
+    long high = 0;
+    long low = 0;
+    for (int i = 0; i < 8; i++) {
+      high = (high << 8) | (bytes[i] & 0xFF);
+      low = (low << 8) | (bytes[i + 8] & 0xFF);
+    }
+    if (ipv6PrefixLength <= 64) {
+      return IPV6_TAG | mix(high & (-1L << (64 - ipv6PrefixLength)));
+    }
+    return IPV6_TAG | mix(high ^ mix(low));
+  }
+
+  static long mix(long value) {
+    // The finalizer of MurmurHash3.
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+}
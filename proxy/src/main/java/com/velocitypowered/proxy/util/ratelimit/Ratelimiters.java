@@ -29,7 +29,35 @@ public final class Ratelimiters {
   }
 
   public static Ratelimiter createWithMilliseconds(long ms) {
-    return ms <= 0 ? NoopCacheRatelimiter.INSTANCE : new CaffeineCacheRatelimiter(ms,
-        TimeUnit.MILLISECONDS);
+    return createWithMilliseconds(ms, 1, RatelimitKey.ADDRESS);
+  }
+
+  /**
+   * Creates a rate limiter which allows one attempt every {@code ms} milliseconds, with bursts of
+   * up to {@code burst} attempts.
+   *
+   * @param ms the interval between attempts, in milliseconds, or 0 to disable rate limiting
+   * @param burst the number of attempts that may be made at once
+   * @param key how clients are grouped
+   * @return the rate limiter
+   */
+  public static Ratelimiter createWithMilliseconds(long ms, int burst, RatelimitKey key) {
+    return ms <= 0 ? NoopCacheRatelimiter.INSTANCE
+        : new TokenBucketRatelimiter(TimeUnit.MILLISECONDS.toNanos(ms), burst, key);
+  }
+
+  /**
+   * Creates a rate limiter which allows {@code rate} attempts per second on average, with bursts
+   * of up to {@code burst} attempts. Rates above one attempt per nanosecond are treated as one
+   * attempt per nanosecond.
+   *
+   * @param rate the number of attempts allowed per second, or 0 to disable rate limiting
+   * @param burst the number of attempts that may be made at once
+   * @param key how clients are grouped
+   * @return the rate limiter
+   */
+  public static Ratelimiter createPerSecond(int rate, int burst, RatelimitKey key) {
+    return rate <= 0 ? NoopCacheRatelimiter.INSTANCE
+        : new TokenBucketRatelimiter(Math.max(1, TimeUnit.SECONDS.toNanos(1) / rate), burst, key);
   }
 }
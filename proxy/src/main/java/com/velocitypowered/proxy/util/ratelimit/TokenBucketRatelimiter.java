@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.net.InetAddress;
+
+/**
+ * A token bucket rate-limiter which allows one attempt per interval on average, with bursts of up
+ * to a fixed number of attempts.
+ *
+ * <p>The bucket of each client is stored as a single {@code long}, the time at which its bucket
+ * will be full again (the "theoretical arrival time" of the generic cell rate algorithm). A bucket
+ * that is full is the same as no bucket at all, so entries expire on their own and are dropped
+ * whenever their table is resized. Clients are spread over independently locked stripes of
+ * primitive open-addressed tables, so attempts do not allocate and rarely contend.</p>
+ */
+public class TokenBucketRatelimiter implements Ratelimiter {
+
+  private static final int STRIPE_BITS = 6;
+  private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final RatelimitKey key;
+  private final Ticker ticker;
+  private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+
+  TokenBucketRatelimiter(long intervalNanos, int burst, RatelimitKey key) {
+    this(intervalNanos, burst, key, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  TokenBucketRatelimiter(long intervalNanos, int burst, RatelimitKey key, Ticker ticker) {
+    Preconditions.checkArgument(intervalNanos > 0, "intervalNanos must be positive");
+    Preconditions.checkArgument(burst > 0, "burst must be positive");
+    this.intervalNanos = intervalNanos;
+    this.toleranceNanos = intervalNanos * burst;
+    this.key = Preconditions.checkNotNull(key, "key");
+    this.ticker = Preconditions.checkNotNull(ticker, "ticker");
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * Attempts to rate-limit the client.
+   *
+   * @param address the address to rate limit
+   * @return true if we should allow the client, false if we should rate-limit
+   */
+  @Override
+  public boolean attempt(InetAddress address) {
+    Preconditions.checkNotNull(address, "address");
+    long key = this.key.of(address);
+    long hash = RatelimitKey.mix(key);
+    return stripes[(int) (hash >>> (64 - STRIPE_BITS))].attempt(key, (int) hash, ticker.read());
+  }
+
+  @VisibleForTesting
+  int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.size;
+      }
+    }
+    return size;
+  }
+
+  private final class Stripe {
+
+    private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+    private long[] fullAt = new long[INITIAL_STRIPE_CAPACITY];
+    private int size;
+
+    synchronized boolean attempt(long key, int hash, long now) {
+      int mask = keys.length - 1;
+      int slot = hash & mask;
+      long existing;
+      while ((existing = keys[slot]) != 0) {
+        if (existing == key) {
+          long next = Math.max(fullAt[slot], now) + intervalNanos;
+          if (next - now > toleranceNanos) {
+            return false;
+          }
+          fullAt[slot] = next;
+          return true;
+        }
+        slot = (slot + 1) & mask;
+      }
+
+      // A new client always has a full bucket.
+      if ((size + 1) * 4 > keys.length * 3) {
+        rehash(now);
+        insert(key, hash, now + intervalNanos);
+      } else {
+        keys[slot] = key;
+        fullAt[slot] = now + intervalNanos;
+      }
+      size++;
+      return true;
+    }
+
+    private void rehash(long now) {
+      long[] oldKeys = keys;
+      long[] oldFullAt = fullAt;
+      int live = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0 && oldFullAt[i] - now > 0) {
+          live++;
+        }
+      }
+
+      // Size the table so that it is at most half full once the new key has been added.
+      int capacity = INITIAL_STRIPE_CAPACITY;
+      while (capacity < (live + 1) * 2) {
+        capacity <<= 1;
+      }
+      keys = new long[capacity];
+      fullAt = new long[capacity];
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0 && oldFullAt[i] - now > 0) {
+          insert(oldKeys[i], (int) RatelimitKey.mix(oldKeys[i]), oldFullAt[i]);
+          size++;
+        }
+      }
+    }
+
+    private void insert(long key, int hash, long value) {
+      int mask = keys.length - 1;
+      int slot = hash & mask;
+      while (keys[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      fullAt[slot] = value;
+    }
+  }
+}
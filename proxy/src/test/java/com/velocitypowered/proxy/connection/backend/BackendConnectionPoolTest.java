@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.server.ServerMap;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import com.velocitypowered.proxy.server.VelocityServerHealth;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.Future;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BackendConnectionPoolTest {
+
+  private static final ServerInfo SERVER_INFO = new ServerInfo("lobby",
+      InetSocketAddress.createUnresolved("localhost", 25565));
+
+  private final List<EmbeddedChannel> connected = new ArrayList<>();
+  private final ChannelInitializer<Channel> backendInitializer = new ChannelInitializer<>() {
+    @Override
+    protected void initChannel(Channel ch) {
+      ch.pipeline().addLast("backend", new ChannelInboundHandlerAdapter());
+    }
+  };
+  private VelocityServer server;
+  private VelocityConfiguration configuration;
+  private VelocityRegisteredServer target;
+  private VelocityServerHealth health;
+  private EmbeddedChannel loopChannel;
+  private EventLoop loop;
+  private BackendConnectionPool pool;
+
+  @BeforeEach
+  void setUp() {
+    server = mock(VelocityServer.class);
+    configuration = mock(VelocityConfiguration.class);
+    target = mock(VelocityRegisteredServer.class);
+    health = mock(VelocityServerHealth.class);
+    loopChannel = new EmbeddedChannel();
+    loop = loopChannel.eventLoop();
+
+    when(server.getConfiguration()).thenReturn(configuration);
+    when(server.getBackendChannelInitializer()).thenReturn(backendInitializer);
+    when(server.createBootstrap(any())).thenAnswer(invocation -> bootstrap());
+    when(configuration.getBackendConnectionPoolSize()).thenReturn(2);
+    when(configuration.getBackendConnectionPoolIdleTimeout()).thenReturn(60_000);
+    when(target.getServerInfo()).thenReturn(SERVER_INFO);
+    when(target.getHealth()).thenReturn(health);
+    when(health.isAvailable()).thenReturn(true);
+    pool = new BackendConnectionPool(server, target);
+  }
+
+  // Each connection made through the bootstrap succeeds at once, on its own embedded channel.
+  private Bootstrap bootstrap() {
+    Bootstrap bootstrap = mock(Bootstrap.class);
+    List<ChannelHandler> handlers = new ArrayList<>(1);
+    when(bootstrap.handler(any())).thenAnswer(invocation -> {
+      handlers.add(invocation.getArgument(0));
+      return bootstrap;
+    });
+    when(bootstrap.connect(any(SocketAddress.class))).thenAnswer(invocation -> {
+      EmbeddedChannel channel = new EmbeddedChannel(handlers.get(0));
+      connected.add(channel);
+      return channel.newSucceededFuture();
+    });
+    return bootstrap;
+  }
+
+  private Channel acquire() {
+    Future<Channel> future = pool.acquire(loop);
+    assertTrue(future.isSuccess());
+    return future.getNow();
+  }
+
+  @Test
+  void firstAcquireConnectsDirectlyAndFillsPool() {
+    Channel channel = acquire();
+    // two pooled connections, then the direct connection
+    assertEquals(3, connected.size());
+    assertSame(connected.get(2), channel);
+    assertNotNull(channel.pipeline().get("backend"));
+    assertTrue(connected.get(0).isOpen());
+    assertTrue(connected.get(1).isOpen());
+  }
+
+  @Test
+  void handsOutPooledConnectionAndRefills() {
+    acquire();
+    EmbeddedChannel pooled = connected.get(0);
+
+    assertSame(pooled, acquire());
+    assertNotNull(pooled.pipeline().get("backend"));
+    assertTrue(pooled.pipeline().names().stream().noneMatch(name -> name.contains("Idle")),
+        "idle handler was not removed");
+    assertEquals(4, connected.size());
+
+    assertSame(connected.get(1), acquire());
+    assertSame(connected.get(3), acquire());
+  }
+
+  @Test
+  void closesIdleConnectionsAfterTimeout() {
+    when(configuration.getBackendConnectionPoolIdleTimeout()).thenReturn(0);
+    acquire();
+    EmbeddedChannel first = connected.get(0);
+    EmbeddedChannel second = connected.get(1);
+    first.runScheduledPendingTasks();
+    second.runScheduledPendingTasks();
+    assertFalse(first.isOpen());
+    assertFalse(second.isOpen());
+
+    Channel channel = acquire();
+    assertFalse(channel == first || channel == second, "handed out an expired connection");
+    assertEquals(6, connected.size());
+  }
+
+  @Test
+  void takenConnectionIsNotClosedByIdleTimeout() {
+    when(configuration.getBackendConnectionPoolIdleTimeout()).thenReturn(0);
+    acquire();
+    EmbeddedChannel pooled = connected.get(0);
+    assertSame(pooled, acquire());
+
+    pooled.runScheduledPendingTasks();
+    assertTrue(pooled.isOpen());
+  }
+
+  @Test
+  void skipsConnectionsClosedByBackend() {
+    acquire();
+    connected.get(0).close();
+    assertSame(connected.get(1), acquire());
+  }
+
+  @Test
+  void closesIdleConnectionWhenBackendSendsData() {
+    acquire();
+    EmbeddedChannel pooled = connected.get(0);
+    pooled.writeInbound(Unpooled.wrappedBuffer(new byte[] {0x01}));
+    assertFalse(pooled.isOpen());
+    assertNull(pooled.readInbound());
+    assertSame(connected.get(1), acquire());
+  }
+
+  @Test
+  void skipsPoolWhenServerIsUnavailable() {
+    when(health.isAvailable()).thenReturn(false);
+    assertSame(connected.get(0), acquire());
+    assertEquals(1, connected.size());
+    acquire();
+    assertEquals(2, connected.size());
+  }
+
+  @Test
+  void skipsPoolWhenDisabled() {
+    when(configuration.getBackendConnectionPoolSize()).thenReturn(0);
+    acquire();
+    acquire();
+    assertEquals(2, connected.size());
+  }
+
+  @Test
+  void closeClosesIdleConnectionsAndStopsPooling() {
+    acquire();
+    pool.close();
+    loopChannel.runPendingTasks();
+    assertFalse(connected.get(0).isOpen());
+    assertFalse(connected.get(1).isOpen());
+
+    Channel channel = acquire();
+    assertEquals(4, connected.size());
+    assertSame(connected.get(3), channel);
+  }
+
+  @Test
+  void unregisteringServerClosesItsPool() {
+    ServerMap servers = new ServerMap(server);
+    RegisteredServer registered = servers.register(SERVER_INFO);
+    ((VelocityRegisteredServer) registered).getConnectionPool().acquire(loop);
+    assertEquals(3, connected.size());
+
+    servers.unregister(SERVER_INFO);
+    loopChannel.runPendingTasks();
+    assertFalse(connected.get(0).isOpen());
+    assertFalse(connected.get(1).isOpen());
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.backend;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import com.velocitypowered.proxy.server.VelocityServerHealth;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SpeculativeBackendConnectionTest {
+
+  private VelocityServer server;
+  private VelocityConfiguration configuration;
+  private VelocityRegisteredServer target;
+  private VelocityServerHealth health;
+  private BackendConnectionPool pool;
+  private EventLoop loop;
+
+  @BeforeEach
+  void setUp() {
+    server = mock(VelocityServer.class);
+    configuration = mock(VelocityConfiguration.class);
+    target = mock(VelocityRegisteredServer.class);
+    pool = mock(BackendConnectionPool.class);
+    health = mock(VelocityServerHealth.class);
+    loop = new EmbeddedChannel().eventLoop();
+
+    when(server.getConfiguration()).thenReturn(configuration);
+    when(configuration.isPipelinedBackendLogin()).thenReturn(true);
+    when(configuration.getForcedHosts()).thenReturn(Map.of());
+    when(configuration.getAttemptConnectionOrder()).thenReturn(List.of("lobby"));
+    when(server.getServer("lobby")).thenReturn(Optional.of(target));
+    when(target.getHealth()).thenReturn(health);
+    when(health.isAvailable()).thenReturn(true);
+    when(target.getConnectionPool()).thenReturn(pool);
+  }
+
+  private Promise<Channel> nextAcquire() {
+    Promise<Channel> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+    when(pool.acquire(loop)).thenReturn(promise);
+    return promise;
+  }
+
+  @Test
+  void claimsConnectionToPredictedServer() {
+    Promise<Channel> acquired = nextAcquire();
+    SpeculativeBackendConnection speculative = SpeculativeBackendConnection.start(server, loop,
+        null);
+    assertNotNull(speculative);
+    assertSame(target, speculative.getTarget());
+
+    Future<Channel> claimed = speculative.claim(target);
+    assertNotNull(claimed);
+    assertFalse(claimed.isDone());
+
+    EmbeddedChannel channel = new EmbeddedChannel();
+    acquired.setSuccess(channel);
+    assertTrue(claimed.isSuccess());
+    assertSame(channel, claimed.getNow());
+    assertTrue(channel.isOpen());
+    verify(pool, times(1)).acquire(loop);
+
+    // a connection can only be claimed once
+    assertNull(speculative.claim(target));
+  }
+
+  @Test
+  void closesConnectionWhenPlayerJoinsAnotherServer() {
+    Promise<Channel> acquired = nextAcquire();
+    SpeculativeBackendConnection speculative = SpeculativeBackendConnection.start(server, loop,
+        null);
+    assertNotNull(speculative);
+
+    assertNull(speculative.claim(mock(RegisteredServer.class)));
+    EmbeddedChannel channel = new EmbeddedChannel();
+    acquired.setSuccess(channel);
+    assertFalse(channel.isOpen());
+
+    // once abandoned, the connection cannot be claimed anymore
+    assertNull(speculative.claim(target));
+  }
+
+  @Test
+  void closesConnectionWhenAbandoned() {
+    Promise<Channel> acquired = nextAcquire();
+    SpeculativeBackendConnection speculative = SpeculativeBackendConnection.start(server, loop,
+        null);
+    assertNotNull(speculative);
+
+    EmbeddedChannel channel = new EmbeddedChannel();
+    acquired.setSuccess(channel);
+    speculative.abandon();
+    assertFalse(channel.isOpen());
+    assertNull(speculative.claim(target));
+  }
+
+  @Test
+  void reconnectsWhenConnectionFailedBeforeClaim() {
+    Promise<Channel> failed = nextAcquire();
+    SpeculativeBackendConnection speculative = SpeculativeBackendConnection.start(server, loop,
+        null);
+    assertNotNull(speculative);
+    failed.setFailure(new IOException("Connection refused"));
+
+    Promise<Channel> retried = nextAcquire();
+    Future<Channel> claimed = speculative.claim(target);
+    assertNotNull(claimed);
+    verify(pool, times(2)).acquire(loop);
+    assertFalse(claimed.isDone());
+
+    EmbeddedChannel channel = new EmbeddedChannel();
+    retried.setSuccess(channel);
+    assertTrue(claimed.isSuccess());
+    assertSame(channel, claimed.getNow());
+  }
+
+  @Test
+  void reconnectsWhenConnectionClosedBeforeClaim() {
+    Promise<Channel> acquired = nextAcquire();
+    SpeculativeBackendConnection speculative = SpeculativeBackendConnection.start(server, loop,
+        null);
+    assertNotNull(speculative);
+    EmbeddedChannel closed = new EmbeddedChannel();
+    closed.close();
+    acquired.setSuccess(closed);
+
+    Promise<Channel> retried = nextAcquire();
+    Future<Channel> claimed = speculative.claim(target);
+    assertNotNull(claimed);
+    EmbeddedChannel channel = new EmbeddedChannel();
+    retried.setSuccess(channel);
+    assertSame(channel, claimed.getNow());
+  }
+
+  @Test
+  void failsClaimWhenReconnectingFails() {
+    Promise<Channel> failed = nextAcquire();
+    SpeculativeBackendConnection speculative = SpeculativeBackendConnection.start(server, loop,
+        null);
+    assertNotNull(speculative);
+    failed.setFailure(new IOException("Connection refused"));
+
+    Promise<Channel> retried = nextAcquire();
+    Future<Channel> claimed = speculative.claim(target);
+    assertNotNull(claimed);
+    IOException cause = new IOException("Connection refused");
+    retried.setFailure(cause);
+    assertSame(cause, claimed.cause());
+  }
+
+  @Test
+  void onlyStartsWhenServerCanBePredicted() {
+    when(configuration.isPipelinedBackendLogin()).thenReturn(false);
+    assertNull(SpeculativeBackendConnection.start(server, loop, null));
+
+    when(configuration.isPipelinedBackendLogin()).thenReturn(true);
+    VelocityRegisteredServer other = mock(VelocityRegisteredServer.class);
+    when(other.getHealth()).thenReturn(health);
+    when(configuration.getAttemptConnectionOrder()).thenReturn(List.of("lobby", "other"));
+    when(server.getServer("other")).thenReturn(Optional.of(other));
+    // a load balancing strategy other than "ordered" picks a server for each player
+    assertNull(SpeculativeBackendConnection.start(server, loop, null));
+  }
+}
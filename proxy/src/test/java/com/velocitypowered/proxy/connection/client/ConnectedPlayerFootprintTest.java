@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.client;
+
+import static com.velocitypowered.proxy.network.Connections.HANDLER;
+import static com.velocitypowered.proxy.network.Connections.MINECRAFT_DECODER;
+import static com.velocitypowered.proxy.network.Connections.MINECRAFT_ENCODER;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.connection.ConnectionTypes;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
+import com.velocitypowered.proxy.protocol.packet.chat.ChatQueue;
+import com.velocitypowered.proxy.protocol.packet.chat.builder.ChatBuilderFactory;
+import com.velocitypowered.proxy.util.ChannelIdTable;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.UUID;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Measures the memory used by an idle player, not counting anything shared with other players.
+ */
+class ConnectedPlayerFootprintTest {
+
+  // An idle player currently takes a few kilobytes. The bound leaves room for JVMs without
+  // compressed references, but still catches a per-player buffer or cache being added.
+  private static final long MAX_FOOTPRINT_BYTES = 32 * 1024;
+
+  @ParameterizedTest
+  @EnumSource(value = ProtocolVersion.class, names = {"MINECRAFT_1_8", "MINECRAFT_1_20_2"})
+  void idlePlayerFootprint(ProtocolVersion version, TestReporter reporter) {
+    ChannelIdTable channelIds = new ChannelIdTable();
+    VelocityServer server = mock(VelocityServer.class);
+    when(server.getChannelIdTable()).thenReturn(channelIds);
+
+    EmbeddedChannel channel = new EmbeddedChannel();
+    channel.pipeline()
+        .addLast(MINECRAFT_DECODER, new MinecraftDecoder(ProtocolUtils.Direction.SERVERBOUND))
+        .addLast(MINECRAFT_ENCODER, new MinecraftEncoder(ProtocolUtils.Direction.CLIENTBOUND));
+    MinecraftConnection connection = new MinecraftConnection(channel, server);
+    channel.pipeline().addLast(HANDLER, connection);
+    connection.setType(ConnectionTypes.VANILLA);
+    connection.setProtocolVersion(version);
+
+    ConnectedPlayer player = new ConnectedPlayer(server,
+        new GameProfile(UUID.randomUUID(), "Player", ImmutableList.of()), connection, null, true,
+        null);
+
+    GraphLayout shared = GraphLayout.parseInstance(server, channelIds, channel.eventLoop(),
+        channel.alloc(), ProtocolVersion.values(), StateRegistry.values(), ConnectionTypes.VANILLA,
+        ChatBuilderFactory.forVersion(version));
+    GraphLayout footprint = GraphLayout.parseInstance(player).subtract(shared);
+    reporter.publishEntry("footprint " + version, footprint.toFootprint());
+
+    assertFalse(footprint.getClasses().contains(ChatQueue.class),
+        "an idle player should not have a chat queue");
+    assertTrue(footprint.totalSize() <= MAX_FOOTPRINT_BYTES,
+        "an idle player takes " + footprint.totalSize() + " bytes, more than "
+            + MAX_FOOTPRINT_BYTES + " bytes");
+  }
+}
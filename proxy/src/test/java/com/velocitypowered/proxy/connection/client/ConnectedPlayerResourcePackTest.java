@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.event.player.PlayerResourcePackStatusEvent;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.player.ResourcePackInfo;
+import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.connection.ConnectionTypes;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
+import com.velocitypowered.proxy.connection.player.VelocityResourcePackInfo;
+import com.velocitypowered.proxy.event.VelocityEventManager;
+import com.velocitypowered.proxy.protocol.packet.ResourcePackRequest;
+import com.velocitypowered.proxy.protocol.packet.ResourcePackResponse;
+import com.velocitypowered.proxy.util.ChannelIdTable;
+import io.netty.channel.EventLoop;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ConnectedPlayerResourcePackTest {
+
+  private static final String URL = "https://example.com/pack.zip";
+
+  private VelocityEventManager eventManager;
+  private MinecraftConnection connection;
+  private ConnectedPlayer player;
+
+  @BeforeEach
+  void setUp() {
+    VelocityServer server = mock(VelocityServer.class);
+    eventManager = mock(VelocityEventManager.class);
+    connection = mock(MinecraftConnection.class);
+    EventLoop loop = mock(EventLoop.class);
+    when(server.getChannelIdTable()).thenReturn(new ChannelIdTable());
+    when(server.getEventManager()).thenReturn(eventManager);
+    when(eventManager.fire(any()))
+        .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+    when(connection.getType()).thenReturn(ConnectionTypes.VANILLA);
+    when(connection.getProtocolVersion()).thenReturn(ProtocolVersion.MINECRAFT_1_20_2);
+    when(connection.eventLoop()).thenReturn(loop);
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(loop).execute(any(Runnable.class));
+
+    player = new ConnectedPlayer(server,
+        new GameProfile(UUID.randomUUID(), "Player", ImmutableList.of()), connection, null, true,
+        null);
+  }
+
+  private static ResourcePackInfo serverPack(int hash) {
+    byte[] sha1 = new byte[20];
+    Arrays.fill(sha1, (byte) hash);
+    return new VelocityResourcePackInfo.BuilderImpl(URL)
+        .setHash(sha1)
+        .setOrigin(ResourcePackInfo.Origin.DOWNSTREAM_SERVER)
+        .build();
+  }
+
+  private static VelocityServerConnection requester() {
+    VelocityServerConnection requester = mock(VelocityServerConnection.class);
+    when(requester.getConnection()).thenReturn(mock(MinecraftConnection.class));
+    return requester;
+  }
+
+  private void apply(ResourcePackInfo pack, VelocityServerConnection requester) {
+    player.queueResourcePack(pack, requester);
+    player.onResourcePackResponse(PlayerResourcePackStatusEvent.Status.ACCEPTED);
+    player.onResourcePackResponse(PlayerResourcePackStatusEvent.Status.SUCCESSFUL);
+  }
+
+  private List<PlayerResourcePackStatusEvent> firedAndForgotten() {
+    ArgumentCaptor<PlayerResourcePackStatusEvent> events =
+        ArgumentCaptor.forClass(PlayerResourcePackStatusEvent.class);
+    verify(eventManager, times(2)).fireAndForget(events.capture());
+    return events.getAllValues();
+  }
+
+  @Test
+  void sendsPacksToPlayer() {
+    ResourcePackInfo pack = serverPack(1);
+    player.queueResourcePack(pack, requester());
+
+    ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+    verify(connection).write(sent.capture());
+    assertEquals(URL, ((ResourcePackRequest) sent.getValue()).getUrl());
+    assertEquals(1, player.getOutstandingResourcePackCount());
+  }
+
+  @Test
+  void acknowledgesAppliedPackToRequestingServer() {
+    VelocityServerConnection first = requester();
+    apply(serverPack(1), first);
+    assertEquals(URL, player.getAppliedResourcePack().getUrl());
+    clearInvocations(connection);
+
+    // The player is switching servers, so the server asking for the pack is not the connected one.
+    VelocityServerConnection second = requester();
+    ResourcePackInfo again = serverPack(1);
+    player.queueResourcePack(again, second);
+
+    verify(connection, never()).write(any());
+    ArgumentCaptor<Object> accepted = ArgumentCaptor.forClass(Object.class);
+    ArgumentCaptor<Object> successful = ArgumentCaptor.forClass(Object.class);
+    verify(second.getConnection()).delayedWrite(accepted.capture());
+    verify(second.getConnection()).write(successful.capture());
+    assertEquals(PlayerResourcePackStatusEvent.Status.ACCEPTED,
+        ((ResourcePackResponse) accepted.getValue()).getStatus());
+    assertEquals(PlayerResourcePackStatusEvent.Status.SUCCESSFUL,
+        ((ResourcePackResponse) successful.getValue()).getStatus());
+    verify(first.getConnection(), never()).write(any());
+    assertEquals(0, player.getOutstandingResourcePackCount());
+
+    List<PlayerResourcePackStatusEvent> events = firedAndForgotten();
+    assertEquals(PlayerResourcePackStatusEvent.Status.ACCEPTED, events.get(0).getStatus());
+    assertEquals(PlayerResourcePackStatusEvent.Status.SUCCESSFUL, events.get(1).getStatus());
+    assertSame(again, events.get(1).getPackInfo());
+  }
+
+  @Test
+  void sendsPacksWithDifferentHash() {
+    apply(serverPack(1), requester());
+    clearInvocations(connection);
+
+    VelocityServerConnection second = requester();
+    player.queueResourcePack(serverPack(2), second);
+
+    verify(connection).write(any(ResourcePackRequest.class));
+    verify(second.getConnection(), never()).write(any());
+    verify(eventManager, never()).fireAndForget(any());
+  }
+
+  @Test
+  void doesNotAcknowledgePacksAfterPlayerDeclined() {
+    apply(serverPack(1), requester());
+    player.queueResourcePack(serverPack(2), requester());
+    player.onResourcePackResponse(PlayerResourcePackStatusEvent.Status.DECLINED);
+    clearInvocations(connection);
+
+    VelocityServerConnection third = requester();
+    player.queueResourcePack(serverPack(1), third);
+
+    verify(third.getConnection(), never()).write(any());
+    verify(eventManager, never()).fireAndForget(any());
+    assertEquals(0, player.getOutstandingResourcePackCount());
+  }
+
+  private static ResourcePackInfo networkPack(int hash) {
+    byte[] sha1 = new byte[20];
+    Arrays.fill(sha1, (byte) hash);
+    return new VelocityResourcePackInfo.BuilderImpl(URL)
+        .setHash(sha1)
+        .setOrigin(ResourcePackInfo.Origin.PLUGIN_ON_PROXY)
+        .build();
+  }
+
+  @Test
+  void skipsNetworkPackAppliedByServerDuringConfiguration() {
+    apply(serverPack(1), requester());
+    clearInvocations(connection);
+
+    player.sendNetworkResourcePack(networkPack(1));
+    verify(connection, never()).write(any());
+    assertEquals(0, player.getOutstandingResourcePackCount());
+  }
+
+  @Test
+  void skipsNetworkPackStillBeingSent() {
+    player.queueResourcePack(serverPack(1), requester());
+    player.onResourcePackResponse(PlayerResourcePackStatusEvent.Status.ACCEPTED);
+    clearInvocations(connection);
+
+    player.sendNetworkResourcePack(networkPack(1));
+    verify(connection, never()).write(any());
+    assertEquals(1, player.getOutstandingResourcePackCount());
+  }
+
+  @Test
+  void sendsDifferentNetworkPack() {
+    apply(serverPack(1), requester());
+    clearInvocations(connection);
+
+    player.sendNetworkResourcePack(networkPack(2));
+    verify(connection).write(any(ResourcePackRequest.class));
+    assertEquals(1, player.getOutstandingResourcePackCount());
+  }
+}
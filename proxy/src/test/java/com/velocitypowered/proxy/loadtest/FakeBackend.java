@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.loadtest;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.util.UuidUtils;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.packet.Disconnect;
+import com.velocitypowered.proxy.protocol.packet.Handshake;
+import com.velocitypowered.proxy.protocol.packet.JoinGame;
+import com.velocitypowered.proxy.protocol.packet.KeepAlive;
+import com.velocitypowered.proxy.protocol.packet.PluginMessage;
+import com.velocitypowered.proxy.protocol.packet.ServerLogin;
+import com.velocitypowered.proxy.protocol.packet.ServerLoginSuccess;
+import com.velocitypowered.proxy.protocol.packet.StatusPing;
+import com.velocitypowered.proxy.protocol.packet.StatusRequest;
+import com.velocitypowered.proxy.protocol.packet.StatusResponse;
+import com.velocitypowered.proxy.protocol.packet.chat.legacy.LegacyChat;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A minimal backend server for load testing. It accepts logins in offline mode (the proxy must
+ * use {@code none} or {@code legacy} player info forwarding for it), spawns players into an empty
+ * world, echoes load test chat and plugin messages back to the client and sends keep-alives that
+ * measure the round trip time through the proxy.
+ */
+final class FakeBackend {
+
+  static final String ECHO_CHANNEL = "loadtest:echo";
+  static final String CHAT_MARKER = "lt:";
+
+  private final InetSocketAddress address;
+  private final LoadTestStats stats;
+  private Channel serverChannel;
+
+  FakeBackend(InetSocketAddress address, LoadTestStats stats) {
+    this.address = address;
+    this.stats = stats;
+  }
+
+  void start(EventLoopGroup group) {
+    this.serverChannel = new ServerBootstrap()
+        .channel(NioServerSocketChannel.class)
+        .group(group)
+        .childOption(ChannelOption.TCP_NODELAY, true)
+        .childHandler(new ChannelInitializer<Channel>() {
+          @Override
+          protected void initChannel(Channel ch) {
+            LoadTestPipeline.init(ch, ProtocolUtils.Direction.SERVERBOUND, new Session());
+          }
+        })
+        .bind(address)
+        .syncUninterruptibly()
+        .channel();
+  }
+
+  void stop() {
+    if (serverChannel != null) {
+      serverChannel.close().syncUninterruptibly();
+    }
+  }
+
+  InetSocketAddress getAddress() {
+    return address;
+  }
+
+  private final class Session extends ChannelInboundHandlerAdapter {
+
+    private ProtocolVersion version = ProtocolVersion.UNKNOWN;
+    private ScheduledFuture<?> keepAliveTask;
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      try {
+        if (msg instanceof Handshake) {
+          handleHandshake(ctx, (Handshake) msg);
+        } else if (msg instanceof StatusRequest) {
+          ctx.writeAndFlush(new StatusResponse("{\"version\":{\"name\":\"" + version.getName()
+              + "\",\"protocol\":" + version.getProtocol() + "},"
+              + "\"players\":{\"max\":100000,\"online\":0},"
+              + "\"description\":{\"text\":\"Velocity load test backend\"}}"));
+        } else if (msg instanceof StatusPing) {
+          ctx.writeAndFlush(msg);
+        } else if (msg instanceof ServerLogin) {
+          handleLogin(ctx, (ServerLogin) msg);
+        } else if (msg instanceof LegacyChat) {
+          String message = ((LegacyChat) msg).getMessage();
+          if (message.startsWith(CHAT_MARKER)) {
+            stats.backendMessages.increment();
+            ctx.writeAndFlush(new LegacyChat("{\"text\":\"" + message + "\"}",
+                LegacyChat.SYSTEM_TYPE, LegacyChat.EMPTY_SENDER));
+          }
+        } else if (msg instanceof PluginMessage) {
+          PluginMessage message = (PluginMessage) msg;
+          if (message.getChannel().equals(ECHO_CHANNEL)) {
+            stats.backendMessages.increment();
+            ctx.writeAndFlush(message.retain());
+          }
+        } else if (msg instanceof KeepAlive) {
+          stats.keepAlive.recordNanos(System.nanoTime() - ((KeepAlive) msg).getRandomId());
+        }
+      } finally {
+        ReferenceCountUtil.release(msg);
+      }
+    }
+
+    private void handleHandshake(ChannelHandlerContext ctx, Handshake handshake) {
+      this.version = handshake.getProtocolVersion();
+      LoadTestPipeline.setProtocolVersion(ctx.channel(), version);
+      if (handshake.getNextStatus() == StateRegistry.STATUS_ID) {
+        LoadTestPipeline.setState(ctx.channel(), StateRegistry.STATUS);
+      } else {
+        LoadTestPipeline.setState(ctx.channel(), StateRegistry.LOGIN);
+      }
+    }
+
+    private void handleLogin(ChannelHandlerContext ctx, ServerLogin login) {
+      if (version != LoadTest.PROTOCOL_VERSION) {
+        ctx.writeAndFlush(new Disconnect("{\"text\":\"The load test backend only supports "
+            + LoadTest.PROTOCOL_VERSION.getName() + "\"}")).addListener(f -> ctx.close());
+        return;
+      }
+
+      ServerLoginSuccess success = new ServerLoginSuccess();
+      success.setUsername(login.getUsername());
+      success.setUuid(UuidUtils.generateOfflinePlayerUuid(login.getUsername()));
+      ctx.write(success);
+      LoadTestPipeline.setState(ctx.channel(), StateRegistry.PLAY);
+
+      JoinGame joinGame = new JoinGame();
+      joinGame.setEntityId(1);
+      joinGame.setGamemode((short) 0);
+      joinGame.setDimension(0);
+      joinGame.setDifficulty((short) 0);
+      joinGame.setMaxPlayers(100);
+      joinGame.setLevelType("flat");
+      ctx.writeAndFlush(joinGame);
+      stats.backendLogins.increment();
+
+      keepAliveTask = ctx.executor().scheduleAtFixedRate(() -> {
+        KeepAlive keepAlive = new KeepAlive();
+        keepAlive.setRandomId(System.nanoTime());
+        ctx.writeAndFlush(keepAlive, ctx.voidPromise());
+      }, 1, 5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+      if (keepAliveTask != null) {
+        keepAliveTask.cancel(false);
+      }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      stats.errors.increment();
+      ctx.close();
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.loadtest;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Watches the heap, allocation rate and garbage collection pauses of a JVM over JMX. This is
+ * usually the proxy under test (started with {@code -Dcom.sun.management.jmxremote.port}), but
+ * falls back to the load generator's own JVM when no remote address is given.
+ */
+final class JvmMonitor implements NotificationListener, AutoCloseable {
+
+  private final @Nullable JMXConnector connector;
+  private final MBeanServerConnection connection;
+  private final com.sun.management.ThreadMXBean threads;
+  private final MemoryMXBean memory;
+  private final LoadTestStats stats;
+  private final Set<ObjectName> collectors;
+  private long lastAllocated;
+  private long lastSample;
+
+  private JvmMonitor(@Nullable JMXConnector connector, MBeanServerConnection connection,
+      LoadTestStats stats) throws IOException, JMException {
+    this.connector = connector;
+    this.connection = connection;
+    this.stats = stats;
+    this.threads = ManagementFactory.newPlatformMXBeanProxy(connection,
+        ManagementFactory.THREAD_MXBEAN_NAME, com.sun.management.ThreadMXBean.class);
+    this.memory = ManagementFactory.newPlatformMXBeanProxy(connection,
+        ManagementFactory.MEMORY_MXBEAN_NAME, MemoryMXBean.class);
+    this.collectors = connection.queryNames(
+        new ObjectName(ManagementFactory.GARBAGE_COLLECTOR_MXBEAN_DOMAIN_TYPE + ",*"), null);
+    for (ObjectName collector : collectors) {
+      connection.addNotificationListener(collector, this, null, null);
+    }
+    this.lastAllocated = totalAllocatedBytes();
+    this.lastSample = System.nanoTime();
+  }
+
+  /**
+   * Connects to the JVM at the given JMX address, or monitors this JVM if there is none.
+   *
+   * @param address the {@code host:port} of the remote JMX agent, or {@code null}
+   * @param stats the stats to record GC pauses into
+   * @return the monitor
+   * @throws IOException if the JMX agent could not be reached
+   * @throws JMException if the platform MBeans could not be queried
+   */
+  static JvmMonitor connect(@Nullable String address, LoadTestStats stats)
+      throws IOException, JMException {
+    if (address == null) {
+      return new JvmMonitor(null, ManagementFactory.getPlatformMBeanServer(), stats);
+    }
+    JMXConnector connector = JMXConnectorFactory.connect(
+        new JMXServiceURL("service:jmx:rmi:///jndi/rmi://" + address + "/jmxrmi"));
+    return new JvmMonitor(connector, connector.getMBeanServerConnection(), stats);
+  }
+
+  @Override
+  public void handleNotification(Notification notification, Object handback) {
+    if (!notification.getType()
+        .equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+      return;
+    }
+    GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+        (CompositeData) notification.getUserData());
+    stats.gcPause.recordNanos(TimeUnit.MILLISECONDS.toNanos(info.getGcInfo().getDuration()));
+  }
+
+  /**
+   * Returns the number of bytes allocated per second since the last call to this method.
+   *
+   * @return the allocation rate, in bytes per second
+   */
+  long sampleAllocationRate() {
+    long now = System.nanoTime();
+    long allocated = totalAllocatedBytes();
+    // Threads that exit take their allocation counters with them, so the total can go backwards.
+    long delta = Math.max(0, allocated - lastAllocated);
+    long elapsed = Math.max(1, now - lastSample);
+    lastAllocated = allocated;
+    lastSample = now;
+    return (long) (delta * (TimeUnit.SECONDS.toNanos(1) / (double) elapsed));
+  }
+
+  long heapUsedBytes() {
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+
+  private long totalAllocatedBytes() {
+    long total = 0;
+    for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+      if (allocated > 0) {
+        total += allocated;
+      }
+    }
+    return total;
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (ObjectName collector : collectors) {
+      try {
+        connection.removeNotificationListener(collector, this);
+      } catch (JMException ignored) {
+        // Already gone.
+      }
+    }
+    if (connector != null) {
+      connector.close();
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free, log-linear latency histogram. Values are recorded in microseconds into buckets
+ * with 16 sub-buckets per power of two, which bounds the relative error of every reported
+ * percentile to about 6%.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong max = new AtomicLong();
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) Math.max(0, value);
+    }
+    int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+    int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + sub;
+  }
+
+  static long lowerBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    int sub = index % SUB_BUCKETS;
+    return ((long) (SUB_BUCKETS + sub)) << shift;
+  }
+
+  /**
+   * Records a latency.
+   *
+   * @param nanos the latency, in nanoseconds
+   */
+  void recordNanos(long nanos) {
+    recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+  }
+
+  void recordMicros(long micros) {
+    counts.incrementAndGet(indexOf(micros));
+    long current;
+    while (micros > (current = max.get())) {
+      if (max.compareAndSet(current, micros)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Moves every value recorded in this histogram into {@code other}, resetting this histogram.
+   *
+   * @param other the histogram to add the values to
+   */
+  void drainTo(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++) {
+      long count = counts.getAndSet(i, 0);
+      if (count != 0) {
+        other.counts.addAndGet(i, count);
+      }
+    }
+    long drainedMax = max.getAndSet(0);
+    long current;
+    while (drainedMax > (current = other.max.get())) {
+      if (other.max.compareAndSet(current, drainedMax)) {
+        break;
+      }
+    }
+  }
+
+  long count() {
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += counts.get(i);
+    }
+    return total;
+  }
+
+  long maxMicros() {
+    return max.get();
+  }
+
+  /**
+   * Returns the value at the given percentile. The value returned is the upper bound of the
+   * bucket the percentile falls into, capped to the largest value recorded.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the value at the percentile in microseconds, or 0 if nothing has been recorded
+   */
+  long percentileMicros(double percentile) {
+    long total = count();
+    if (total == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(lowerBound(i + 1) - 1, max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Formats the commonly reported percentiles of this histogram in milliseconds.
+   *
+   * @return the formatted percentiles
+   */
+  String summary() {
+    return String.format("n=%d p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+        count(), percentileMicros(50) / 1000.0, percentileMicros(90) / 1000.0,
+        percentileMicros(99) / 1000.0, percentileMicros(99.9) / 1000.0, max.get() / 1000.0);
+  }
+}
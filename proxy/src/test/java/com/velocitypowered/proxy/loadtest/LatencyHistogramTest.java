@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void bucketBoundsContainTheirValues() {
+    for (long value : new long[]{0, 1, 15, 16, 17, 100, 1_000, 65_535, 1L << 40}) {
+      int index = LatencyHistogram.indexOf(value);
+      assertTrue(LatencyHistogram.lowerBound(index) <= value, "lower bound above " + value);
+      assertTrue(LatencyHistogram.lowerBound(index + 1) > value, "upper bound below " + value);
+    }
+  }
+
+  @Test
+  void percentilesAreWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.recordMicros(i);
+    }
+
+    assertEquals(1000, histogram.count());
+    assertEquals(1000, histogram.maxMicros());
+    long p50 = histogram.percentileMicros(50);
+    assertTrue(p50 >= 500 && p50 <= 500 + 500 / 16, "p50 was " + p50);
+    assertEquals(1000, histogram.percentileMicros(100));
+  }
+
+  @Test
+  void drainMovesValuesAndResets() {
+    LatencyHistogram interval = new LatencyHistogram();
+    LatencyHistogram total = new LatencyHistogram();
+    interval.recordMicros(10);
+    interval.recordMicros(20_000);
+    interval.drainTo(total);
+
+    assertEquals(0, interval.count());
+    assertEquals(0, interval.maxMicros());
+    assertEquals(2, total.count());
+    assertEquals(20_000, total.maxMicros());
+  }
+}
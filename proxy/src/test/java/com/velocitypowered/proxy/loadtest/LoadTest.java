@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.loadtest;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+/**
+ * Drives a soak test against a running proxy: it starts fake backends, ramps up a population of
+ * synthetic clients and periodically reports latency percentiles, connection counters and the
+ * JVM's allocation rate and GC pauses.
+ *
+ * <p>Run it with {@code ./gradlew :velocity-proxy:loadTest -PloadTestArgs="--clients 2000"}.
+ * The proxy under test should use {@code none} or {@code legacy} player info forwarding and list
+ * the fake backends (by default {@code lobby} on port 30066 and {@code game} on port 30067) as
+ * its servers. For online mode, pass {@code --online} and start the proxy with the
+ * {@code mojang.sessionserver} system property printed on startup.</p>
+ */
+public final class LoadTest {
+
+  static final ProtocolVersion PROTOCOL_VERSION = ProtocolVersion.MINECRAFT_1_12_2;
+
+  private LoadTest() {
+    throw new AssertionError();
+  }
+
+  /**
+   * The behaviour shared by every synthetic client.
+   */
+  static final class Settings {
+
+    final InetSocketAddress proxy;
+    final List<String> servers;
+    final long chatIntervalMillis;
+    final long pluginMessageIntervalMillis;
+    final long switchIntervalMillis;
+
+    Settings(InetSocketAddress proxy, List<String> servers, long chatIntervalMillis,
+        long pluginMessageIntervalMillis, long switchIntervalMillis) {
+      this.proxy = proxy;
+      this.servers = servers;
+      this.chatIntervalMillis = chatIntervalMillis;
+      this.pluginMessageIntervalMillis = pluginMessageIntervalMillis;
+      this.switchIntervalMillis = switchIntervalMillis;
+    }
+  }
+
+  /**
+   * Runs the load test.
+   *
+   * @param args the command line arguments
+   * @throws Exception if the load test could not be started
+   */
+  public static void main(String[] args) throws Exception {
+    OptionParser parser = new OptionParser();
+    OptionSpec<Void> help = parser.acceptsAll(Arrays.asList("h", "help"), "Print help")
+        .forHelp();
+    OptionSpec<String> proxyOption = parser.accepts("proxy", "Proxy address (host:port)")
+        .withRequiredArg().defaultsTo("127.0.0.1:25577");
+    OptionSpec<Integer> backendPorts = parser.accepts("backend-ports",
+            "Ports to start fake backends on")
+        .withRequiredArg().ofType(Integer.class).withValuesSeparatedBy(',')
+        .defaultsTo(30066, 30067);
+    OptionSpec<Void> noBackends = parser.accepts("no-backends",
+        "Don't start fake backends, the proxy's servers must already echo load test traffic");
+    OptionSpec<String> servers = parser.accepts("servers",
+            "Server names, as registered on the proxy, to switch between")
+        .withRequiredArg().withValuesSeparatedBy(',').defaultsTo("lobby", "game");
+    OptionSpec<Integer> clients = parser.accepts("clients", "Number of clients to connect")
+        .withRequiredArg().ofType(Integer.class).defaultsTo(500);
+    OptionSpec<Integer> rampRate = parser.accepts("ramp-rate", "New clients per second")
+        .withRequiredArg().ofType(Integer.class).defaultsTo(50);
+    OptionSpec<Integer> duration = parser.accepts("duration", "Test duration in seconds")
+        .withRequiredArg().ofType(Integer.class).defaultsTo(300);
+    OptionSpec<Long> chatInterval = parser.accepts("chat-interval",
+            "Milliseconds between chat messages per client, 0 to disable")
+        .withRequiredArg().ofType(Long.class).defaultsTo(5000L);
+    OptionSpec<Long> pluginInterval = parser.accepts("plugin-message-interval",
+            "Milliseconds between plugin messages per client, 0 to disable")
+        .withRequiredArg().ofType(Long.class).defaultsTo(1000L);
+    OptionSpec<Long> switchInterval = parser.accepts("switch-interval",
+            "Milliseconds between server switches per client, 0 to disable")
+        .withRequiredArg().ofType(Long.class).defaultsTo(60000L);
+    OptionSpec<Void> online = parser.accepts("online",
+        "Start a stub session server for testing an online mode proxy");
+    OptionSpec<Integer> sessionPort = parser.accepts("session-port",
+            "Port for the stub session server")
+        .withRequiredArg().ofType(Integer.class).defaultsTo(30065);
+    OptionSpec<String> jmx = parser.accepts("jmx",
+            "JMX address (host:port) of the proxy, or omit to monitor this JVM")
+        .withRequiredArg();
+    OptionSpec<Integer> reportInterval = parser.accepts("report-interval",
+            "Seconds between progress reports")
+        .withRequiredArg().ofType(Integer.class).defaultsTo(10);
+
+    OptionSet options = parser.parse(args);
+    if (options.has(help)) {
+      parser.printHelpOn(System.out);
+      return;
+    }
+
+    Settings settings = new Settings(parseAddress(options.valueOf(proxyOption)),
+        options.valuesOf(servers), options.valueOf(chatInterval),
+        options.valueOf(pluginInterval), options.valueOf(switchInterval));
+    LoadTestStats stats = new LoadTestStats();
+    EventLoopGroup group = new NioEventLoopGroup();
+
+    List<FakeBackend> backends = new ArrayList<>();
+    List<Integer> ports = options.has(noBackends) ? List.of() : options.valuesOf(backendPorts);
+    for (int port : ports) {
+      FakeBackend backend = new FakeBackend(new InetSocketAddress("127.0.0.1", port), stats);
+      backend.start(group);
+      backends.add(backend);
+      System.out.println("Started fake backend on " + backend.getAddress());
+    }
+
+    StubSessionServer sessionServer = null;
+    if (options.has(online)) {
+      InetSocketAddress address = new InetSocketAddress("127.0.0.1", options.valueOf(sessionPort));
+      sessionServer = new StubSessionServer(address);
+      sessionServer.start();
+      System.out.println("Started stub session server, start the proxy with "
+          + "-Dmojang.sessionserver=http://" + address.getHostString() + ":" + address.getPort()
+          + StubSessionServer.PATH + "?username=%s&serverId=%s");
+    }
+
+    JvmMonitor monitor = JvmMonitor.connect(options.valueOf(jmx), stats);
+    Bootstrap bootstrap = new Bootstrap()
+        .channel(NioSocketChannel.class)
+        .group(group)
+        .option(ChannelOption.TCP_NODELAY, true)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 30000);
+
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "Load Test Scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    int target = options.valueOf(clients);
+    int perSecond = Math.max(1, options.valueOf(rampRate));
+    AtomicInteger connected = new AtomicInteger();
+    scheduler.scheduleAtFixedRate(() -> {
+      int index = connected.getAndIncrement();
+      if (index < target) {
+        new SyntheticClient("lt" + index, settings, stats).connect(bootstrap);
+      }
+    }, 0, TimeUnit.SECONDS.toMicros(1) / perSecond, TimeUnit.MICROSECONDS);
+
+    long started = System.nanoTime();
+    int reportSeconds = options.valueOf(reportInterval);
+    scheduler.scheduleAtFixedRate(() -> report(stats, monitor, started), reportSeconds,
+        reportSeconds, TimeUnit.SECONDS);
+
+    Thread.sleep(TimeUnit.SECONDS.toMillis(options.valueOf(duration)));
+
+    scheduler.shutdownNow();
+    scheduler.awaitTermination(5, TimeUnit.SECONDS);
+    report(stats, monitor, started);
+    group.shutdownGracefully().syncUninterruptibly();
+    for (FakeBackend backend : backends) {
+      backend.stop();
+    }
+    if (sessionServer != null) {
+      sessionServer.stop();
+    }
+    monitor.close();
+
+    System.out.println();
+    System.out.println("=== Summary ===");
+    printCounters(stats);
+    for (LoadTestStats.Metric metric : stats.metrics()) {
+      System.out.printf("%-11s %s%n", metric.name, metric.total.summary());
+    }
+  }
+
+  private static void report(LoadTestStats stats, JvmMonitor monitor, long started) {
+    long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started);
+    System.out.printf("--- %ds: heap %d MiB, allocating %d MiB/s ---%n", elapsed,
+        monitor.heapUsedBytes() >> 20, monitor.sampleAllocationRate() >> 20);
+    printCounters(stats);
+    for (LoadTestStats.Metric metric : stats.metrics()) {
+      LatencyHistogram interval = new LatencyHistogram();
+      metric.interval.drainTo(interval);
+      if (interval.count() > 0) {
+        System.out.printf("%-11s %s%n", metric.name, interval.summary());
+      }
+      interval.drainTo(metric.total);
+    }
+  }
+
+  private static void printCounters(LoadTestStats stats) {
+    System.out.printf("clients: %d active, %d attempted, %d failed, %d disconnected, %d errors;"
+            + " backends: %d logins, %d messages%n",
+        stats.activeClients.sum(), stats.connectAttempts.sum(), stats.failedLogins.sum(),
+        stats.disconnects.sum(), stats.errors.sum(), stats.backendLogins.sum(),
+        stats.backendMessages.sum());
+  }
+
+  private static InetSocketAddress parseAddress(String address) {
+    int colon = address.lastIndexOf(':');
+    if (colon < 0) {
+      return new InetSocketAddress(address, 25577);
+    }
+    return new InetSocketAddress(address.substring(0, colon),
+        Integer.parseInt(address.substring(colon + 1)));
+  }
+}
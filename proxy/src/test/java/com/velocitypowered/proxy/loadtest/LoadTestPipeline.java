@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.loadtest;
+
+import static com.velocitypowered.proxy.network.Connections.CIPHER_DECODER;
+import static com.velocitypowered.proxy.network.Connections.CIPHER_ENCODER;
+import static com.velocitypowered.proxy.network.Connections.COMPRESSION_DECODER;
+import static com.velocitypowered.proxy.network.Connections.COMPRESSION_ENCODER;
+import static com.velocitypowered.proxy.network.Connections.FRAME_DECODER;
+import static com.velocitypowered.proxy.network.Connections.FRAME_ENCODER;
+import static com.velocitypowered.proxy.network.Connections.HANDLER;
+import static com.velocitypowered.proxy.network.Connections.MINECRAFT_DECODER;
+import static com.velocitypowered.proxy.network.Connections.MINECRAFT_ENCODER;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.natives.encryption.VelocityCipherFactory;
+import com.velocitypowered.natives.util.Natives;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCipherDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCipherEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCompressDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCompressorAndLengthEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import java.security.GeneralSecurityException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Builds and reconfigures pipelines for the synthetic clients and fake backends, using the same
+ * codecs as the proxy itself.
+ */
+final class LoadTestPipeline {
+
+  private LoadTestPipeline() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Sets up the pipeline for a connection.
+   *
+   * @param ch the channel to set up
+   * @param inbound the direction of the packets received on this channel
+   * @param handler the handler that receives the decoded packets
+   */
+  static void init(Channel ch, ProtocolUtils.Direction inbound, ChannelHandler handler) {
+    ProtocolUtils.Direction outbound = inbound == ProtocolUtils.Direction.CLIENTBOUND
+        ? ProtocolUtils.Direction.SERVERBOUND : ProtocolUtils.Direction.CLIENTBOUND;
+    ch.pipeline()
+        .addLast(FRAME_DECODER, new MinecraftVarintFrameDecoder())
+        .addLast(FRAME_ENCODER, MinecraftVarintLengthEncoder.INSTANCE)
+        .addLast(MINECRAFT_DECODER, new MinecraftDecoder(inbound))
+        .addLast(MINECRAFT_ENCODER, new MinecraftEncoder(outbound))
+        .addLast(HANDLER, handler);
+  }
+
+  static void setProtocolVersion(Channel ch, ProtocolVersion version) {
+    ch.pipeline().get(MinecraftEncoder.class).setProtocolVersion(version);
+    ch.pipeline().get(MinecraftDecoder.class).setProtocolVersion(version);
+  }
+
+  static void setState(Channel ch, StateRegistry state) {
+    ch.pipeline().get(MinecraftEncoder.class).setState(state);
+    ch.pipeline().get(MinecraftDecoder.class).setState(state);
+  }
+
+  /**
+   * Enables compression on the connection, mirroring
+   * {@link com.velocitypowered.proxy.connection.MinecraftConnection#setCompressionThreshold(int)}.
+   *
+   * @param ch the channel
+   * @param threshold the compression threshold
+   */
+  static void enableCompression(Channel ch, int threshold) {
+    if (threshold < 0) {
+      return;
+    }
+    MinecraftCompressDecoder decoder = (MinecraftCompressDecoder) ch.pipeline()
+        .get(COMPRESSION_DECODER);
+    MinecraftCompressorAndLengthEncoder encoder = (MinecraftCompressorAndLengthEncoder) ch
+        .pipeline().get(COMPRESSION_ENCODER);
+    if (decoder != null && encoder != null) {
+      decoder.setThreshold(threshold);
+      encoder.setThreshold(threshold);
+      return;
+    }
+    VelocityCompressor compressor = Natives.compress.get().create(-1);
+    ch.pipeline().remove(FRAME_ENCODER);
+    ch.pipeline().addBefore(MINECRAFT_DECODER, COMPRESSION_DECODER,
+        new MinecraftCompressDecoder(threshold, compressor));
+    ch.pipeline().addBefore(MINECRAFT_ENCODER, COMPRESSION_ENCODER,
+        new MinecraftCompressorAndLengthEncoder(threshold, compressor));
+  }
+
+  /**
+   * Enables encryption on the connection, mirroring
+   * {@link com.velocitypowered.proxy.connection.MinecraftConnection#enableEncryption(byte[])}.
+   *
+   * @param ch the channel
+   * @param secret the shared secret
+   * @throws GeneralSecurityException if the cipher could not be created
+   */
+  static void enableEncryption(Channel ch, byte[] secret) throws GeneralSecurityException {
+    SecretKey key = new SecretKeySpec(secret, "AES");
+    VelocityCipherFactory factory = Natives.cipher.get();
+    ch.pipeline().addBefore(FRAME_DECODER, CIPHER_DECODER,
+        new MinecraftCipherDecoder(factory.forDecryption(key)));
+    ch.pipeline().addBefore(FRAME_ENCODER, CIPHER_ENCODER,
+        new MinecraftCipherEncoder(factory.forEncryption(key)));
+  }
+}
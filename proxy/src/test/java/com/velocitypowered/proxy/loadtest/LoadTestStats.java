@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms shared by every synthetic client and fake backend. Histograms
+ * are recorded per reporting interval and drained into the run totals by {@link LoadTest}.
+ */
+final class LoadTestStats {
+
+  final Metric login = new Metric("login");
+  final Metric serverSwitch = new Metric("switch");
+  final Metric chat = new Metric("chat");
+  final Metric pluginMessage = new Metric("plugin-msg");
+  final Metric keepAlive = new Metric("keep-alive");
+  final Metric gcPause = new Metric("gc-pause");
+
+  final LongAdder connectAttempts = new LongAdder();
+  final LongAdder activeClients = new LongAdder();
+  final LongAdder failedLogins = new LongAdder();
+  final LongAdder disconnects = new LongAdder();
+  final LongAdder errors = new LongAdder();
+  final LongAdder backendLogins = new LongAdder();
+  final LongAdder backendMessages = new LongAdder();
+
+  Metric[] metrics() {
+    return new Metric[]{login, serverSwitch, chat, pluginMessage, keepAlive, gcPause};
+  }
+
+  /**
+   * A latency metric, split into the current reporting interval and the whole run.
+   */
+  static final class Metric {
+
+    final String name;
+    final LatencyHistogram interval = new LatencyHistogram();
+    final LatencyHistogram total = new LatencyHistogram();
+
+    Metric(String name) {
+      this.name = name;
+    }
+
+    void recordNanos(long nanos) {
+      interval.recordNanos(nanos);
+    }
+  }
+}
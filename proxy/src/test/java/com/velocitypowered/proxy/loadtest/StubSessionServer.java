@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.velocitypowered.api.util.UuidUtils;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * A stand-in for the Mojang session server that accepts every login, so the proxy can run in
+ * online mode during a load test. Point the proxy at it with
+ * {@code -Dmojang.sessionserver=http://host:port/session/minecraft/hasJoined?username=%s&serverId=%s}.
+ */
+final class StubSessionServer {
+
+  static final String PATH = "/session/minecraft/hasJoined";
+
+  private final HttpServer server;
+
+  StubSessionServer(InetSocketAddress address) throws IOException {
+    this.server = HttpServer.create(address, 0);
+    this.server.createContext(PATH, this::handle);
+    this.server.setExecutor(Executors.newFixedThreadPool(4, r -> {
+      Thread thread = new Thread(r, "Load Test Session Server");
+      thread.setDaemon(true);
+      return thread;
+    }));
+  }
+
+  void start() {
+    server.start();
+  }
+
+  void stop() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    String username = null;
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query != null) {
+      for (String parameter : query.split("&")) {
+        if (parameter.startsWith("username=")) {
+          username = URLDecoder.decode(parameter.substring("username=".length()),
+              StandardCharsets.UTF_8);
+        }
+      }
+    }
+
+    if (username == null) {
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+      return;
+    }
+
+    String id = UuidUtils.toUndashed(UuidUtils.generateOfflinePlayerUuid(username));
+    byte[] body = ("{\"id\":\"" + id + "\",\"name\":\"" + username + "\",\"properties\":[]}")
+        .getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+}
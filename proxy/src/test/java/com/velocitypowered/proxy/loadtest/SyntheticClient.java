@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.loadtest;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.crypto.IdentifiedKey;
+import com.velocitypowered.proxy.crypto.EncryptionUtils;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.packet.Disconnect;
+import com.velocitypowered.proxy.protocol.packet.EncryptionRequest;
+import com.velocitypowered.proxy.protocol.packet.EncryptionResponse;
+import com.velocitypowered.proxy.protocol.packet.Handshake;
+import com.velocitypowered.proxy.protocol.packet.JoinGame;
+import com.velocitypowered.proxy.protocol.packet.KeepAlive;
+import com.velocitypowered.proxy.protocol.packet.PluginMessage;
+import com.velocitypowered.proxy.protocol.packet.ServerLogin;
+import com.velocitypowered.proxy.protocol.packet.ServerLoginSuccess;
+import com.velocitypowered.proxy.protocol.packet.SetCompression;
+import com.velocitypowered.proxy.protocol.packet.chat.legacy.LegacyChat;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+
+/**
+ * A headless Minecraft client that logs into the proxy and then generates a steady stream of chat
+ * messages, plugin messages and server switches, recording how long each round trip takes.
+ */
+final class SyntheticClient extends ChannelInboundHandlerAdapter {
+
+  private static final ProtocolVersion VERSION = LoadTest.PROTOCOL_VERSION;
+  private static final long SWITCH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private final String username;
+  private final LoadTest.Settings settings;
+  private final LoadTestStats stats;
+  private final List<ScheduledFuture<?>> tasks = new ArrayList<>(3);
+  private Channel channel;
+  private long connectStart;
+  private long switchStart;
+  private boolean joined;
+  // Clients start on the first server in the try list, so the first switch goes to the second.
+  private int nextServer = 1;
+
+  SyntheticClient(String username, LoadTest.Settings settings, LoadTestStats stats) {
+    this.username = username;
+    this.settings = settings;
+    this.stats = stats;
+  }
+
+  /**
+   * Connects this client to the proxy.
+   *
+   * @param bootstrap a bootstrap with the channel type and event loop group already set
+   */
+  void connect(Bootstrap bootstrap) {
+    stats.connectAttempts.increment();
+    connectStart = System.nanoTime();
+    bootstrap.clone()
+        .handler(new ChannelInitializer<Channel>() {
+          @Override
+          protected void initChannel(Channel ch) {
+            LoadTestPipeline.init(ch, ProtocolUtils.Direction.CLIENTBOUND, SyntheticClient.this);
+          }
+        })
+        .connect(settings.proxy)
+        .addListener((ChannelFutureListener) future -> {
+          if (!future.isSuccess()) {
+            stats.failedLogins.increment();
+          }
+        });
+  }
+
+  @Override
+  public void channelActive(ChannelHandlerContext ctx) {
+    this.channel = ctx.channel();
+    LoadTestPipeline.setProtocolVersion(channel, VERSION);
+
+    Handshake handshake = new Handshake();
+    handshake.setProtocolVersion(VERSION);
+    handshake.setServerAddress(settings.proxy.getHostString());
+    handshake.setPort(settings.proxy.getPort());
+    handshake.setNextStatus(StateRegistry.LOGIN_ID);
+    channel.write(handshake, channel.voidPromise());
+    LoadTestPipeline.setState(channel, StateRegistry.LOGIN);
+    channel.writeAndFlush(new ServerLogin(username, (IdentifiedKey) null), channel.voidPromise());
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    try {
+      if (msg instanceof EncryptionRequest) {
+        handleEncryptionRequest((EncryptionRequest) msg);
+      } else if (msg instanceof SetCompression) {
+        LoadTestPipeline.enableCompression(channel, ((SetCompression) msg).getThreshold());
+      } else if (msg instanceof ServerLoginSuccess) {
+        LoadTestPipeline.setState(channel, StateRegistry.PLAY);
+      } else if (msg instanceof JoinGame) {
+        handleJoinGame();
+      } else if (msg instanceof KeepAlive) {
+        KeepAlive reply = new KeepAlive();
+        reply.setRandomId(((KeepAlive) msg).getRandomId());
+        channel.writeAndFlush(reply, channel.voidPromise());
+      } else if (msg instanceof LegacyChat) {
+        handleChat(((LegacyChat) msg).getMessage());
+      } else if (msg instanceof PluginMessage) {
+        PluginMessage message = (PluginMessage) msg;
+        if (message.getChannel().equals(FakeBackend.ECHO_CHANNEL)
+            && message.content().readableBytes() >= Long.BYTES) {
+          stats.pluginMessage.recordNanos(System.nanoTime() - message.content().readLong());
+        }
+      } else if (msg instanceof Disconnect) {
+        if (!joined) {
+          stats.failedLogins.increment();
+        }
+        channel.close();
+      }
+    } finally {
+      ReferenceCountUtil.release(msg);
+    }
+  }
+
+  private void handleEncryptionRequest(EncryptionRequest request)
+      throws GeneralSecurityException {
+    byte[] secret = new byte[16];
+    ThreadLocalRandom.current().nextBytes(secret);
+    PublicKey key = EncryptionUtils.parseRsaPublicKey(request.getPublicKey());
+    Cipher cipher = Cipher.getInstance("RSA/ECB/PKCS1Padding");
+    cipher.init(Cipher.ENCRYPT_MODE, key);
+    byte[] encryptedSecret = cipher.doFinal(secret);
+    cipher.init(Cipher.ENCRYPT_MODE, key);
+    byte[] encryptedToken = cipher.doFinal(request.getVerifyToken());
+
+    // The response itself is sent in the clear; everything after it is encrypted.
+    channel.writeAndFlush(new EncryptionResponse(encryptedSecret, encryptedToken),
+        channel.voidPromise());
+    LoadTestPipeline.enableEncryption(channel, secret);
+  }
+
+  private void handleJoinGame() {
+    long now = System.nanoTime();
+    if (!joined) {
+      joined = true;
+      stats.activeClients.increment();
+      stats.login.recordNanos(now - connectStart);
+      schedule(settings.chatIntervalMillis, this::sendChat);
+      schedule(settings.pluginMessageIntervalMillis, this::sendPluginMessage);
+      if (settings.servers.size() > 1) {
+        schedule(settings.switchIntervalMillis, this::switchServer);
+      }
+    } else if (switchStart != 0) {
+      stats.serverSwitch.recordNanos(now - switchStart);
+      switchStart = 0;
+    }
+  }
+
+  private void handleChat(String json) {
+    int start = json.indexOf(FakeBackend.CHAT_MARKER);
+    if (start < 0) {
+      return;
+    }
+    start += FakeBackend.CHAT_MARKER.length();
+    int end = start;
+    while (end < json.length() && Character.isDigit(json.charAt(end))) {
+      end++;
+    }
+    if (end > start) {
+      stats.chat.recordNanos(System.nanoTime() - Long.parseLong(json.substring(start, end)));
+    }
+  }
+
+  private void schedule(long intervalMillis, Runnable task) {
+    if (intervalMillis <= 0) {
+      return;
+    }
+    // Spread the first run over a whole interval so clients don't act in lockstep.
+    long initialDelay = ThreadLocalRandom.current().nextLong(intervalMillis) + 1;
+    tasks.add(channel.eventLoop().scheduleAtFixedRate(task, initialDelay, intervalMillis,
+        TimeUnit.MILLISECONDS));
+  }
+
+  private void sendChat() {
+    channel.writeAndFlush(new LegacyChat(FakeBackend.CHAT_MARKER + System.nanoTime(),
+        LegacyChat.CHAT_TYPE, null), channel.voidPromise());
+  }
+
+  private void sendPluginMessage() {
+    ByteBuf payload = Unpooled.buffer(Long.BYTES).writeLong(System.nanoTime());
+    channel.writeAndFlush(new PluginMessage(FakeBackend.ECHO_CHANNEL, payload),
+        channel.voidPromise());
+  }
+
+  private void switchServer() {
+    if (switchStart != 0) {
+      if (System.nanoTime() - switchStart < SWITCH_TIMEOUT_NANOS) {
+        // The previous switch hasn't completed yet.
+        return;
+      }
+      stats.errors.increment();
+    }
+    String target = settings.servers.get(nextServer++ % settings.servers.size());
+    switchStart = System.nanoTime();
+    channel.writeAndFlush(new LegacyChat("/server " + target, LegacyChat.CHAT_TYPE, null),
+        channel.voidPromise());
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) {
+    for (ScheduledFuture<?> task : tasks) {
+      task.cancel(false);
+    }
+    if (joined) {
+      stats.activeClients.decrement();
+    }
+    stats.disconnects.increment();
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+    stats.errors.increment();
+    ctx.close();
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionGateTest {
+
+  private VelocityConfiguration.ConnectionLimits limits;
+  private EventLoopLatencyMonitor latencyMonitor;
+  private ConnectionGate gate;
+  private EmbeddedChannel serverChannel;
+
+  @BeforeEach
+  void setUp() {
+    VelocityServer server = mock(VelocityServer.class);
+    VelocityConfiguration configuration = mock(VelocityConfiguration.class);
+    limits = mock(VelocityConfiguration.ConnectionLimits.class);
+    latencyMonitor = mock(EventLoopLatencyMonitor.class);
+    when(server.getConfiguration()).thenReturn(configuration);
+    when(configuration.getConnectionLimits()).thenReturn(limits);
+    gate = new ConnectionGate(server, latencyMonitor);
+    serverChannel = new EmbeddedChannel(gate);
+  }
+
+  private static EmbeddedChannel child(String address) {
+    SocketAddress remote = new InetSocketAddress(address, 25565);
+    return new EmbeddedChannel() {
+      @Override
+      protected SocketAddress remoteAddress0() {
+        return remote;
+      }
+    };
+  }
+
+  private boolean accept(Channel child) {
+    serverChannel.writeInbound(child);
+    return serverChannel.inboundMessages().remove(child);
+  }
+
+  @Test
+  void admitsAndReleasesConnections() {
+    EmbeddedChannel child = child("192.0.2.1");
+    assertTrue(accept(child));
+    assertEquals(1, gate.getOpenConnections());
+    assertEquals(1, gate.getPendingHandshakes());
+
+    gate.handshakeReceived(child);
+    assertEquals(0, gate.getPendingHandshakes());
+
+    child.close();
+    assertEquals(0, gate.getOpenConnections());
+    assertEquals(0, gate.getPendingHandshakes());
+  }
+
+  @Test
+  void rejectsOverMaxConnections() {
+    when(limits.getMaxConnections()).thenReturn(1);
+    EmbeddedChannel first = child("192.0.2.1");
+    EmbeddedChannel second = child("192.0.2.2");
+    assertTrue(accept(first));
+    assertFalse(accept(second));
+    assertFalse(second.isOpen());
+    assertEquals(1, gate.getRejected(ConnectionGate.Reason.MAX_CONNECTIONS));
+    assertEquals(1, gate.getOpenConnections());
+
+    first.close();
+    assertTrue(accept(child("192.0.2.2")));
+  }
+
+  @Test
+  void rejectsOverMaxPendingHandshakes() {
+    when(limits.getMaxPendingHandshakes()).thenReturn(1);
+    EmbeddedChannel first = child("192.0.2.1");
+    assertTrue(accept(first));
+    assertFalse(accept(child("192.0.2.2")));
+    assertEquals(1, gate.getRejected(ConnectionGate.Reason.MAX_PENDING_HANDSHAKES));
+    assertEquals(1, gate.getOpenConnections());
+
+    gate.handshakeReceived(first);
+    assertTrue(accept(child("192.0.2.2")));
+  }
+
+  @Test
+  void rejectsOverMaxConnectionsPerSubnet() {
+    when(limits.getMaxConnectionsPerSubnet()).thenReturn(1);
+    EmbeddedChannel first = child("192.0.2.1");
+    assertTrue(accept(first));
+    assertFalse(accept(child("192.0.2.2")));
+    assertTrue(accept(child("198.51.100.1")));
+    assertEquals(1, gate.getRejected(ConnectionGate.Reason.MAX_CONNECTIONS_PER_SUBNET));
+
+    first.close();
+    assertTrue(accept(child("192.0.2.2")));
+  }
+
+  @Test
+  void rejectsWhileOverloaded() {
+    when(limits.getOverloadThreshold()).thenReturn(100);
+    when(latencyMonitor.getMaxLagNanos()).thenReturn(TimeUnit.SECONDS.toNanos(1));
+    assertFalse(accept(child("192.0.2.1")));
+    assertEquals(1, gate.getRejected(ConnectionGate.Reason.OVERLOADED));
+    assertEquals(0, gate.getOpenConnections());
+
+    when(latencyMonitor.getMaxLagNanos()).thenReturn(0L);
+    assertTrue(accept(child("192.0.2.1")));
+  }
+
+  @Test
+  void releasesConnectionsThatFailToRegister() {
+    // Nothing after the gate registers this connection, as if the acceptor had failed to.
+    EmbeddedChannel unregistered = new EmbeddedChannel(false, false);
+    assertTrue(accept(unregistered));
+    assertEquals(0, gate.getOpenConnections());
+    assertEquals(0, gate.getPendingHandshakes());
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EventLoopLatencyMonitorTest {
+
+  private EventLoopGroup group;
+
+  @BeforeEach
+  void setUp() {
+    group = new DefaultEventLoopGroup(1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+  }
+
+  @Test
+  void reportsNoLagBeforeStarting() {
+    EventLoopLatencyMonitor monitor = new EventLoopLatencyMonitor("test", group);
+    assertEquals(1, monitor.getProbes().size());
+    assertEquals(0, monitor.getMaxLagNanos());
+  }
+
+  @Test
+  void reportsLagOfBlockedLoop() throws InterruptedException {
+    EventLoopLatencyMonitor monitor = new EventLoopLatencyMonitor("test", group);
+    monitor.start();
+
+    CountDownLatch release = new CountDownLatch(1);
+    group.execute(() -> {
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    // The probe is due 100ms after starting, so by now it is overdue by at least 200ms.
+    Thread.sleep(300);
+    assertTrue(monitor.getMaxLagNanos() >= TimeUnit.MILLISECONDS.toNanos(150));
+    release.countDown();
+
+    // Once the probe has run, it records the lag it saw and knows its thread.
+    EventLoopLatencyMonitor.Probe probe = monitor.getProbes().get(0);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (probe.getLagStatistics().getSampleCount() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(probe.getLagStatistics().getSampleCount() > 0);
+    assertNotNull(probe.getThread());
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.plugin.PluginContainer;
+import com.velocitypowered.api.plugin.PluginDescription;
+import com.velocitypowered.api.plugin.PluginManager;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.network.EventLoopLatencyMonitor.Probe;
+import com.velocitypowered.proxy.network.EventLoopWatchdog.StallReport;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EventLoopWatchdogTest {
+
+  private static final int THRESHOLD_MILLIS = 50;
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private EventLoopGroup group;
+  private VelocityConfiguration configuration;
+  private PluginManager pluginManager;
+  private Probe probe;
+  private EventLoopWatchdog watchdog;
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    group = new DefaultEventLoopGroup(1);
+    VelocityServer server = mock(VelocityServer.class);
+    configuration = mock(VelocityConfiguration.class);
+    pluginManager = mock(PluginManager.class);
+    when(server.getConfiguration()).thenReturn(configuration);
+    when(server.getPluginManager()).thenReturn(pluginManager);
+    when(configuration.getEventLoopStallThreshold()).thenReturn(THRESHOLD_MILLIS);
+
+    EventLoopLatencyMonitor monitor = new EventLoopLatencyMonitor("test", group);
+    monitor.start();
+    probe = monitor.getProbes().get(0);
+    watchdog = new EventLoopWatchdog(server, List.of(monitor));
+    // The watchdog can only report on a loop once the probe has learned its thread.
+    awaitCondition(() -> probe.getThread() != null);
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+  }
+
+  private static PluginContainer plugin(String id, Object instance) {
+    PluginContainer container = mock(PluginContainer.class);
+    PluginDescription description = () -> id;
+    when(container.getDescription()).thenReturn(description);
+    doReturn(Optional.of(instance)).when(container).getInstance();
+    return container;
+  }
+
+  private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean(), "timed out");
+  }
+
+  private void checkUntilStalled() throws InterruptedException {
+    awaitCondition(() -> {
+      watchdog.check();
+      return watchdog.getStallCount() > 0;
+    });
+  }
+
+  @Test
+  void reportsStuckLoopOnceAndBlamesPlugin() throws InterruptedException {
+    // Frames of java.lang.Thread sit below the plugin's, so the innermost match must win.
+    when(pluginManager.getPlugins()).thenReturn(List.of(
+        plugin("stalling", new StallingPlugin()), plugin("other", new Object())));
+    group.execute(() -> new StallingPlugin().stall(release));
+
+    checkUntilStalled();
+    List<StallReport> reports = watchdog.getRecentStalls();
+    assertEquals(1, reports.size());
+    StallReport report = reports.get(0);
+    assertEquals("test", report.getGroup());
+    assertEquals(probe.getThread().getName(), report.getThread());
+    assertEquals("stalling", report.getPlugin());
+    assertTrue(report.getStuckMillis() >= THRESHOLD_MILLIS);
+    assertTrue(report.getStackTrace().stream()
+        .anyMatch(element -> element.getClassName().equals(StallingPlugin.class.getName())));
+
+    // The same stall is only reported once, however long it lasts.
+    Thread.sleep(THRESHOLD_MILLIS * 2);
+    watchdog.check();
+    assertEquals(1, watchdog.getStallCount());
+
+    // Once the loop gets going again, a new stall is reported again.
+    long stuckRun = probe.getExpectedAt();
+    release.countDown();
+    awaitCondition(() -> probe.getExpectedAt() != stuckRun);
+    watchdog.check();
+    CountDownLatch again = new CountDownLatch(1);
+    group.execute(() -> new StallingPlugin().stall(again));
+    try {
+      awaitCondition(() -> {
+        watchdog.check();
+        return watchdog.getStallCount() > 1;
+      });
+    } finally {
+      again.countDown();
+    }
+    assertEquals(2, watchdog.getRecentStalls().size());
+  }
+
+  @Test
+  void reportsStallWithoutPlugin() throws InterruptedException {
+    when(pluginManager.getPlugins()).thenReturn(List.of());
+    group.execute(() -> new StallingPlugin().stall(release));
+
+    checkUntilStalled();
+    StallReport report = watchdog.getRecentStalls().get(0);
+    assertNull(report.getPlugin());
+    assertNotNull(report.getStackTrace());
+  }
+
+  @Test
+  void ignoresStallsWhenDisabled() throws InterruptedException {
+    when(configuration.getEventLoopStallThreshold()).thenReturn(0);
+    group.execute(() -> new StallingPlugin().stall(release));
+
+    Thread.sleep(THRESHOLD_MILLIS * 4);
+    watchdog.check();
+    assertEquals(0, watchdog.getStallCount());
+    assertTrue(watchdog.getRecentStalls().isEmpty());
+  }
+
+  @Test
+  void ignoresResponsiveLoop() throws InterruptedException {
+    when(pluginManager.getPlugins()).thenReturn(List.of());
+    for (int i = 0; i < 20; i++) {
+      watchdog.check();
+      Thread.sleep(10);
+    }
+    assertEquals(0, watchdog.getStallCount());
+  }
+
+  /**
+   * Stands in for a plugin that does blocking work on an event loop.
+   */
+  private static final class StallingPlugin {
+
+    void stall(CountDownLatch release) {
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
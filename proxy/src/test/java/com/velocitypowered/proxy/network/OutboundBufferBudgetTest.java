@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OutboundBufferBudgetTest {
+
+  private static final long MIB = 1L << 20;
+
+  private VelocityConfiguration configuration;
+  private final List<Player> players = new ArrayList<>();
+  private OutboundBufferBudget budget;
+
+  @BeforeEach
+  void setUp() {
+    VelocityServer server = mock(VelocityServer.class);
+    configuration = mock(VelocityConfiguration.class);
+    VelocityByteBufAllocator allocator = mock(VelocityByteBufAllocator.class);
+    when(server.getConfiguration()).thenReturn(configuration);
+    when(server.getAllPlayers()).thenReturn(players);
+    when(server.getByteBufAllocator()).thenReturn(allocator);
+    when(configuration.getMaxOutboundBuffer()).thenReturn(8);
+    budget = new OutboundBufferBudget(server);
+  }
+
+  private ChannelOutboundBuffer connect(long queued) {
+    ConnectedPlayer player = mock(ConnectedPlayer.class);
+    MinecraftConnection connection = mock(MinecraftConnection.class);
+    Channel channel = mock(Channel.class);
+    Channel.Unsafe unsafe = mock(Channel.Unsafe.class);
+    ChannelOutboundBuffer buffer = mock(ChannelOutboundBuffer.class);
+    when(player.getConnection()).thenReturn(connection);
+    when(connection.getChannel()).thenReturn(channel);
+    when(channel.unsafe()).thenReturn(unsafe);
+    when(unsafe.outboundBuffer()).thenReturn(buffer);
+    when(buffer.totalPendingWriteBytes()).thenReturn(queued);
+    players.add(player);
+    return buffer;
+  }
+
+  private MinecraftConnection connectionOf(int index) {
+    return ((ConnectedPlayer) players.get(index)).getConnection();
+  }
+
+  @Test
+  void addsUpQueuedData() {
+    connect(2 * MIB);
+    connect(MIB);
+    budget.check();
+
+    assertEquals(3 * MIB, budget.getPendingBytes());
+    assertEquals(8 * MIB, budget.getGlobalBudgetBytes());
+    assertFalse(budget.isUnderPressure());
+    assertEquals(0, budget.getEvictions());
+  }
+
+  @Test
+  void entersAndLeavesPressure() {
+    ChannelOutboundBuffer first = connect(3 * MIB);
+    ChannelOutboundBuffer second = connect(4 * MIB);
+    budget.check();
+    assertTrue(budget.isUnderPressure());
+    assertEquals(7 * MIB, budget.getPeakPendingBytes());
+
+    when(first.totalPendingWriteBytes()).thenReturn(MIB);
+    when(second.totalPendingWriteBytes()).thenReturn(MIB);
+    budget.check();
+    assertFalse(budget.isUnderPressure());
+    assertEquals(2 * MIB, budget.getPendingBytes());
+    assertEquals(7 * MIB, budget.getPeakPendingBytes());
+    assertEquals(0, budget.getEvictions());
+  }
+
+  @Test
+  void disconnectsLargestQueuesOverGlobalBudget() {
+    connect(3 * MIB);
+    connect(5 * MIB);
+    connect(2 * MIB);
+    budget.check();
+
+    verify(connectionOf(1)).close(true);
+    verify(connectionOf(0), never()).close(true);
+    verify(connectionOf(2), never()).close(true);
+    assertEquals(1, budget.getEvictions());
+    assertEquals(5 * MIB, budget.getPendingBytes());
+  }
+
+  @Test
+  void neverDisconnectsWithinWaterMarks() {
+    when(configuration.getMaxOutboundBuffer()).thenReturn(1);
+    connect(MIB / 2);
+    connect(MIB / 2);
+    connect(MIB / 2);
+    budget.check();
+
+    assertEquals(0, budget.getEvictions());
+  }
+
+  @Test
+  void perConnectionBudgetIsDisabledByDefault() {
+    connect(7 * MIB);
+    budget.check();
+
+    verify(connectionOf(0), never()).close(true);
+    assertEquals(0, budget.getEvictions());
+  }
+
+  @Test
+  void disconnectsConnectionsOverTheirOwnBudget() {
+    when(configuration.getMaxOutboundBufferPerConnection()).thenReturn(2);
+    connect(3 * MIB);
+    connect(MIB);
+    budget.check();
+
+    verify(connectionOf(0)).close(true);
+    verify(connectionOf(1), never()).close(true);
+    assertEquals(1, budget.getEvictions());
+    assertEquals(MIB, budget.getPendingBytes());
+  }
+
+  @Test
+  void globalBudgetCanBeDisabled() {
+    when(configuration.getMaxOutboundBuffer()).thenReturn(0);
+    connect(20 * MIB);
+    budget.check();
+
+    assertEquals(0, budget.getEvictions());
+    assertFalse(budget.isUnderPressure());
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RttHistogramTest {
+
+  @Test
+  void emptyHistogramReportsUnknown() {
+    RttHistogram histogram = new RttHistogram();
+    assertEquals(0, histogram.getSampleCount());
+    assertEquals(-1, histogram.getLastMillis());
+    assertEquals(-1, histogram.getPercentileMillis(50));
+  }
+
+  @Test
+  void percentilesAreWithinBucketPrecision() {
+    RttHistogram histogram = new RttHistogram();
+    for (int millis = 1; millis <= 100; millis++) {
+      histogram.recordMicros(millis * 1000L);
+    }
+
+    assertEquals(100, histogram.getSampleCount());
+    assertEquals(100, histogram.getLastMillis());
+    assertEquals(1, histogram.getMinMillis());
+    assertEquals(100, histogram.getMaxMillis());
+    assertEquals(50.5, histogram.getAverageMillis(), 0.001);
+    double median = histogram.getPercentileMillis(50);
+    assertTrue(median > 50 * 0.8 && median < 50 * 1.25, "median was " + median);
+    assertEquals(100, histogram.getPercentileMillis(100));
+  }
+
+  @Test
+  void mergeCombinesDistributions() {
+    RttHistogram fast = new RttHistogram();
+    RttHistogram slow = new RttHistogram();
+    fast.recordMicros(2_000);
+    slow.recordMicros(200_000);
+
+    RttHistogram combined = new RttHistogram();
+    combined.merge(fast);
+    combined.merge(slow);
+
+    assertEquals(2, combined.getSampleCount());
+    assertEquals(2, combined.getMinMillis());
+    assertEquals(200, combined.getMaxMillis());
+    assertEquals(200, combined.getLastMillis());
+  }
+}
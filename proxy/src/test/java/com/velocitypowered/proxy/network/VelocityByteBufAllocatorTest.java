@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+class VelocityByteBufAllocatorTest {
+
+  @Test
+  void oneArenaPerWorkerByDefault() {
+    VelocityByteBufAllocator allocator = VelocityByteBufAllocator.create(0, 2048, 6);
+    assertEquals(6, allocator.metric().numDirectArenas());
+
+    allocator = VelocityByteBufAllocator.create(3, 2048, 6);
+    assertEquals(3, allocator.metric().numDirectArenas());
+  }
+
+  @Test
+  void chunkSizeIsRoundedUpToPowerOfTwo() {
+    int pageSize = PooledByteBufAllocator.defaultPageSize();
+    assertEquals(2 << 20, VelocityByteBufAllocator.create(0, 2048, 1).getChunkSize());
+    assertEquals(2 << 20, VelocityByteBufAllocator.create(0, 1500, 1).getChunkSize());
+    assertEquals(pageSize, VelocityByteBufAllocator.create(0, 0, 1).getChunkSize());
+  }
+
+  @Test
+  void countsDirectRequests() {
+    VelocityByteBufAllocator allocator = VelocityByteBufAllocator.create(1, 2048, 1);
+    ByteBuf small = allocator.directBuffer(64);
+    ByteBuf huge = allocator.directBuffer(4 << 20);
+    small.release();
+    huge.release();
+    assertEquals(2, allocator.getDirectRequests());
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import io.netty.util.concurrent.EventExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ReadTimeoutWheelTest {
+
+  private static final long TICK = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final ReadTimeoutWheel wheel = new ReadTimeoutWheel(mock(EventExecutor.class), TICK, 8);
+
+  @Test
+  void expiresOnlyOnceDeadlinePasses() {
+    long start = System.nanoTime();
+    TestTimeout timeout = new TestTimeout(start + 5 * TICK);
+    wheel.add(timeout);
+
+    wheel.sweep(start + 3 * TICK);
+    assertFalse(timeout.expired);
+    wheel.sweep(start + 7 * TICK);
+    assertTrue(timeout.expired);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void movedDeadlineIsRescheduled() {
+    long start = System.nanoTime();
+    TestTimeout timeout = new TestTimeout(start + 2 * TICK);
+    wheel.add(timeout);
+
+    // Further out than one turn of the wheel.
+    timeout.deadline = start + 20 * TICK;
+    wheel.sweep(start + 4 * TICK);
+    assertFalse(timeout.expired);
+    wheel.sweep(start + 12 * TICK);
+    assertFalse(timeout.expired);
+    wheel.sweep(start + 22 * TICK);
+    assertTrue(timeout.expired);
+  }
+
+  @Test
+  void removedTimeoutNeverExpires() {
+    long start = System.nanoTime();
+    TestTimeout first = new TestTimeout(start + TICK);
+    TestTimeout second = new TestTimeout(start + TICK);
+    wheel.add(first);
+    wheel.add(second);
+    wheel.remove(first);
+    assertEquals(1, wheel.size());
+
+    wheel.sweep(start + 4 * TICK);
+    assertFalse(first.expired);
+    assertTrue(second.expired);
+  }
+
+  private static final class TestTimeout extends ReadTimeoutWheel.Timeout {
+
+    private long deadline;
+    private boolean expired;
+
+    private TestTimeout(long deadline) {
+      this.deadline = deadline;
+    }
+
+    @Override
+    protected long deadline(long now) {
+      return deadline;
+    }
+
+    @Override
+    protected void expired() {
+      expired = true;
+    }
+  }
+}
@@ -96,6 +96,17 @@ class PluginDependencyUtilsTest {
     assertThrows(IllegalStateException.class, () -> PluginDependencyUtils.sortCandidates(descs));
   }
 
+  @Test
+  void layerCandidatesTypical() throws Exception {
+    List<PluginDescription> plugins = PluginDependencyUtils.sortCandidates(ImmutableList.of(
+        HAS_DEPENDENCY_2, HAS_DEPENDENCY_3, NO_DEPENDENCY_2, HAS_DEPENDENCY_1, NO_DEPENDENCY));
+    List<List<PluginDescription>> expected = ImmutableList.of(
+        ImmutableList.of(NO_DEPENDENCY, NO_DEPENDENCY_2),
+        ImmutableList.of(HAS_DEPENDENCY_1, HAS_DEPENDENCY_3),
+        ImmutableList.of(HAS_DEPENDENCY_2));
+    assertEquals(expected, PluginDependencyUtils.layerCandidates(plugins));
+  }
+
   private static PluginDescription testDescription(String id, PluginDependency... dependencies) {
     return new VelocityPluginDescription(
         id, "tuxed", "0.1", null, null, ImmutableList.of(),
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.packet.chat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.proxy.config.ChatQueueOverflowMode;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+class ChatQueueTest {
+
+  private ConnectedPlayer player;
+  private MinecraftConnection playerConnection;
+  private MinecraftConnection serverConnection;
+
+  @BeforeEach
+  void setUp() {
+    player = mock(ConnectedPlayer.class);
+    playerConnection = mock(MinecraftConnection.class);
+    serverConnection = mock(MinecraftConnection.class);
+    VelocityServerConnection server = mock(VelocityServerConnection.class);
+    when(player.getConnection()).thenReturn(playerConnection);
+    when(playerConnection.eventLoop()).thenReturn(new EmbeddedChannel().eventLoop());
+    when(player.ensureAndGetCurrentServer()).thenReturn(server);
+    when(server.ensureConnected()).thenReturn(serverConnection);
+  }
+
+  @Test
+  void writesInQueuedOrder() {
+    ChatQueue queue = new ChatQueue(player, 0, ChatQueueOverflowMode.THROTTLE);
+    CompletableFuture<MinecraftPacket> first = new CompletableFuture<>();
+    CompletableFuture<MinecraftPacket> second = new CompletableFuture<>();
+    MinecraftPacket firstPacket = mock(MinecraftPacket.class);
+    MinecraftPacket secondPacket = mock(MinecraftPacket.class);
+    queue.queuePacket(first, Instant.ofEpochMilli(1));
+    queue.queuePacket(second, Instant.ofEpochMilli(2));
+
+    second.complete(secondPacket);
+    verify(serverConnection, never()).write(any());
+    first.complete(firstPacket);
+
+    InOrder order = inOrder(serverConnection);
+    order.verify(serverConnection).write(firstPacket);
+    order.verify(serverConnection).write(secondPacket);
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  void hijackUsesLastTimestamp() {
+    ChatQueue queue = new ChatQueue(player, 0, ChatQueueOverflowMode.THROTTLE);
+    CompletableFuture<MinecraftPacket> pending = new CompletableFuture<>();
+    queue.queuePacket(pending, Instant.ofEpochMilli(42));
+
+    MinecraftPacket hijacked = mock(MinecraftPacket.class);
+    Instant[] seen = new Instant[1];
+    queue.hijack("input", (instant, input) -> {
+      seen[0] = instant;
+      return hijacked;
+    });
+    assertEquals(Instant.ofEpochMilli(42), seen[0]);
+    verify(serverConnection, never()).write(any());
+
+    pending.completeExceptionally(new RuntimeException());
+    verify(serverConnection).write(hijacked);
+  }
+
+  @Test
+  void growsPastInitialCapacity() {
+    ChatQueue queue = new ChatQueue(player, 0, ChatQueueOverflowMode.THROTTLE);
+    CompletableFuture<MinecraftPacket> blocker = new CompletableFuture<>();
+    queue.queuePacket(blocker, Instant.EPOCH);
+    MinecraftPacket[] packets = new MinecraftPacket[20];
+    for (int i = 0; i < packets.length; i++) {
+      packets[i] = mock(MinecraftPacket.class);
+      queue.queuePacket(CompletableFuture.completedFuture(packets[i]), Instant.EPOCH);
+    }
+    assertEquals(21, queue.size());
+
+    blocker.complete(null);
+    InOrder order = inOrder(serverConnection);
+    for (MinecraftPacket packet : packets) {
+      order.verify(serverConnection).write(packet);
+    }
+  }
+
+  @Test
+  void throttlesAndResumesReading() {
+    ChatQueue queue = new ChatQueue(player, 2, ChatQueueOverflowMode.THROTTLE);
+    CompletableFuture<MinecraftPacket> first = new CompletableFuture<>();
+    CompletableFuture<MinecraftPacket> second = new CompletableFuture<>();
+    queue.queuePacket(first, Instant.EPOCH);
+    queue.queuePacket(second, Instant.EPOCH);
+    queue.queuePacket(new CompletableFuture<>(), Instant.EPOCH);
+    verify(playerConnection).setAutoReading(false);
+    assertEquals(3, queue.size());
+    assertTrue(queue.isThrottled());
+
+    first.complete(null);
+    verify(playerConnection, never()).setAutoReading(true);
+    second.complete(null);
+    verify(playerConnection).setAutoReading(true);
+    assertFalse(queue.isThrottled());
+  }
+
+  @Test
+  void dropsOverLimit() {
+    ChatQueue queue = new ChatQueue(player, 1, ChatQueueOverflowMode.DROP);
+    queue.queuePacket(new CompletableFuture<>(), Instant.EPOCH);
+    queue.queuePacket(new CompletableFuture<>(), Instant.EPOCH);
+    assertEquals(1, queue.size());
+    verify(player, never()).disconnect(any(Component.class));
+  }
+
+  @Test
+  void kicksOverLimit() {
+    ChatQueue queue = new ChatQueue(player, 1, ChatQueueOverflowMode.KICK);
+    queue.queuePacket(new CompletableFuture<>(), Instant.EPOCH);
+    queue.queuePacket(new CompletableFuture<>(), Instant.EPOCH);
+    assertEquals(1, queue.size());
+    verify(player).disconnect(any(Component.class));
+  }
+}
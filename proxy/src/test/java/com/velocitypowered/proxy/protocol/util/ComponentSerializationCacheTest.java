@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.junit.jupiter.api.Test;
+
+class ComponentSerializationCacheTest {
+
+  @Test
+  void reusesResultForSameInstance() {
+    ComponentSerializationCache cache =
+        new ComponentSerializationCache(GsonComponentSerializer.gson(), 1024);
+    Component component = Component.text("Hello", NamedTextColor.GOLD);
+    cache.share(component);
+
+    String first = cache.serialize(component);
+    assertEquals(GsonComponentSerializer.gson().serialize(component), first);
+    assertSame(first, cache.serialize(component));
+    assertEquals(1, cache.stats().hitCount());
+    assertEquals(1, cache.stats().missCount());
+  }
+
+  @Test
+  void matchesComponentsByIdentity() {
+    ComponentSerializationCache cache =
+        new ComponentSerializationCache(GsonComponentSerializer.gson(), 1024);
+    Component first = Component.text("Hello");
+    Component second = Component.text("Hello");
+    cache.share(first);
+    cache.share(second);
+    cache.serialize(first);
+    cache.serialize(second);
+    assertEquals(0, cache.stats().hitCount());
+    assertEquals(2, cache.stats().missCount());
+  }
+
+  @Test
+  void skipsComponentsThatAreNotShared() {
+    ComponentSerializationCache cache =
+        new ComponentSerializationCache(GsonComponentSerializer.gson(), 1024);
+    Component component = Component.text("Hello");
+    assertEquals(GsonComponentSerializer.gson().serialize(component),
+        cache.serialize(component));
+    cache.serialize(component);
+    assertEquals(0, cache.stats().requestCount());
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import java.util.List;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import net.kyori.adventure.nbt.IntArrayBinaryTag;
+import net.kyori.adventure.nbt.ListBinaryTag;
+import net.kyori.adventure.nbt.StringBinaryTag;
+import org.junit.jupiter.api.Test;
+
+class LazyCompoundTagTest {
+
+  private static final CompoundBinaryTag TAG = CompoundBinaryTag.builder()
+      .putString("name", "minecraft:overworld")
+      .putInt("id", 0)
+      .putDouble("coordinate_scale", 1.0)
+      .put("values", IntArrayBinaryTag.of(1, 2, 3))
+      .put("entries", ListBinaryTag.from(List.of(
+          StringBinaryTag.of("a"), StringBinaryTag.of("b"))))
+      .put("element", CompoundBinaryTag.builder().putBoolean("natural", true).build())
+      .build();
+
+  private static ByteBuf serialize(CompoundBinaryTag tag) {
+    ByteBuf buf = Unpooled.buffer();
+    LazyCompoundTag.of(tag).write(buf);
+    return buf;
+  }
+
+  @Test
+  void readsExactlyOneTagAndParsesOnDemand() {
+    ByteBuf buf = serialize(TAG);
+    int size = buf.readableBytes();
+    buf.writeByte(42);
+
+    LazyCompoundTag lazy = LazyCompoundTag.read(buf, size);
+    assertEquals(size, lazy.size());
+    assertEquals(42, buf.readByte());
+    assertEquals(TAG, lazy.tag());
+  }
+
+  @Test
+  void identicalTagsAreInterned() {
+    ByteBuf first = serialize(TAG);
+    ByteBuf second = serialize(TAG);
+    assertSame(LazyCompoundTag.read(first, Integer.MAX_VALUE),
+        LazyCompoundTag.read(second, Integer.MAX_VALUE));
+  }
+
+  @Test
+  void rejectsTruncatedAndOversizedTags() {
+    ByteBuf buf = serialize(TAG);
+    int size = buf.readableBytes();
+    assertThrows(DecoderException.class,
+        () -> LazyCompoundTag.read(buf.slice(0, size - 1), size));
+    assertThrows(DecoderException.class, () -> LazyCompoundTag.read(buf, size - 1));
+  }
+}
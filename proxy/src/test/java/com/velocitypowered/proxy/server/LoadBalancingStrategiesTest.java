@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.LoadBalancingStrategy;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LoadBalancingStrategiesTest {
+
+  private static final Player PLAYER = mock(Player.class);
+
+  private static VelocityRegisteredServer server(String name, int load) {
+    VelocityRegisteredServer server = new VelocityRegisteredServer(null,
+        new ServerInfo(name, InetSocketAddress.createUnresolved("localhost", 25565)));
+    for (int i = 0; i < load; i++) {
+      server.beginPendingConnection();
+    }
+    return server;
+  }
+
+  @Test
+  void orderedPicksFirstCandidate() {
+    RegisteredServer first = server("first", 10);
+    RegisteredServer second = server("second", 0);
+    assertSame(first, LoadBalancingStrategies.ORDERED.select(PLAYER, List.of(first, second)));
+  }
+
+  @Test
+  void leastConnectionsPicksEmptiestServer() {
+    RegisteredServer busy = server("busy", 10);
+    RegisteredServer quiet = server("quiet", 2);
+    assertSame(quiet,
+        LoadBalancingStrategies.LEAST_CONNECTIONS.select(PLAYER, List.of(busy, quiet)));
+  }
+
+  @Test
+  void weightedAccountsForCapacity() {
+    RegisteredServer big = server("big", 5);
+    RegisteredServer small = server("small", 2);
+    LoadBalancingStrategy strategy = LoadBalancingStrategies.weighted(Map.of("big", 4));
+    // big: (5 + 1) / 4 = 1.5, small: (2 + 1) / 1 = 3
+    assertSame(big, strategy.select(PLAYER, List.of(small, big)));
+  }
+
+  @Test
+  void lowestPingPrefersUnmeasuredThenFastestServer() {
+    VelocityRegisteredServer slow = server("slow", 0);
+    slow.recordRtt(40_000);
+    VelocityRegisteredServer fast = server("fast", 5);
+    fast.recordRtt(10_000);
+    VelocityRegisteredServer unmeasured = server("unmeasured", 10);
+    assertSame(fast, LoadBalancingStrategies.LOWEST_PING.select(PLAYER, List.of(slow, fast)));
+    assertSame(unmeasured,
+        LoadBalancingStrategies.LOWEST_PING.select(PLAYER, List.of(slow, fast, unmeasured)));
+  }
+
+  @Test
+  void smoothedRttConvergesOnRecentSamples() {
+    VelocityRegisteredServer server = server("server", 0);
+    assertEquals(-1, server.getSmoothedRttMicros());
+    server.recordRtt(80_000);
+    assertEquals(80_000, server.getSmoothedRttMicros());
+    for (int i = 0; i < 100; i++) {
+      server.recordRtt(8_000);
+    }
+    assertTrue(server.getSmoothedRttMicros() < 9_000, "old samples did not decay");
+  }
+
+  @Test
+  void powerOfTwoNeverPicksTheBusiestOfThree() {
+    RegisteredServer a = server("a", 0);
+    RegisteredServer b = server("b", 1);
+    RegisteredServer busiest = server("c", 100);
+    for (int i = 0; i < 100; i++) {
+      RegisteredServer chosen = LoadBalancingStrategies.POWER_OF_TWO.select(PLAYER,
+          List.of(a, b, busiest));
+      assertTrue(chosen != busiest, "chose the busiest server");
+    }
+  }
+
+  @Test
+  void invalidChoiceFallsBackToFirstCandidate() {
+    RegisteredServer first = server("first", 0);
+    RegisteredServer other = server("other", 0);
+    assertSame(first, LoadBalancingStrategies.select((player, candidates) -> other, PLAYER,
+        List.of(first)));
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.api.proxy.server.ServerHealth.Status;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VelocityServerHealthTest {
+
+  private static final long TEN_MILLIS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  @Test
+  void startsUnknownAndAvailable() {
+    VelocityServerHealth health = new VelocityServerHealth();
+    assertEquals(Status.UNKNOWN, health.getStatus());
+    assertTrue(health.isAvailable());
+    assertEquals(-1, health.getLatencyMillis());
+    assertFalse(health.getLastChecked().isPresent());
+  }
+
+  @Test
+  void marksDownOnlyAfterUnhealthyThreshold() {
+    VelocityServerHealth health = new VelocityServerHealth();
+    health.recordSuccess(TEN_MILLIS, 2);
+    assertEquals(Status.UP, health.getStatus());
+
+    health.recordFailure(3);
+    health.recordFailure(3);
+    assertEquals(Status.UP, health.getStatus());
+    health.recordFailure(3);
+    assertEquals(Status.DOWN, health.getStatus());
+    assertFalse(health.isAvailable());
+    assertEquals(3, health.getConsecutiveFailures());
+  }
+
+  @Test
+  void marksUpOnlyAfterHealthyThreshold() {
+    VelocityServerHealth health = new VelocityServerHealth();
+    health.recordFailure(1);
+    assertEquals(Status.DOWN, health.getStatus());
+
+    health.recordSuccess(TEN_MILLIS, 2);
+    assertEquals(Status.DOWN, health.getStatus());
+    assertEquals(0, health.getConsecutiveFailures());
+    health.recordSuccess(TEN_MILLIS, 2);
+    assertEquals(Status.UP, health.getStatus());
+  }
+
+  @Test
+  void failureResetsHealthyStreak() {
+    VelocityServerHealth health = new VelocityServerHealth();
+    health.recordFailure(1);
+    health.recordSuccess(TEN_MILLIS, 2);
+    health.recordFailure(1);
+    health.recordSuccess(TEN_MILLIS, 2);
+    assertEquals(Status.DOWN, health.getStatus());
+  }
+
+  @Test
+  void smoothsLatency() {
+    VelocityServerHealth health = new VelocityServerHealth();
+    health.recordSuccess(TEN_MILLIS, 1);
+    assertEquals(10, health.getLatencyMillis());
+    health.recordSuccess(TimeUnit.MILLISECONDS.toNanos(90), 1);
+    assertEquals(20, health.getLatencyMillis());
+  }
+
+  @Test
+  void probesAreExclusive() {
+    VelocityServerHealth health = new VelocityServerHealth();
+    assertTrue(health.tryBeginProbe());
+    assertFalse(health.tryBeginProbe());
+    health.recordFailure(3);
+    assertTrue(health.tryBeginProbe());
+  }
+}
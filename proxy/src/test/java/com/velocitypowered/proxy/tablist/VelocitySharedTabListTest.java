@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.tablist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.packet.RemovePlayerInfo;
+import com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfo;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class VelocitySharedTabListTest {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MINECRAFT_1_19_3;
+
+  private ScheduledExecutorService executor;
+  private VelocitySharedTabList tabList;
+  private ConnectedPlayer viewer;
+  private MinecraftConnection connection;
+  private final UUID first = UUID.randomUUID();
+  private final UUID second = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    executor = mock(ScheduledExecutorService.class);
+    tabList = new VelocitySharedTabList(executor);
+    viewer = mock(ConnectedPlayer.class);
+    connection = mock(MinecraftConnection.class);
+    when(viewer.getProtocolVersion()).thenReturn(VERSION);
+    when(viewer.getConnection()).thenReturn(connection);
+    when(connection.getProtocolVersion()).thenReturn(VERSION);
+    when(connection.getState()).thenReturn(StateRegistry.PLAY);
+    when(connection.getChannel()).thenReturn(new EmbeddedChannel());
+  }
+
+  private void putEntry(UUID id, String name) {
+    tabList.putEntry(new GameProfile(id, name, List.of()), null, 0, 0, true);
+  }
+
+  private void runFlush() {
+    ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor, atLeastOnce()).schedule(task.capture(), anyLong(), any(TimeUnit.class));
+    clearInvocations(executor);
+    task.getValue().run();
+  }
+
+  private List<UpsertPlayerInfo> writtenUpserts() {
+    ArgumentCaptor<Object> written = ArgumentCaptor.forClass(Object.class);
+    verify(connection, atLeastOnce()).delayedWrite(written.capture());
+    clearInvocations(connection);
+    List<UpsertPlayerInfo> upserts = new ArrayList<>();
+    for (Object message : written.getAllValues()) {
+      ByteBuf buf = (ByteBuf) message;
+      try {
+        ProtocolUtils.readVarInt(buf);
+        UpsertPlayerInfo packet = new UpsertPlayerInfo();
+        packet.decode(buf, ProtocolUtils.Direction.CLIENTBOUND, VERSION);
+        upserts.add(packet);
+      } finally {
+        buf.release();
+      }
+    }
+    return upserts;
+  }
+
+  @Test
+  void newViewerReceivesWholeTabList() {
+    putEntry(first, "first");
+    putEntry(second, "second");
+    tabList.addViewer(viewer);
+    runFlush();
+
+    List<UpsertPlayerInfo> upserts = writtenUpserts();
+    assertEquals(1, upserts.size());
+    assertEquals(2, upserts.get(0).getEntries().size());
+    assertTrue(upserts.get(0).containsAction(UpsertPlayerInfo.Action.ADD_PLAYER));
+    verify(connection).flush();
+  }
+
+  @Test
+  void upToDateViewerReceivesOnlyChanges() {
+    putEntry(first, "first");
+    putEntry(second, "second");
+    tabList.addViewer(viewer);
+    runFlush();
+    writtenUpserts();
+
+    tabList.setLatency(first, 10);
+    tabList.setLatency(first, 20);
+    runFlush();
+
+    List<UpsertPlayerInfo> upserts = writtenUpserts();
+    assertEquals(1, upserts.size());
+    UpsertPlayerInfo update = upserts.get(0);
+    assertEquals(EnumSet.of(UpsertPlayerInfo.Action.UPDATE_LATENCY), update.getActions());
+    assertEquals(1, update.getEntries().size());
+    assertEquals(20, update.getEntries().get(0).getLatency());
+  }
+
+  @Test
+  void removedViewerIsSentRemovals() {
+    putEntry(first, "first");
+    putEntry(second, "second");
+    tabList.addViewer(viewer);
+    runFlush();
+
+    writtenUpserts();
+
+    tabList.removeViewer(viewer);
+    runFlush();
+    ArgumentCaptor<RemovePlayerInfo> removal = ArgumentCaptor.forClass(RemovePlayerInfo.class);
+    verify(connection).delayedWrite(removal.capture());
+    assertEquals(List.of(first, second), List.copyOf(removal.getValue().getProfilesToRemove()));
+  }
+
+  @Test
+  void removedViewerIsNotSentLaterChanges() {
+    putEntry(first, "first");
+    tabList.addViewer(viewer);
+    runFlush();
+    writtenUpserts();
+
+    // The change is collected by the same flush that sends the removals, so it must not reach
+    // the viewer after them.
+    tabList.setLatency(first, 10);
+    tabList.removeViewer(viewer);
+    runFlush();
+
+    ArgumentCaptor<Object> written = ArgumentCaptor.forClass(Object.class);
+    verify(connection).delayedWrite(written.capture());
+    assertTrue(written.getValue() instanceof RemovePlayerInfo);
+    verify(connection, never()).write(any());
+  }
+
+  @Test
+  void displayNameOverridesAreSentWithTheNextFlush() {
+    putEntry(first, "first");
+    tabList.addViewer(viewer);
+    runFlush();
+    writtenUpserts();
+
+    tabList.setDisplayNameOverride(viewer, first, Component.text("override"));
+    verify(connection, never()).write(any());
+    runFlush();
+
+    ArgumentCaptor<UpsertPlayerInfo> update = ArgumentCaptor.forClass(UpsertPlayerInfo.class);
+    verify(connection).delayedWrite(update.capture());
+    assertEquals(EnumSet.of(UpsertPlayerInfo.Action.UPDATE_DISPLAY_NAME),
+        update.getValue().getActions());
+    assertEquals(Component.text("override"),
+        update.getValue().getEntries().get(0).getDisplayName());
+  }
+
+  @Test
+  void changesAreNotBlockedWhileSending() {
+    putEntry(first, "first");
+    tabList.addViewer(viewer);
+
+    // Change the tab list from another thread while the flush is sending to the viewer. If the
+    // tab list were still locked, this would time out.
+    AtomicBoolean changed = new AtomicBoolean();
+    doAnswer(invocation -> {
+      CompletableFuture.runAsync(() -> tabList.setLatency(first, 5)).get(5, TimeUnit.SECONDS);
+      changed.set(true);
+      return null;
+    }).when(connection).flush();
+    runFlush();
+
+    assertTrue(changed.get());
+    writtenUpserts();
+  }
+}
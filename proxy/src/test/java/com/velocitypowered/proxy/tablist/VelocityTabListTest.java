@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.tablist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.proxy.player.TabListEntry;
+import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfo;
+import io.netty.channel.EventLoop;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class VelocityTabListTest {
+
+  private MinecraftConnection connection;
+  private EventLoop eventLoop;
+  private VelocityTabList tabList;
+
+  @BeforeEach
+  void setUp() {
+    ConnectedPlayer player = mock(ConnectedPlayer.class);
+    connection = mock(MinecraftConnection.class);
+    eventLoop = mock(EventLoop.class);
+    when(player.getConnection()).thenReturn(connection);
+    when(connection.eventLoop()).thenReturn(eventLoop);
+    tabList = new VelocityTabList(player);
+  }
+
+  private TabListEntry entry(String name) {
+    GameProfile profile = new GameProfile(UUID.randomUUID(), name, List.of());
+    return tabList.buildEntry(profile, null, 0, 0, null, true);
+  }
+
+  private Runnable scheduledFlush() {
+    ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+    verify(eventLoop).execute(task.capture());
+    return task.getValue();
+  }
+
+  private List<UpsertPlayerInfo> written(int count) {
+    ArgumentCaptor<UpsertPlayerInfo> packets = ArgumentCaptor.forClass(UpsertPlayerInfo.class);
+    verify(connection, times(count)).delayedWrite(packets.capture());
+    return packets.getAllValues();
+  }
+
+  @Test
+  void flushesOnceAtEndOfTick() {
+    tabList.addEntry(entry("first"));
+    tabList.addEntry(entry("second"));
+
+    // Nothing is sent until the scheduled flush runs, and only one flush is scheduled.
+    verify(connection, never()).delayedWrite(any());
+    Runnable flush = scheduledFlush();
+    flush.run();
+
+    List<UpsertPlayerInfo> packets = written(1);
+    assertEquals(2, packets.get(0).getEntries().size());
+    verify(connection).flush();
+  }
+
+  @Test
+  void mergesChangesToTheSameEntry() {
+    TabListEntry entry = entry("player");
+    tabList.addEntry(entry);
+    entry.setLatency(42);
+    entry.setGameMode(3);
+    scheduledFlush().run();
+
+    List<UpsertPlayerInfo> packets = written(1);
+    UpsertPlayerInfo packet = packets.get(0);
+    assertEquals(1, packet.getEntries().size());
+    assertEquals(EnumSet.of(UpsertPlayerInfo.Action.ADD_PLAYER,
+        UpsertPlayerInfo.Action.UPDATE_LATENCY, UpsertPlayerInfo.Action.UPDATE_LISTED,
+        UpsertPlayerInfo.Action.UPDATE_GAME_MODE), packet.getActions());
+    assertEquals(42, packet.getEntries().get(0).getLatency());
+    assertEquals(3, packet.getEntries().get(0).getGameMode());
+  }
+
+  @Test
+  void groupsEntriesByActions() {
+    TabListEntry first = entry("first");
+    TabListEntry second = entry("second");
+    tabList.addEntry(first);
+    tabList.addEntry(second);
+    scheduledFlush().run();
+
+    first.setLatency(10);
+    second.setLatency(20);
+    tabList.flushPendingUpdates();
+
+    List<UpsertPlayerInfo> packets = written(2);
+    UpsertPlayerInfo update = packets.get(1);
+    assertEquals(EnumSet.of(UpsertPlayerInfo.Action.UPDATE_LATENCY), update.getActions());
+    assertEquals(2, update.getEntries().size());
+  }
+
+  @Test
+  void batchFlushesWhenDone() {
+    tabList.batch(list -> {
+      list.addEntry(entry("first"));
+      list.addEntry(entry("second"));
+      verify(connection, never()).delayedWrite(any());
+    });
+
+    verify(eventLoop, never()).execute(any());
+    assertEquals(2, written(1).get(0).getEntries().size());
+    verify(connection).flush();
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.translation.GlobalTranslator;
+import net.kyori.adventure.translation.TranslationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TranslationCacheTest {
+
+  private static final String KEY = "velocity.test.translation-cache";
+
+  private TranslationRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = TranslationRegistry.create(Key.key("velocity", "translation-cache-test"));
+    registry.register(KEY, Locale.US, new MessageFormat("first", Locale.US));
+    GlobalTranslator.translator().addSource(registry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    GlobalTranslator.translator().removeSource(registry);
+  }
+
+  @Test
+  void reusesRenderedComponents() {
+    TranslationCache cache = new TranslationCache();
+    Component message = Component.translatable(KEY);
+
+    Component first = cache.render(message, Locale.US);
+    Component second = cache.render(Component.translatable(KEY), Locale.US);
+
+    assertEquals(Component.text("first"), first);
+    assertSame(first, second);
+    assertEquals(1, cache.stats().hitCount());
+    assertEquals(1, cache.stats().missCount());
+  }
+
+  @Test
+  void rendersAgainAfterInvalidation() {
+    TranslationCache cache = new TranslationCache();
+    Component message = Component.translatable(KEY);
+    assertEquals(Component.text("first"), cache.render(message, Locale.US));
+
+    // replace the source, which leaves the number of sources unchanged
+    GlobalTranslator.translator().removeSource(registry);
+    registry = TranslationRegistry.create(Key.key("velocity", "translation-cache-test"));
+    registry.register(KEY, Locale.US, new MessageFormat("second", Locale.US));
+    GlobalTranslator.translator().addSource(registry);
+    cache.invalidateAll();
+
+    assertEquals(Component.text("second"), cache.render(message, Locale.US));
+  }
+
+  @Test
+  void keepsLocalesApart() {
+    registry.register(KEY, Locale.GERMANY, new MessageFormat("erste", Locale.GERMANY));
+    TranslationCache cache = new TranslationCache();
+    Component message = Component.translatable(KEY);
+
+    assertEquals(Component.text("first"), cache.render(message, Locale.US));
+    assertEquals(Component.text("erste"), cache.render(message, Locale.GERMANY));
+  }
+
+  @Test
+  void returnsComponentsWithoutTranslationsUncached() {
+    TranslationCache cache = new TranslationCache();
+    Component message = Component.text("Hello, ").append(Component.text("world"));
+
+    assertSame(message, cache.render(message, Locale.US));
+    assertEquals(0, cache.stats().requestCount());
+  }
+
+  @Test
+  void findsNestedTranslatableComponents() {
+    assertFalse(TranslationCache.containsTranslatable(Component.text("plain")));
+    assertTrue(TranslationCache.containsTranslatable(
+        Component.text("outer").append(Component.text("inner").append(
+            Component.translatable(KEY)))));
+    assertTrue(TranslationCache.containsTranslatable(Component.text("hover")
+        .hoverEvent(HoverEvent.showText(Component.translatable(KEY)))));
+
+    TranslationCache cache = new TranslationCache();
+    Component nested = Component.text("You said: ").append(Component.translatable(KEY));
+    assertEquals(Component.text("You said: ").append(Component.text("first")),
+        cache.render(nested, Locale.US));
+    assertEquals(1, cache.stats().missCount());
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.bossbar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AdventureBossBarManagerTest {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MINECRAFT_1_20_2;
+
+  private ScheduledExecutorService executor;
+  private AdventureBossBarManager manager;
+  private EventLoop loop;
+  private final List<Runnable> loopTasks = new ArrayList<>();
+  private BossBar bar;
+
+  @BeforeEach
+  void setUp() {
+    executor = mock(ScheduledExecutorService.class);
+    manager = new AdventureBossBarManager(executor);
+    loop = mock(EventLoop.class);
+    doAnswer(invocation -> loopTasks.add(invocation.getArgument(0)))
+        .when(loop).execute(any(Runnable.class));
+    bar = BossBar.bossBar(Component.text("bar"), 0.5f, BossBar.Color.RED,
+        BossBar.Overlay.PROGRESS);
+  }
+
+  private ConnectedPlayer player() {
+    ConnectedPlayer player = mock(ConnectedPlayer.class);
+    MinecraftConnection connection = mock(MinecraftConnection.class);
+    when(player.getConnection()).thenReturn(connection);
+    when(player.getProtocolVersion()).thenReturn(VERSION);
+    when(player.translateMessage(any(Component.class))).then(returnsFirstArg());
+    when(connection.eventLoop()).thenReturn(loop);
+    when(connection.getProtocolVersion()).thenReturn(VERSION);
+    when(connection.getState()).thenReturn(StateRegistry.PLAY);
+    when(connection.getChannel()).thenReturn(new EmbeddedChannel());
+    return player;
+  }
+
+  private void runLoopTasks() {
+    List<Runnable> tasks = new ArrayList<>(loopTasks);
+    loopTasks.clear();
+    tasks.forEach(Runnable::run);
+  }
+
+  private void runFlush() {
+    ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor, atLeastOnce()).schedule(task.capture(), anyLong(), any(TimeUnit.class));
+    clearInvocations(executor);
+    task.getValue().run();
+  }
+
+  private static List<com.velocitypowered.proxy.protocol.packet.BossBar> written(
+      ConnectedPlayer player) {
+    ArgumentCaptor<Object> written = ArgumentCaptor.forClass(Object.class);
+    verify(player.getConnection(), atLeastOnce()).delayedWrite(written.capture());
+    List<com.velocitypowered.proxy.protocol.packet.BossBar> packets = new ArrayList<>();
+    for (Object message : written.getAllValues()) {
+      ByteBuf buf = (ByteBuf) message;
+      try {
+        ProtocolUtils.readVarInt(buf);
+        com.velocitypowered.proxy.protocol.packet.BossBar packet =
+            new com.velocitypowered.proxy.protocol.packet.BossBar();
+        packet.decode(buf, ProtocolUtils.Direction.CLIENTBOUND, VERSION);
+        packets.add(packet);
+      } finally {
+        buf.release();
+      }
+    }
+    return packets;
+  }
+
+  private static com.velocitypowered.proxy.protocol.packet.BossBar sent(ConnectedPlayer player) {
+    ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+    verify(player.getConnection(), atLeastOnce()).write(sent.capture());
+    return (com.velocitypowered.proxy.protocol.packet.BossBar) sent.getValue();
+  }
+
+  @Test
+  void showsBarOnPlayersEventLoop() {
+    ConnectedPlayer player = player();
+    manager.addBossBar(player, bar);
+    verify(player.getConnection(), never()).write(any());
+
+    runLoopTasks();
+    com.velocitypowered.proxy.protocol.packet.BossBar add = sent(player);
+    assertEquals(com.velocitypowered.proxy.protocol.packet.BossBar.ADD, add.getAction());
+    assertEquals(0.5f, add.getPercent());
+  }
+
+  @Test
+  void coalescesChangesWithinATick() {
+    ConnectedPlayer player = player();
+    manager.addBossBar(player, bar);
+    runLoopTasks();
+
+    bar.progress(0.25f);
+    bar.progress(0.75f);
+    bar.name(Component.text("first"));
+    bar.name(Component.text("second"));
+    verify(executor, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    runFlush();
+    runLoopTasks();
+
+    List<com.velocitypowered.proxy.protocol.packet.BossBar> packets = written(player);
+    assertEquals(2, packets.size());
+    assertEquals(com.velocitypowered.proxy.protocol.packet.BossBar.UPDATE_NAME,
+        packets.get(0).getAction());
+    assertTrue(packets.get(0).getName().contains("second"));
+    assertEquals(com.velocitypowered.proxy.protocol.packet.BossBar.UPDATE_PERCENT,
+        packets.get(1).getAction());
+    assertEquals(0.75f, packets.get(1).getPercent());
+    verify(player.getConnection(), times(1)).flush();
+  }
+
+  @Test
+  void translatesNamesOnPlayersEventLoop() {
+    ConnectedPlayer player = player();
+    manager.addBossBar(player, bar);
+    runLoopTasks();
+    clearInvocations(player);
+
+    bar.name(Component.text("renamed"));
+    runFlush();
+    verify(player, never()).translateMessage(any(Component.class));
+
+    runLoopTasks();
+    verify(player).translateMessage(Component.text("renamed"));
+    assertTrue(written(player).get(0).getName().contains("renamed"));
+  }
+
+  @Test
+  void writesEachEventLoopInOneTask() {
+    ConnectedPlayer first = player();
+    ConnectedPlayer second = player();
+    manager.addBossBar(first, bar);
+    manager.addBossBar(second, bar);
+    runLoopTasks();
+
+    bar.progress(0.25f);
+    runFlush();
+    assertEquals(1, loopTasks.size());
+    runLoopTasks();
+
+    assertEquals(0.25f, written(first).get(0).getPercent());
+    assertEquals(0.25f, written(second).get(0).getPercent());
+  }
+
+  @Test
+  void doesNotSendUpdateAfterRemoval() {
+    ConnectedPlayer player = player();
+    manager.addBossBar(player, bar);
+    runLoopTasks();
+
+    bar.progress(0.25f);
+    runFlush();
+    // The bar is removed on the player's event loop before the update task gets to run.
+    when(loop.inEventLoop()).thenReturn(true);
+    manager.removeBossBar(player, bar);
+    assertEquals(com.velocitypowered.proxy.protocol.packet.BossBar.REMOVE,
+        sent(player).getAction());
+    runLoopTasks();
+
+    verify(player.getConnection(), never()).delayedWrite(any());
+    verify(player.getConnection(), never()).flush();
+  }
+
+  @Test
+  void doesNotSendUpdateBeforeBarIsShown() {
+    ConnectedPlayer player = player();
+    bar.progress(0.25f);
+    manager.addBossBar(player, bar);
+    bar.progress(0.75f);
+    runFlush();
+
+    // The update was prepared after the player subscribed, but runs before the bar is shown.
+    Runnable add = loopTasks.remove(0);
+    runLoopTasks();
+    verify(player.getConnection(), never()).delayedWrite(any());
+
+    add.run();
+    assertEquals(0.75f, sent(player).getPercent());
+  }
+
+  @Test
+  void resubscribingBeforeRemovalKeepsBarShown() {
+    ConnectedPlayer player = player();
+    manager.addBossBar(player, bar);
+    runLoopTasks();
+    clearInvocations(player.getConnection());
+
+    manager.removeBossBar(player, bar);
+    manager.addBossBar(player, bar);
+    runLoopTasks();
+    verify(player.getConnection(), never()).write(any());
+
+    bar.progress(0.25f);
+    runFlush();
+    runLoopTasks();
+    assertEquals(0.25f, written(player).get(0).getPercent());
+  }
+}
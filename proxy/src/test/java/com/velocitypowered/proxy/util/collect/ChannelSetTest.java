@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.collect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import com.velocitypowered.proxy.util.ChannelIdTable;
+import java.util.Iterator;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ChannelSetTest {
+
+  @Test
+  void sharesChannelIds() {
+    ChannelIdTable table = new ChannelIdTable();
+    ChannelSet first = new ChannelSet(table, 16);
+    ChannelSet second = new ChannelSet(table, 16);
+    assertTrue(first.internAll(ImmutableSet.of("velocity:a", "velocity:b")));
+    assertTrue(second.add("velocity:b"));
+
+    assertEquals(2, table.size(), "channel names were not shared");
+    assertEquals(ImmutableSet.of("velocity:a", "velocity:b"), first);
+    assertEquals(ImmutableSet.of("velocity:b"), second);
+    assertFalse(second.contains("velocity:a"));
+  }
+
+  @Test
+  void enforcesUpperSize() {
+    Set<String> channels = new ChannelSet(new ChannelIdTable(), 2);
+    assertTrue(channels.addAll(ImmutableSet.of("velocity:a", "velocity:b")));
+    assertFalse(channels.add("velocity:a"), "added a channel twice");
+    assertThrows(IllegalStateException.class, () -> channels.add("velocity:c"),
+        "channel was added to set although it is too full");
+    assertEquals(2, channels.size(), "set grew in size unexpectedly");
+  }
+
+  @Test
+  void removesChannels() {
+    Set<String> channels = new ChannelSet(new ChannelIdTable(), 256);
+    for (int i = 0; i < 200; i++) {
+      channels.add("velocity:channel" + i);
+    }
+    assertTrue(channels.removeAll(ImmutableSet.of("velocity:channel0", "velocity:channel150")));
+    assertFalse(channels.remove("velocity:unknown"));
+
+    Iterator<String> iterator = channels.iterator();
+    assertEquals("velocity:channel1", iterator.next());
+    iterator.remove();
+    assertEquals(197, channels.size());
+    assertFalse(channels.contains("velocity:channel1"));
+    assertTrue(channels.contains("velocity:channel199"));
+  }
+
+  @Test
+  void storesChannelsByNameOnceTableIsFull() {
+    ChannelIdTable table = new ChannelIdTable(1);
+    ChannelSet channels = new ChannelSet(table, 16);
+    assertTrue(channels.internAll(ImmutableSet.of("velocity:a", "velocity:b")));
+    assertEquals(1, table.size());
+
+    assertEquals(ImmutableSet.of("velocity:a", "velocity:b"), channels);
+    assertTrue(channels.remove("velocity:b"));
+    assertEquals(ImmutableSet.of("velocity:a"), channels);
+  }
+
+  @Test
+  void clientChannelsDoNotGrowTable() {
+    ChannelIdTable table = new ChannelIdTable();
+    table.intern("velocity:shared");
+    for (int player = 0; player < 100; player++) {
+      Set<String> channels = new ChannelSet(table, 1024);
+      for (int i = 0; i < 1024; i++) {
+        channels.add("flood:" + player + "_" + i);
+      }
+      channels.add("velocity:shared");
+    }
+    assertEquals(1, table.size());
+  }
+
+  @Test
+  void findsChannelsAddedBeforeTheyWereInterned() {
+    ChannelIdTable table = new ChannelIdTable();
+    ChannelSet channels = new ChannelSet(table, 16);
+    assertTrue(channels.add("velocity:a"));
+    table.intern("velocity:a");
+
+    assertTrue(channels.contains("velocity:a"));
+    assertFalse(channels.internAll(ImmutableSet.of("velocity:a")), "added a channel twice");
+    assertEquals(1, channels.size());
+    assertTrue(channels.remove("velocity:a"));
+    assertTrue(channels.isEmpty());
+  }
+
+  @Test
+  void doesNotInternLongNames() {
+    ChannelIdTable table = new ChannelIdTable();
+    assertEquals(ChannelIdTable.NO_ID, table.intern("velocity:" + "a".repeat(1024)));
+    assertEquals(0, table.size());
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.collect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.proxy.Player;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+class PlayerListSnapshotTest {
+
+  private static Player player(String name) {
+    Player player = mock(Player.class);
+    when(player.getUsername()).thenReturn(name);
+    return player;
+  }
+
+  @Test
+  void snapshotIsReusedUntilInvalidated() {
+    Map<UUID, Player> players = new ConcurrentHashMap<>();
+    PlayerListSnapshot snapshot = new PlayerListSnapshot(players.values());
+
+    players.put(UUID.randomUUID(), player("Notch"));
+    snapshot.invalidate();
+
+    ImmutableList<Player> first = snapshot.players();
+    assertEquals(1, first.size());
+    assertSame(first, snapshot.players(), "snapshot was rebuilt without a membership change");
+    assertEquals(ImmutableList.of("Notch"), snapshot.names());
+
+    players.put(UUID.randomUUID(), player("jeb_"));
+    snapshot.invalidate();
+
+    ImmutableList<Player> second = snapshot.players();
+    assertNotSame(first, second, "snapshot was not rebuilt after a membership change");
+    assertEquals(2, second.size());
+    assertEquals(2, snapshot.names().size());
+  }
+
+  @Test
+  void versionIsBumpedOnInvalidation() {
+    PlayerListSnapshot snapshot = new PlayerListSnapshot(ImmutableList.of());
+    long initial = snapshot.version();
+    snapshot.invalidate();
+    assertEquals(initial + 1, snapshot.version());
+    assertEquals(0, snapshot.players().size());
+  }
+}
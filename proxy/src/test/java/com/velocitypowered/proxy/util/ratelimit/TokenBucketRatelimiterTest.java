@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRatelimiterTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  void allowsBurstThenRefills() throws UnknownHostException {
+    AtomicLong now = new AtomicLong(System.nanoTime());
+    TokenBucketRatelimiter ratelimiter = new TokenBucketRatelimiter(SECOND, 3,
+        RatelimitKey.ADDRESS, now::get);
+    InetAddress address = InetAddress.getByName("192.0.2.1");
+
+    assertTrue(ratelimiter.attempt(address));
+    assertTrue(ratelimiter.attempt(address));
+    assertTrue(ratelimiter.attempt(address));
+    assertFalse(ratelimiter.attempt(address));
+
+    now.addAndGet(SECOND);
+    assertTrue(ratelimiter.attempt(address));
+    assertFalse(ratelimiter.attempt(address));
+
+    now.addAndGet(3 * SECOND);
+    assertTrue(ratelimiter.attempt(address));
+    assertTrue(ratelimiter.attempt(address));
+    assertTrue(ratelimiter.attempt(address));
+    assertFalse(ratelimiter.attempt(address));
+  }
+
+  @Test
+  void limitsAddressesSeparately() throws UnknownHostException {
+    Ticker ticker = () -> 0;
+    TokenBucketRatelimiter ratelimiter = new TokenBucketRatelimiter(SECOND, 1,
+        RatelimitKey.ADDRESS, ticker);
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("192.0.2.1")));
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("192.0.2.2")));
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("2001:db8::1")));
+    assertFalse(ratelimiter.attempt(InetAddress.getByName("2001:db8::1")));
+  }
+
+  @Test
+  void limitsSubnetsTogether() throws UnknownHostException {
+    Ticker ticker = () -> 0;
+    TokenBucketRatelimiter ratelimiter = new TokenBucketRatelimiter(SECOND, 1,
+        RatelimitKey.SUBNET, ticker);
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("192.0.2.1")));
+    assertFalse(ratelimiter.attempt(InetAddress.getByName("192.0.2.200")));
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("192.0.3.1")));
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("2001:db8:0:1::1")));
+    assertFalse(ratelimiter.attempt(InetAddress.getByName("2001:db8:0:1:ffff::1")));
+  }
+
+  @Test
+  void clampsVeryHighRates() throws UnknownHostException {
+    Ratelimiter ratelimiter = Ratelimiters.createPerSecond(Integer.MAX_VALUE, 1,
+        RatelimitKey.ADDRESS);
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("192.0.2.1")));
+  }
+
+  @Test
+  void keysAreNeverZero() throws UnknownHostException {
+    assertNotEquals(0, RatelimitKey.ADDRESS.of(InetAddress.getByName("0.0.0.0")));
+    assertNotEquals(0, RatelimitKey.SUBNET.of(InetAddress.getByName("::")));
+  }
+
+  @Test
+  void dropsExpiredEntriesWhenGrowing() throws UnknownHostException {
+    AtomicLong now = new AtomicLong();
+    TokenBucketRatelimiter ratelimiter = new TokenBucketRatelimiter(SECOND, 1,
+        RatelimitKey.ADDRESS, now::get);
+    for (int i = 0; i < 10_000; i++) {
+      ratelimiter.attempt(InetAddress.getByAddress(new byte[] {10, 0, (byte) (i >> 8), (byte) i}));
+      now.addAndGet(SECOND / 100);
+    }
+    // Only the addresses seen in the last second are still limited.
+    assertTrue(ratelimiter.size() < 1_000);
+    assertTrue(ratelimiter.attempt(InetAddress.getByName("10.0.0.0")));
+  }
+}